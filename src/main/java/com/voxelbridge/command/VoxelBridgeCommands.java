@@ -27,6 +27,7 @@ import com.voxelbridge.voxy.client.core.model.ColourDepthTextureData;
 import com.voxelbridge.voxy.client.core.model.TextureUtils;
 import com.voxelbridge.export.texture.TextureLoader;
 import com.voxelbridge.voxy.common.world.other.Mapper;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.tree.CommandNode;
 import javax.imageio.ImageIO;
@@ -118,6 +119,10 @@ public final class VoxelBridgeCommands {
             ctx.getSource().sendSystemMessage(Component.literal("e  Atlas mode: f" + ExportRuntimeConfig.getAtlasMode().getDescription()));
             ctx.getSource().sendSystemMessage(Component.literal("e  Atlas size: f" + ExportRuntimeConfig.getAtlasSize().getDescription()));
             ctx.getSource().sendSystemMessage(Component.literal("e  Atlas padding: f" + ExportRuntimeConfig.getAtlasPadding() + "px"));
+            ctx.getSource().sendSystemMessage(Component.literal("e  Atlas mips: f" +
+                    (ExportRuntimeConfig.getAtlasMipLevels() > 0 ? ExportRuntimeConfig.getAtlasMipLevels() + " levels" : "off")));
+            ctx.getSource().sendSystemMessage(Component.literal("e  Atlas packer: f" + ExportRuntimeConfig.getAtlasPacker().getDescription()));
+            ctx.getSource().sendSystemMessage(Component.literal("e  Tint clustering: f" + describeTintCluster()));
             ctx.getSource().sendSystemMessage(Component.literal("e  Coordinate mode: f" +
                     (ExportRuntimeConfig.getCoordinateMode() == CoordinateMode.CENTERED ? "centered" : "world")));
             ctx.getSource().sendSystemMessage(Component.literal("e  Color mode: f" + ExportRuntimeConfig.getColorMode().getDescription()));
@@ -126,11 +131,18 @@ public final class VoxelBridgeCommands {
             ctx.getSource().sendSystemMessage(Component.literal("e  LOD export: f" +
                     (ExportRuntimeConfig.isLodEnabled() ? "on" : "off")));
             ctx.getSource().sendSystemMessage(Component.literal("e  Animation export: f" +
-                    (ExportRuntimeConfig.isAnimationEnabled() ? "on" : "off")));
+                    (ExportRuntimeConfig.isAnimationEnabled() ? "on" : "off")
+                    + " (" + ExportRuntimeConfig.getAnimationLayout().name().toLowerCase(Locale.ROOT)
+                    + ", 1/" + ExportRuntimeConfig.getAnimationDecimation() + ")"));
             ctx.getSource().sendSystemMessage(Component.literal("e  Fill cave (dark cave_air): f" +
                     (ExportRuntimeConfig.isFillCaveEnabled() ? "on" : "off")));
             ctx.getSource().sendSystemMessage(Component.literal("e  LabPBR decode: f" +
                     (ExportRuntimeConfig.isPbrDecodeEnabled() ? "on" : "off")));
+            ctx.getSource().sendSystemMessage(Component.literal("e  Incremental export: f" +
+                    (ExportRuntimeConfig.isIncrementalExportEnabled() ? "on" : "off")));
+            ctx.getSource().sendSystemMessage(Component.literal("e  Texture tile cache: f" +
+                    (ExportRuntimeConfig.isTextureTileCacheEnabled() ? "on" : "off")
+                    + " (" + ExportRuntimeConfig.getTextureTileCacheMaxMb() + " MB)"));
             ctx.getSource().sendSystemMessage(Component.literal("e  Export threads: f" + ExportRuntimeConfig.getExportThreadCount()));
             return 1;
         }));
@@ -160,6 +172,47 @@ public final class VoxelBridgeCommands {
                 }))
         );
 
+        root.then(Commands.literal("packer")
+                .executes(ctx -> {
+                    ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Current atlas packer: f" + ExportRuntimeConfig.getAtlasPacker().getDescription()));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge packer <maxrects|skyline>"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   maxrects: Best short side fit, slightly faster"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   skyline : Same page count, slightly less empty space on the last page"));
+                    return 1;
+                })
+                .then(Commands.literal("maxrects").executes(ctx -> {
+                    ExportRuntimeConfig.setAtlasPacker(ExportRuntimeConfig.AtlasPacker.MAXRECTS);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Atlas packer -> MaxRects"));
+                    return 1;
+                }))
+                .then(Commands.literal("skyline").executes(ctx -> {
+                    ExportRuntimeConfig.setAtlasPacker(ExportRuntimeConfig.AtlasPacker.SKYLINE);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Atlas packer -> Skyline"));
+                    return 1;
+                }))
+        );
+
+        root.then(Commands.literal("tintcluster")
+                .executes(ctx -> {
+                    ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Tint clustering is currently f" + describeTintCluster()));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge tintcluster <off|deltaE>"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Tints of a sprite closer than deltaE (OKLab x100, ~1 = just noticeable) share one tile"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Off by default; 1-2 merges biome blend steps with no visible change"));
+                    return 1;
+                })
+                .then(Commands.literal("off").executes(ctx -> {
+                    ExportRuntimeConfig.setTintClusterDeltaE(0.0);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Tint clustering -> OFF"));
+                    return 1;
+                }))
+                .then(Commands.argument("deltaE", DoubleArgumentType.doubleArg(0.0, 50.0)).executes(ctx -> {
+                    double deltaE = DoubleArgumentType.getDouble(ctx, "deltaE");
+                    ExportRuntimeConfig.setTintClusterDeltaE(deltaE);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Tint clustering -> " + describeTintCluster()));
+                    return 1;
+                }))
+        );
+
         root.then(Commands.literal("animation")
                 .executes(ctx -> {
                     ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Animation export is currently f"
@@ -177,6 +230,37 @@ public final class VoxelBridgeCommands {
                     ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Animation export -> OFF"));
                     return 1;
                 }))
+                .then(Commands.literal("layout")
+                        .executes(ctx -> {
+                            ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Animation layout: f"
+                                    + ExportRuntimeConfig.getAnimationLayout().getDescription()));
+                            ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge animation layout <frames|flipbook>"));
+                            return 1;
+                        })
+                        .then(Commands.literal("frames").executes(ctx -> {
+                            ExportRuntimeConfig.setAnimationLayout(ExportRuntimeConfig.AnimationLayout.FRAMES);
+                            ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Animation layout -> Frames"));
+                            return 1;
+                        }))
+                        .then(Commands.literal("flipbook").executes(ctx -> {
+                            ExportRuntimeConfig.setAnimationLayout(ExportRuntimeConfig.AnimationLayout.FLIPBOOK);
+                            ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Animation layout -> Flipbook"));
+                            return 1;
+                        })))
+                .then(Commands.literal("decimate")
+                        .executes(ctx -> {
+                            ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Animation decimation: f1/"
+                                    + ExportRuntimeConfig.getAnimationDecimation()));
+                            ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge animation decimate <1-16>"));
+                            ctx.getSource().sendSystemMessage(Component.literal("7   Keeps every n-th frame; total loop duration is unchanged"));
+                            return 1;
+                        })
+                        .then(Commands.argument("step", IntegerArgumentType.integer(1, 16)).executes(ctx -> {
+                            int step = IntegerArgumentType.getInteger(ctx, "step");
+                            ExportRuntimeConfig.setAnimationDecimation(step);
+                            ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Animation decimation -> 1/" + step));
+                            return 1;
+                        })))
         );
 
         root.then(Commands.literal("fillcave")
@@ -200,6 +284,56 @@ public final class VoxelBridgeCommands {
                 }))
         );
 
+        root.then(Commands.literal("incremental")
+                .executes(ctx -> {
+                    ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Incremental export is currently f"
+                            + (ExportRuntimeConfig.isIncrementalExportEnabled() ? "on" : "off")));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge incremental <on|off>"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   on : Reuse geometry of chunks unchanged since the last export of the same region"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   off: Sample every chunk"));
+                    return 1;
+                })
+                .then(Commands.literal("on").executes(ctx -> {
+                    ExportRuntimeConfig.setIncrementalExportEnabled(true);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Incremental export -> ON"));
+                    return 1;
+                }))
+                .then(Commands.literal("off").executes(ctx -> {
+                    ExportRuntimeConfig.setIncrementalExportEnabled(false);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Incremental export -> OFF"));
+                    return 1;
+                }))
+        );
+
+        root.then(Commands.literal("tilecache")
+                .executes(ctx -> {
+                    ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Texture tile cache is currently f"
+                            + (ExportRuntimeConfig.isTextureTileCacheEnabled() ? "on" : "off")
+                            + " (" + ExportRuntimeConfig.getTextureTileCacheMaxMb() + " MB)"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge tilecache <on|off|size <mb>>"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   on : Reuse tinted and padded tiles from earlier exports"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   off: Process every tile"));
+                    return 1;
+                })
+                .then(Commands.literal("on").executes(ctx -> {
+                    ExportRuntimeConfig.setTextureTileCacheEnabled(true);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Texture tile cache -> ON"));
+                    return 1;
+                }))
+                .then(Commands.literal("off").executes(ctx -> {
+                    ExportRuntimeConfig.setTextureTileCacheEnabled(false);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Texture tile cache -> OFF"));
+                    return 1;
+                }))
+                .then(Commands.literal("size")
+                        .then(Commands.argument("mb", IntegerArgumentType.integer(16, 65536)).executes(ctx -> {
+                            int mb = IntegerArgumentType.getInteger(ctx, "mb");
+                            ExportRuntimeConfig.setTextureTileCacheMaxMb(mb);
+                            ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Texture tile cache limit -> " + mb + " MB"));
+                            return 1;
+                        })))
+        );
+
         root.then(Commands.literal("atlassize")
                 .executes(ctx -> {
                     ExportRuntimeConfig.AtlasSize current = ExportRuntimeConfig.getAtlasSize();
@@ -268,6 +402,27 @@ public final class VoxelBridgeCommands {
                 }))
         );
 
+        root.then(Commands.literal("atlasmips")
+                .executes(ctx -> {
+                    int current = ExportRuntimeConfig.getAtlasMipLevels();
+                    ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Atlas mip levels: f" + (current > 0 ? current : "off")));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge atlasmips <0-13>"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Writes _mipN.png next to each atlas page (normal and specular too); tiles never blend across their borders"));
+                    return 1;
+                })
+                .then(Commands.argument("levels", IntegerArgumentType.integer(0, 13)).executes(ctx -> {
+                    int levels = IntegerArgumentType.getInteger(ctx, "levels");
+                    ExportRuntimeConfig.setAtlasMipLevels(levels);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Atlas mips -> " + (levels > 0 ? levels + " levels" : "OFF")));
+                    int atlasSize = ExportRuntimeConfig.getAtlasSize().getSize();
+                    int pageLevels = 31 - Integer.numberOfLeadingZeros(atlasSize);
+                    if (levels > pageLevels) {
+                        ctx.getSource().sendSystemMessage(Component.literal("e[VoxelBridge] " + atlasSize + "px pages only have " + pageLevels + " mip levels; the rest are skipped"));
+                    }
+                    return 1;
+                }))
+        );
+
         root.then(Commands.literal("coords")
                 .executes(ctx -> {
                     String mode = ExportRuntimeConfig.getCoordinateMode() == CoordinateMode.CENTERED ? "centered" : "world";
@@ -394,6 +549,47 @@ public final class VoxelBridgeCommands {
                     ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Export threads -> " + count));
                     return 1;
                 }))
+                .then(Commands.literal("adaptive")
+                    .executes(ctx -> {
+                        boolean on = ExportRuntimeConfig.isAdaptiveThreadsEnabled();
+                        ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Adaptive export threads: f" + (on ? "on" : "off")
+                                + "7 (min " + ExportRuntimeConfig.getAdaptiveThreadMin() + ", max " + ExportRuntimeConfig.getExportThreadCount() + ")"));
+                        ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge threads adaptive <on|off|min <count>>"));
+                        return 1;
+                    })
+                    .then(Commands.literal("on").executes(ctx -> {
+                        ExportRuntimeConfig.setAdaptiveThreadsEnabled(true);
+                        ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Adaptive export threads -> ON"));
+                        return 1;
+                    }))
+                    .then(Commands.literal("off").executes(ctx -> {
+                        ExportRuntimeConfig.setAdaptiveThreadsEnabled(false);
+                        ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Adaptive export threads -> OFF"));
+                        return 1;
+                    }))
+                    .then(Commands.literal("min")
+                        .then(Commands.argument("count", IntegerArgumentType.integer(1, 32)).executes(ctx -> {
+                            int count = IntegerArgumentType.getInteger(ctx, "count");
+                            ExportRuntimeConfig.setAdaptiveThreadMin(count);
+                            ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Adaptive minimum threads -> " + count));
+                            return 1;
+                        })))
+                )
+        );
+
+        root.then(Commands.literal("framebudget")
+                .executes(ctx -> {
+                    int budget = ExportRuntimeConfig.getMainThreadFrameBudgetMs();
+                    ctx.getSource().sendSystemMessage(Component.literal("6[VoxelBridge] Main-thread export budget: f" + budget + " ms7 per frame"));
+                    ctx.getSource().sendSystemMessage(Component.literal("7   Usage: /voxelbridge framebudget <ms> (1-50)"));
+                    return 1;
+                })
+                .then(Commands.argument("ms", IntegerArgumentType.integer(1, 50)).executes(ctx -> {
+                    int budget = IntegerArgumentType.getInteger(ctx, "ms");
+                    ExportRuntimeConfig.setMainThreadFrameBudgetMs(budget);
+                    ctx.getSource().sendSystemMessage(Component.literal("a[VoxelBridge] Main-thread export budget -> " + budget + " ms"));
+                    return 1;
+                }))
         );
 
         root.then(Commands.literal("pbrdecode")
@@ -584,6 +780,11 @@ public final class VoxelBridgeCommands {
         event.getDispatcher().register(Commands.literal("vb").redirect(rootNode));
     }
 
+    private static String describeTintCluster() {
+        double deltaE = ExportRuntimeConfig.getTintClusterDeltaE();
+        return deltaE > 0 ? String.format(Locale.ROOT, "deltaE %.2f", deltaE) : "off";
+    }
+
     private static int armBakeProbe(CommandSourceStack source, int frames, int blockId) {
         BlockState state = Block.BLOCK_STATE_REGISTRY.byId(blockId);
         if (state == null) {
@@ -57,6 +57,36 @@ public final class ExportRuntimeConfig {
         }
     }
 
+    public enum AnimationLayout {
+        FRAMES("Frames (one PNG per unique frame)"),
+        FLIPBOOK("Flipbook (unique frames in one grid sheet)");
+
+        private final String description;
+
+        AnimationLayout(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public enum AtlasPacker {
+        MAXRECTS("MaxRects (best short side fit, fastest)"),
+        SKYLINE("Skyline (bottom-left with waste map, slightly tighter last page)");
+
+        private final String description;
+
+        AtlasPacker(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
     public enum ColorMode {
         COLORMAP("ColorMap (TEXCOORD_1 + texture)"),
         VERTEX_COLOR("Vertex Color (COLOR_0 attribute)");
@@ -75,13 +105,28 @@ public final class ExportRuntimeConfig {
     private static AtlasMode atlasMode = AtlasMode.ATLAS;
     private static AtlasSize atlasSize = AtlasSize.SIZE_8192;
     private static int atlasPadding = 0;
+    // Tile-aware mip levels written as sidecar PNGs per atlas page; 0 disables them.
+    private static int atlasMipLevels = 0;
+    private static AtlasPacker atlasPacker = AtlasPacker.MAXRECTS;
+    // OKLab distance (x100) within which a sprite's tints share one tinted tile; 0 (default) disables merging.
+    // Sprites with more tints than tint slots are still merged, at the smallest radius that fits.
+    private static double tintClusterDeltaE = 0.0;
     private static ColorMode colorMode = ColorMode.VERTEX_COLOR;
     private static CoordinateMode coordinateMode = CoordinateMode.CENTERED;
     private static int exportThreadCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+    // Let the sampler shrink/grow active workers between the minimum and the thread count above.
+    // Off by default: exports that run in the background should use the full thread count.
+    private static boolean adaptiveThreadsEnabled = false;
+    // Lower bound for adaptive worker count.
+    private static int adaptiveThreadMin = 1;
     // Enable vanilla random transforms (e.g., grass offset, random model rotations).
     private static boolean vanillaRandomTransformEnabled = true;
     // Export animated textures (mcmeta-driven).
     private static boolean animationEnabled = false;
+    // How deduplicated animation frames are written.
+    private static AnimationLayout animationLayout = AnimationLayout.FRAMES;
+    // Keep every n-th animation step; dropped steps extend the kept one (1 = keep all).
+    private static int animationDecimation = 1;
     // FILLCAVE: treat dark cave_air (skylight = 0) as solid for occlusion culling.
     private static boolean fillCaveEnabled = false;
     // Export decoded LabPBR channel maps from _n/_s.
@@ -92,6 +137,13 @@ public final class ExportRuntimeConfig {
     private static int lodFineChunkRadius = 8;
     // Greedy LOD meshing toggle (when true, force greedy merge + individual textures).
     private static boolean lodGreedyMeshingEnabled = false;
+    // Per-frame main-thread time budget (ms) for deferred export work such as BlockEntity rendering.
+    private static int mainThreadFrameBudgetMs = 4;
+    // Reuse geometry of unchanged chunks from the previous export of the same region and settings.
+    private static boolean incrementalExportEnabled = false;
+    // Persistent cache of tinted/padded texture tiles under voxelbridge/tile-cache, and its size limit.
+    private static boolean textureTileCacheEnabled = true;
+    private static int textureTileCacheMaxMb = 1024;
 
     public static AtlasMode getAtlasMode() {
         return atlasMode;
@@ -113,6 +165,36 @@ public final class ExportRuntimeConfig {
         }
     }
 
+    public static AtlasPacker getAtlasPacker() {
+        return atlasPacker;
+    }
+
+    public static void setAtlasPacker(AtlasPacker packer) {
+        if (packer != null) {
+            atlasPacker = packer;
+        }
+    }
+
+    public static int getAtlasMipLevels() {
+        return atlasMipLevels;
+    }
+
+    public static boolean setAtlasMipLevels(int levels) {
+        if (levels >= 0 && levels <= 13) {
+            atlasMipLevels = levels;
+            return true;
+        }
+        return false;
+    }
+
+    public static double getTintClusterDeltaE() {
+        return tintClusterDeltaE;
+    }
+
+    public static void setTintClusterDeltaE(double deltaE) {
+        tintClusterDeltaE = Math.max(0.0, deltaE);
+    }
+
     public static int getAtlasPadding() {
         return atlasPadding;
     }
@@ -149,6 +231,42 @@ public final class ExportRuntimeConfig {
         }
     }
 
+    public static boolean isAdaptiveThreadsEnabled() {
+        return adaptiveThreadsEnabled;
+    }
+
+    public static void setAdaptiveThreadsEnabled(boolean enabled) {
+        adaptiveThreadsEnabled = enabled;
+    }
+
+    public static int getAdaptiveThreadMin() {
+        return adaptiveThreadMin;
+    }
+
+    public static void setAdaptiveThreadMin(int count) {
+        if (count < 1) {
+            adaptiveThreadMin = 1;
+        } else if (count > 32) {
+            adaptiveThreadMin = 32;
+        } else {
+            adaptiveThreadMin = count;
+        }
+    }
+
+    public static int getMainThreadFrameBudgetMs() {
+        return mainThreadFrameBudgetMs;
+    }
+
+    public static void setMainThreadFrameBudgetMs(int budgetMs) {
+        if (budgetMs < 1) {
+            mainThreadFrameBudgetMs = 1;
+        } else if (budgetMs > 50) {
+            mainThreadFrameBudgetMs = 50;
+        } else {
+            mainThreadFrameBudgetMs = budgetMs;
+        }
+    }
+
     public static boolean isVanillaRandomTransformEnabled() {
         return vanillaRandomTransformEnabled;
     }
@@ -175,6 +293,24 @@ public final class ExportRuntimeConfig {
         animationEnabled = enabled;
     }
 
+    public static AnimationLayout getAnimationLayout() {
+        return animationLayout;
+    }
+
+    public static void setAnimationLayout(AnimationLayout layout) {
+        if (layout != null) {
+            animationLayout = layout;
+        }
+    }
+
+    public static int getAnimationDecimation() {
+        return animationDecimation;
+    }
+
+    public static void setAnimationDecimation(int decimation) {
+        animationDecimation = Math.max(1, decimation);
+    }
+
     public static boolean isFillCaveEnabled() {
         return fillCaveEnabled;
     }
@@ -191,6 +327,30 @@ public final class ExportRuntimeConfig {
         pbrDecodeEnabled = enabled;
     }
 
+    public static boolean isIncrementalExportEnabled() {
+        return incrementalExportEnabled;
+    }
+
+    public static void setIncrementalExportEnabled(boolean enabled) {
+        incrementalExportEnabled = enabled;
+    }
+
+    public static boolean isTextureTileCacheEnabled() {
+        return textureTileCacheEnabled;
+    }
+
+    public static void setTextureTileCacheEnabled(boolean enabled) {
+        textureTileCacheEnabled = enabled;
+    }
+
+    public static int getTextureTileCacheMaxMb() {
+        return textureTileCacheMaxMb;
+    }
+
+    public static void setTextureTileCacheMaxMb(int megabytes) {
+        textureTileCacheMaxMb = Math.max(16, megabytes);
+    }
+
     public static boolean isLodEnabled() {
         return lodEnabled;
     }
@@ -0,0 +1,193 @@
+package com.voxelbridge.export;
+
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Adjusts how many sampling workers may run at once while an export is in progress.
+ * Section subtasks take an active permit before sampling; the monitor thread feeds the
+ * controller client frame time, chunk-load progress and GC pause ratio once per cycle, and
+ * permits are added or withdrawn between the configured bounds. Keeps large machines busy
+ * without starving the render thread or the client chunk loader the sampler depends on.
+ * <p>
+ * Frame time only counts while the window is active: an unfocused or minimized client runs capped,
+ * which says nothing about load. Waiting for a permit is a {@link ForkJoinPool.ManagedBlocker}, so
+ * the export pool can compensate instead of losing the workers it needs to finish forked sections.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class AdaptiveWorkerController {
+
+    // Re-evaluate at most once per interval so a single slow frame does not cause flapping.
+    private static final long EVALUATION_INTERVAL_NANOS = 1_000_000_000L;
+    // Frame time above this (~30 FPS) means the client is visibly struggling: back off.
+    private static final long SLOW_FRAME_NANOS = 33_333_333L;
+    // Frame time below this (~50 FPS) leaves headroom: allow one more worker.
+    private static final long FAST_FRAME_NANOS = 20_000_000L;
+    // A frame-rate cap is honoured with this much slack before frames count as slow.
+    private static final double FRAME_CAP_SLACK = 1.5;
+    // Weight of the newest sample in the smoothed frame time.
+    private static final double FRAME_SMOOTHING = 0.3;
+    // Share of wall time spent in GC pauses above which we back off / below which we may grow.
+    private static final double HIGH_GC_RATIO = 0.10;
+    private static final double LOW_GC_RATIO = 0.03;
+
+    private final ResizableSemaphore permits;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private int activeWorkers;
+
+    // Smoothed frame time of the active window; 0 = no signal since the last evaluation
+    private double frameNanos;
+    private long lastEvalNanos;
+    private long lastGcMillis;
+    private int lastLoadedChunks = -1;
+
+    public AdaptiveWorkerController(int minWorkers, int maxWorkers) {
+        this.maxWorkers = Math.max(1, maxWorkers);
+        this.minWorkers = Math.max(1, Math.min(minWorkers, this.maxWorkers));
+        this.activeWorkers = this.maxWorkers;
+        this.permits = new ResizableSemaphore(this.activeWorkers);
+        this.lastEvalNanos = System.nanoTime();
+        this.lastGcMillis = totalGcMillis();
+    }
+
+    /**
+     * Blocks until a worker slot is free. Throws CancellationException if the export is shut down.
+     * On a ForkJoin worker the wait is managed, so the pool may run a compensating thread meanwhile.
+     */
+    public void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        try {
+            ForkJoinPool.managedBlock(new PermitBlocker());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Export sampling interrupted");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    /**
+     * Feeds the latest client signals. Called from the monitor thread; evaluates at most once per second.
+     *
+     * @param frameTimeNanos    duration of the last client frame, or 0 when it says nothing about load
+     *                          (window unfocused or minimized, no window)
+     * @param frameLimit        configured frame-rate cap of the window
+     * @param loadedChunks      chunks currently loaded by the client chunk cache
+     * @param waitingForLoad    true if export chunks are pending because they are not loaded yet
+     */
+    public void tick(long frameTimeNanos, int frameLimit, int loadedChunks, boolean waitingForLoad) {
+        if (frameTimeNanos > 0) {
+            frameNanos = frameNanos <= 0 ? frameTimeNanos
+                : frameNanos + (frameTimeNanos - frameNanos) * FRAME_SMOOTHING;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - lastEvalNanos;
+        if (elapsed < EVALUATION_INTERVAL_NANOS) {
+            return;
+        }
+        double frame = frameNanos;
+        // A capped client is not struggling just because it runs at its cap
+        double capNanos = frameLimit > 0 ? 1_000_000_000.0 / frameLimit : 0;
+        boolean slowFrames = frame > Math.max(SLOW_FRAME_NANOS, capNanos * FRAME_CAP_SLACK);
+        boolean fastFrames = frame <= 0 || frame < Math.max(FAST_FRAME_NANOS, capNanos * FRAME_CAP_SLACK);
+        long gcMillis = totalGcMillis();
+        double gcRatio = (gcMillis - lastGcMillis) / (elapsed / 1_000_000.0);
+        double loadRate = lastLoadedChunks < 0 ? 0.0
+            : Math.max(0, loadedChunks - lastLoadedChunks) / (elapsed / 1_000_000_000.0);
+        boolean loaderStalled = waitingForLoad && lastLoadedChunks >= 0 && loadRate < 1.0;
+        lastEvalNanos = now;
+        lastGcMillis = gcMillis;
+        lastLoadedChunks = loadedChunks;
+        if (frameTimeNanos <= 0) {
+            // Inactive window: drop the stale average so focus changes start fresh
+            frameNanos = 0;
+        }
+
+        int target = activeWorkers;
+        String reason = null;
+        if (slowFrames) {
+            target = activeWorkers - 1;
+            reason = "slow frames";
+        } else if (gcRatio > HIGH_GC_RATIO) {
+            target = activeWorkers - 1;
+            reason = "gc pressure";
+        } else if (loaderStalled) {
+            target = activeWorkers - 1;
+            reason = "chunk loader stalled";
+        } else if (fastFrames && gcRatio < LOW_GC_RATIO) {
+            target = activeWorkers + 1;
+            reason = "headroom";
+        }
+        target = Math.max(minWorkers, Math.min(maxWorkers, target));
+        if (target == activeWorkers) {
+            return;
+        }
+
+        VoxelBridgeLogger.info(LogModule.EXPORT, String.format(
+            "[AdaptiveWorkers] %d -> %d (%s: frame=%.1fms gc=%.1f%% chunkLoad=%.1f/s)",
+            activeWorkers, target, reason, frame / 1_000_000.0, gcRatio * 100.0, loadRate));
+        if (target > activeWorkers) {
+            permits.release(target - activeWorkers);
+        } else {
+            // Running workers keep their permits; the pool shrinks as they finish
+            permits.reduce(activeWorkers - target);
+        }
+        activeWorkers = target;
+    }
+
+    private long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            long t = bean.getCollectionTime();
+            if (t > 0) total += t;
+        }
+        return total;
+    }
+
+    private final class PermitBlocker implements ForkJoinPool.ManagedBlocker {
+        private boolean acquired;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                permits.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return acquired || (acquired = permits.tryAcquire());
+        }
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+}
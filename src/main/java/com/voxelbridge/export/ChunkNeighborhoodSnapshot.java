@@ -0,0 +1,347 @@
+package com.voxelbridge.export;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Cursor3D;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.ColorResolver;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LightLayer;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeManager;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.DataLayer;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.PalettedContainerRO;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.material.FluidState;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.neoforge.client.model.data.ModelData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable copy of a chunk and its eight neighbours, used by sampling workers instead of the live ClientLevel.
+ * Captured on the client thread when the chunk is scheduled: block palettes, biome containers, sky/block light
+ * and block entity references are copied per section, so workers never observe chunks the client is mutating
+ * and geometry at chunk borders is consistent with a single point in time.
+ * <p>
+ * Uniform sections copy in O(1) (single-value palette, empty storage); other sections duplicate only the packed
+ * palette storage. Block entities are shared references: their rendering is deferred to the client thread anyway.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class ChunkNeighborhoodSnapshot implements BlockAndTintGetter {
+
+    private static final int RADIUS = 1;
+    private static final int WIDTH = RADIUS * 2 + 1;
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final ChunkPos center;
+    private final int minSection;
+    private final int sectionCount;
+    private final int minBuildHeight;
+    private final int height;
+    private final boolean hasSkyLight;
+    private final int biomeBlendRadius;
+
+    // Indexed by chunkIndex(dx, dz) * sectionCount + (sectionY - minSection)
+    private final boolean[] loaded = new boolean[WIDTH * WIDTH];
+    private final LevelChunkSection[] sections;
+    private final DataLayer[] skyLight;
+    private final DataLayer[] blockLight;
+
+    private final Map<BlockPos, BlockEntity> blockEntities = new HashMap<>();
+    private final Map<BlockPos, ModelData> modelData = new HashMap<>();
+    private final float[] shade = new float[Direction.values().length * 2];
+    private final BiomeManager biomeManager;
+    private final Holder<Biome> fallbackBiome;
+    private final LevelLightEngine lightEngine;
+
+    // Per-resolver blended tint cache. The sections of a chunk are sampled as concurrent subtasks sharing
+    // this snapshot, so the resolver map is concurrent and each per-resolver table is guarded by its own lock
+    // (ColorResolver does not override equals, so lookups stay identity-based)
+    private final Map<ColorResolver, Long2IntOpenHashMap> tintCache = new ConcurrentHashMap<>();
+
+    private ChunkNeighborhoodSnapshot(Level level, ChunkPos center) {
+        this.center = center;
+        this.minSection = level.getMinSection();
+        this.sectionCount = level.getSectionsCount();
+        this.minBuildHeight = level.getMinBuildHeight();
+        this.height = level.getHeight();
+        this.hasSkyLight = level.dimensionType().hasSkyLight();
+        this.biomeBlendRadius = Minecraft.getInstance().options.biomeBlendRadius().get();
+        this.sections = new LevelChunkSection[WIDTH * WIDTH * sectionCount];
+        this.skyLight = new DataLayer[sections.length];
+        this.blockLight = new DataLayer[sections.length];
+        this.biomeManager = level.getBiomeManager().withDifferentSource(this::getNoiseBiome);
+        this.fallbackBiome = level.getBiome(center.getWorldPosition());
+        this.lightEngine = level.getLightEngine();
+        for (Direction dir : Direction.values()) {
+            shade[dir.ordinal() * 2] = level.getShade(dir, false);
+            shade[dir.ordinal() * 2 + 1] = level.getShade(dir, true);
+        }
+    }
+
+    /**
+     * Copies the 3x3 chunk neighbourhood around {@code center}. Must run on the client thread.
+     * Unloaded neighbours are recorded as such and read as air.
+     */
+    public static ChunkNeighborhoodSnapshot capture(Level level, ChunkPos center) {
+        ChunkNeighborhoodSnapshot snapshot = new ChunkNeighborhoodSnapshot(level, center);
+        var skyListener = level.getLightEngine().getLayerListener(LightLayer.SKY);
+        var blockListener = level.getLightEngine().getLayerListener(LightLayer.BLOCK);
+
+        for (int dz = -RADIUS; dz <= RADIUS; dz++) {
+            for (int dx = -RADIUS; dx <= RADIUS; dx++) {
+                int cx = center.x + dx;
+                int cz = center.z + dz;
+                LevelChunk chunk = level.getChunkSource().getChunk(cx, cz, false);
+                if (chunk == null || chunk.isEmpty()) continue;
+
+                int chunkIndex = chunkIndex(dx, dz);
+                snapshot.loaded[chunkIndex] = true;
+                LevelChunkSection[] chunkSections = chunk.getSections();
+                for (int s = 0; s < snapshot.sectionCount && s < chunkSections.length; s++) {
+                    int index = chunkIndex * snapshot.sectionCount + s;
+                    snapshot.sections[index] = copySection(chunkSections[s]);
+                    SectionPos sectionPos = SectionPos.of(cx, snapshot.minSection + s, cz);
+                    snapshot.skyLight[index] = copyLayer(skyListener.getDataLayerData(sectionPos));
+                    snapshot.blockLight[index] = copyLayer(blockListener.getDataLayerData(sectionPos));
+                }
+
+                for (Map.Entry<BlockPos, BlockEntity> entry : chunk.getBlockEntities().entrySet()) {
+                    BlockPos pos = entry.getKey().immutable();
+                    snapshot.blockEntities.put(pos, entry.getValue());
+                    try {
+                        ModelData data = level.getModelData(pos);
+                        if (data != null && data != ModelData.EMPTY) {
+                            snapshot.modelData.put(pos, data);
+                        }
+                    } catch (Throwable ignored) {}
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public ChunkPos getCenter() {
+        return center;
+    }
+
+    /**
+     * True if the chunk was loaded when the snapshot was taken (false outside the 3x3 neighbourhood).
+     */
+    public boolean isChunkLoaded(int chunkX, int chunkZ) {
+        int dx = chunkX - center.x;
+        int dz = chunkZ - center.z;
+        if (Math.abs(dx) > RADIUS || Math.abs(dz) > RADIUS) return false;
+        return loaded[chunkIndex(dx, dz)];
+    }
+
+    /**
+     * Returns the copied section at the given section coordinates, or null if unavailable.
+     */
+    public LevelChunkSection getSection(int chunkX, int sectionY, int chunkZ) {
+        int index = sectionIndex(chunkX, sectionY, chunkZ);
+        return index >= 0 ? sections[index] : null;
+    }
+
+    /**
+     * True if any block entity was captured inside the given section.
+     */
+    public boolean hasBlockEntityIn(int chunkX, int sectionY, int chunkZ) {
+        for (BlockPos pos : blockEntities.keySet()) {
+            if ((pos.getX() >> 4) == chunkX && (pos.getY() >> 4) == sectionY && (pos.getZ() >> 4) == chunkZ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Block entities captured inside the given chunk column.
+     */
+    public List<BlockEntity> getBlockEntitiesIn(int chunkX, int chunkZ) {
+        List<BlockEntity> result = new ArrayList<>();
+        for (Map.Entry<BlockPos, BlockEntity> entry : blockEntities.entrySet()) {
+            BlockPos pos = entry.getKey();
+            if ((pos.getX() >> 4) == chunkX && (pos.getZ() >> 4) == chunkZ) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Model data captured for block entities (CTM/connected textures); EMPTY otherwise.
+     */
+    public ModelData getModelData(BlockPos pos) {
+        return modelData.getOrDefault(pos, ModelData.EMPTY);
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        LevelChunkSection section = sectionAt(pos.getX(), pos.getY(), pos.getZ());
+        if (section == null) return AIR;
+        return section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return blockEntities.get(pos);
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minBuildHeight;
+    }
+
+    @Override
+    public float getShade(Direction direction, boolean shaded) {
+        return shade[direction.ordinal() * 2 + (shaded ? 1 : 0)];
+    }
+
+    /**
+     * Live light engine, exposed only to satisfy the interface; light reads go through the copied layers.
+     */
+    @Override
+    public LevelLightEngine getLightEngine() {
+        return lightEngine;
+    }
+
+    @Override
+    public int getBrightness(LightLayer type, BlockPos pos) {
+        return type == LightLayer.SKY ? skyLightAt(pos) : blockLightAt(pos);
+    }
+
+    @Override
+    public int getRawBrightness(BlockPos pos, int amount) {
+        return Math.max(blockLightAt(pos), skyLightAt(pos) - amount);
+    }
+
+    @Override
+    public int getBlockTint(BlockPos pos, ColorResolver colorResolver) {
+        Long2IntOpenHashMap cache = tintCache.computeIfAbsent(colorResolver, k -> new Long2IntOpenHashMap());
+        long key = pos.asLong();
+        synchronized (cache) {
+            if (cache.containsKey(key)) return cache.get(key);
+        }
+        // Blending runs outside the lock; a concurrent miss on the same key computes the same colour
+        int color = calculateBlockTint(pos, colorResolver);
+        synchronized (cache) {
+            cache.put(key, color);
+        }
+        return color;
+    }
+
+    // Mirrors ClientLevel.calculateBlockTint over the copied biome containers.
+    private int calculateBlockTint(BlockPos pos, ColorResolver colorResolver) {
+        if (biomeBlendRadius == 0) {
+            return colorResolver.getColor(biomeManager.getBiome(pos).value(), pos.getX(), pos.getZ());
+        }
+        int samples = (biomeBlendRadius * 2 + 1) * (biomeBlendRadius * 2 + 1);
+        int r = 0, g = 0, b = 0;
+        Cursor3D cursor = new Cursor3D(pos.getX() - biomeBlendRadius, pos.getY(), pos.getZ() - biomeBlendRadius,
+            pos.getX() + biomeBlendRadius, pos.getY(), pos.getZ() + biomeBlendRadius);
+        BlockPos.MutableBlockPos sample = new BlockPos.MutableBlockPos();
+        while (cursor.advance()) {
+            sample.set(cursor.nextX(), cursor.nextY(), cursor.nextZ());
+            int color = colorResolver.getColor(biomeManager.getBiome(sample).value(), sample.getX(), sample.getZ());
+            r += (color & 0xFF0000) >> 16;
+            g += (color & 0xFF00) >> 8;
+            b += color & 0xFF;
+        }
+        return (r / samples & 0xFF) << 16 | (g / samples & 0xFF) << 8 | b / samples & 0xFF;
+    }
+
+    // NoiseBiomeSource over the copied sections; coordinates outside the snapshot clamp to the centre chunk.
+    private Holder<Biome> getNoiseBiome(int quartX, int quartY, int quartZ) {
+        int chunkX = quartX >> 2;
+        int chunkZ = quartZ >> 2;
+        if (!isChunkLoaded(chunkX, chunkZ)) {
+            chunkX = center.x;
+            chunkZ = center.z;
+        }
+        int sectionY = Math.max(minSection, Math.min(minSection + sectionCount - 1, quartY >> 2));
+        LevelChunkSection section = getSection(chunkX, sectionY, chunkZ);
+        return section != null ? section.getNoiseBiome(quartX & 3, quartY & 3, quartZ & 3) : fallbackBiome;
+    }
+
+    private int skyLightAt(BlockPos pos) {
+        if (!hasSkyLight) return 0;
+        int index = sectionIndex(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+        if (index < 0) {
+            return pos.getY() >= minBuildHeight + height ? 15 : 0;
+        }
+        // Sections without sky data take the bottom layer of the next section above that has data
+        int columnTop = index - (index % sectionCount) + sectionCount;
+        for (int i = index; i < columnTop; i++) {
+            DataLayer layer = skyLight[i];
+            if (layer != null) {
+                return layer.get(pos.getX() & 15, i == index ? pos.getY() & 15 : 0, pos.getZ() & 15);
+            }
+        }
+        return 15;
+    }
+
+    private int blockLightAt(BlockPos pos) {
+        int index = sectionIndex(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+        if (index < 0) return 0;
+        DataLayer layer = blockLight[index];
+        return layer != null ? layer.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15) : 0;
+    }
+
+    private LevelChunkSection sectionAt(int x, int y, int z) {
+        int index = sectionIndex(x >> 4, y >> 4, z >> 4);
+        return index >= 0 ? sections[index] : null;
+    }
+
+    private int sectionIndex(int chunkX, int sectionY, int chunkZ) {
+        int dx = chunkX - center.x;
+        int dz = chunkZ - center.z;
+        int s = sectionY - minSection;
+        if (Math.abs(dx) > RADIUS || Math.abs(dz) > RADIUS || s < 0 || s >= sectionCount) return -1;
+        return chunkIndex(dx, dz) * sectionCount + s;
+    }
+
+    private static int chunkIndex(int dx, int dz) {
+        return (dz + RADIUS) * WIDTH + (dx + RADIUS);
+    }
+
+    private static LevelChunkSection copySection(LevelChunkSection source) {
+        if (source == null) return null;
+        PalettedContainerRO<Holder<Biome>> biomes = source.getBiomes();
+        if (biomes instanceof PalettedContainer<Holder<Biome>> mutableBiomes) {
+            biomes = mutableBiomes.copy();
+        }
+        return new LevelChunkSection(source.getStates().copy(), biomes);
+    }
+
+    private static DataLayer copyLayer(DataLayer layer) {
+        return layer != null ? layer.copy() : null;
+    }
+}
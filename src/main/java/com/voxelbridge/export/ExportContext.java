@@ -7,6 +7,10 @@ import net.minecraft.resources.ResourceLocation;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 
+import com.voxelbridge.export.exporter.QuadTemplateCache;
+import com.voxelbridge.export.exporter.SectionSamplingStats;
+import com.voxelbridge.export.exporter.entity.EntityGeometryCache;
+import com.voxelbridge.export.texture.SpriteRegistry;
 import com.voxelbridge.export.texture.TextureRepository;
 
 import java.awt.image.BufferedImage;
@@ -43,6 +47,10 @@ public final class ExportContext {
     private final Map<String, EntityTexture> entityTextures = new ConcurrentHashMap<>();
     private final Map<String, BlockEntityAtlasPlacement> blockEntityAtlasPlacements = new ConcurrentHashMap<>();
     private final TextureRepository textureRepository = new TextureRepository();
+    private final QuadTemplateCache quadTemplateCache = new QuadTemplateCache();
+    private final SpriteRegistry spriteRegistry = new SpriteRegistry(this::intern);
+    private final SectionSamplingStats sectionStats = new SectionSamplingStats();
+    private final EntityGeometryCache entityGeometryCache = new EntityGeometryCache();
     
     // String Deduplication Pool (Concurrent)
     private final Map<String, String> stringPool = new ConcurrentHashMap<>();
@@ -141,11 +149,31 @@ public final class ExportContext {
         return textureRepository;
     }
 
+    public QuadTemplateCache getQuadTemplateCache() {
+        return quadTemplateCache;
+    }
+
+    public SpriteRegistry getSpriteRegistry() {
+        return spriteRegistry;
+    }
+
+    public SectionSamplingStats getSectionStats() {
+        return sectionStats;
+    }
+
+    public EntityGeometryCache getEntityGeometryCache() {
+        return entityGeometryCache;
+    }
+
     /**
      * Clears all texture-related state to isolate export sessions.
      */
     public void clearTextureState() {
         textureRepository.clear();
+        quadTemplateCache.clear();
+        spriteRegistry.clear();
+        sectionStats.clear();
+        entityGeometryCache.clear();
         materialPaths.clear();
         blockEntityAtlasPlacements.clear();
         entityTextures.clear();
@@ -2,22 +2,32 @@ package com.voxelbridge.export;
 
 import com.voxelbridge.config.ExportRuntimeConfig;
 import com.voxelbridge.export.exporter.BlockExporter;
+import com.voxelbridge.export.exporter.BlockExporterPool;
+import com.voxelbridge.export.exporter.SectionOcclusionMask;
 import com.voxelbridge.export.exporter.blockentity.BlockEntityRenderBatch;
+import com.voxelbridge.export.exporter.blockentity.BlockEntityExporter;
+import com.voxelbridge.export.exporter.entity.EntityExportQueue;
+import com.voxelbridge.export.incremental.IncrementalExportCache;
 import com.voxelbridge.export.scene.BufferedSceneSink;
 import com.voxelbridge.export.scene.SceneSink;
 import com.voxelbridge.util.debug.LogModule;
 import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import com.voxelbridge.util.client.MainThreadWorkScheduler;
 import com.voxelbridge.util.client.ProgressNotifier;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientChunkCache;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.level.material.Fluid;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 
@@ -101,36 +111,46 @@ public final class StreamingRegionSampler {
         int workerCount = Math.max(1, Math.min(threadCount, allChunks.size()));
         workerCount = Math.min(workerCount, maxWorkers);
         
-        ThreadFactory factory = new ThreadFactory() {
-            private final AtomicInteger counter = new AtomicInteger();
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread t = new Thread(r);
-                t.setName("VoxelBridge-Streaming-" + counter.incrementAndGet());
-                t.setDaemon(true);
-                t.setPriority(Thread.MIN_PRIORITY);
-                return t;
-            }
+        AtomicInteger threadCounter = new AtomicInteger();
+        ClassLoader exportClassLoader = StreamingRegionSampler.class.getClassLoader();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("VoxelBridge-Streaming-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            // Mod classes must stay resolvable from pool threads
+            t.setContextClassLoader(exportClassLoader);
+            return t;
         };
 
-        // Use a bounded queue to prevent the monitor thread from flooding memory with pending tasks.
-        // LevelChunk objects are heavy; queuing thousands of them exhausts heap.
-        // CallerRunsPolicy throttles the monitor thread when the queue is full.
-        ExecutorService executor = new ThreadPoolExecutor(
-            workerCount, workerCount,
-            0L, TimeUnit.MILLISECONDS,
-            new ArrayBlockingQueue<>(workerCount * 8),
-            factory,
-            new ThreadPoolExecutor.CallerRunsPolicy()
-        );
+        // Work-stealing pool: chunk jobs fork one subtask per section, so idle workers steal
+        // sections of heavy chunks (mountains, cities) instead of waiting on a few long columns.
+        // Workers waiting on an adaptive permit are compensated by the pool (managed blocking);
+        // the cap keeps compensation to at most one spare thread per worker.
+        ExecutorService executor = new ForkJoinPool(workerCount, factory, null, false,
+            0, workerCount * 2, 1, pool -> true, 60, TimeUnit.SECONDS);
+        // Bound chunks in flight so the monitor thread cannot flood memory with pending tasks.
+        // Each task holds a 3x3 chunk snapshot (~1MB); queuing thousands of them exhausts heap.
+        // The monitor blocks on a permit, matching the old queue-plus-CallerRuns throttling.
+        Semaphore chunkPermits = new Semaphore(workerCount * 3);
+        // Active-worker gate tuned from frame time, GC pauses and chunk loading; null = fixed pool
+        AdaptiveWorkerController workers = ExportRuntimeConfig.isAdaptiveThreadsEnabled()
+            ? new AdaptiveWorkerController(ExportRuntimeConfig.getAdaptiveThreadMin(), workerCount)
+            : null;
         Set<ChunkPos> processing = ConcurrentHashMap.newKeySet();
+        final int snapshotBatchSize = workerCount;
         AtomicBoolean keepRunning = new AtomicBoolean(true);
         AtomicInteger scanCycles = new AtomicInteger(0);
 
         // OPTIMIZATION: Shared BlockEntityRenderBatch for all chunks
         // Reduces main thread blocking from N chunks to 1 total flush
         BlockEntityRenderBatch sharedBeBatch = new BlockEntityRenderBatch();
-        java.util.Set<Integer> processedEntityIds = java.util.concurrent.ConcurrentHashMap.newKeySet();
+        // One block exporter per sampling thread, reset for each section
+        BlockExporterPool samplers = new BlockExporterPool(ctx, level, sharedBeBatch, sink, regionMin, regionMax);
+        // Entities are snapshotted by workers and rendered in one budgeted main-thread pass after sampling
+        EntityExportQueue entityQueue = new EntityExportQueue();
+        // Unchanged chunks replay their geometry from the previous export; null = sample everything
+        IncrementalExportCache incremental = IncrementalExportCache.open(ctx, level, regionMin, regionMax);
 
         Thread monitor = new Thread(() -> {
             try {
@@ -147,6 +167,8 @@ public final class StreamingRegionSampler {
 
                     // Collect and sort pending chunks to prioritize those closest to the player
                     List<ChunkPos> candidates = new ArrayList<>();
+                    List<ChunkPos> ready = new ArrayList<>();
+                    int notLoaded = 0;
                     for (ChunkPos chunkPos : allChunks) {
                         if (processing.contains(chunkPos)) continue;
                         
@@ -201,24 +223,64 @@ public final class StreamingRegionSampler {
                         LevelChunk chunk = chunkCache.getChunk(chunkPos.x, chunkPos.z, false);
                         if (chunk != null && !chunk.isEmpty()) {
                             processing.add(chunkPos);
+                            ready.add(chunkPos);
+                        } else {
+                            // Not loaded yet, skip
+                            notLoaded++;
+                        }
+                    }
+
+                    // Snapshot scheduled chunks on the client thread in small batches (one hop per batch),
+                    // then hand the immutable copies to workers. The bounded queue caps snapshots in flight.
+                    for (int from = 0; from < ready.size(); from += snapshotBatchSize) {
+                        List<ChunkPos> batch = ready.subList(from, Math.min(ready.size(), from + snapshotBatchSize));
+                        List<ChunkNeighborhoodSnapshot> snapshots;
+                        try {
+                            snapshots = mc.submit(() -> {
+                                List<ChunkNeighborhoodSnapshot> captured = new ArrayList<>(batch.size());
+                                for (ChunkPos chunkPos : batch) {
+                                    captured.add(ChunkNeighborhoodSnapshot.capture(level, chunkPos));
+                                }
+                                return captured;
+                            }).join();
+                        } catch (Exception e) {
+                            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Streaming] Chunk snapshot failed, retrying later: " + e.getMessage());
+                            batch.forEach(processing::remove);
+                            continue;
+                        }
 
+                        for (ChunkNeighborhoodSnapshot snapshot : snapshots) {
+                            ChunkPos chunkPos = snapshot.getCenter();
                             int cminX = Math.max(minX, chunkPos.x << 4);
                             int cmaxX = Math.min(maxX, (chunkPos.x << 4) + 15);
                             int cminZ = Math.max(minZ, chunkPos.z << 4);
                             int cmaxZ = Math.min(maxZ, (chunkPos.z << 4) + 15);
 
-                            executor.submit(() -> exportChunk(
-                                chunk, chunkPos, level, chunkCache, sink, ctx,
-                                regionMin, regionMax,
-                                cminX, cmaxX, cminZ, cmaxZ, minY, maxY,
-                                mc, processing, playerChunk, activeDistance,
-                                sharedBeBatch, offsetX, offsetY, offsetZ, processedEntityIds
-                            ));
-                        } else {
-                            // Not loaded yet, skip
+                            chunkPermits.acquire();
+                            executor.submit(() -> {
+                                try {
+                                    exportChunk(
+                                        snapshot, chunkPos, level, chunkCache, sink, ctx,
+                                        regionMin, regionMax,
+                                        cminX, cmaxX, cminZ, cmaxZ, minY, maxY,
+                                        mc, processing, playerChunk, activeDistance,
+                                        sharedBeBatch, samplers, offsetX, offsetY, offsetZ, entityQueue, workers,
+                                        incremental
+                                    );
+                                } finally {
+                                    chunkPermits.release();
+                                }
+                            });
                         }
                     }
 
+                    if (workers != null) {
+                        // Unfocused or minimized clients run capped; their frame time is not a load signal
+                        long frameTime = mc.isWindowActive() ? mc.getFrameTimeNs() : 0L;
+                        workers.tick(frameTime, mc.getWindow().getFramerateLimit(),
+                            chunkCache.getLoadedChunksCount(), notLoaded > 0);
+                    }
+
                     int cycle = scanCycles.incrementAndGet();
                     if (progress.pending() > 0 && cycle % 5 == 0) {
                         ProgressNotifier.showDetailed(mc, progress);
@@ -257,15 +319,17 @@ public final class StreamingRegionSampler {
                     if (state == ExportProgressTracker.ChunkState.PENDING) {
                         LevelChunk chunk = chunkCache.getChunk(chunkPos.x, chunkPos.z, false);
                         if (chunk != null && !chunk.isEmpty()) {
+                            ChunkNeighborhoodSnapshot snapshot = mc.submit(
+                                () -> ChunkNeighborhoodSnapshot.capture(level, chunkPos)).join();
                             int cminX = Math.max(minX, chunkPos.x << 4);
                             int cmaxX = Math.min(maxX, (chunkPos.x << 4) + 15);
                             int cminZ = Math.max(minZ, chunkPos.z << 4);
                             int cmaxZ = Math.min(maxZ, (chunkPos.z << 4) + 15);
 
                             // Force-export pending chunk using the slow path.
-                            forceExportChunk(chunk, chunkPos, level, sink, ctx,
+                            forceExportChunk(snapshot, chunkPos, level, sink, ctx,
                                 regionMin, regionMax, cminX, cmaxX, cminZ, cmaxZ,
-                                minY, maxY, mc, sharedBeBatch, offsetX, offsetY, offsetZ, processedEntityIds);
+                                minY, maxY, mc, samplers, offsetX, offsetY, offsetZ, entityQueue);
                         } else {
                             String reason = (chunk == null) ? "null" : "empty";
                             if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
@@ -277,14 +341,27 @@ public final class StreamingRegionSampler {
                 }
             }
 
-            // OPTIMIZATION: Single flush of accumulated BlockEntity render tasks
-            // Reduces main thread blocking from N-chunks to 1 total flush
-            VoxelBridgeLogger.info(LogModule.EXPORT, "[StreamingRegionSampler] Flushing accumulated BlockEntity render tasks...");
+            // BlockEntity render tasks have been draining on the render thread under the
+            // per-frame budget while sampling ran; wait for the remainder here.
+            VoxelBridgeLogger.info(LogModule.EXPORT, "[StreamingRegionSampler] Waiting for " + MainThreadWorkScheduler.pending() + " pending BlockEntity render tasks...");
             sharedBeBatch.flush(mc);
+
+            VoxelBridgeLogger.info(LogModule.EXPORT, "[StreamingRegionSampler] Rendering " + entityQueue.size() + " deferred entities...");
+            entityQueue.renderAll(ctx, level, sink, offsetX, offsetY, offsetZ);
+
+            if (incremental != null) {
+                incremental.commit();
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
             executor.shutdownNow();
+            // Drop render tasks that never ran (aborted export)
+            sharedBeBatch.clear();
+            entityQueue.clear();
+            if (incremental != null) {
+                incremental.close();
+            }
         }
 
         ExportProgressTracker.Progress finalProgress = ExportProgressTracker.progress();
@@ -294,6 +371,9 @@ public final class StreamingRegionSampler {
             formatLabel, finalProgress.done(), finalProgress.failed(), finalProgress.total()
         );
         VoxelBridgeLogger.info(LogModule.EXPORT, summary);
+        ctx.getQuadTemplateCache().logStats();
+        ctx.getSectionStats().logStats();
+        ctx.getEntityGeometryCache().logStats();
         mc.execute(() -> {
             if (mc.player != null) {
                 mc.player.displayClientMessage(net.minecraft.network.chat.Component.literal(summary), false);
@@ -301,7 +381,7 @@ public final class StreamingRegionSampler {
         });
     }
 
-    private static void exportChunk(LevelChunk chunk, ChunkPos chunkPos, Level level,
+    private static void exportChunk(ChunkNeighborhoodSnapshot snapshot, ChunkPos chunkPos, Level level,
                                    ClientChunkCache chunkCache, SceneSink finalSink, ExportContext ctx,
                                    BlockPos regionMin, BlockPos regionMax,
                                    int minX, int maxX, int minZ, int maxZ,
@@ -309,8 +389,11 @@ public final class StreamingRegionSampler {
                                    Minecraft mc, Set<ChunkPos> processing,
                                    ChunkPos playerChunk, int activeDistance,
                                    BlockEntityRenderBatch sharedBeBatch,
+                                   BlockExporterPool samplers,
                                    double offsetX, double offsetY, double offsetZ,
-                                   java.util.Set<Integer> processedEntityIds) {
+                                   EntityExportQueue entityQueue,
+                                   AdaptiveWorkerController workers,
+                                   IncrementalExportCache incremental) {
         boolean started = false;
         try {
             ExportProgressTracker.markRunning(chunkPos.x, chunkPos.z);
@@ -318,7 +401,7 @@ public final class StreamingRegionSampler {
                 VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming] Begin export chunk " + chunkPos);
             }
 
-            if (chunk.isEmpty()) {
+            if (!snapshot.isChunkLoaded(chunkPos.x, chunkPos.z)) {
                 if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
                     VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming] Chunk " + chunkPos + " is empty, marking pending");
                 }
@@ -346,69 +429,44 @@ public final class StreamingRegionSampler {
             finalSink.onChunkStart(chunkPos.x, chunkPos.z);
             started = true;
 
-            // OPTIMIZATION: Reuse MutableBlockPos to avoid 98,304 object allocations per chunk
-            // Memory savings: ~2.4MB temporary objects per chunk + reduced GC pressure
-            BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
             int blockCount = 0;
             boolean producedGeometry = false;
 
-            // OPTIMIZATION: Use ChunkSection API for faster block state access (1.3-1.8x speedup)
-            // Reduces 98,304 method calls per chunk by accessing palette directly
-            int minSectionY = level.getMinSection();
-            int maxSectionY = level.getMaxSection();
-            int worldMinY = level.getMinBuildHeight();
-
-            // getMaxSection() is exclusive; iterate while < maxSectionY to avoid AIOOB on the last index
-            for (int sectionIndex = minSectionY; sectionIndex < maxSectionY; sectionIndex++) {
-                // Get section (16x16x16 block region)
-                LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionIndex));
-                if (section == null || section.hasOnlyAir()) {
-                    continue; // Skip empty sections entirely
-                }
-
-                // Section-local buffer/dedup to降低单批内存峰值
-                BufferedSceneSink buffer = new BufferedSceneSink();
-                BlockExporter localSampler = new BlockExporter(ctx, buffer, level, sharedBeBatch, finalSink);
-                localSampler.setRegionBounds(regionMin, regionMax);
-
-                int sectionBaseY = worldMinY + (sectionIndex - minSectionY) * 16;
-
-                // Iterate through section in Y-Z-X order (better cache locality)
-                for (int localY = 0; localY < 16; localY++) {
-                    int worldY = sectionBaseY + localY;
-                    if (worldY < minY || worldY > maxY) continue;
-
-                    for (int localZ = 0; localZ < 16; localZ++) {
-                        int worldZ = (chunkPos.z << 4) + localZ;
-                        if (worldZ < minZ || worldZ > maxZ) continue;
-
-                        for (int localX = 0; localX < 16; localX++) {
-                            int worldX = (chunkPos.x << 4) + localX;
-                            if (worldX < minX || worldX > maxX) continue;
-
-                            if (blockCount % 64 == 0 && chunk.isEmpty()) {
-                                ExportProgressTracker.markPending(chunkPos.x, chunkPos.z);
-                                return;
-                            }
-
-                            try {
-                                // Direct palette access - much faster than getBlockState()
-                                BlockState state = section.getBlockState(localX, localY, localZ);
-                                if (state.isAir()) continue;
-
-                                mutablePos.set(worldX, worldY, worldZ);
-                                localSampler.sampleBlock(state, mutablePos);
-                                blockCount++;
-                            } catch (Throwable t) {
-                                t.printStackTrace();
-                            }
-                        }
-                    }
+            long contentHash = 0L;
+            IncrementalExportCache.Recorder recorder = null;
+            if (incremental != null) {
+                contentHash = incremental.hash(snapshot);
+                if (incremental.replay(chunkPos, contentHash, finalSink)) {
+                    // Block geometry reused; block entities and entities still render every export
+                    exportBlockEntities(snapshot, chunkPos, level, finalSink, ctx,
+                        minX, maxX, minZ, maxZ, minY, maxY, sharedBeBatch, offsetX, offsetY, offsetZ);
+                    entityQueue.collect(level, new net.minecraft.world.phys.AABB(
+                        minX, minY, minZ,
+                        maxX + 1, maxY + 1, maxZ + 1
+                    ), chunkPos.x, chunkPos.z);
+                    ExportProgressTracker.markDone(chunkPos.x, chunkPos.z);
+                    finalSink.onChunkEnd(chunkPos.x, chunkPos.z, true);
+                    notifySamplingProgress(mc);
+                    started = false;
+                    return;
                 }
-                if (localSampler.hadMissingNeighborAndReset()) {
+                recorder = incremental.recorder();
+            }
+            SceneSink geometrySink = recorder != null ? recorder : finalSink;
+
+            // Sections are sampled as independent subtasks so idle workers can steal
+            // sections of heavy chunks; results are merged back in section order.
+            List<ForkJoinTask<SectionResult>> sectionTasks = forkSections(snapshot, chunkPos, level, ctx,
+                regionMin, regionMax, minX, maxX, minZ, maxZ, minY, maxY, samplers, workers);
+            for (int i = 0; i < sectionTasks.size(); i++) {
+                SectionResult result = joinSection(sectionTasks.get(i));
+                if (result == null) continue;
+                blockCount += result.blockCount();
+                if (result.missingNeighbor()) {
                     if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
                         VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming] Chunk " + chunkPos + " incomplete (missing neighbors), retry.");
                     }
+                    cancelSections(sectionTasks, i + 1);
                     // BUG FIX: Don't clear shared batch! Only discard this chunk's buffered geometry
                     ExportProgressTracker.markPending(chunkPos.x, chunkPos.z);
                     finalSink.onChunkEnd(chunkPos.x, chunkPos.z, false);
@@ -416,36 +474,26 @@ public final class StreamingRegionSampler {
                     return;
                 }
 
+                BufferedSceneSink buffer = result.buffer();
                 if (!buffer.isEmpty()) {
                     if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
-                        VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming] Flushing section buffered quads chunk=" + chunkPos + " sectionY=" + sectionIndex + " quads=" + buffer.getQuadCount());
+                        VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming] Flushing section buffered quads chunk=" + chunkPos + " sectionY=" + result.sectionY() + " quads=" + buffer.getQuadCount());
                     }
-                    buffer.flushTo(finalSink);
+                    buffer.flushTo(geometrySink);
                     producedGeometry = true;
                 }
             }
-
-            // OPTIMIZATION: Don't flush per-chunk, accumulate in shared batch
-            // sharedBeBatch will be flushed once after all chunks complete
-            // Export entities in this chunk (deduped globally, skip AI-enabled livings)
-            BufferedSceneSink entityBuffer = new BufferedSceneSink();
-            com.voxelbridge.export.exporter.entity.EntityExporter.exportEntitiesInChunk(
-                ctx,
-                entityBuffer,
-                level,
-                new net.minecraft.world.phys.AABB(
-                    minX, minY, minZ,
-                    maxX + 1, maxY + 1, maxZ + 1
-                ),
-                offsetX, offsetY, offsetZ,
-                processedEntityIds
-            );
-
-            if (!entityBuffer.isEmpty()) {
-                entityBuffer.flushTo(finalSink);
-                producedGeometry = true;
+            if (recorder != null) {
+                incremental.store(chunkPos, contentHash, recorder, finalSink);
             }
 
+            // BlockEntity tasks are already scheduled on the render thread; don't wait per chunk
+            // Snapshot entities in this chunk (deduped globally, skip AI-enabled livings); rendered after sampling
+            entityQueue.collect(level, new net.minecraft.world.phys.AABB(
+                minX, minY, minZ,
+                maxX + 1, maxY + 1, maxZ + 1
+            ), chunkPos.x, chunkPos.z);
+
             if (!producedGeometry && VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
                 VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming] Chunk " + chunkPos + " produced 0 quads after sampling");
             }
@@ -473,18 +521,173 @@ public final class StreamingRegionSampler {
         }
     }
 
+    /**
+     * Exports the block entities of a chunk whose block geometry was replayed from the incremental cache.
+     */
+    private static void exportBlockEntities(ChunkNeighborhoodSnapshot snapshot, ChunkPos chunkPos, Level level,
+                                            SceneSink finalSink, ExportContext ctx,
+                                            int minX, int maxX, int minZ, int maxZ, int minY, int maxY,
+                                            BlockEntityRenderBatch sharedBeBatch,
+                                            double offsetX, double offsetY, double offsetZ) {
+        if (!ctx.isBlockEntityExportEnabled()) return;
+        for (net.minecraft.world.level.block.entity.BlockEntity be : snapshot.getBlockEntitiesIn(chunkPos.x, chunkPos.z)) {
+            BlockPos pos = be.getBlockPos();
+            if (pos.getX() < minX || pos.getX() > maxX || pos.getY() < minY || pos.getY() > maxY
+                || pos.getZ() < minZ || pos.getZ() > maxZ) {
+                continue;
+            }
+            try {
+                BlockEntityExporter.export(ctx, level, snapshot.getBlockState(pos), be, pos,
+                    finalSink, offsetX, offsetY, offsetZ, sharedBeBatch);
+            } catch (Throwable t) {
+                VoxelBridgeLogger.warn(LogModule.BLOCKENTITY, "[Streaming] BlockEntity export failed at " + pos.toShortString() + ": " + t.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Result of sampling one section: its buffered geometry and whether a neighbour was missing.
+     */
+    private record SectionResult(int sectionY, BufferedSceneSink buffer, int blockCount, boolean missingNeighbor) {}
+
+    /**
+     * Creates one sampling subtask per section of the chunk. On an export pool worker the
+     * tasks are forked so other workers can steal them; elsewhere they run when joined.
+     * With a worker controller, each subtask holds an active permit while it samples.
+     */
+    private static List<ForkJoinTask<SectionResult>> forkSections(ChunkNeighborhoodSnapshot snapshot, ChunkPos chunkPos,
+                                                                 Level level, ExportContext ctx,
+                                                                 BlockPos regionMin, BlockPos regionMax,
+                                                                 int minX, int maxX, int minZ, int maxZ,
+                                                                 int minY, int maxY,
+                                                                 BlockExporterPool samplers,
+                                                                 AdaptiveWorkerController workers) {
+        // OPTIMIZATION: Use ChunkSection API for faster block state access (1.3-1.8x speedup)
+        // Reduces 98,304 method calls per chunk by accessing palette directly
+        int minSectionY = level.getMinSection();
+        int maxSectionY = level.getMaxSection();
+        int worldMinY = level.getMinBuildHeight();
+        boolean fork = ForkJoinTask.inForkJoinPool();
+
+        // getMaxSection() is exclusive; iterate while < maxSectionY to avoid AIOOB on the last index
+        List<ForkJoinTask<SectionResult>> tasks = new ArrayList<>(maxSectionY - minSectionY);
+        for (int sectionIndex = minSectionY; sectionIndex < maxSectionY; sectionIndex++) {
+            final int sectionY = sectionIndex;
+            final int sectionBaseY = worldMinY + (sectionIndex - minSectionY) * 16;
+            ForkJoinTask<SectionResult> task = ForkJoinTask.adapt(() -> {
+                if (workers == null) {
+                    return sampleSection(snapshot, chunkPos, sectionY, sectionBaseY, ctx,
+                        regionMin, regionMax, minX, maxX, minZ, maxZ, minY, maxY, samplers);
+                }
+                workers.acquire();
+                try {
+                    return sampleSection(snapshot, chunkPos, sectionY, sectionBaseY, ctx,
+                        regionMin, regionMax, minX, maxX, minZ, maxZ, minY, maxY, samplers);
+                } finally {
+                    workers.release();
+                }
+            });
+            tasks.add(fork ? task.fork() : task);
+        }
+        return tasks;
+    }
+
+    private static SectionResult joinSection(ForkJoinTask<SectionResult> task) {
+        return ForkJoinTask.inForkJoinPool() ? task.join() : task.invoke();
+    }
+
+    private static void cancelSections(List<ForkJoinTask<SectionResult>> tasks, int from) {
+        for (int i = from; i < tasks.size(); i++) {
+            tasks.get(i).cancel(false);
+        }
+    }
+
+    /**
+     * Samples one section into its own buffer. Returns null if the section is skipped.
+     */
+    private static SectionResult sampleSection(ChunkNeighborhoodSnapshot snapshot, ChunkPos chunkPos,
+                                               int sectionIndex, int sectionBaseY,
+                                               ExportContext ctx,
+                                               BlockPos regionMin, BlockPos regionMax,
+                                               int minX, int maxX, int minZ, int maxZ,
+                                               int minY, int maxY,
+                                               BlockExporterPool samplers) {
+        // Get section (16x16x16 block region)
+        LevelChunkSection section = snapshot.getSection(chunkPos.x, sectionIndex, chunkPos.z);
+        if (section == null || section.hasOnlyAir()) {
+            if (section != null) ctx.getSectionStats().recordUniformAir();
+            return null; // Skip empty sections entirely
+        }
+
+        SectionOcclusionMask mask = SectionOcclusionMask.build(snapshot, sectionIndex, regionMin, regionMax);
+        if (isSectionHidden(snapshot, sectionIndex, mask)) {
+            ctx.getSectionStats().recordEnclosed();
+            return null; // No exposed surface: nothing in this section can produce geometry
+        }
+        ctx.getSectionStats().recordSampled();
+
+        // OPTIMIZATION: Reuse MutableBlockPos to avoid 4,096 object allocations per section
+        BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+        int blockCount = 0;
+
+        // Section-local buffer/dedup to降低单批内存峰值
+        BufferedSceneSink buffer = samplers.newSectionBuffer();
+        // If sampling throws, the exporter is simply not released and the thread builds a new one
+        BlockExporter localSampler = samplers.acquire(chunkPos, snapshot, buffer);
+        localSampler.setSectionMask(mask);
+
+        // Single-palette solid/fluid sections: only the outer shell can produce geometry
+        UniformKind uniform = classifyUniform(section, snapshot, chunkPos, sectionBaseY, regionMin, regionMax);
+        if (uniform != UniformKind.NONE) {
+            blockCount += sampleUniformShell(uniform, section.getBlockState(0, 0, 0), snapshot,
+                chunkPos, sectionBaseY, mask, localSampler, mutablePos, ctx);
+        } else {
+            // Iterate through section in Y-Z-X order (better cache locality)
+            for (int localY = 0; localY < 16; localY++) {
+                int worldY = sectionBaseY + localY;
+                if (worldY < minY || worldY > maxY) continue;
+
+                for (int localZ = 0; localZ < 16; localZ++) {
+                    int worldZ = (chunkPos.z << 4) + localZ;
+                    if (worldZ < minZ || worldZ > maxZ) continue;
+
+                    for (int localX = 0; localX < 16; localX++) {
+                        int worldX = (chunkPos.x << 4) + localX;
+                        if (worldX < minX || worldX > maxX) continue;
+
+                        try {
+                            // Direct palette access - much faster than getBlockState()
+                            BlockState state = section.getBlockState(localX, localY, localZ);
+                            if (state.isAir()) continue;
+
+                            mutablePos.set(worldX, worldY, worldZ);
+                            localSampler.sampleBlock(state, mutablePos);
+                            blockCount++;
+                        } catch (Throwable t) {
+                            t.printStackTrace();
+                        }
+                    }
+                }
+            }
+        }
+        localSampler.flushFluidSurfaces();
+        boolean missingNeighbor = localSampler.hadMissingNeighborAndReset();
+        samplers.release(localSampler);
+        return new SectionResult(sectionIndex, buffer, blockCount, missingNeighbor);
+    }
+
     /**
      * Force-export a chunk even if it was previously pending or missing neighbors.
      * This path scans the full block volume inside the chunk bounds.
      */
-    private static void forceExportChunk(LevelChunk chunk, ChunkPos chunkPos, Level level,
+    private static void forceExportChunk(ChunkNeighborhoodSnapshot snapshot, ChunkPos chunkPos, Level level,
                                         SceneSink finalSink, ExportContext ctx,
                                         BlockPos regionMin, BlockPos regionMax,
                                         int minX, int maxX, int minZ, int maxZ,
                                         int minY, int maxY,
-                                        Minecraft mc, BlockEntityRenderBatch sharedBeBatch,
+                                        Minecraft mc, BlockExporterPool samplers,
                                         double offsetX, double offsetY, double offsetZ,
-                                        java.util.Set<Integer> processedEntityIds) {
+                                        EntityExportQueue entityQueue) {
         boolean started = false;
         try {
             ExportProgressTracker.markRunning(chunkPos.x, chunkPos.z);
@@ -492,7 +695,7 @@ public final class StreamingRegionSampler {
             VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming][Force] Begin force export chunk " + chunkPos);
             }
 
-            if (chunk.isEmpty()) {
+            if (!snapshot.isChunkLoaded(chunkPos.x, chunkPos.z)) {
                 if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
                     VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming][Force] Chunk " + chunkPos + " is empty, marking failed");
                 }
@@ -504,89 +707,41 @@ public final class StreamingRegionSampler {
             finalSink.onChunkStart(chunkPos.x, chunkPos.z);
             started = true;
 
-            BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
             int blockCount = 0;
             boolean producedGeometry = false;
 
-            // OPTIMIZATION: Use ChunkSection API for faster block state access
-            // This mirrors the fast path in exportChunk
-            int minSectionY = level.getMinSection();
-            int maxSectionY = level.getMaxSection();
-            int worldMinY = level.getMinBuildHeight();
-
-            for (int sectionIndex = minSectionY; sectionIndex < maxSectionY; sectionIndex++) {
-                LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionIndex));
-                if (section == null || section.hasOnlyAir()) {
-                    continue; // Skip empty sections
-                }
-
-                BufferedSceneSink buffer = new BufferedSceneSink();
-                BlockExporter localSampler = new BlockExporter(ctx, buffer, level, sharedBeBatch, finalSink);
-                localSampler.setRegionBounds(regionMin, regionMax);
-
-                int sectionBaseY = worldMinY + (sectionIndex - minSectionY) * 16;
-
-                // Iterate Y-Z-X for cache locality
-                for (int localY = 0; localY < 16; localY++) {
-                    int worldY = sectionBaseY + localY;
-                    if (worldY < minY || worldY > maxY) continue;
-
-                    for (int localZ = 0; localZ < 16; localZ++) {
-                        int worldZ = (chunkPos.z << 4) + localZ;
-                        if (worldZ < minZ || worldZ > maxZ) continue;
-
-                        for (int localX = 0; localX < 16; localX++) {
-                            int worldX = (chunkPos.x << 4) + localX;
-                            if (worldX < minX || worldX > maxX) continue;
-
-                            try {
-                                BlockState state = section.getBlockState(localX, localY, localZ);
-                                if (state.isAir()) continue;
-
-                                mutablePos.set(worldX, worldY, worldZ);
-                                localSampler.sampleBlock(state, mutablePos);
-                                blockCount++;
-                            } catch (Throwable t) {
-                                t.printStackTrace();
-                            }
-                        }
-                    }
-                }
-                if (localSampler.hadMissingNeighborAndReset()) {
+            // Same section subtasks as exportChunk; outside the export pool they run inline in order
+            List<ForkJoinTask<SectionResult>> sectionTasks = forkSections(snapshot, chunkPos, level, ctx,
+                regionMin, regionMax, minX, maxX, minZ, maxZ, minY, maxY, samplers, null);
+            for (int i = 0; i < sectionTasks.size(); i++) {
+                SectionResult result = joinSection(sectionTasks.get(i));
+                if (result == null) continue;
+                blockCount += result.blockCount();
+                if (result.missingNeighbor()) {
                     if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
                         VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming][Force] Chunk " + chunkPos + " incomplete (missing neighbors), retry.");
                     }
+                    cancelSections(sectionTasks, i + 1);
                     ExportProgressTracker.markPending(chunkPos.x, chunkPos.z);
                     finalSink.onChunkEnd(chunkPos.x, chunkPos.z, false);
                     started = false;
                     return;
                 }
 
+                BufferedSceneSink buffer = result.buffer();
                 if (!buffer.isEmpty()) {
                     if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
-                        VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming][Force] Flushing section buffered quads chunk=" + chunkPos + " sectionY=" + sectionIndex + " quads=" + buffer.getQuadCount());
+                        VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming][Force] Flushing section buffered quads chunk=" + chunkPos + " sectionY=" + result.sectionY() + " quads=" + buffer.getQuadCount());
                     }
                     buffer.flushTo(finalSink);
                     producedGeometry = true;
                 }
             }
 
-            BufferedSceneSink entityBuffer = new BufferedSceneSink();
-            com.voxelbridge.export.exporter.entity.EntityExporter.exportEntitiesInChunk(
-                ctx,
-                entityBuffer,
-                level,
-                new net.minecraft.world.phys.AABB(
-                    minX, minY, minZ,
-                    maxX + 1, maxY + 1, maxZ + 1
-                ),
-                offsetX, offsetY, offsetZ,
-                processedEntityIds
-            );
-            if (!entityBuffer.isEmpty()) {
-                entityBuffer.flushTo(finalSink);
-                producedGeometry = true;
-            }
+            entityQueue.collect(level, new net.minecraft.world.phys.AABB(
+                minX, minY, minZ,
+                maxX + 1, maxY + 1, maxZ + 1
+            ), chunkPos.x, chunkPos.z);
             ExportProgressTracker.markDone(chunkPos.x, chunkPos.z);
             if (VoxelBridgeLogger.isDebugEnabled(LogModule.EXPORT)) {
                 VoxelBridgeLogger.info(LogModule.EXPORT, "[Streaming][Force] Chunk " + chunkPos + " force exported, blocksVisited=" + blockCount + ", producedGeometry=" + producedGeometry);
@@ -613,6 +768,100 @@ public final class StreamingRegionSampler {
         }
     }
 
+    /** Single-palette section classes that can be sampled on their outer shell only. */
+    private enum UniformKind { NONE, SOLID, FLUID }
+
+    /**
+     * Classifies a single-palette section lying fully inside the region.
+     * Opaque cubes and plain fluid (invisible block model) only produce geometry where they touch
+     * different content, which can only happen on the outer 16x16 faces of the section.
+     */
+    private static UniformKind classifyUniform(LevelChunkSection section, BlockGetter world, ChunkPos chunkPos,
+                                               int sectionBaseY, BlockPos regionMin, BlockPos regionMax) {
+        BlockState state = SectionOcclusionMask.uniformState(section);
+        if (state == null || state.isAir() || state.hasBlockEntity()) return UniformKind.NONE;
+        int baseX = chunkPos.x << 4;
+        int baseZ = chunkPos.z << 4;
+        if (!SectionOcclusionMask.isSectionInside(baseX, sectionBaseY, baseZ, regionMin, regionMax)) {
+            return UniformKind.NONE;
+        }
+        if (state.isSolidRender(world, new BlockPos(baseX, sectionBaseY, baseZ))) return UniformKind.SOLID;
+        if (!state.getFluidState().isEmpty() && state.getRenderShape() == RenderShape.INVISIBLE) {
+            return UniformKind.FLUID;
+        }
+        return UniformKind.NONE;
+    }
+
+    /**
+     * Single pass over the outer shell of a uniform section (1352 of 4096 blocks).
+     * Solid blocks are sampled only if the section mask reports an exposed face; fluid blocks only if
+     * a neighbour across the section boundary holds a different fluid, so the liquid renderer runs
+     * for surface blocks only.
+     *
+     * @return number of blocks handed to the exporter
+     */
+    private static int sampleUniformShell(UniformKind kind, BlockState state, BlockGetter world, ChunkPos chunkPos,
+                                          int sectionBaseY, SectionOcclusionMask mask, BlockExporter sampler,
+                                          BlockPos.MutableBlockPos pos, ExportContext ctx) {
+        int baseX = chunkPos.x << 4;
+        int baseZ = chunkPos.z << 4;
+        Fluid fluid = state.getFluidState().getType();
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        int visited = 0;
+
+        for (int localY = 0; localY < 16; localY++) {
+            for (int localZ = 0; localZ < 16; localZ++) {
+                // Inner rows only touch the section boundary at x=0 and x=15
+                boolean edgeRow = localY == 0 || localY == 15 || localZ == 0 || localZ == 15;
+                int stepX = edgeRow ? 1 : 15;
+                for (int localX = 0; localX < 16; localX += stepX) {
+                    pos.set(baseX + localX, sectionBaseY + localY, baseZ + localZ);
+                    boolean exposed = kind == UniformKind.SOLID
+                        ? mask.visibleFaces(pos) != 0
+                        : touchesOtherFluid(world, pos, localX, localY, localZ, fluid, neighbor);
+                    if (!exposed) continue;
+
+                    try {
+                        sampler.sampleBlock(state, pos);
+                        visited++;
+                    } catch (Throwable t) {
+                        t.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        if (kind == UniformKind.SOLID) {
+            ctx.getSectionStats().recordUniformSolid();
+        } else {
+            ctx.getSectionStats().recordUniformFluid();
+        }
+        return visited;
+    }
+
+    private static boolean touchesOtherFluid(BlockGetter world, BlockPos pos, int localX, int localY, int localZ,
+                                             Fluid fluid, BlockPos.MutableBlockPos neighbor) {
+        for (Direction dir : Direction.values()) {
+            int nx = localX + dir.getStepX();
+            int ny = localY + dir.getStepY();
+            int nz = localZ + dir.getStepZ();
+            if (((nx | ny | nz) & ~15) == 0) continue; // Inside the section: same fluid
+            neighbor.setWithOffset(pos, dir);
+            if (!world.getFluidState(neighbor).getType().isSame(fluid)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * A section can be skipped when it and every touching neighbour block are opaque full cubes,
+     * unless it holds block entities (exported independently of face visibility).
+     */
+    private static boolean isSectionHidden(ChunkNeighborhoodSnapshot snapshot, int sectionY, SectionOcclusionMask mask) {
+        if (!mask.isEnclosed()) return false;
+        ChunkPos center = snapshot.getCenter();
+        return !snapshot.hasBlockEntityIn(center.x, sectionY, center.z);
+    }
+
     private static boolean areNeighborChunksReady(ChunkPos chunkPos, int minChunkX, int maxChunkX, int minChunkZ, int maxChunkZ, ClientChunkCache chunkCache, boolean includeDiagonals, ChunkPos playerChunk, int activeDistance) {
         int[][] offsets = includeDiagonals ? new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}} : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
         for (int[] off : offsets) {
@@ -0,0 +1,103 @@
+package com.voxelbridge.export.batch;
+
+import net.minecraft.core.BlockPos;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Unattended export job read from a properties file.
+ *
+ * <pre>
+ * world=nightly_snapshot        # folder name under saves/
+ * pos1=-512,-64,-512
+ * pos2=511,320,511
+ * output=/srv/exports/nightly   # optional, defaults to export/&lt;timestamp&gt;
+ * lod=true                      # optional, append the LOD pipeline
+ * lodRadius=8                   # optional, fine radius in chunks
+ * threads=16                    # optional, export worker threads
+ * incremental=true              # optional, reuse unchanged chunks from the previous run
+ * timeoutMinutes=60             # optional, fail the job after this long
+ * </pre>
+ */
+public record BatchExportJob(String world, BlockPos pos1, BlockPos pos2, Path output,
+                             Boolean lod, Integer lodRadius, Integer threads, Boolean incremental,
+                             int timeoutMinutes) {
+
+    private static final int DEFAULT_TIMEOUT_MINUTES = 60;
+
+    /**
+     * Parses a job file. Throws IllegalArgumentException describing the first invalid entry.
+     */
+    public static BatchExportJob load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        String world = required(props, "world");
+        BlockPos pos1 = parsePos("pos1", required(props, "pos1"));
+        BlockPos pos2 = parsePos("pos2", required(props, "pos2"));
+        String output = props.getProperty("output");
+        Path outputDir = output == null || output.isBlank() ? null : Path.of(output.trim());
+        Boolean lod = props.containsKey("lod") ? parseBoolean("lod", props.getProperty("lod")) : null;
+        Integer lodRadius = props.containsKey("lodRadius") ? parseInt("lodRadius", props.getProperty("lodRadius")) : null;
+        Integer threads = props.containsKey("threads") ? parseInt("threads", props.getProperty("threads")) : null;
+        Boolean incremental = props.containsKey("incremental")
+            ? parseBoolean("incremental", props.getProperty("incremental"))
+            : null;
+        int timeout = props.containsKey("timeoutMinutes")
+            ? parseInt("timeoutMinutes", props.getProperty("timeoutMinutes"))
+            : DEFAULT_TIMEOUT_MINUTES;
+        return new BatchExportJob(world, pos1, pos2, outputDir, lod, lodRadius, threads, incremental, Math.max(1, timeout));
+    }
+
+    /**
+     * Centre of the export region, used to place the player so the region's chunks load.
+     */
+    public BlockPos center() {
+        return new BlockPos(
+            (pos1.getX() + pos2.getX()) / 2,
+            Math.max(pos1.getY(), pos2.getY()),
+            (pos1.getZ() + pos2.getZ()) / 2);
+    }
+
+    private static String required(Properties props, String key) {
+        String value = props.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing required job entry '" + key + "'");
+        }
+        return value.trim();
+    }
+
+    private static BlockPos parsePos(String key, String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Job entry '" + key + "' must be x,y,z but was '" + value + "'");
+        }
+        return new BlockPos(
+            parseInt(key, parts[0]),
+            parseInt(key, parts[1]),
+            parseInt(key, parts[2]));
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Job entry '" + key + "' is not an integer: '" + value + "'");
+        }
+    }
+
+    private static boolean parseBoolean(String key, String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "on", "yes", "1" -> true;
+            case "false", "off", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("Job entry '" + key + "' is not a boolean: '" + value + "'");
+        };
+    }
+}
@@ -0,0 +1,261 @@
+package com.voxelbridge.export.batch;
+
+import com.voxelbridge.VoxelBridge;
+import com.voxelbridge.config.ExportRuntimeConfig;
+import com.voxelbridge.export.scene.gltf.GltfExportService;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import com.voxelbridge.util.io.IOUtil;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.GenericMessageScreen;
+import net.minecraft.client.gui.screens.TitleScreen;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Drives one unattended export from a job file and exits the process with a status code.
+ * Activated by starting the client with {@code -Dvoxelbridge.batchJob=<job.properties>};
+ * without the property this class does nothing. Once resource loading has finished the
+ * runner copies the job's world to a working save, opens the copy, moves the player to the
+ * region so its chunks load, runs the regular fine + LOD export and exits: 0 on success,
+ * non-zero on failure. The original save is never opened; on exit the copy is saved and
+ * closed through the regular disconnect flow, then deleted.
+ *
+ * Block models and textures come from the client's baked resources, so a client process is
+ * still required; on a build box it can run under a virtual display.
+ */
+@EventBusSubscriber(modid = VoxelBridge.MODID, bus = EventBusSubscriber.Bus.GAME, value = Dist.CLIENT)
+public final class BatchExportRunner {
+
+    public static final String JOB_PROPERTY = "voxelbridge.batchJob";
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_EXPORT_FAILED = 1;
+    public static final int EXIT_BAD_JOB = 2;
+    public static final int EXIT_WORLD_FAILED = 3;
+    public static final int EXIT_TIMEOUT = 4;
+
+    // Give the client chunk loader this long to deliver the region centre before sampling anyway.
+    private static final long CHUNK_WAIT_NANOS = 120_000_000_000L;
+
+    // Working copy folder under saves/; a fixed name keeps the incremental cache key stable across runs.
+    private static final String WORKING_COPY_SUFFIX = "-voxelbridge-batch";
+
+    private enum Stage { WAITING_FOR_CLIENT, LOADING_WORLD, WAITING_FOR_CHUNKS, EXPORTING, EXITING }
+
+    private static final String JOB_PATH = System.getProperty(JOB_PROPERTY);
+    private static Stage stage = Stage.WAITING_FOR_CLIENT;
+    private static BatchExportJob job;
+    private static long stageStartNanos;
+    private static long jobStartNanos;
+    private static Path workingCopy;
+
+    private BatchExportRunner() {}
+
+    public static boolean isActive() {
+        return JOB_PATH != null && !JOB_PATH.isBlank();
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        if (!isActive() || stage == Stage.EXITING) {
+            return;
+        }
+        Minecraft mc = Minecraft.getInstance();
+        if (job != null && System.nanoTime() - jobStartNanos > job.timeoutMinutes() * 60_000_000_000L) {
+            exit(EXIT_TIMEOUT, "Job timed out after " + job.timeoutMinutes() + " minutes in stage " + stage);
+            return;
+        }
+        switch (stage) {
+            case WAITING_FOR_CLIENT -> {
+                // Resource reload finished and the title screen is up
+                if (mc.getOverlay() == null && mc.screen instanceof TitleScreen) {
+                    startJob(mc);
+                }
+            }
+            case LOADING_WORLD -> {
+                if (mc.level != null && mc.player != null && mc.getSingleplayerServer() != null) {
+                    moveToRegion(mc);
+                    advance(Stage.WAITING_FOR_CHUNKS);
+                }
+            }
+            case WAITING_FOR_CHUNKS -> {
+                ChunkPos center = new ChunkPos(job.center());
+                boolean loaded = mc.level != null
+                    && mc.level.getChunkSource().getChunk(center.x, center.z, false) != null;
+                if (loaded || System.nanoTime() - stageStartNanos > CHUNK_WAIT_NANOS) {
+                    if (!loaded) {
+                        VoxelBridgeLogger.warn(LogModule.EXPORT, "[Batch] Region centre chunk not loaded yet, starting export anyway");
+                    }
+                    startExport(mc);
+                }
+            }
+            case EXPORTING, EXITING -> {
+                // Export thread exits the process when done
+            }
+        }
+    }
+
+    private static void startJob(Minecraft mc) {
+        jobStartNanos = System.nanoTime();
+        try {
+            job = BatchExportJob.load(Path.of(JOB_PATH));
+        } catch (Exception e) {
+            exit(EXIT_BAD_JOB, "Cannot read job file " + JOB_PATH + ": " + e.getMessage());
+            return;
+        }
+        Path saves = mc.getLevelSource().getBaseDir();
+        Path source = saves.resolve(job.world());
+        if (!Files.isDirectory(source)) {
+            exit(EXIT_WORLD_FAILED, "World '" + job.world() + "' not found under " + saves);
+            return;
+        }
+        String copyName = job.world() + WORKING_COPY_SUFFIX;
+        try {
+            workingCopy = saves.resolve(copyName);
+            copyWorld(source, workingCopy);
+        } catch (IOException e) {
+            exit(EXIT_WORLD_FAILED, "Cannot copy world '" + job.world() + "': " + e.getMessage());
+            return;
+        }
+
+        if (job.lod() != null) ExportRuntimeConfig.setLodEnabled(job.lod());
+        if (job.lodRadius() != null) ExportRuntimeConfig.setLodFineChunkRadius(job.lodRadius());
+        if (job.threads() != null) ExportRuntimeConfig.setExportThreadCount(job.threads());
+        if (job.incremental() != null) ExportRuntimeConfig.setIncrementalExportEnabled(job.incremental());
+
+        VoxelBridgeLogger.info(LogModule.EXPORT, "[Batch] Opening copy '" + copyName + "' of world '" + job.world() + "' for job " + JOB_PATH);
+        advance(Stage.LOADING_WORLD);
+        mc.createWorldOpenFlows().openWorld(copyName,
+            () -> exit(EXIT_WORLD_FAILED, "Opening world '" + job.world() + "' was cancelled"));
+    }
+
+    private static void moveToRegion(Minecraft mc) {
+        BlockPos center = job.center();
+        var server = mc.getSingleplayerServer();
+        server.execute(() -> {
+            ServerPlayer player = server.getPlayerList().getPlayers().isEmpty()
+                ? null
+                : server.getPlayerList().getPlayers().get(0);
+            if (player != null) {
+                player.teleportTo(center.getX() + 0.5, center.getY(), center.getZ() + 0.5);
+            }
+        });
+        VoxelBridgeLogger.info(LogModule.EXPORT, "[Batch] Moved player to region centre " + center.toShortString());
+    }
+
+    private static void startExport(Minecraft mc) {
+        advance(Stage.EXPORTING);
+        Level level = mc.level;
+        BatchExportJob current = job;
+        Thread worker = new Thread(() -> {
+            try {
+                Path outDir = current.output() != null ? current.output() : IOUtil.ensureExportDir();
+                Files.createDirectories(outDir);
+                long start = System.currentTimeMillis();
+                Path file = GltfExportService.exportRegion(level, current.pos1(), current.pos2(), outDir);
+                exit(EXIT_OK, String.format("Export completed: %s (%.2fs)",
+                    file.toAbsolutePath(), (System.currentTimeMillis() - start) / 1000.0));
+            } catch (Throwable t) {
+                VoxelBridgeLogger.error(LogModule.EXPORT, "[Batch] Export failed", t);
+                exit(EXIT_EXPORT_FAILED, "Export failed: " + t.getMessage());
+            }
+        }, "VoxelBridge-BatchExport");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static void advance(Stage next) {
+        stage = next;
+        stageStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Logs the result, closes the working copy like "Save and Quit" and exits the process.
+     * Safe to call from any thread; the shutdown itself runs on the client thread.
+     */
+    private static void exit(int code, String message) {
+        if (code == EXIT_OK) {
+            VoxelBridgeLogger.info(LogModule.EXPORT, "[Batch] " + message);
+        } else {
+            VoxelBridgeLogger.error(LogModule.EXPORT, "[Batch] " + message + " (exit code " + code + ")");
+        }
+        advance(Stage.EXITING);
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.isSameThread()) {
+            shutdownAndExit(mc, code);
+        } else {
+            mc.execute(() -> shutdownAndExit(mc, code));
+        }
+    }
+
+    private static void shutdownAndExit(Minecraft mc, int code) {
+        try {
+            if (mc.level != null) {
+                // Same sequence as the pause screen: returns once the integrated server has saved and stopped
+                boolean local = mc.isLocalServer();
+                mc.level.disconnect();
+                if (local) {
+                    mc.disconnect(new GenericMessageScreen(Component.translatable("menu.savingLevel")));
+                } else {
+                    mc.disconnect();
+                }
+            }
+            if (workingCopy != null) {
+                deleteTree(workingCopy);
+            }
+        } catch (Throwable t) {
+            VoxelBridgeLogger.error(LogModule.EXPORT, "[Batch] Shutdown cleanup failed: " + t.getMessage());
+        }
+        System.exit(code);
+    }
+
+    /**
+     * Copies a save folder, replacing a copy left behind by an earlier run. The session lock is
+     * not copied; the integrated server creates its own for the copy.
+     */
+    private static void copyWorld(Path source, Path target) throws IOException {
+        deleteTree(target);
+        try (Stream<Path> walk = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) walk::iterator) {
+                Path relative = source.relativize(path);
+                if (relative.toString().equals("session.lock")) {
+                    continue;
+                }
+                Path dest = target.resolve(relative.toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(dest);
+                } else {
+                    Files.copy(path, dest, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            List<Path> paths = walk.sorted(Comparator.reverseOrder()).toList();
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
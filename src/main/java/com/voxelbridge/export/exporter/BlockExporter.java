@@ -1,19 +1,22 @@
 package com.voxelbridge.export.exporter;
 
 import com.voxelbridge.config.ExportRuntimeConfig;
+import com.voxelbridge.export.ChunkNeighborhoodSnapshot;
 import com.voxelbridge.export.CoordinateMode;
 import com.voxelbridge.export.ExportContext;
 import com.voxelbridge.export.exporter.blockentity.BlockEntityExporter;
 import com.voxelbridge.export.exporter.blockentity.BlockEntityExportResult;
 import com.voxelbridge.export.exporter.blockentity.BlockEntityRenderBatch;
 import com.voxelbridge.export.scene.SceneSink;
-import com.voxelbridge.export.texture.SpriteKeyResolver;
+import com.voxelbridge.export.texture.SpriteRegistry;
 import com.voxelbridge.modhandler.ModHandledQuads;
 import com.voxelbridge.modhandler.ModHandlerRegistry;
 import com.voxelbridge.modhandler.frapi.FabricApiHelper;
 import com.voxelbridge.util.debug.LogModule;
 import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import com.voxelbridge.export.util.geometry.GeometryUtil;
 import com.voxelbridge.export.util.geometry.VertexExtractor;
+import com.voxelbridge.export.util.geometry.VertexScratch;
 import net.fabricmc.fabric.api.renderer.v1.model.FabricBakedModel;
 import net.fabricmc.fabric.api.renderer.v1.model.SpriteFinder;
 import net.minecraft.client.multiplayer.ClientChunkCache;
@@ -26,6 +29,8 @@ import net.minecraft.core.Direction;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LightLayer;
 import net.minecraft.world.level.block.Blocks;
@@ -41,22 +46,24 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 /**
  * Simplified block geometry exporter.
  * Delegates specialized tasks to dedicated managers and processors.
+ * Sampling workers keep one instance each (see {@link BlockExporterPool}) and {@link #reset} it per section.
  */
 public final class BlockExporter {
     private final ExportContext ctx;
-    private final SceneSink sceneSink;
+    private SceneSink sceneSink;
     private final SceneSink blockEntitySceneSink;
     private final Level level;
     private final ClientChunkCache chunkCache;
     private final SpriteFinder spriteFinder;
     private final boolean vanillaRandomTransformEnabled;
     private final BlockEntityRenderBatch blockEntityBatch;
+    private final QuadTemplateCache templateCache;
+    private final SpriteRegistry sprites;
 
     private BlockPos regionMin;
     private BlockPos regionMax;
@@ -67,10 +74,26 @@ public final class BlockExporter {
     // Managers for specialized tasks
     private OverlayManager overlayManager;
     private QuadProcessor quadProcessor;
+    private FluidSurfaceMesher fluidMesher;
 
     private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+    // Extraction buffers for this exporter's worker; shared with its QuadProcessor
+    private final VertexScratch scratch = new VertexScratch();
+    // Reused by getQuads; reseeded per block
+    private final RandomSource random = RandomSource.create();
+    private final List<BakedQuad> quadBuffer = new ArrayList<>();
     private volatile boolean missingNeighborDetected = false;
 
+    // Chunk of the section being sampled (diagnostics only)
+    private ChunkPos chunkPos;
+
+    // Opacity mask of the section being sampled (null = per-face level lookups only)
+    private SectionOcclusionMask sectionMask;
+
+    // Block/tint/light source for sampling: the chunk snapshot when set, otherwise the live level
+    private ChunkNeighborhoodSnapshot snapshot;
+    private BlockAndTintGetter world;
+
     public BlockExporter(ExportContext ctx, SceneSink sceneSink, Level level) {
         this(ctx, sceneSink, level, null, sceneSink);
     }
@@ -84,10 +107,13 @@ public final class BlockExporter {
         this.sceneSink = sceneSink;
         this.blockEntitySceneSink = blockEntitySceneSink != null ? blockEntitySceneSink : sceneSink;
         this.level = level;
+        this.world = level;
         this.chunkCache = (level instanceof ClientLevel cl) ? cl.getChunkSource() : null;
         this.spriteFinder = SpriteFinder.get(ctx.getMc().getModelManager().getAtlas(TextureAtlas.LOCATION_BLOCKS));
         this.vanillaRandomTransformEnabled = ctx.isVanillaRandomTransformEnabled();
         this.blockEntityBatch = blockEntityBatch;
+        this.templateCache = ctx.getQuadTemplateCache();
+        this.sprites = ctx.getSpriteRegistry();
     }
 
     public void setRegionBounds(BlockPos min, BlockPos max) {
@@ -105,8 +131,70 @@ public final class BlockExporter {
         }
 
         // Initialize managers with current offsets
-        this.overlayManager = new OverlayManager(ctx, level, offsetX, offsetY, offsetZ);
-        this.quadProcessor = new QuadProcessor(ctx, level, sceneSink, offsetX, offsetY, offsetZ);
+        createManagers();
+    }
+
+    /**
+     * Routes all block, fluid, light and tint reads through an immutable chunk snapshot.
+     * Block entity export and mod handlers still receive the level; block entity rendering runs on the client thread.
+     */
+    public void setSnapshot(ChunkNeighborhoodSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.world = snapshot != null ? snapshot : level;
+        if (overlayManager != null) {
+            bindManagers();
+        }
+    }
+
+    /**
+     * Prepares a reused exporter for the next section of {@code chunkPos}.
+     * Pending fluid surfaces go to the previous sink first; geometry then goes to {@code sceneSink}.
+     * Managers, object pools and per-sprite caches are kept, only per-section state is cleared.
+     */
+    public void reset(ChunkPos chunkPos, ChunkNeighborhoodSnapshot snapshot, SceneSink sceneSink) {
+        flushFluidSurfaces();
+        this.chunkPos = chunkPos;
+        this.sceneSink = sceneSink;
+        this.sectionMask = null;
+        this.missingNeighborDetected = false;
+        setSnapshot(snapshot);
+    }
+
+    private void createManagers() {
+        this.overlayManager = new OverlayManager(ctx, world, offsetX, offsetY, offsetZ);
+        this.quadProcessor = new QuadProcessor(ctx, world, sceneSink, scratch, offsetX, offsetY, offsetZ);
+        if (fluidMesher != null) {
+            fluidMesher.flush();
+        }
+        this.fluidMesher = FluidSurfaceMesher.isApplicable()
+            ? new FluidSurfaceMesher(ctx, sceneSink, offsetX, offsetY, offsetZ)
+            : null;
+    }
+
+    private void bindManagers() {
+        overlayManager.reset(world);
+        quadProcessor.reset(world, sceneSink);
+        if (fluidMesher != null) {
+            fluidMesher.flush();
+            fluidMesher.reset(sceneSink);
+        }
+    }
+
+    /**
+     * Emits the merged flat fluid surfaces collected so far. Call once the section is sampled.
+     */
+    public void flushFluidSurfaces() {
+        if (fluidMesher != null) {
+            fluidMesher.flush();
+        }
+    }
+
+    /**
+     * Sets the opacity mask of the section about to be sampled.
+     * Blocks inside the mask resolve face culling with bit tests; others fall back to level lookups.
+     */
+    public void setSectionMask(SectionOcclusionMask mask) {
+        this.sectionMask = mask;
     }
 
     /**
@@ -115,29 +203,26 @@ public final class BlockExporter {
     public void sampleBlock(BlockState state, BlockPos pos) {
         // Check neighbor chunks are loaded
         if (!isNeighborChunksLoadedForBlock(pos)) {
-            VoxelBridgeLogger.debug(LogModule.SAMPLER_BLOCK, "[BlockExporter] Neighbor chunks missing for block at " + pos.toShortString());
+            VoxelBridgeLogger.debug(LogModule.SAMPLER_BLOCK, "[BlockExporter] Neighbor chunks missing for block at " + pos.toShortString()
+                + (chunkPos != null ? " in chunk " + chunkPos : ""));
             missingNeighborDetected = true;
             return;
         }
 
-        // Clear per-block caches
-        overlayManager.clear();
-        quadProcessor.clear();
-
         if (state.isAir()) return;
 
         // Vanilla random offset (grass, fern, etc.)
-        Vec3 randomOffset = vanillaRandomTransformEnabled ? state.getOffset(level, pos) : Vec3.ZERO;
+        Vec3 randomOffset = vanillaRandomTransformEnabled ? state.getOffset(world, pos) : Vec3.ZERO;
 
         // Export fluid
         FluidState fluidState = state.getFluidState();
         if (fluidState != null && !fluidState.isEmpty()) {
-            FluidExporter.sample(ctx, sceneSink, level, state, pos, fluidState,
-                offsetX, offsetY, offsetZ, regionMin, regionMax);
+            FluidExporter.sample(ctx, sceneSink, world, state, pos, fluidState,
+                offsetX, offsetY, offsetZ, regionMin, regionMax, fluidMesher);
         }
 
         // Export block entity
-        BlockEntity be = level.getBlockEntity(pos);
+        BlockEntity be = world.getBlockEntity(pos);
         if (be != null) {
             VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockExporter] Found BlockEntity: " + be.getClass().getSimpleName() + " at " + pos.toShortString() + ", isExportEnabled=" + ctx.isBlockEntityExportEnabled());
         }
@@ -149,6 +234,16 @@ public final class BlockExporter {
             if (beResult.replaceBlockModel()) return;
         }
 
+        // Section mask: opaque cubes buried on all six sides are dropped before touching the model
+        int visibleFaces = -1;
+        if (sectionMask != null && sectionMask.contains(pos)) {
+            visibleFaces = sectionMask.visibleFaces(pos);
+            if (visibleFaces == 0 && sectionMask.isOpaque(pos)) {
+                ctx.getSectionStats().recordBuried();
+                return;
+            }
+        }
+
         // Skip invisible blocks
         if (state.getRenderShape() == RenderShape.INVISIBLE) return;
 
@@ -157,8 +252,9 @@ public final class BlockExporter {
         if (model == null) return;
 
         // Occlusion culling for opaque blocks
-        boolean isTransparent = !state.isSolidRender(level, pos);
-        if (!isTransparent && isFullyOccluded(pos)) return;
+        boolean isTransparent = visibleFaces >= 0 ? !sectionMask.isOpaque(pos) : !state.isSolidRender(world, pos);
+        boolean maskDecides = visibleFaces >= 0 && !ExportRuntimeConfig.isFillCaveEnabled();
+        if (!isTransparent && !maskDecides && isFullyOccluded(pos)) return;
 
         // Get model data (for CTM/connected textures)
         ModelData modelData = getModelData(model, state, pos);
@@ -171,6 +267,45 @@ public final class BlockExporter {
 
         if (quads.isEmpty()) return;
 
+        // Quads generated per block (mod handlers, FRAPI emitters, connected-texture model data)
+        // are fresh instances every time and cannot be shared between blocks.
+        boolean cacheable = handledQuads == null
+            && modelData == ModelData.EMPTY
+            && !(model instanceof FabricBakedModel fabricModel && !fabricModel.isVanillaAdapter());
+
+        QuadTemplateCache.BlockTemplate template = cacheable ? templateCache.get(state, quads) : null;
+        if (template == null) {
+            template = buildTemplate(state, quads);
+            if (cacheable) {
+                templateCache.put(state, quads, template);
+            } else {
+                templateCache.recordBypass();
+            }
+        }
+
+        // PASS 2: Output base quads with occlusion culling
+        for (QuadTemplateCache.QuadTemplate quad : template.baseQuads()) {
+            Direction dir = quad.direction();
+            if (dir != null && isFaceCulled(state, pos, dir, !isTransparent, visibleFaces)) continue;
+            quadProcessor.emit(state, pos, quad, randomOffset);
+        }
+
+        // PASS 3: Output overlays with culling
+        final int faces = visibleFaces;
+        overlayManager.outputOverlays(sceneSink, state, pos, template.overlays(), randomOffset, dir -> {
+            if (dir == null) return false;
+            return isFaceCulled(state, pos, dir, !isTransparent, faces);
+        });
+    }
+
+    /**
+     * Classifies and extracts the quads of one model variant into local-space templates.
+     * Runs once per (BlockState, variant) when caching applies, otherwise once per block.
+     */
+    private QuadTemplateCache.BlockTemplate buildTemplate(BlockState state, List<BakedQuad> quads) {
+        overlayManager.clear();
+        quadProcessor.clear();
+
         // Generate material key
         String blockKey = BuiltInRegistries.BLOCK.getKey(state.getBlock()).toString();
         int lightLevel = state.getLightEmission();
@@ -181,60 +316,51 @@ public final class BlockExporter {
         ctx.registerSpriteMaterial(blockKey, blockKey);
 
         // PASS 1: Position-based CTM overlay detection
-        detectCtmOverlaysByPosition(quads, state, pos, blockKey, randomOffset);
+        detectCtmOverlaysByPosition(quads, blockKey);
 
         // PASS 1b: Detect and cache overlays
         for (BakedQuad quad : quads) {
             if (quad == null || quad.getSprite() == null) continue;
 
-            String spriteKey = SpriteKeyResolver.resolve(quad.getSprite());
+            int spriteId = sprites.idOf(quad.getSprite());
+            int spriteFlags = sprites.flags(spriteId);
 
             // Check vanilla overlay
-            if (OverlayManager.isVanillaOverlay(spriteKey)) {
-                String vanillaBase = OverlayManager.extractVanillaOverlayBase(spriteKey);
+            if (SpriteRegistry.has(spriteFlags, SpriteRegistry.FLAG_VANILLA_OVERLAY)) {
+                String vanillaBase = OverlayManager.extractVanillaOverlayBase(sprites.key(spriteId));
                 if (vanillaBase == null) vanillaBase = blockKey;
-                overlayManager.cacheOverlay(vanillaBase, state, pos, quad, randomOffset, spriteKey);
+                overlayManager.cacheOverlay(vanillaBase, quad, spriteId);
                 continue;  // Skip this quad in PASS 2
             }
 
             // Check hilight overlay
-            if (isHilightOverlay(spriteKey)) {
+            if (SpriteRegistry.has(spriteFlags, SpriteRegistry.FLAG_HILIGHT)) {
                 // Hilight: bypass overlay suffix, let OverlayManager use sprite name (_hilight) for material/offset
-                overlayManager.cacheOverlayNoMarkup(blockKey, state, pos, quad, randomOffset, spriteKey);
+                overlayManager.cacheOverlayNoMarkup(blockKey, quad, spriteId);
                 continue;  // Skip this quad in PASS 2
             }
         }
 
-        // PASS 2: Process base quads
+        // PASS 2 (template): Extract base quads
+        List<QuadTemplateCache.QuadTemplate> baseQuads = new ArrayList<>(quads.size());
         for (BakedQuad quad : quads) {
-            if (quad == null) continue;
-
-            Direction dir = quad.getDirection();
+            if (quad == null || quad.getSprite() == null) continue;
 
             // Skip if processed as overlay
-            String spriteKey = SpriteKeyResolver.resolve(quad.getSprite());
-            if (overlayManager.isProcessedOverlay(spriteKey)) {
+            if (overlayManager.isProcessedOverlay(sprites.idOf(quad.getSprite()))) {
                 continue;
             }
 
-            // Occlusion culling
-            if (dir != null) {
-                if (shouldCull(state, pos, dir)) continue;
-            }
-
-            // Process quad
-            quadProcessor.processQuad(state, pos, quad, blockKey, randomOffset);
+            QuadTemplateCache.QuadTemplate template = quadProcessor.buildTemplate(state, quad, blockKey);
+            if (template != null) baseQuads.add(template);
         }
 
-        // PASS 3: Output overlays with culling
-        overlayManager.outputOverlays(sceneSink, state, dir -> {
-            if (dir == null) return false;
-            return shouldCull(state, pos, dir);
-        });
+        return new QuadTemplateCache.BlockTemplate(
+            quads.toArray(new BakedQuad[0]), baseQuads, overlayManager.drainTemplates());
     }
 
-    private void detectCtmOverlaysByPosition(List<BakedQuad> quads, BlockState state, BlockPos pos, String blockKey, Vec3 randomOffset) {
-        record QuadEntry(int index, BakedQuad quad, String spriteKey, long posHash, boolean approxSquare,
+    private void detectCtmOverlaysByPosition(List<BakedQuad> quads, String blockKey) {
+        record QuadEntry(int index, BakedQuad quad, int spriteId, long posHash, boolean approxSquare,
                          float uMin, float uMax, float vMin, float vMax) {}
 
         Map<Long, List<QuadEntry>> groups = new HashMap<>();
@@ -244,26 +370,27 @@ public final class BlockExporter {
             if (quad == null || quad.getSprite() == null) continue;
 
             var sprite = quad.getSprite();
-            String spriteKey = SpriteKeyResolver.resolve(sprite);
-            var vertexData = VertexExtractor.extractFromQuad(quad, pos, sprite, offsetX, offsetY, offsetZ, randomOffset);
-            long posHash = computePositionHash(vertexData.positions());
-            boolean approxSquare = isApprox1x1Square(vertexData.positions());
+            int spriteId = sprites.idOf(sprite);
+            VertexExtractor.extractFromQuad(quad, BlockPos.ZERO, sprite, 0, 0, 0, null, scratch);
+            long posHash = GeometryUtil.computePositionHash(scratch.positions);
+            boolean approxSquare = isApprox1x1Square(scratch.positions);
 
-            float[] uv = vertexData.uvs();
+            float[] uv = scratch.uvs;
             float uMin = Math.min(Math.min(uv[0], uv[2]), Math.min(uv[4], uv[6]));
             float uMax = Math.max(Math.max(uv[0], uv[2]), Math.max(uv[4], uv[6]));
             float vMin = Math.min(Math.min(uv[1], uv[3]), Math.min(uv[5], uv[7]));
             float vMax = Math.max(Math.max(uv[1], uv[3]), Math.max(uv[5], uv[7]));
 
             groups.computeIfAbsent(posHash, k -> new ArrayList<>())
-                .add(new QuadEntry(i, quad, spriteKey, posHash, approxSquare, uMin, uMax, vMin, vMax));
+                .add(new QuadEntry(i, quad, spriteId, posHash, approxSquare, uMin, uMax, vMin, vMax));
         }
 
         for (List<QuadEntry> group : groups.values()) {
             if (group.size() < 2) continue;
 
             // CTM overlay detection: square quad + CTM sprite.
-            boolean hasCtmSprite = group.stream().anyMatch(q -> isCtmOverlaySprite(q.spriteKey()));
+            boolean hasCtmSprite = group.stream().anyMatch(
+                q -> SpriteRegistry.has(sprites.flags(q.spriteId()), SpriteRegistry.FLAG_CTM_OVERLAY));
             QuadEntry first = group.get(0);
             if (!hasCtmSprite || !first.approxSquare()) continue;
 
@@ -280,24 +407,10 @@ public final class BlockExporter {
             group.stream()
                 .sorted(Comparator.comparingInt(QuadEntry::index))
                 .filter(q -> q.index() != minIndex)
-                .forEach(q -> overlayManager.cacheOverlay(blockKey, state, pos, q.quad(), randomOffset, q.spriteKey()));
+                .forEach(q -> overlayManager.cacheOverlay(blockKey, q.quad(), q.spriteId()));
         }
     }
 
-    private boolean isCtmOverlaySprite(String spriteKey) {
-        if (spriteKey == null) return false;
-        String lower = spriteKey.toLowerCase(Locale.ROOT);
-        return lower.matches(".*_\\d+$")
-            || lower.contains("/ctm/")
-            || lower.contains("ctm/")
-            || lower.contains("continuity");
-    }
-
-    private boolean isHilightOverlay(String spriteKey) {
-        if (spriteKey == null) return false;
-        return spriteKey.toLowerCase(Locale.ROOT).contains("_hilight");
-    }
-
     private boolean isApprox1x1Square(float[] positions) {
         if (positions == null || positions.length < 12) return false;
         float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
@@ -330,39 +443,18 @@ public final class BlockExporter {
         return false;
     }
 
-    private long computePositionHash(float[] positions) {
-        Integer[] order = {0, 1, 2, 3};
-        java.util.Arrays.sort(order, (a, b) -> {
-            int ia = a * 3;
-            int ib = b * 3;
-            int cmpX = Float.compare(positions[ia], positions[ib]);
-            if (cmpX != 0) return cmpX;
-            int cmpY = Float.compare(positions[ia + 1], positions[ib + 1]);
-            if (cmpY != 0) return cmpY;
-            return Float.compare(positions[ia + 2], positions[ib + 2]);
-        });
-        long hash = 1125899906842597L;
-        for (int idx : order) {
-            int pi = idx * 3;
-            hash = 31 * hash + Math.round(positions[pi] * 100f);
-            hash = 31 * hash + Math.round(positions[pi + 1] * 100f);
-            hash = 31 * hash + Math.round(positions[pi + 2] * 100f);
-        }
-        return hash;
-    }
-
     /**
      * Gets model data for CTM/connected textures support.
      */
     private ModelData getModelData(BakedModel model, BlockState state, BlockPos pos) {
         ModelData modelData = ModelData.EMPTY;
         try {
-            modelData = level.getModelData(pos);
+            modelData = snapshot != null ? snapshot.getModelData(pos) : level.getModelData(pos);
         } catch (Throwable ignored) {}
 
         try {
             if (model instanceof IBakedModelExtension extension) {
-                modelData = extension.getModelData(level, pos, state, modelData);
+                modelData = extension.getModelData(world, pos, state, modelData);
             }
         } catch (Throwable ignored) {}
 
@@ -373,14 +465,17 @@ public final class BlockExporter {
      * Gets quads from model, using Fabric API for CTM models.
      */
     private List<BakedQuad> getQuads(BakedModel model, BlockState state, ModelData data, BlockPos pos) {
-        List<BakedQuad> quads = new ArrayList<>();
+        // Only read until the next block; the template cache copies what it keeps
+        List<BakedQuad> quads = quadBuffer;
+        quads.clear();
 
         long seed = state.is(Blocks.LILY_PAD) ? computeBushSeed(pos) : Mth.getSeed(pos.getX(), pos.getY(), pos.getZ());
-        RandomSource rand = RandomSource.create(seed);
+        RandomSource rand = random;
+        rand.setSeed(seed);
 
         // Try Fabric API for CTM models
         if (model instanceof FabricBakedModel fabricModel && !fabricModel.isVanillaAdapter()) {
-            List<BakedQuad> fabricQuads = FabricApiHelper.extractQuads(fabricModel, level, state, pos, rand, spriteFinder);
+            List<BakedQuad> fabricQuads = FabricApiHelper.extractQuads(fabricModel, world, state, pos, rand, spriteFinder);
             if (!fabricQuads.isEmpty()) {
                 return fabricQuads;
             }
@@ -402,7 +497,7 @@ public final class BlockExporter {
     // ===== Occlusion culling helpers =====
 
     private boolean isNeighborChunksLoadedForBlock(BlockPos pos) {
-        if (chunkCache == null) return true;
+        if (chunkCache == null && snapshot == null) return true;
 
         int localX = pos.getX() & 15;
         int localZ = pos.getZ() & 15;
@@ -416,6 +511,7 @@ public final class BlockExporter {
     }
 
     private boolean isChunkMissing(int cx, int cz) {
+        if (snapshot != null) return !snapshot.isChunkLoaded(cx, cz);
         var chunk = chunkCache.getChunk(cx, cz, false);
         return chunk == null || chunk.isEmpty();
     }
@@ -429,6 +525,21 @@ public final class BlockExporter {
         return true;
     }
 
+    /**
+     * Face culling with the section mask fast path.
+     * For opaque blocks a covered face is culled by bit test; an exposed face only needs the
+     * level lookup when cave filling may still hide it.
+     *
+     * @param visibleFaces mask from {@link SectionOcclusionMask#visibleFaces}, or -1 if unknown
+     */
+    private boolean isFaceCulled(BlockState state, BlockPos pos, Direction dir, boolean opaque, int visibleFaces) {
+        if (opaque && visibleFaces >= 0) {
+            if ((visibleFaces & (1 << dir.ordinal())) == 0) return true;
+            if (!ExportRuntimeConfig.isFillCaveEnabled()) return false;
+        }
+        return shouldCull(state, pos, dir);
+    }
+
     private boolean shouldCull(BlockState state, BlockPos pos, Direction dir) {
         mutablePos.setWithOffset(pos, dir);
         if (isOutsideRegion(mutablePos)) return false;
@@ -437,14 +548,14 @@ public final class BlockExporter {
         if (neighborState == null) return false;
 
         // Opaque blocks: standard occlusion check (is neighbor solid?)
-        if (state.isSolidRender(level, pos)) {
+        if (state.isSolidRender(world, pos)) {
             // Re-use isNeighborSolid logic but with state we already fetched
             if (ExportRuntimeConfig.isFillCaveEnabled()) {
-                if (neighborState.isAir() && level.getBrightness(LightLayer.SKY, mutablePos) == 0) {
+                if (neighborState.isAir() && world.getBrightness(LightLayer.SKY, mutablePos) == 0) {
                     return true;
                 }
             }
-            return neighborState.isSolidRender(level, mutablePos);
+            return neighborState.isSolidRender(world, mutablePos);
         }
 
         // Transparent blocks (Glass, etc.): use skipRendering (culls against same block)
@@ -452,6 +563,10 @@ public final class BlockExporter {
     }
 
     private BlockState getNeighborState(BlockPos neighbor) {
+        if (snapshot != null) {
+            if (!snapshot.isChunkLoaded(neighbor.getX() >> 4, neighbor.getZ() >> 4)) return null;
+            return snapshot.getBlockState(neighbor);
+        }
         if (chunkCache != null) {
             int cx = neighbor.getX() >> 4;
             int cz = neighbor.getZ() >> 4;
@@ -468,11 +583,11 @@ public final class BlockExporter {
         if (state == null) return true; // Treat unloaded as solid/occluding to avoid leaks?
 
         if (ExportRuntimeConfig.isFillCaveEnabled()) {
-            if (state.isAir() && level.getBrightness(LightLayer.SKY, neighbor) == 0) {
+            if (state.isAir() && world.getBrightness(LightLayer.SKY, neighbor) == 0) {
                 return true;
             }
         }
-        return state.isSolidRender(level, neighbor);
+        return state.isSolidRender(world, neighbor);
     }
 
     private boolean isOutsideRegion(BlockPos pos) {
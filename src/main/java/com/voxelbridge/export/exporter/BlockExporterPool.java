@@ -0,0 +1,74 @@
+package com.voxelbridge.export.exporter;
+
+import com.voxelbridge.export.ChunkNeighborhoodSnapshot;
+import com.voxelbridge.export.ExportContext;
+import com.voxelbridge.export.exporter.blockentity.BlockEntityRenderBatch;
+import com.voxelbridge.export.scene.BufferedSceneSink;
+import com.voxelbridge.export.scene.ChunkDeduplicatorPool;
+import com.voxelbridge.export.scene.SceneSink;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-worker {@link BlockExporter} instances for one region export.
+ * Each sampling thread builds its exporter (managers, object pools, scratch buffers) once and
+ * resets it per section instead of constructing a new one. The pool belongs to the export that
+ * created it, so exporters never outlive it the way values of a static ThreadLocal would.
+ * Section buffers handed out by {@link #newSectionBuffer} share the export's deduplicator pool
+ * the same way.
+ */
+public final class BlockExporterPool {
+
+    private final ExportContext ctx;
+    private final Level level;
+    private final BlockEntityRenderBatch blockEntityBatch;
+    private final SceneSink blockEntitySceneSink;
+    private final BlockPos regionMin;
+    private final BlockPos regionMax;
+
+    // Released exporter of each thread
+    private final Map<Thread, BlockExporter> idle = new ConcurrentHashMap<>();
+    private final ChunkDeduplicatorPool dedupers = new ChunkDeduplicatorPool();
+
+    public BlockExporterPool(ExportContext ctx, Level level, BlockEntityRenderBatch blockEntityBatch,
+                             SceneSink blockEntitySceneSink, BlockPos regionMin, BlockPos regionMax) {
+        this.ctx = ctx;
+        this.level = level;
+        this.blockEntityBatch = blockEntityBatch;
+        this.blockEntitySceneSink = blockEntitySceneSink;
+        this.regionMin = regionMin;
+        this.regionMax = regionMax;
+    }
+
+    /**
+     * Returns the calling thread's exporter, reset to sample a section of {@code chunkPos} into {@code sectionSink}.
+     * A thread that is already holding its exporter gets a fresh one.
+     */
+    public BlockExporter acquire(ChunkPos chunkPos, ChunkNeighborhoodSnapshot snapshot, SceneSink sectionSink) {
+        BlockExporter exporter = idle.remove(Thread.currentThread());
+        if (exporter == null) {
+            exporter = new BlockExporter(ctx, sectionSink, level, blockEntityBatch, blockEntitySceneSink);
+            exporter.setRegionBounds(regionMin, regionMax);
+        }
+        exporter.reset(chunkPos, snapshot, sectionSink);
+        return exporter;
+    }
+
+    /**
+     * Buffer for one section whose per-material deduplicators are reused across the export.
+     */
+    public BufferedSceneSink newSectionBuffer() {
+        return new BufferedSceneSink(dedupers);
+    }
+
+    /**
+     * Hands the exporter back for the next section sampled on this thread.
+     */
+    public void release(BlockExporter exporter) {
+        idle.putIfAbsent(Thread.currentThread(), exporter);
+    }
+}
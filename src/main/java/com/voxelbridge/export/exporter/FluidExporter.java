@@ -7,7 +7,6 @@ import net.minecraft.client.renderer.block.BlockRenderDispatcher;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.BlockAndTintGetter;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.FluidState;
 import net.neoforged.api.distmarker.Dist;
@@ -31,7 +30,7 @@ public final class FluidExporter {
      */
     public static void sample(ExportContext ctx,
                               SceneSink sceneSink,
-                              Level level,
+                              BlockAndTintGetter level,
                               BlockState state,
                               BlockPos pos,
                               FluidState fluidState,
@@ -40,6 +39,25 @@ public final class FluidExporter {
                               double offsetZ,
                               BlockPos regionMin,
                               BlockPos regionMax) {
+        sample(ctx, sceneSink, level, state, pos, fluidState, offsetX, offsetY, offsetZ, regionMin, regionMax, null);
+    }
+
+    /**
+     * Samples fluid geometry; if a surface mesher is given and accepts the block's top face,
+     * the top is left to the mesher and only the remaining faces are rendered here.
+     */
+    public static void sample(ExportContext ctx,
+                              SceneSink sceneSink,
+                              BlockAndTintGetter level,
+                              BlockState state,
+                              BlockPos pos,
+                              FluidState fluidState,
+                              double offsetX,
+                              double offsetY,
+                              double offsetZ,
+                              BlockPos regionMin,
+                              BlockPos regionMax,
+                              FluidSurfaceMesher surfaceMesher) {
         FluidState fs = fluidState != null ? fluidState : level.getFluidState(pos);
         if (fs == null || fs.isEmpty()) {
             return;
@@ -54,13 +72,15 @@ public final class FluidExporter {
         // This ensures all water faces are merged into one mesh, regardless of texture variants (still/flow)
         String fluidKey = BuiltInRegistries.FLUID.getKey(fs.getType()).toString();
 
+        boolean topMerged = surfaceMesher != null && surfaceMesher.collectTop(level, pos, fs, sprites[0]);
+
         BlockRenderDispatcher dispatcher = ctx.getMc().getBlockRenderer();
 
         // Create a vertex consumer that forwards quads to the scene sink with coordinate offset
         QuadCollector collector = new QuadCollector(
             sceneSink, ctx, pos, sprites,
             offsetX, offsetY, offsetZ,
-            regionMin, regionMax, fluidKey
+            regionMin, regionMax, fluidKey, topMerged
         );
 
         dispatcher.renderLiquid(pos, level, collector, state, fs);
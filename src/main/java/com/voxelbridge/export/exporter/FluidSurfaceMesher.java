@@ -0,0 +1,219 @@
+package com.voxelbridge.export.exporter;
+
+import com.voxelbridge.config.ExportRuntimeConfig;
+import com.voxelbridge.export.ExportContext;
+import com.voxelbridge.export.scene.SceneSink;
+import com.voxelbridge.export.texture.SpriteKeyResolver;
+import com.voxelbridge.export.texture.TextureAtlasManager;
+import com.voxelbridge.export.util.color.ColorModeHandler;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.FluidState;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.neoforge.client.extensions.common.IClientFluidTypeExtensions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Greedy mesher for flat, still fluid surfaces within one section.
+ * A source block whose top is open and whose eight horizontal neighbours are either
+ * uncovered sources of the same fluid or solid blocks gets the same corner height on all
+ * four corners (vanilla's weighted average collapses to the source height) and the still
+ * sprite with no flow rotation. Such tops are collected here instead of going through the
+ * liquid renderer, then merged per layer into rectangles of equal sprite and tint with
+ * repeating UVs. Everything else (slopes, flow, side walls, bottoms) stays per-block.
+ *
+ * Repeating UVs only survive when each sprite is its own texture, so merging is only
+ * active in {@link ExportRuntimeConfig.AtlasMode#INDIVIDUAL}.
+ */
+@OnlyIn(Dist.CLIENT)
+final class FluidSurfaceMesher {
+
+    // Vanilla source height (amount 8 / 9) minus the 0.001 inset applied to rendered tops.
+    private static final float SURFACE_HEIGHT = 8.0f / 9.0f - 0.001f;
+
+    private static final int[][] HORIZONTAL_NEIGHBORS = {
+        {-1, -1}, {0, -1}, {1, -1},
+        {-1, 0}, {1, 0},
+        {-1, 1}, {0, 1}, {1, 1}
+    };
+
+    private record Style(TextureAtlasSprite sprite, int argb) {}
+
+    private final ExportContext ctx;
+    private SceneSink sink;
+    private final double offsetX, offsetY, offsetZ;
+    private final BlockPos.MutableBlockPos scratch = new BlockPos.MutableBlockPos();
+
+    private final List<Style> styles = new ArrayList<>();
+    private final Map<Style, Integer> styleIds = new HashMap<>();
+    // World Y -> 16x16 cells of (style id + 1), 0 = not collected
+    private final Map<Integer, int[]> layers = new HashMap<>();
+    private int baseX = Integer.MIN_VALUE;
+    private int baseZ = Integer.MIN_VALUE;
+
+    FluidSurfaceMesher(ExportContext ctx, SceneSink sink, double offsetX, double offsetY, double offsetZ) {
+        this.ctx = ctx;
+        this.sink = sink;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+    }
+
+    static boolean isApplicable() {
+        return ExportRuntimeConfig.getAtlasMode() == ExportRuntimeConfig.AtlasMode.INDIVIDUAL;
+    }
+
+    /**
+     * Collects the top face of a flat still fluid block. Returns true if the caller must skip
+     * the block's top face in the per-block path; false if the block is not flat and still.
+     */
+    boolean collectTop(BlockAndTintGetter level, BlockPos pos, FluidState fs, TextureAtlasSprite still) {
+        if (still == null || !isFlatStillTop(level, pos, fs)) {
+            return false;
+        }
+        int chunkBaseX = pos.getX() & ~15;
+        int chunkBaseZ = pos.getZ() & ~15;
+        if (baseX == Integer.MIN_VALUE) {
+            baseX = chunkBaseX;
+            baseZ = chunkBaseZ;
+        } else if (baseX != chunkBaseX || baseZ != chunkBaseZ) {
+            return false; // Only one section column per mesher
+        }
+
+        int argb = IClientFluidTypeExtensions.of(fs).getTintColor(fs, level, pos);
+        Style style = new Style(still, argb);
+        Integer id = styleIds.get(style);
+        if (id == null) {
+            id = styles.size();
+            styles.add(style);
+            styleIds.put(style, id);
+        }
+        int[] cells = layers.computeIfAbsent(pos.getY(), y -> new int[256]);
+        cells[((pos.getZ() & 15) << 4) | (pos.getX() & 15)] = id + 1;
+        return true;
+    }
+
+    /**
+     * Emits merged quads for every collected layer and resets the mesher.
+     */
+    void flush() {
+        for (Map.Entry<Integer, int[]> layer : layers.entrySet()) {
+            meshLayer(layer.getKey(), layer.getValue());
+        }
+        layers.clear();
+        baseX = Integer.MIN_VALUE;
+        baseZ = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Drops anything collected but not flushed and sends later surfaces to {@code sink}.
+     */
+    void reset(SceneSink sink) {
+        this.sink = sink;
+        layers.clear();
+        styles.clear();
+        styleIds.clear();
+        baseX = Integer.MIN_VALUE;
+        baseZ = Integer.MIN_VALUE;
+    }
+
+    private void meshLayer(int y, int[] cells) {
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                int id = cells[(z << 4) | x];
+                if (id == 0) continue;
+
+                int width = 1;
+                while (x + width < 16 && cells[(z << 4) | (x + width)] == id) {
+                    width++;
+                }
+                int depth = 1;
+                grow:
+                while (z + depth < 16) {
+                    int row = (z + depth) << 4;
+                    for (int dx = 0; dx < width; dx++) {
+                        if (cells[row | (x + dx)] != id) break grow;
+                    }
+                    depth++;
+                }
+                for (int dz = 0; dz < depth; dz++) {
+                    int row = (z + dz) << 4;
+                    for (int dx = 0; dx < width; dx++) {
+                        cells[row | (x + dx)] = 0;
+                    }
+                }
+                emitQuad(styles.get(id - 1), baseX + x, y, baseZ + z, width, depth);
+            }
+        }
+    }
+
+    private void emitQuad(Style style, int x, int y, int z, int width, int depth) {
+        float x0 = (float) (x + offsetX);
+        float x1 = (float) (x + width + offsetX);
+        float z0 = (float) (z + offsetZ);
+        float z1 = (float) (z + depth + offsetZ);
+        float top = (float) (y + SURFACE_HEIGHT + offsetY);
+
+        // Same winding and UV orientation as the vanilla still top (u along +X, v along +Z)
+        float[] positions = {
+            x0, top, z0,
+            x0, top, z1,
+            x1, top, z1,
+            x1, top, z0
+        };
+        float[] uv = {
+            0, 0,
+            0, depth,
+            width, depth,
+            width, 0
+        };
+        float[] unitUv = {0, 0, 0, 1, 1, 1, 1, 0};
+
+        String spriteKey = SpriteKeyResolver.resolve(style.sprite());
+        TextureAtlasManager.registerTint(ctx, spriteKey, 0xFFFFFF);
+        // Tint is uniform across the quad, so the colormap lookup uses the unit square
+        ColorModeHandler.ColorData colorData = ColorModeHandler.prepareColorsWithUV(ctx, style.argb(), unitUv);
+
+        sink.addQuad(spriteKey, spriteKey, "voxelbridge:transparent",
+            positions, uv, colorData.uv1(), new float[]{0, 1, 0}, colorData.colors(), true);
+    }
+
+    /**
+     * True if vanilla would render this block's top flat at source height with the still sprite.
+     */
+    private boolean isFlatStillTop(BlockAndTintGetter level, BlockPos pos, FluidState fs) {
+        if (!fs.isSource()) {
+            return false;
+        }
+        Fluid fluid = fs.getType();
+        scratch.set(pos.getX(), pos.getY() + 1, pos.getZ());
+        if (!level.getBlockState(scratch).isAir()) {
+            return false; // Covered tops are culled or raised to full height
+        }
+        for (int[] offset : HORIZONTAL_NEIGHBORS) {
+            scratch.set(pos.getX() + offset[0], pos.getY(), pos.getZ() + offset[1]);
+            BlockState neighbor = level.getBlockState(scratch);
+            FluidState neighborFluid = neighbor.getFluidState();
+            if (fluid.isSame(neighborFluid.getType())) {
+                if (!neighborFluid.isSource()) {
+                    return false; // Lower neighbour pulls the corner down and adds flow
+                }
+                scratch.setY(pos.getY() + 1);
+                if (fluid.isSame(level.getBlockState(scratch).getFluidState().getType())) {
+                    return false; // Covered neighbour counts as full height
+                }
+            } else if (!neighbor.isSolid()) {
+                return false; // Open neighbour counts as height 0
+            }
+        }
+        return true;
+    }
+}
@@ -3,16 +3,18 @@ package com.voxelbridge.export.exporter;
 import com.voxelbridge.export.ExportContext;
 import com.voxelbridge.config.ExportRuntimeConfig;
 import com.voxelbridge.export.scene.SceneSink;
+import com.voxelbridge.export.texture.SpriteRegistry;
 import com.voxelbridge.export.texture.TextureLoader;
 import com.voxelbridge.export.util.color.ColorModeHandler;
 import com.voxelbridge.export.util.geometry.GeometryUtil;
 import com.voxelbridge.export.util.geometry.VertexExtractor;
 import com.voxelbridge.util.pool.ObjectPool;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.block.BushBlock;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
@@ -23,57 +25,56 @@ import java.util.*;
 /**
  * Manages overlay quad detection, caching, and rendering.
  * Overlays are organized by position to keep per-face overlay ordering stable.
+ * Overlays are cached as block-local templates and translated per block on output.
  */
 public final class OverlayManager {
 
     private final ExportContext ctx;
-    private final Level level;
+    private BlockAndTintGetter level;
+    private final SpriteRegistry sprites;
     private final double offsetX, offsetY, offsetZ;
 
     // Cache overlays by their position hash
-    private final Map<Long, List<OverlayQuadData>> overlayCacheByPosition = new HashMap<>();
+    private final Map<Long, List<QuadTemplateCache.QuadTemplate>> overlayCacheByPosition = new HashMap<>();
 
     // Track which sprites have been processed as overlays
-    private final Set<String> processedOverlaySprites = new HashSet<>();
+    private final IntOpenHashSet processedOverlaySprites = new IntOpenHashSet();
 
     // Object pools for memory efficiency
-    private final ObjectPool<float[]> positions12Pool = new ObjectPool<>(256, () -> new float[12]);
     private final ObjectPool<float[]> uv8Pool = new ObjectPool<>(256, () -> new float[8]);
     private final ObjectPool<int[]> int4Pool = new ObjectPool<>(128, () -> new int[4]);
 
-    /**
-     * Overlay quad data with all required rendering information.
-     *
-     * @param positions      World coordinates with offset applied
-     * @param direction      Direction for visibility culling
-     * @param materialKey    Base material key for overlay material name
-     * @param materialSuffix Suffix to append to materialKey (e.g., "_overlay", "_hilight", or null)
-     */
-        private record OverlayQuadData(float[] positions, float[] normal, float[] uv, String spriteKey, int color,
-                                       Direction direction, String materialKey, String materialSuffix) {
-    }
-
-    public OverlayManager(ExportContext ctx, Level level, double offsetX, double offsetY, double offsetZ) {
+    public OverlayManager(ExportContext ctx, BlockAndTintGetter level, double offsetX, double offsetY, double offsetZ) {
         this.ctx = ctx;
         this.level = level;
+        this.sprites = ctx.getSpriteRegistry();
         this.offsetX = offsetX;
         this.offsetY = offsetY;
         this.offsetZ = offsetZ;
     }
 
     /**
-     * Clears all overlay caches. Call this before processing each block.
+     * Clears all overlay caches. Call this before building the templates of each block.
      */
     public void clear() {
         overlayCacheByPosition.clear();
         processedOverlaySprites.clear();
     }
 
+    /**
+     * Rebinds this manager to the next section's block source (used for overlay tints).
+     * Object pools are kept.
+     */
+    public void reset(BlockAndTintGetter level) {
+        this.level = level;
+        clear();
+    }
+
     /**
      * Checks if a sprite has been marked as processed overlay.
      */
-    public boolean isProcessedOverlay(String spriteKey) {
-        return processedOverlaySprites.contains(spriteKey);
+    public boolean isProcessedOverlay(int spriteId) {
+        return processedOverlaySprites.contains(spriteId);
     }
 
     /**
@@ -121,43 +122,37 @@ public final class OverlayManager {
      * Caches an overlay quad by its base material key.
      *
      * @param baseMaterialKey the material this overlay belongs to
-     * @param state block state
-     * @param pos block position
      * @param quad the overlay quad
-     * @param randomOffset vanilla random offset
-     * @param spriteKey sprite key
+     * @param spriteId sprite id from the session {@link SpriteRegistry}
      */
-    public void cacheOverlay(String baseMaterialKey, BlockState state, BlockPos pos,
-                             BakedQuad quad, Vec3 randomOffset, String spriteKey) {
-        cacheOverlayInternal(baseMaterialKey, state, pos, quad, randomOffset, spriteKey, "_overlay");
+    public void cacheOverlay(String baseMaterialKey, BakedQuad quad, int spriteId) {
+        cacheOverlayInternal(baseMaterialKey, quad, spriteId, "_overlay");
     }
 
     /**
      * Caches a hilight overlay quad.
      * Uses "_hilight" suffix for material key.
      */
-    public void cacheHilight(String baseMaterialKey, BlockState state, BlockPos pos,
-                             BakedQuad quad, Vec3 randomOffset, String spriteKey) {
-        cacheOverlayInternal(baseMaterialKey, state, pos, quad, randomOffset, spriteKey, "_hilight");
+    public void cacheHilight(String baseMaterialKey, BakedQuad quad, int spriteId) {
+        cacheOverlayInternal(baseMaterialKey, quad, spriteId, "_hilight");
     }
 
     /**
      * Caches an overlay quad without marking it as processed (for non-traditional overlays).
      * Uses original materialKey instead of appending "_overlay".
      */
-    public void cacheOverlayNoMarkup(String baseMaterialKey, BlockState state, BlockPos pos,
-                                     BakedQuad quad, Vec3 randomOffset, String spriteKey) {
-        cacheOverlayInternal(baseMaterialKey, state, pos, quad, randomOffset, spriteKey, null);
+    public void cacheOverlayNoMarkup(String baseMaterialKey, BakedQuad quad, int spriteId) {
+        cacheOverlayInternal(baseMaterialKey, quad, spriteId, null);
     }
 
-    private void cacheOverlayInternal(String baseMaterialKey, BlockState state, BlockPos pos,
-                             BakedQuad quad, Vec3 randomOffset, String spriteKey, String materialSuffix) {
+    private void cacheOverlayInternal(String baseMaterialKey, BakedQuad quad, int spriteId,
+                                      String materialSuffix) {
         if (baseMaterialKey == null || baseMaterialKey.isEmpty()) {
             baseMaterialKey = "unknown";
         }
 
         // Mark sprite as processed (all overlays skip PASS 2)
-        processedOverlaySprites.add(spriteKey);
+        processedOverlaySprites.add(spriteId);
 
         var sprite = quad.getSprite();
         if (sprite == null) return;
@@ -165,10 +160,11 @@ public final class OverlayManager {
         Direction dir = quad.getDirection();
 
         // Register dynamic overlay texture
-        boolean isDynamicTexture = spriteKey.contains("_overlay")
-            || spriteKey.matches(".*\\d+$")
+        String spriteKey = sprites.key(spriteId);
+        int spriteFlags = sprites.flags(spriteId);
+        boolean isDynamicTexture = SpriteRegistry.has(spriteFlags, SpriteRegistry.FLAG_VANILLA_OVERLAY | SpriteRegistry.FLAG_NUMBERED)
             || !ctx.getMaterialPaths().containsKey(spriteKey);
-        boolean isHilightSprite = spriteKey.toLowerCase().contains("_hilight");
+        boolean isHilightSprite = SpriteRegistry.has(spriteFlags, SpriteRegistry.FLAG_HILIGHT);
         String effectiveSuffix = materialSuffix;
         if (isHilightSprite) {
             effectiveSuffix = "_hilight";
@@ -186,10 +182,9 @@ public final class OverlayManager {
             }
         }
 
-        float[] positions = positions12Pool.acquire();
         float[] uv0 = uv8Pool.acquire();
         int[] vertexColors = int4Pool.acquire();
-        float[] localPos = positions12Pool.acquire();
+        float[] localPos = new float[12];
 
         try {
             int[] verts = quad.getVertices();
@@ -242,11 +237,10 @@ public final class OverlayManager {
             }
 
             // Compute position hash before applying overlay offsets (per-face grouping)
-            float[] baseWorldPos = VertexExtractor.localToWorld(localPos, pos, offsetX, offsetY, offsetZ, randomOffset);
-            long posHash = computePositionHash(baseWorldPos);
+            long posHash = GeometryUtil.computePositionHash(localPos);
 
             // Get current overlay count for this position to determine z-offset index
-            List<OverlayQuadData> overlayList = overlayCacheByPosition.computeIfAbsent(posHash, k -> new ArrayList<>());
+            List<QuadTemplateCache.QuadTemplate> overlayList = overlayCacheByPosition.computeIfAbsent(posHash, k -> new ArrayList<>());
             int overlayIndex = overlayList.size();
 
             // Apply overlay offset in local coordinates to prevent z-fighting
@@ -256,26 +250,31 @@ public final class OverlayManager {
             int offsetIndex = isHilight ? 0 : overlayIndex;
             VertexExtractor.applyOverlayOffset(localPos, offsetIndex, offsetMultiplier, dir);
 
-            // Convert to world coordinates
-            float[] worldPos = VertexExtractor.localToWorld(localPos, pos, offsetX, offsetY, offsetZ, randomOffset);
-            System.arraycopy(worldPos, 0, positions, 0, 12);
-
-            int overlayColor = extractOverlayColor(state, pos, quad, vertexColors);
-            float[] normal = GeometryUtil.computeFaceNormal(positions);
+            float[] normal = GeometryUtil.computeFaceNormal(localPos);
 
-            OverlayQuadData data = new OverlayQuadData(
-                positions.clone(), normal, uv0.clone(),
-                spriteKey, overlayColor, dir, baseMaterialKey, effectiveSuffix
-            );
-            overlayList.add(data);
+            overlayList.add(new QuadTemplateCache.QuadTemplate(
+                spriteId, localPos, uv0.clone(), normal, vertexColors.clone(),
+                quad.getTintIndex(), dir, ctx.intern(baseMaterialKey), effectiveSuffix
+            ));
         } finally {
             int4Pool.release(vertexColors);
-            positions12Pool.release(localPos);
-            positions12Pool.release(positions);
             uv8Pool.release(uv0);
         }
     }
 
+    /**
+     * Returns all cached overlays as templates, in per-position order.
+     */
+    public List<QuadTemplateCache.QuadTemplate> drainTemplates() {
+        if (overlayCacheByPosition.isEmpty()) return List.of();
+        List<QuadTemplateCache.QuadTemplate> result = new ArrayList<>();
+        for (List<QuadTemplateCache.QuadTemplate> overlays : overlayCacheByPosition.values()) {
+            result.addAll(overlays);
+        }
+        overlayCacheByPosition.clear();
+        return result;
+    }
+
     private boolean isQuadFullyTransparent(String spriteKey, float[] uvNormalized) {
         BufferedImage img = ctx.getCachedSpriteImage(spriteKey);
         if (img == null) {
@@ -308,69 +307,53 @@ public final class OverlayManager {
         return true; // all covered pixels are transparent
     }
     /**
-     * Outputs all cached overlays to the scene sink with visibility culling.
+     * Outputs overlay templates for a block to the scene sink with visibility culling.
      *
      * @param sceneSink the scene sink
      * @param state block state
+     * @param pos block position
+     * @param overlays overlay templates built by {@link #drainTemplates()}
+     * @param randomOffset vanilla random offset
      * @param cullChecker function to check if a face should be culled
      */
-    public void outputOverlays(SceneSink sceneSink, BlockState state, CullChecker cullChecker) {
-        for (List<OverlayQuadData> overlays : overlayCacheByPosition.values()) {
-            if (overlays.isEmpty()) continue;
-
-            for (OverlayQuadData overlay : overlays) {
-                // Use suffix if provided (e.g., "_overlay", "_hilight"), otherwise use base materialKey
-                String overlayMaterialKey;
-                if (ExportRuntimeConfig.getAtlasMode() == ExportRuntimeConfig.AtlasMode.INDIVIDUAL) {
-                    overlayMaterialKey = overlay.spriteKey;
-                } else {
-                    overlayMaterialKey = overlay.materialSuffix != null
-                        ? overlay.materialKey + overlay.materialSuffix
-                        : overlay.materialKey;
-                }
-                Direction dir = overlay.direction;
-
-                // Apply occlusion culling
-                if (dir != null && cullChecker.shouldCull(dir)) {
-                    continue;  // Skip occluded overlay face
-                }
+    public void outputOverlays(SceneSink sceneSink, BlockState state, BlockPos pos,
+                               List<QuadTemplateCache.QuadTemplate> overlays, Vec3 randomOffset,
+                               CullChecker cullChecker) {
+        for (QuadTemplateCache.QuadTemplate overlay : overlays) {
+            String spriteKey = sprites.key(overlay.spriteId());
+            // Use suffix if provided (e.g., "_overlay", "_hilight"), otherwise use base materialKey
+            String overlayMaterialKey;
+            if (ExportRuntimeConfig.getAtlasMode() == ExportRuntimeConfig.AtlasMode.INDIVIDUAL) {
+                overlayMaterialKey = spriteKey;
+            } else {
+                overlayMaterialKey = overlay.materialSuffix() != null
+                    ? overlay.materialKey() + overlay.materialSuffix()
+                    : overlay.materialKey();
+            }
+            Direction dir = overlay.direction();
 
-                // Output visible overlay
-                boolean doubleSided = state.getBlock() instanceof BushBlock;
-                ColorModeHandler.ColorData overlayColorData = ColorModeHandler.prepareColors(ctx, overlay.color, true);
-                ctx.registerSpriteMaterial(overlay.spriteKey, overlayMaterialKey);
-                sceneSink.addQuad(overlayMaterialKey, overlay.spriteKey, overlay.spriteKey,
-                    overlay.positions, overlay.uv, overlayColorData.uv1(), overlay.normal,
-                        overlayColorData.colors(), doubleSided);
+            // Apply occlusion culling
+            if (dir != null && cullChecker.shouldCull(dir)) {
+                continue;  // Skip occluded overlay face
             }
-        }
-    }
 
-    private long computePositionHash(float[] positions) {
-        Integer[] order = {0, 1, 2, 3};
-        java.util.Arrays.sort(order, (a, b) -> {
-            int ia = a * 3;
-            int ib = b * 3;
-            int cmpX = Float.compare(positions[ia], positions[ib]);
-            if (cmpX != 0) return cmpX;
-            int cmpY = Float.compare(positions[ia + 1], positions[ib + 1]);
-            if (cmpY != 0) return cmpY;
-            return Float.compare(positions[ia + 2], positions[ib + 2]);
-        });
-        long hash = 1125899906842597L;
-        for (int idx : order) {
-            int pi = idx * 3;
-            hash = 31 * hash + Math.round(positions[pi] * 100f);
-            hash = 31 * hash + Math.round(positions[pi + 1] * 100f);
-            hash = 31 * hash + Math.round(positions[pi + 2] * 100f);
+            // Output visible overlay
+            float[] positions = VertexExtractor.localToWorld(overlay.localPositions(), pos,
+                offsetX, offsetY, offsetZ, randomOffset);
+            int overlayColor = extractOverlayColor(state, pos, overlay.tintIndex(), overlay.colors());
+            boolean doubleSided = state.getBlock() instanceof BushBlock;
+            ColorModeHandler.ColorData overlayColorData = ColorModeHandler.prepareColors(ctx, overlayColor, true);
+            ctx.registerSpriteMaterial(spriteKey, overlayMaterialKey);
+            sceneSink.addQuad(overlayMaterialKey, spriteKey, spriteKey,
+                positions, overlay.uv(), overlayColorData.uv1(), overlay.normal(),
+                    overlayColorData.colors(), doubleSided);
         }
-        return hash;
     }
 
     /**
      * Extracts overlay color from vertex colors or tint index.
      */
-    private int extractOverlayColor(BlockState state, BlockPos pos, BakedQuad quad, int[] vertexColors) {
+    private int extractOverlayColor(BlockState state, BlockPos pos, int tintIndex, int[] vertexColors) {
         for (int i = 0; i < 4; i++) {
             int abgr = vertexColors[i];
             int rgb = abgr & 0x00FFFFFF;
@@ -384,8 +367,8 @@ public final class OverlayManager {
             }
         }
 
-        if (quad.getTintIndex() >= 0) {
-            int argb = Minecraft.getInstance().getBlockColors().getColor(state, level, pos, quad.getTintIndex());
+        if (tintIndex >= 0) {
+            int argb = Minecraft.getInstance().getBlockColors().getColor(state, level, pos, tintIndex);
             return (argb == -1) ? 0xFFFFFFFF : argb;
         }
 
@@ -22,6 +22,8 @@ final class QuadCollector implements VertexConsumer {
     private final double regionMinX, regionMaxX, regionMinZ, regionMaxZ;
     private final boolean hasRegionBounds;
     private final String materialGroupKey;
+    // Top face (and its backward copy) is emitted by the surface mesher
+    private final boolean skipTopFace;
 
     // Coordinate system detection
     private final float[] rawPositions = new float[12];
@@ -44,6 +46,12 @@ final class QuadCollector implements VertexConsumer {
     QuadCollector(SceneSink sink, ExportContext ctx, BlockPos pos, TextureAtlasSprite[] sprites,
                   double offsetX, double offsetY, double offsetZ,
                   BlockPos regionMin, BlockPos regionMax, String materialGroupKey) {
+        this(sink, ctx, pos, sprites, offsetX, offsetY, offsetZ, regionMin, regionMax, materialGroupKey, false);
+    }
+
+    QuadCollector(SceneSink sink, ExportContext ctx, BlockPos pos, TextureAtlasSprite[] sprites,
+                  double offsetX, double offsetY, double offsetZ,
+                  BlockPos regionMin, BlockPos regionMax, String materialGroupKey, boolean skipTopFace) {
         this.sink = sink;
         this.ctx = ctx;
         this.pos = pos;
@@ -52,6 +60,7 @@ final class QuadCollector implements VertexConsumer {
         this.offsetY = offsetY;
         this.offsetZ = offsetZ;
         this.materialGroupKey = materialGroupKey;
+        this.skipTopFace = skipTopFace;
         if (regionMin != null) {
              this.regionMinX = regionMin.getX() + offsetX;
              this.regionMaxX = regionMax.getX() + offsetX + 1;
@@ -135,7 +144,7 @@ final class QuadCollector implements VertexConsumer {
 
         float[] normal = GeometryUtil.computeFaceNormal(positions);
 
-        if (hasRegionBounds && isBoundarySideQuad(normal)) {
+        if ((hasRegionBounds && isBoundarySideQuad(normal)) || (skipTopFace && isTopSurfaceQuad(normal))) {
             resetQuadState();
             return;
         }
@@ -249,6 +258,16 @@ final class QuadCollector implements VertexConsumer {
         }
     }
 
+    private boolean isTopSurfaceQuad(float[] normal) {
+        if (Math.abs(normal[1]) < 0.999f) return false;
+        // Top and backward-top sit near the block's upper edge; the bottom face sits at its base
+        double midY = pos.getY() + offsetY + 0.5;
+        for (int i = 0; i < 4; i++) {
+            if (positions[i * 3 + 1] < midY) return false;
+        }
+        return true;
+    }
+
     private boolean isBoundarySideQuad(float[] normal) {
         // Do not clip boundary faces unless verts truly exceed the selected region (should rarely happen)
         double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
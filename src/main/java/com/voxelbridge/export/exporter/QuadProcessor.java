@@ -3,52 +3,57 @@ package com.voxelbridge.export.exporter;
 import com.voxelbridge.config.ExportRuntimeConfig;
 import com.voxelbridge.export.ExportContext;
 import com.voxelbridge.export.scene.SceneSink;
-import com.voxelbridge.export.texture.SpriteKeyResolver;
+import com.voxelbridge.export.texture.SpriteRegistry;
 import com.voxelbridge.export.texture.TextureLoader;
 import com.voxelbridge.export.util.color.ColorModeHandler;
 import com.voxelbridge.export.util.geometry.VertexExtractor;
+import com.voxelbridge.export.util.geometry.VertexScratch;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.block.BushBlock;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import java.awt.image.BufferedImage;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Processes individual quads and outputs them to the scene sink (PASS 2 logic).
  * Handles tint colors, PBR textures, and dynamic texture registration.
+ * Quads are first extracted into local-space templates, then emitted per block.
  */
 public final class QuadProcessor {
 
     private final ExportContext ctx;
-    private final Level level;
-    private final SceneSink sceneSink;
+    private BlockAndTintGetter level;
+    private SceneSink sceneSink;
+    private final SpriteRegistry sprites;
+    private final VertexScratch scratch;
     private final double offsetX, offsetY, offsetZ;
 
-    // Placeholder to ensure tool reads the file first
-    private final Set<String> pbrLoadedSprites = new HashSet<>();
+    // Sprite ids whose PBR companions were already requested
+    private final IntOpenHashSet pbrLoadedSprites = new IntOpenHashSet();
 
     // Track processed quads to avoid duplicates (Optimization: Use FastUtil primitive set)
     private final it.unimi.dsi.fastutil.longs.LongOpenHashSet quadKeys = new it.unimi.dsi.fastutil.longs.LongOpenHashSet();
 
-    public QuadProcessor(ExportContext ctx, Level level, SceneSink sceneSink,
+    public QuadProcessor(ExportContext ctx, BlockAndTintGetter level, SceneSink sceneSink, VertexScratch scratch,
                          double offsetX, double offsetY, double offsetZ) {
         this.ctx = ctx;
         this.level = level;
         this.sceneSink = sceneSink;
+        this.sprites = ctx.getSpriteRegistry();
+        this.scratch = scratch;
         this.offsetX = offsetX;
         this.offsetY = offsetY;
         this.offsetZ = offsetZ;
     }
 
     /**
-     * Clears all caches. Call this before processing each block.
+     * Clears all caches. Call this before building the templates of each block.
      */
     public void clear() {
         quadKeys.clear();
@@ -56,29 +61,39 @@ public final class QuadProcessor {
     }
 
     /**
-     * Processes a single quad and outputs it to the scene sink.
+     * Rebinds this processor to the next section's block source and output sink.
+     * Per-sprite state carries over, so a reused processor skips already requested PBR loads.
+     */
+    public void reset(BlockAndTintGetter level, SceneSink sceneSink) {
+        this.level = level;
+        this.sceneSink = sceneSink;
+        clear();
+    }
+
+    /**
+     * Extracts a base quad into a reusable local-space template.
+     * Per-sprite work (PBR companions, dynamic texture registration) happens here once.
      *
      * @param state block state
-     * @param pos block position
      * @param quad the baked quad
      * @param blockKey material key for this block
-     * @param randomOffset vanilla random offset
+     * @return the template, or null if the quad has no sprite or duplicates an earlier quad of this block
      */
-    public void processQuad(BlockState state, BlockPos pos, BakedQuad quad,
-                            String blockKey, Vec3 randomOffset) {
+    public QuadTemplateCache.QuadTemplate buildTemplate(BlockState state, BakedQuad quad, String blockKey) {
         TextureAtlasSprite sprite = quad.getSprite();
-        if (sprite == null) return;
+        if (sprite == null) return null;
 
-        String spriteKey = SpriteKeyResolver.resolve(sprite);
+        int spriteId = sprites.idOf(sprite);
+        String spriteKey = sprites.key(spriteId);
 
         // Load PBR textures (once per sprite)
-        if (!pbrLoadedSprites.contains(spriteKey)) {
+        if (pbrLoadedSprites.add(spriteId)) {
             ensurePbrTexturesCached(sprite, spriteKey);
-            pbrLoadedSprites.add(spriteKey);
         }
 
         // Handle dynamic textures (CTM, numbered sprites)
-        boolean isDynamic = spriteKey.matches(".*\\d+$") || !ctx.getMaterialPaths().containsKey(spriteKey);
+        boolean isDynamic = SpriteRegistry.has(sprites.flags(spriteId), SpriteRegistry.FLAG_NUMBERED)
+            || !ctx.getMaterialPaths().containsKey(spriteKey);
         if (isDynamic) {
             com.voxelbridge.export.texture.TextureAtlasManager.registerTint(ctx, spriteKey, 0xFFFFFF);
             if (ctx.getCachedSpriteImage(spriteKey) == null) {
@@ -89,34 +104,58 @@ public final class QuadProcessor {
             }
         }
 
-        // Extract vertex data
-        VertexExtractor.VertexData vertexData = VertexExtractor.extractFromQuad(
-            quad, pos, sprite, offsetX, offsetY, offsetZ, randomOffset
-        );
+        // Extract vertex data in block-local space into scratch; copied only if the quad is kept
+        VertexExtractor.extractFromQuad(quad, BlockPos.ZERO, sprite, 0, 0, 0, null, scratch);
 
         boolean doubleSided = state.getBlock() instanceof BushBlock;
 
         // Check for duplicates
-        long quadKey = computeQuadKey(spriteKey, vertexData.positions(), vertexData.normal(),
-                                      doubleSided, vertexData.uvs());
-        if (!quadKeys.add(quadKey)) return;
+        long quadKey = computeQuadKey(spriteId, scratch.positions, scratch.normal,
+                                      doubleSided, scratch.uvs);
+        if (!quadKeys.add(quadKey)) return null;
+
+        String finalMaterialKey = blockKey;
+        if (ExportRuntimeConfig.getAtlasMode() == ExportRuntimeConfig.AtlasMode.INDIVIDUAL) {
+            finalMaterialKey = spriteKey;
+        }
+
+        // Register sprite material (Intern strings)
+        ctx.registerSpriteMaterial(spriteKey, finalMaterialKey);
+
+        return new QuadTemplateCache.QuadTemplate(spriteId, scratch.positions.clone(), scratch.uvs.clone(),
+            scratch.normal.clone(), scratch.colors.clone(), quad.getTintIndex(), quad.getDirection(),
+            ctx.intern(finalMaterialKey), null);
+    }
 
-        boolean hasBaked = hasBakedColors(vertexData.colors());
+    /**
+     * Translates a base quad template to the block position, applies tint and outputs it.
+     *
+     * @param state block state
+     * @param pos block position
+     * @param template quad template built by {@link #buildTemplate}
+     * @param randomOffset vanilla random offset
+     */
+    public void emit(BlockState state, BlockPos pos, QuadTemplateCache.QuadTemplate template, Vec3 randomOffset) {
+        float[] positions = VertexExtractor.localToWorld(template.localPositions(), pos,
+            offsetX, offsetY, offsetZ, randomOffset);
+
+        boolean doubleSided = state.getBlock() instanceof BushBlock;
+        int[] bakedColors = template.colors();
 
         ColorModeHandler.ColorData colorData;
 
-        if (hasBaked) {
+        if (hasBakedColors(bakedColors)) {
             // Prefer baked vertex colors (e.g., FRAPI-provided tint) over vanilla tint.
             if (ExportRuntimeConfig.getColorMode() == ExportRuntimeConfig.ColorMode.COLORMAP) {
-                int bakedTint = extractBakedTintArgb(vertexData.colors());
+                int bakedTint = extractBakedTintArgb(bakedColors);
                 colorData = ColorModeHandler.prepareColors(ctx, bakedTint, true);
             } else {
-                float[] linearColors = convertABGRtoLinearRGBA(vertexData.colors());
+                float[] linearColors = convertABGRtoLinearRGBA(bakedColors);
                 colorData = new ColorModeHandler.ColorData(null, linearColors);
             }
         } else {
             // Compute tint color (returns -1 if no tint found)
-            int tintColor = computeTintColor(state, pos, quad);
+            int tintColor = computeTintColor(state, pos, template.tintIndex());
             if (tintColor != -1) {
                 // Found a valid block tint color
                 colorData = ColorModeHandler.prepareColors(ctx, tintColor, true);
@@ -126,25 +165,17 @@ public final class QuadProcessor {
             }
         }
 
-        String finalMaterialKey = blockKey;
-        if (ExportRuntimeConfig.getAtlasMode() == ExportRuntimeConfig.AtlasMode.INDIVIDUAL) {
-            finalMaterialKey = spriteKey;
-        }
-
-        // Register sprite material (Intern strings)
-        ctx.registerSpriteMaterial(spriteKey, finalMaterialKey);
-
-        // Output quad (Intern keys)
-        sceneSink.addQuad(ctx.intern(finalMaterialKey), ctx.intern(spriteKey), null, vertexData.positions(), vertexData.uvs(),
-                colorData.uv1(), vertexData.normal(), colorData.colors(), doubleSided);
+        // Output quad (keys interned when the template was built)
+        sceneSink.addQuad(template.materialKey(), sprites.key(template.spriteId()), null, positions, template.uv(),
+                colorData.uv1(), template.normal(), colorData.colors(), doubleSided);
     }
 
     /**
      * Computes tint color from block colors. Returns -1 if no tint logic exists.
      */
-    private int computeTintColor(BlockState state, BlockPos pos, BakedQuad quad) {
-        if (quad.getTintIndex() < 0) return -1;
-        return Minecraft.getInstance().getBlockColors().getColor(state, level, pos, quad.getTintIndex());
+    private int computeTintColor(BlockState state, BlockPos pos, int tintIndex) {
+        if (tintIndex < 0) return -1;
+        return Minecraft.getInstance().getBlockColors().getColor(state, level, pos, tintIndex);
     }
 
     private boolean hasBakedColors(int[] colors) {
@@ -213,7 +244,7 @@ public final class QuadProcessor {
      * Computes unique key for quad deduplication.
      * Optimized to avoid object allocation (zero GC).
      */
-    private long computeQuadKey(String spriteKey, float[] positions, float[] normal,
+    private long computeQuadKey(int spriteId, float[] positions, float[] normal,
                                 boolean doubleSided, float[] uv0) {
         // Primitive sort of indices based on vertex positions
         // We have 4 vertices (indices 0, 1, 2, 3)
@@ -234,7 +265,7 @@ public final class QuadProcessor {
         // Order is now i0, i1, i2, i3
 
         long hash = 1125899906842597L;
-        hash = 31 * hash + spriteKey.hashCode();
+        hash = 31 * hash + spriteId;
 
         if (!doubleSided) {
             hash = 31 * hash + Math.round(normal[0] * 1000f);
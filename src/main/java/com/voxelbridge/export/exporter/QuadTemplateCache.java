@@ -0,0 +1,123 @@
+package com.voxelbridge.export.exporter;
+
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Export-scoped cache of pre-extracted block quads (thread-safe).
+ * Most terrain resolves to a few hundred BlockStates, so quad classification
+ * (overlay/CTM detection), vertex extraction and UV normalization run once per
+ * model variant; per-block work is reduced to culling, translation and tinting.
+ */
+public final class QuadTemplateCache {
+
+    // Upper bound to keep pathological modpacks from growing the cache without limit.
+    private static final int MAX_TEMPLATES = 65536;
+
+    private final Map<Key, BlockTemplate> templates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * Cache key: block state plus the identity of the model variant picked by the positional seed.
+     * Weighted models (stone, grass, ...) return the same pre-baked quad instances per variant,
+     * so the identity hash distinguishes variants without re-running extraction.
+     */
+    private record Key(BlockState state, long variantHash) {}
+
+    /**
+     * Local-space quad shared by every block using the same model variant.
+     * Arrays are shared between blocks and must be treated as read-only.
+     *
+     * @param spriteId       dense sprite id from {@link com.voxelbridge.export.texture.SpriteRegistry}
+     * @param localPositions 12 floats in block-local space (overlay z-offset already applied)
+     * @param uv             8 floats normalized to the sprite (first animation frame)
+     * @param normal         face normal
+     * @param colors         baked ABGR vertex colors (4 ints)
+     * @param tintIndex      model tint index (-1 if untinted)
+     * @param direction      face direction used for occlusion culling (null = never culled)
+     * @param materialKey    overlays only: base material key
+     * @param materialSuffix overlays only: material suffix ("_overlay", "_hilight" or null)
+     */
+    record QuadTemplate(int spriteId, float[] localPositions, float[] uv, float[] normal,
+                        int[] colors, int tintIndex, Direction direction,
+                        String materialKey, String materialSuffix) {}
+
+    /**
+     * All quads emitted for one model variant, split into base quads and overlays.
+     */
+    record BlockTemplate(BakedQuad[] source, List<QuadTemplate> baseQuads, List<QuadTemplate> overlays) {
+        boolean matches(List<BakedQuad> quads) {
+            if (quads.size() != source.length) return false;
+            for (int i = 0; i < source.length; i++) {
+                if (quads.get(i) != source[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Looks up the template for the given quads. Returns null on miss.
+     */
+    BlockTemplate get(BlockState state, List<BakedQuad> quads) {
+        BlockTemplate template = templates.get(new Key(state, variantHash(quads)));
+        if (template != null && template.matches(quads)) {
+            hits.increment();
+            return template;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores a freshly built template (first writer wins).
+     */
+    void put(BlockState state, List<BakedQuad> quads, BlockTemplate template) {
+        if (templates.size() >= MAX_TEMPLATES) return;
+        templates.putIfAbsent(new Key(state, variantHash(quads)), template);
+    }
+
+    /**
+     * Records a block whose quads cannot be cached (mod handlers, FRAPI, connected-texture model data).
+     */
+    void recordBypass() {
+        bypassed.increment();
+    }
+
+    public void clear() {
+        templates.clear();
+        hits.reset();
+        misses.reset();
+        bypassed.reset();
+    }
+
+    public void logStats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        long b = bypassed.sum();
+        long lookups = h + m;
+        double hitRate = lookups > 0 ? (h * 100.0) / lookups : 0.0;
+        VoxelBridgeLogger.info(LogModule.EXPORT, String.format(
+            "[QuadTemplateCache] templates=%d hits=%d misses=%d bypassed=%d hitRate=%.1f%%",
+            templates.size(), h, m, b, hitRate));
+        VoxelBridgeLogger.stat("quad_template_hits", h);
+        VoxelBridgeLogger.stat("quad_template_misses", m);
+    }
+
+    private static long variantHash(List<BakedQuad> quads) {
+        long hash = 1125899906842597L;
+        for (BakedQuad quad : quads) {
+            hash = 31 * hash + System.identityHashCode(quad);
+        }
+        return hash;
+    }
+}
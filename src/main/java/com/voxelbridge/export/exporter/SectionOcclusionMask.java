@@ -0,0 +1,230 @@
+package com.voxelbridge.export.exporter;
+
+import com.voxelbridge.export.ChunkNeighborhoodSnapshot;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.SingleValuePalette;
+
+/**
+ * Opacity bitmask of one 16x16x16 chunk section, built once when the section is sampled.
+ * Holds 4096 bits for the section interior plus six 256-bit masks for the touching layer of
+ * each neighbouring section, so per-block face visibility is resolved with bit tests instead
+ * of level lookups. Blocks outside the export region or in unloaded neighbours count as
+ * not opaque, matching {@link BlockExporter}'s culling rules.
+ */
+public final class SectionOcclusionMask {
+
+    /** All six faces visible (bit per {@link Direction#ordinal()}). */
+    public static final int ALL_FACES = 0b111111;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int FULL_COUNT = 4096;
+
+    private final int baseX, baseY, baseZ;
+    private final long[] opaque = new long[64];
+    // Indexed by Direction.ordinal(); plane index see planeIndex()
+    private final long[][] boundary = new long[6][4];
+    private int opaqueCount;
+
+    private SectionOcclusionMask(int baseX, int baseY, int baseZ) {
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.baseZ = baseZ;
+    }
+
+    /**
+     * Builds the mask for a section of the snapshot's centre chunk.
+     *
+     * @param sectionY section coordinate (block Y >> 4)
+     */
+    public static SectionOcclusionMask build(ChunkNeighborhoodSnapshot world, int sectionY,
+                                             BlockPos regionMin, BlockPos regionMax) {
+        ChunkPos chunkPos = world.getCenter();
+        int baseX = chunkPos.x << 4;
+        int baseZ = chunkPos.z << 4;
+        SectionOcclusionMask mask = new SectionOcclusionMask(baseX, sectionY << 4, baseZ);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        LevelChunkSection section = world.getSection(chunkPos.x, sectionY, chunkPos.z);
+        BlockState uniform = section != null ? uniformState(section) : null;
+        if (uniform != null && isSectionInside(baseX, mask.baseY, baseZ, regionMin, regionMax)) {
+            // Single-palette section: one opacity test covers all 4096 blocks
+            if (isOpaque(uniform, world, pos.set(baseX, mask.baseY, baseZ))) {
+                java.util.Arrays.fill(mask.opaque, -1L);
+                mask.opaqueCount = FULL_COUNT;
+            }
+        } else if (section != null && !section.hasOnlyAir()) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        pos.set(baseX + x, mask.baseY + y, baseZ + z);
+                        if (!isInside(pos, regionMin, regionMax)) continue;
+                        if (isOpaque(section.getBlockState(x, y, z), world, pos)) {
+                            int i = index(x, y, z);
+                            mask.opaque[i >>> 6] |= 1L << i;
+                            mask.opaqueCount++;
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Direction dir : DIRECTIONS) {
+            mask.buildBoundary(world, chunkPos, sectionY, dir, regionMin, regionMax, pos);
+        }
+        return mask;
+    }
+
+    private void buildBoundary(ChunkNeighborhoodSnapshot world, ChunkPos chunkPos, int sectionY, Direction dir,
+                               BlockPos regionMin, BlockPos regionMax, BlockPos.MutableBlockPos pos) {
+        int neighborX = chunkPos.x + dir.getStepX();
+        int neighborZ = chunkPos.z + dir.getStepZ();
+        if (!world.isChunkLoaded(neighborX, neighborZ)) return;
+        LevelChunkSection section = world.getSection(neighborX, sectionY + dir.getStepY(), neighborZ);
+        if (section == null || section.hasOnlyAir()) return;
+
+        long[] plane = boundary[dir.ordinal()];
+        for (int a = 0; a < 16; a++) {
+            for (int b = 0; b < 16; b++) {
+                // (x, y, z) is the in-section block touching this face
+                int x, y, z;
+                switch (dir.getAxis()) {
+                    case X -> { x = dir.getStepX() > 0 ? 15 : 0; y = a; z = b; }
+                    case Y -> { y = dir.getStepY() > 0 ? 15 : 0; z = a; x = b; }
+                    default -> { z = dir.getStepZ() > 0 ? 15 : 0; y = a; x = b; }
+                }
+                int nx = (x + dir.getStepX()) & 15;
+                int ny = (y + dir.getStepY()) & 15;
+                int nz = (z + dir.getStepZ()) & 15;
+                pos.set(baseX + x + dir.getStepX(), baseY + y + dir.getStepY(), baseZ + z + dir.getStepZ());
+                if (!isInside(pos, regionMin, regionMax)) continue;
+                if (isOpaque(section.getBlockState(nx, ny, nz), world, pos)) {
+                    int i = planeIndex(dir, x, y, z);
+                    plane[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * True if the position lies inside this section.
+     */
+    public boolean contains(BlockPos pos) {
+        return (pos.getX() - baseX) >>> 4 == 0
+            && (pos.getY() - baseY) >>> 4 == 0
+            && (pos.getZ() - baseZ) >>> 4 == 0;
+    }
+
+    /**
+     * True if the block at the given world position is an opaque full cube.
+     */
+    public boolean isOpaque(BlockPos pos) {
+        return isOpaqueLocal(pos.getX() - baseX, pos.getY() - baseY, pos.getZ() - baseZ);
+    }
+
+    /**
+     * Returns the faces of a block whose neighbour is not opaque, one bit per {@link Direction#ordinal()}.
+     * The position must be inside this section.
+     */
+    public int visibleFaces(BlockPos pos) {
+        int x = pos.getX() - baseX;
+        int y = pos.getY() - baseY;
+        int z = pos.getZ() - baseZ;
+        int faces = 0;
+        for (Direction dir : DIRECTIONS) {
+            if (!isNeighborOpaque(x, y, z, dir)) {
+                faces |= 1 << dir.ordinal();
+            }
+        }
+        return faces;
+    }
+
+    /**
+     * True if the block is an opaque full cube with all six neighbours opaque (never produces faces).
+     */
+    public boolean isBuried(BlockPos pos) {
+        return isOpaque(pos) && visibleFaces(pos) == 0;
+    }
+
+    /**
+     * True if every block in the section and every touching neighbour block is opaque.
+     * Such a section (deep stone, solid ocean floor) has no exposed surface at all.
+     */
+    public boolean isEnclosed() {
+        if (opaqueCount != FULL_COUNT) return false;
+        for (long[] plane : boundary) {
+            for (long word : plane) {
+                if (word != -1L) return false;
+            }
+        }
+        return true;
+    }
+
+    public int getOpaqueCount() {
+        return opaqueCount;
+    }
+
+    /**
+     * Returns the single block state of a section whose palette holds exactly one value, or null.
+     */
+    public static BlockState uniformState(LevelChunkSection section) {
+        var palette = section.getStates().data.palette();
+        if (palette instanceof SingleValuePalette<BlockState>) {
+            return palette.valueFor(0);
+        }
+        return null;
+    }
+
+    /**
+     * True if the whole 16x16x16 section starting at the given corner lies inside the region.
+     */
+    public static boolean isSectionInside(int baseX, int baseY, int baseZ, BlockPos min, BlockPos max) {
+        if (min == null || max == null) return true;
+        return baseX >= min.getX() && baseX + 15 <= max.getX()
+            && baseY >= min.getY() && baseY + 15 <= max.getY()
+            && baseZ >= min.getZ() && baseZ + 15 <= max.getZ();
+    }
+
+    private boolean isNeighborOpaque(int x, int y, int z, Direction dir) {
+        int nx = x + dir.getStepX();
+        int ny = y + dir.getStepY();
+        int nz = z + dir.getStepZ();
+        if (((nx | ny | nz) & ~15) == 0) {
+            return isOpaqueLocal(nx, ny, nz);
+        }
+        int i = planeIndex(dir, x, y, z);
+        return (boundary[dir.ordinal()][i >>> 6] & (1L << i)) != 0;
+    }
+
+    private boolean isOpaqueLocal(int x, int y, int z) {
+        int i = index(x, y, z);
+        return (opaque[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+
+    private static int planeIndex(Direction dir, int x, int y, int z) {
+        return switch (dir.getAxis()) {
+            case X -> (y << 4) | z;
+            case Y -> (z << 4) | x;
+            case Z -> (y << 4) | x;
+        };
+    }
+
+    private static boolean isOpaque(BlockState state, BlockGetter world, BlockPos pos) {
+        return !state.isAir() && state.isSolidRender(world, pos);
+    }
+
+    private static boolean isInside(BlockPos pos, BlockPos min, BlockPos max) {
+        if (min == null || max == null) return true;
+        return pos.getX() >= min.getX() && pos.getX() <= max.getX()
+            && pos.getY() >= min.getY() && pos.getY() <= max.getY()
+            && pos.getZ() >= min.getZ() && pos.getZ() <= max.getZ();
+    }
+}
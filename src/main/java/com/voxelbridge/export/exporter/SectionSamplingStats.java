@@ -0,0 +1,85 @@
+package com.voxelbridge.export.exporter;
+
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Export-scoped counters for section-level sampling shortcuts (thread-safe).
+ */
+public final class SectionSamplingStats {
+
+    private final LongAdder sectionsSampled = new LongAdder();
+    private final LongAdder sectionsEnclosed = new LongAdder();
+    private final LongAdder blocksBuried = new LongAdder();
+    private final LongAdder uniformAir = new LongAdder();
+    private final LongAdder uniformSolid = new LongAdder();
+    private final LongAdder uniformFluid = new LongAdder();
+
+    /**
+     * Records a section that went through block-by-block sampling.
+     */
+    public void recordSampled() {
+        sectionsSampled.increment();
+    }
+
+    /**
+     * Records a section skipped because it has no exposed surface.
+     */
+    public void recordEnclosed() {
+        sectionsEnclosed.increment();
+    }
+
+    /**
+     * Records a block culled by the section mask before its model was queried.
+     */
+    public void recordBuried() {
+        blocksBuried.increment();
+    }
+
+    /**
+     * Records an all-air section skipped without sampling.
+     */
+    public void recordUniformAir() {
+        uniformAir.increment();
+    }
+
+    /**
+     * Records a single-palette opaque section sampled on its outer shell only.
+     */
+    public void recordUniformSolid() {
+        uniformSolid.increment();
+    }
+
+    /**
+     * Records a single-palette fluid section sampled on its surface only.
+     */
+    public void recordUniformFluid() {
+        uniformFluid.increment();
+    }
+
+    public void clear() {
+        sectionsSampled.reset();
+        sectionsEnclosed.reset();
+        blocksBuried.reset();
+        uniformAir.reset();
+        uniformSolid.reset();
+        uniformFluid.reset();
+    }
+
+    public void logStats() {
+        long sampled = sectionsSampled.sum();
+        long enclosed = sectionsEnclosed.sum();
+        long buried = blocksBuried.sum();
+        long air = uniformAir.sum();
+        long solid = uniformSolid.sum();
+        long fluid = uniformFluid.sum();
+        VoxelBridgeLogger.info(LogModule.EXPORT, String.format(
+            "[SectionSampling] sampled=%d enclosedSkipped=%d buriedBlocks=%d uniformAir=%d uniformSolid=%d uniformFluid=%d",
+            sampled, enclosed, buried, air, solid, fluid));
+        VoxelBridgeLogger.stat("sections_enclosed_skipped", enclosed);
+        VoxelBridgeLogger.stat("blocks_buried_culled", buried);
+        VoxelBridgeLogger.stat("sections_uniform_short_circuited", air + solid + fluid);
+    }
+}
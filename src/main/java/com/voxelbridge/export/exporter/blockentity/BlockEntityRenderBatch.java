@@ -1,15 +1,19 @@
 package com.voxelbridge.export.exporter.blockentity;
 
+import com.voxelbridge.util.client.MainThreadWorkScheduler;
 import net.minecraft.client.Minecraft;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 import com.voxelbridge.util.debug.LogModule;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Collects BlockEntity render tasks per chunk and executes them in a single
- * main-thread pass to minimize context switching.
+ * Hands BlockEntity render tasks to the {@link MainThreadWorkScheduler} as soon as they are
+ * enqueued, so the render thread works through them a few milliseconds per frame while
+ * sampling continues, and tracks their futures for the final {@link #flush}.
  *
  * Thread-safe for concurrent enqueue from multiple worker threads.
  */
@@ -17,52 +21,66 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public final class BlockEntityRenderBatch {
 
     // Concurrent queue so worker threads can enqueue safely
-    private final ConcurrentLinkedQueue<BlockEntityRenderer.RenderTask> tasks = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> pending = new ConcurrentLinkedQueue<>();
 
-    public void enqueue(BlockEntityRenderer.RenderTask task) {
-        if (task != null) {
-            tasks.add(task);
-            com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] Enqueued task, total queued: " + tasks.size());
+    /**
+     * Schedules a task on the render thread and returns its future; callers never block here.
+     */
+    public CompletableFuture<Void> enqueue(BlockEntityRenderer.RenderTask task) {
+        if (task == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        CompletableFuture<Void> future = MainThreadWorkScheduler.submit(task);
+        pending.add(future);
+        if (com.voxelbridge.util.debug.VoxelBridgeLogger.isDebugEnabled(LogModule.BLOCKENTITY)) {
+            com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] Scheduled task, main-thread queue: " + MainThreadWorkScheduler.pending());
+        }
+        return future;
     }
 
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return pending.isEmpty();
     }
 
     /**
-     * Execute all queued tasks on the main thread in one batch.
+     * Waits until every scheduled task has run. Tasks still queued keep draining under the
+     * per-frame budget; when called on the render thread itself they are run inline.
      */
     public void flush(Minecraft mc) {
-        if (tasks.isEmpty()) {
-            com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] flush() called but queue is empty");
+        if (pending.isEmpty()) {
+            com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] flush() called but nothing was scheduled");
             return;
         }
-        int taskCount = tasks.size();
-        com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] flush() called with " + taskCount + " tasks");
-        mc.executeBlocking(() -> {
-            int executed = 0;
-            BlockEntityRenderer.RenderTask task;
-            while ((task = tasks.poll()) != null) {
-                try {
-                    task.run();
-                    executed++;
-                } catch (Exception e) {
-                    com.voxelbridge.util.debug.VoxelBridgeLogger.error(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch][ERROR] " + e.getMessage());
-                    e.printStackTrace();
-                }
+        if (mc.isSameThread()) {
+            MainThreadWorkScheduler.drainAll();
+        }
+        int executed = 0;
+        int failed = 0;
+        long waitStart = System.nanoTime();
+        CompletableFuture<Void> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                future.join();
+                executed++;
+            } catch (CompletionException e) {
+                failed++;
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                com.voxelbridge.util.debug.VoxelBridgeLogger.error(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch][ERROR] " + cause.getMessage());
+            } catch (java.util.concurrent.CancellationException ignored) {
+                // Discarded via clear()
             }
-            com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] Executed " + executed + " tasks");
-        });
-        tasks.clear();
+        }
+        long waitedMs = (System.nanoTime() - waitStart) / 1_000_000L;
+        com.voxelbridge.util.debug.VoxelBridgeLogger.debug(LogModule.BLOCKENTITY, "[BlockEntityRenderBatch] Executed " + executed + " tasks (" + failed + " failed), final wait " + waitedMs + " ms");
     }
 
     /**
-     * Discard any queued work without rendering.
+     * Discard any work that has not run yet.
      */
     public void clear() {
-        tasks.clear();
+        CompletableFuture<Void> future;
+        while ((future = pending.poll()) != null) {
+            future.cancel(false);
+        }
     }
 }
-
-
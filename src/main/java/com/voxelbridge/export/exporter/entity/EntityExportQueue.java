@@ -0,0 +1,105 @@
+package com.voxelbridge.export.exporter.entity;
+
+import com.voxelbridge.export.ExportContext;
+import com.voxelbridge.export.scene.SceneSink;
+import com.voxelbridge.util.client.MainThreadWorkScheduler;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Export-scoped collector for deferred entity rendering.
+ * Sampling workers only record {@link EntitySnapshot}s; once terrain sampling is done,
+ * {@link #renderAll} renders every entity on the main thread through the
+ * {@link MainThreadWorkScheduler}, so the per-frame budget applies and workers never
+ * block on a per-chunk main-thread round-trip.
+ *
+ * Thread-safe for concurrent collection from multiple worker threads.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class EntityExportQueue {
+
+    private final Set<Integer> processedEntityIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<EntitySnapshot> snapshots = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Records exportable entities inside the bounds for the given chunk.
+     */
+    public void collect(Level level, AABB bounds, int chunkX, int chunkZ) {
+        EntityExporter.collectEntitiesInChunk(level, bounds, chunkX, chunkZ, processedEntityIds, snapshots::add);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * Renders all collected entities into the sink, one scheduler job per entity with chunk
+     * attribution, and waits for completion. Call from a non-render thread after sampling.
+     */
+    public void renderAll(ExportContext ctx, Level level, SceneSink sceneSink,
+                          double offsetX, double offsetY, double offsetZ) {
+        List<EntitySnapshot> ordered = new ArrayList<>(snapshots);
+        snapshots.clear();
+        if (ordered.isEmpty()) {
+            return;
+        }
+        // Group by chunk so consecutive jobs hit the same chunk
+        ordered.sort(Comparator.comparingLong(EntitySnapshot::chunkKey));
+
+        long start = VoxelBridgeLogger.now();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ordered.size());
+        int[] rendered = new int[1];
+        for (EntitySnapshot snapshot : ordered) {
+            futures.add(MainThreadWorkScheduler.submit(() -> {
+                boolean success = false;
+                sceneSink.onChunkStart(snapshot.chunkX(), snapshot.chunkZ());
+                try {
+                    success = EntityExporter.exportSnapshot(ctx, level, snapshot, sceneSink, offsetX, offsetY, offsetZ);
+                    if (success) {
+                        rendered[0]++; // only touched on the render thread
+                    }
+                } finally {
+                    sceneSink.onChunkEnd(snapshot.chunkX(), snapshot.chunkZ(), success);
+                }
+            }));
+        }
+
+        if (Minecraft.getInstance().isSameThread()) {
+            MainThreadWorkScheduler.drainAll();
+        }
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                VoxelBridgeLogger.error(LogModule.ENTITY, "[EntityExportQueue][ERROR] " + cause.getMessage());
+            }
+        }
+
+        VoxelBridgeLogger.info(LogModule.ENTITY, String.format(
+            "[EntityExportQueue] rendered=%d/%d entities", rendered[0], ordered.size()));
+        VoxelBridgeLogger.duration("entity_render", VoxelBridgeLogger.elapsedSince(start));
+    }
+
+    /**
+     * Discards collected snapshots without rendering.
+     */
+    public void clear() {
+        snapshots.clear();
+        processedEntityIds.clear();
+    }
+}
@@ -4,34 +4,39 @@ import com.voxelbridge.export.ExportContext;
 import com.voxelbridge.export.scene.SceneSink;
 import com.voxelbridge.util.debug.LogModule;
 import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.Vec3;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 @OnlyIn(Dist.CLIENT)
 public final class EntityExporter {
 
     private EntityExporter() {}
 
-    public static void exportEntitiesInChunk(
-        ExportContext ctx,
-        SceneSink sceneSink,
+    /**
+     * Snapshots exportable entities inside the bounds without touching any renderer.
+     * Safe to call from sampling workers; rendering happens later on the main thread.
+     *
+     * @return number of snapshots taken
+     */
+    public static int collectEntitiesInChunk(
         Level level,
         AABB bounds,
-        double offsetX,
-        double offsetY,
-        double offsetZ,
-        Set<Integer> processedEntityIds
+        int chunkX,
+        int chunkZ,
+        Set<Integer> processedEntityIds,
+        Consumer<EntitySnapshot> out
     ) {
-        if (level == null) return;
+        if (level == null) return 0;
 
-        java.util.List<Entity> candidates = new java.util.ArrayList<>();
+        int collected = 0;
         for (Entity entity : level.getEntities(null, bounds)) {
             if (entity == null || entity.isRemoved()) continue;
             if (!processedEntityIds.add(entity.getId())) {
@@ -42,37 +47,60 @@ public final class EntityExporter {
                 VoxelBridgeLogger.debug(LogModule.ENTITY, "[EntityExporter] Skipping filtered entity: " + entity.getType());
                 continue;
             }
-            candidates.add(entity);
+            out.accept(new EntitySnapshot(
+                entity.getId(),
+                BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType()).toString(),
+                entity.getX(), entity.getY(), entity.getZ(), entity.getYRot(),
+                chunkX, chunkZ));
+            collected++;
         }
+        return collected;
+    }
 
-        if (candidates.isEmpty()) {
-            return;
+    /**
+     * Renders one snapshot into the sink. Must run on the main thread.
+     *
+     * @return true if geometry was captured
+     */
+    public static boolean exportSnapshot(
+        ExportContext ctx,
+        Level level,
+        EntitySnapshot snapshot,
+        SceneSink sceneSink,
+        double offsetX,
+        double offsetY,
+        double offsetZ
+    ) {
+        Entity entity = level.getEntity(snapshot.entityId());
+        if (entity == null || entity.isRemoved()) {
+            VoxelBridgeLogger.warn(LogModule.ENTITY, String.format("[NoGeometry] %s at [%.2f, %.2f, %.2f] - %s",
+                snapshot.typeId(), snapshot.x(), snapshot.y(), snapshot.z(),
+                "Entity unloaded before render"));
+            return false;
         }
 
-        ctx.getMc().executeBlocking(() -> {
-            for (Entity entity : candidates) {
-                Vec3 pos = entity.position();
-                VoxelBridgeLogger.info(LogModule.ENTITY, String.format("Exporting entity: %s (%s) at [%.2f, %.2f, %.2f]",
-                    entity.getName().getString(),
-                        entity.getType(),
-                    pos.x, pos.y, pos.z));
-                net.minecraft.world.phys.AABB bb = entity.getBoundingBox();
-                VoxelBridgeLogger.debug(LogModule.ENTITY, String.format(
-                    "[BBox] %s min[%.3f, %.3f, %.3f] max[%.3f, %.3f, %.3f] size[%.3f x %.3f x %.3f]",
-                    entity.getType(),
-                    bb.minX, bb.minY, bb.minZ,
-                    bb.maxX, bb.maxY, bb.maxZ,
-                    bb.maxX - bb.minX, bb.maxY - bb.minY, bb.maxZ - bb.minZ));
+        VoxelBridgeLogger.info(LogModule.ENTITY, String.format("Exporting entity: %s (%s) at [%.2f, %.2f, %.2f]",
+            entity.getName().getString(),
+            snapshot.typeId(),
+            snapshot.x(), snapshot.y(), snapshot.z()));
+        if (VoxelBridgeLogger.isDebugEnabled(LogModule.ENTITY)) {
+            AABB bb = entity.getBoundingBox();
+            VoxelBridgeLogger.debug(LogModule.ENTITY, String.format(
+                "[BBox] %s min[%.3f, %.3f, %.3f] max[%.3f, %.3f, %.3f] size[%.3f x %.3f x %.3f]",
+                snapshot.typeId(),
+                bb.minX, bb.minY, bb.minZ,
+                bb.maxX, bb.maxY, bb.maxZ,
+                bb.maxX - bb.minX, bb.maxY - bb.minY, bb.maxZ - bb.minZ));
+        }
 
-                boolean success = EntityRenderer.renderOnMainThread(ctx, entity, sceneSink, offsetX, offsetY, offsetZ);
-                if (!success) {
-                    VoxelBridgeLogger.warn(LogModule.ENTITY, String.format("[NoGeometry] %s at [%.2f, %.2f, %.2f] - %s",
-                        entity.getType(),
-                        pos.x, pos.y, pos.z,
-                        "Render returned false"));
-                }
-            }
-        });
+        boolean success = EntityRenderer.renderSnapshot(ctx, entity, snapshot, sceneSink, offsetX, offsetY, offsetZ);
+        if (!success) {
+            VoxelBridgeLogger.warn(LogModule.ENTITY, String.format("[NoGeometry] %s at [%.2f, %.2f, %.2f] - %s",
+                snapshot.typeId(),
+                snapshot.x(), snapshot.y(), snapshot.z(),
+                "Render returned false"));
+        }
+        return success;
     }
 
     private static boolean shouldExport(Entity entity) {
@@ -0,0 +1,214 @@
+package com.voxelbridge.export.exporter.entity;
+
+import com.voxelbridge.export.scene.SceneSink;
+import com.voxelbridge.export.scene.SceneWriteRequest;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.minecraft.core.Rotations;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.decoration.ArmorStand;
+import net.minecraft.world.entity.decoration.ItemFrame;
+import net.minecraft.world.entity.decoration.Painting;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Export-scoped cache of captured entity geometry in entity-local space (thread-safe).
+ * Decorative entities repeat heavily (item-frame walls, armor-stand displays), so the
+ * first instance of each (type, texture, variant, rotation) is rendered through the full
+ * renderer and every later instance only replays its quads with a translation.
+ * Only entity kinds whose visual state is fully covered by the variant hash are cached;
+ * everything else (name tags, equipment, mobs) renders normally.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class EntityGeometryCache {
+
+    // Upper bound to keep unusual scenes from growing the cache without limit.
+    private static final int MAX_ENTRIES = 4096;
+    // Rotation buckets per degree.
+    private static final float ROTATION_STEPS = 4f;
+
+    private final Map<Key, List<CapturedQuad>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * Cache key: entity type, renderer texture, variant hash and quantized rotation.
+     */
+    public record Key(EntityType<?> type, ResourceLocation texture, long variantHash, int yaw, int pitch) {}
+
+    /**
+     * One quad as emitted to the sink, with positions relative to the entity origin.
+     * Arrays are shared between instances and must be treated as read-only.
+     */
+    record CapturedQuad(String materialGroupKey, String spriteKey, String overlaySpriteKey,
+                        float[] localPositions, float[] uv0, float[] uv1, float[] normal,
+                        float[] colors, boolean doubleSided) {}
+
+    /**
+     * Builds the cache key for an entity, or returns null if its geometry depends on
+     * per-instance state the key does not capture.
+     */
+    public Key keyFor(Entity entity, ResourceLocation texture, float yaw) {
+        Long variant = variantHash(entity);
+        if (variant == null) {
+            bypassed.increment();
+            return null;
+        }
+        return new Key(entity.getType(), texture, variant, quantize(yaw), quantize(entity.getXRot()));
+    }
+
+    /**
+     * Replays cached geometry at the given world origin. Returns false on miss.
+     */
+    public boolean emit(Key key, SceneSink sink, double originX, double originY, double originZ) {
+        List<CapturedQuad> quads = entries.get(key);
+        if (quads == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        replay(quads, sink, originX, originY, originZ);
+        return true;
+    }
+
+    /**
+     * Stores freshly captured geometry (first writer wins).
+     */
+    public void put(Key key, Recorder recorder) {
+        if (recorder.quads.isEmpty() || entries.size() >= MAX_ENTRIES) return;
+        entries.putIfAbsent(key, List.copyOf(recorder.quads));
+    }
+
+    /**
+     * Translates local-space quads to the given world origin and sends them to the sink.
+     */
+    static void replay(List<CapturedQuad> quads, SceneSink sink, double originX, double originY, double originZ) {
+        float ox = (float) originX;
+        float oy = (float) originY;
+        float oz = (float) originZ;
+        for (CapturedQuad q : quads) {
+            float[] local = q.localPositions();
+            float[] positions = new float[local.length];
+            for (int i = 0; i + 2 < local.length; i += 3) {
+                positions[i] = local[i] + ox;
+                positions[i + 1] = local[i + 1] + oy;
+                positions[i + 2] = local[i + 2] + oz;
+            }
+            sink.addQuad(q.materialGroupKey(), q.spriteKey(), q.overlaySpriteKey(),
+                positions, q.uv0(), q.uv1(), q.normal(), q.colors(), q.doubleSided());
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+        bypassed.reset();
+    }
+
+    public void logStats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        long b = bypassed.sum();
+        VoxelBridgeLogger.info(LogModule.ENTITY, String.format(
+            "[EntityGeometryCache] entries=%d hits=%d misses=%d bypassed=%d",
+            entries.size(), h, m, b));
+        VoxelBridgeLogger.stat("entity_geometry_hits", h);
+        VoxelBridgeLogger.stat("entity_geometry_misses", m);
+    }
+
+    private static int quantize(float degrees) {
+        float wrapped = degrees % 360f;
+        if (wrapped < 0f) wrapped += 360f;
+        return Math.round(wrapped * ROTATION_STEPS) % (int) (360 * ROTATION_STEPS);
+    }
+
+    /**
+     * Hash of everything besides type, texture and rotation that changes the rendered geometry,
+     * or null if the entity is not safe to share.
+     */
+    private static Long variantHash(Entity entity) {
+        if (entity.hasCustomName() || entity.isOnFire()) {
+            return null; // name tag / fire overlay are per instance
+        }
+        long hash = entity.isInvisible() ? 1L : 0L;
+        if (entity instanceof Painting painting) {
+            return 31 * hash + painting.getVariant().unwrapKey()
+                .map(k -> k.location().hashCode())
+                .orElse(0);
+        }
+        if (entity instanceof ItemFrame frame) {
+            ItemStack item = frame.getItem();
+            if (item.isEmpty()) {
+                return 31 * hash;
+            }
+            // Item and components (map id, enchantments) identify the framed model
+            return (31 * hash + ItemStack.hashItemAndComponents(item)) * 31 + frame.getRotation();
+        }
+        if (entity instanceof ArmorStand stand) {
+            for (EquipmentSlot slot : EquipmentSlot.values()) {
+                if (!stand.getItemBySlot(slot).isEmpty()) {
+                    return null; // held items and armor are per instance
+                }
+            }
+            hash = 31 * hash + (stand.isSmall() ? 1 : 0);
+            hash = 31 * hash + (stand.isShowArms() ? 1 : 0);
+            hash = 31 * hash + (stand.isNoBasePlate() ? 1 : 0);
+            hash = 31 * hash + (stand.isMarker() ? 1 : 0);
+            hash = 31 * hash + hashRotations(stand.getHeadPose());
+            hash = 31 * hash + hashRotations(stand.getBodyPose());
+            hash = 31 * hash + hashRotations(stand.getLeftArmPose());
+            hash = 31 * hash + hashRotations(stand.getRightArmPose());
+            hash = 31 * hash + hashRotations(stand.getLeftLegPose());
+            hash = 31 * hash + hashRotations(stand.getRightLegPose());
+            return hash;
+        }
+        return null;
+    }
+
+    private static int hashRotations(Rotations r) {
+        int h = Float.floatToIntBits(r.getX());
+        h = 31 * h + Float.floatToIntBits(r.getY());
+        return 31 * h + Float.floatToIntBits(r.getZ());
+    }
+
+    /**
+     * Sink that records quads emitted by a local-space render so they can be cached and replayed.
+     */
+    public static final class Recorder implements SceneSink {
+        private final List<CapturedQuad> quads = new ArrayList<>();
+
+        @Override
+        public void addQuad(String materialGroupKey, String spriteKey, String overlaySpriteKey,
+                            float[] positions, float[] uv0, float[] uv1, float[] normal,
+                            float[] colors, boolean doubleSided) {
+            quads.add(new CapturedQuad(materialGroupKey, spriteKey, overlaySpriteKey,
+                positions, uv0, uv1, normal, colors, doubleSided));
+        }
+
+        /**
+         * Sends the recorded quads to the real sink at the given world origin.
+         */
+        public void replayTo(SceneSink sink, double originX, double originY, double originZ) {
+            replay(quads, sink, originX, originY, originZ);
+        }
+
+        @Override
+        public Path write(SceneWriteRequest request) {
+            throw new UnsupportedOperationException("Recorder cannot write to file directly. Use replayTo().");
+        }
+    }
+}
@@ -51,7 +51,8 @@ public final class EntityRenderer {
         double offsetY,
         double offsetZ
     ) {
-        return renderInternal(ctx, entity, sceneSink, offsetX, offsetY, offsetZ, true);
+        return renderInternal(ctx, entity, sceneSink, offsetX, offsetY, offsetZ,
+            entity.getX(), entity.getY(), entity.getZ(), entity.getYRot(), true);
     }
 
     public static boolean renderOnMainThread(
@@ -62,7 +63,25 @@ public final class EntityRenderer {
         double offsetY,
         double offsetZ
     ) {
-        return renderInternal(ctx, entity, sceneSink, offsetX, offsetY, offsetZ, false);
+        return renderInternal(ctx, entity, sceneSink, offsetX, offsetY, offsetZ,
+            entity.getX(), entity.getY(), entity.getZ(), entity.getYRot(), false);
+    }
+
+    /**
+     * Renders on the current (main) thread using the transform captured in the snapshot,
+     * so the entity is placed where it was when its chunk was sampled.
+     */
+    public static boolean renderSnapshot(
+        ExportContext ctx,
+        Entity entity,
+        EntitySnapshot snapshot,
+        SceneSink sceneSink,
+        double offsetX,
+        double offsetY,
+        double offsetZ
+    ) {
+        return renderInternal(ctx, entity, sceneSink, offsetX, offsetY, offsetZ,
+            snapshot.x(), snapshot.y(), snapshot.z(), snapshot.yaw(), false);
     }
 
     private static boolean renderInternal(
@@ -72,6 +91,10 @@ public final class EntityRenderer {
         double offsetX,
         double offsetY,
         double offsetZ,
+        double entityX,
+        double entityY,
+        double entityZ,
+        float yaw,
         boolean scheduleOnMainThread
     ) {
         try {
@@ -105,9 +128,9 @@ public final class EntityRenderer {
             PoseStack poseStack = new PoseStack();
 
             // Calculate base position
-            double finalX = entity.getX() + offsetX;
-            double finalY = entity.getY() + offsetY;
-            double finalZ = entity.getZ() + offsetZ;
+            double finalX = entityX + offsetX;
+            double finalY = entityY + offsetY;
+            double finalZ = entityZ + offsetZ;
 
             // Apply direction-based offset for hanging entities (paintings, item frames)
             if (entity instanceof net.minecraft.world.entity.decoration.HangingEntity hangingEntity) {
@@ -121,11 +144,22 @@ public final class EntityRenderer {
                     hangingEntity.getDirection(), hangingOffset[0], hangingOffset[1], hangingOffset[2]));
             }
 
-            poseStack.translate(finalX, finalY, finalZ);
+            // Shared decorative geometry: replay a cached local-space capture instead of re-rendering
+            EntityGeometryCache geometryCache = ctx.getEntityGeometryCache();
+            EntityGeometryCache.Key cacheKey = geometryCache.keyFor(entity, renderer.getTextureLocation(entity), yaw);
+            if (cacheKey != null && geometryCache.emit(cacheKey, sceneSink, finalX, finalY, finalZ)) {
+                VoxelBridgeLogger.debug(LogModule.ENTITY, "[EntityRenderer] Replayed cached geometry for " + entity.getType());
+                return true;
+            }
+            EntityGeometryCache.Recorder recorder = cacheKey != null ? new EntityGeometryCache.Recorder() : null;
+
+            if (recorder == null) {
+                poseStack.translate(finalX, finalY, finalZ);
+            }
 
-            CaptureBuffer captureBuffer = new CaptureBuffer(ctx, sceneSink, offsetX, offsetY, offsetZ, entity);
+            CaptureBuffer captureBuffer = new CaptureBuffer(ctx, recorder != null ? recorder : sceneSink,
+                offsetX, offsetY, offsetZ, entity);
             float partial = 0f;
-            float yaw = entity.getYRot();
             if (VoxelBridgeLogger.isDebugEnabled(LogModule.ENTITY)) {
                 VoxelBridgeLogger.debug(LogModule.ENTITY, String.format(
                     "[Rotation] %s yaw=%.2fdeg (actual=%.2fdeg, isHanging=%s)",
@@ -178,6 +212,12 @@ public final class EntityRenderer {
 
             captureBuffer.flush();
             boolean hadGeometry = captureBuffer.hadGeometry();
+            if (recorder != null) {
+                if (hadGeometry && renderException[0] == null) {
+                    geometryCache.put(cacheKey, recorder);
+                }
+                recorder.replayTo(sceneSink, finalX, finalY, finalZ);
+            }
 
             if (hadGeometry) {
                 VoxelBridgeLogger.debug(LogModule.ENTITY, "[EntityRenderer] Successfully captured geometry for " + entity.getType());
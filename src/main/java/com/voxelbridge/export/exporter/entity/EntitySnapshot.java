@@ -0,0 +1,31 @@
+package com.voxelbridge.export.exporter.entity;
+
+/**
+ * Plain-data capture of one entity, taken on a sampling worker and rendered later in the
+ * deferred entity phase. Holds no Minecraft references so it can outlive the chunk it came
+ * from; the live entity is looked up again by id when rendering.
+ * <p>
+ * Only the transform is fixed at sampling time. Vanilla renderers read pose (pitch, animation,
+ * held items) and texture variant from the entity itself, so those come from the live entity at
+ * render time; light is not sampled because entities are rendered full-bright.
+ *
+ * @param entityId runtime entity id (Entity#getId)
+ * @param typeId   entity type key, e.g. minecraft:item_frame
+ * @param x        world position at sampling time
+ * @param y        world position at sampling time
+ * @param z        world position at sampling time
+ * @param yaw      body yaw in degrees at sampling time
+ * @param chunkX   chunk the entity is attributed to in the scene
+ * @param chunkZ   chunk the entity is attributed to in the scene
+ */
+public record EntitySnapshot(int entityId, String typeId,
+                             double x, double y, double z, float yaw,
+                             int chunkX, int chunkZ) {
+
+    /**
+     * Packs the owning chunk into a single key (same layout as ChunkPos#asLong).
+     */
+    public long chunkKey() {
+        return (chunkX & 0xFFFFFFFFL) | ((chunkZ & 0xFFFFFFFFL) << 32);
+    }
+}
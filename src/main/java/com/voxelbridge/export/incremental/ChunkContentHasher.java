@@ -0,0 +1,144 @@
+package com.voxelbridge.export.incremental;
+
+import com.voxelbridge.export.ChunkNeighborhoodSnapshot;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Content hashes for incremental export.
+ * A chunk's own hash covers its section palettes and packed data, its biome containers and the
+ * positions, types and saved data of its block entities; the data carries what model data is built
+ * from (sign text, banner patterns, skull profiles, connected-texture state). Block geometry also depends on neighbouring blocks
+ * (face culling, fluid corner heights, connected textures), so a chunk is only reused when the
+ * combined hash of its 3x3 neighbourhood matches. Own hashes are memoized per export since each
+ * chunk appears in up to nine neighbourhoods.
+ */
+@OnlyIn(Dist.CLIENT)
+final class ChunkContentHasher {
+
+    private static final long UNLOADED = 0x5A17_0C3E_9D21_4B6FL;
+    private static final long MISSING_SECTION = 0x2C4B_95E1_73A8_D60FL;
+
+    private final Map<Long, Long> ownHashes = new ConcurrentHashMap<>();
+    private final HolderLookup.Provider registries;
+
+    ChunkContentHasher(HolderLookup.Provider registries) {
+        this.registries = registries;
+    }
+
+    /**
+     * Hash of the chunk and its eight neighbours as captured in the snapshot.
+     */
+    long neighborhoodHash(ChunkNeighborhoodSnapshot snapshot) {
+        ChunkPos center = snapshot.getCenter();
+        long hash = 0x6A09_E667_F3BC_C908L;
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int cx = center.x + dx;
+                int cz = center.z + dz;
+                long own;
+                if (!snapshot.isChunkLoaded(cx, cz)) {
+                    own = UNLOADED;
+                } else {
+                    own = ownHashes.computeIfAbsent(ChunkPos.asLong(cx, cz), k -> hashChunk(snapshot, cx, cz));
+                }
+                hash = mix(hash, own);
+            }
+        }
+        return finish(hash);
+    }
+
+    void clear() {
+        ownHashes.clear();
+    }
+
+    private long hashChunk(ChunkNeighborhoodSnapshot snapshot, int chunkX, int chunkZ) {
+        long hash = mix(0, ChunkPos.asLong(chunkX, chunkZ));
+        ByteBuf raw = Unpooled.buffer(8192);
+        FriendlyByteBuf buf = new FriendlyByteBuf(raw);
+        try {
+            for (int sectionY = snapshot.getMinSection(); sectionY < snapshot.getMaxSection(); sectionY++) {
+                LevelChunkSection section = snapshot.getSection(chunkX, sectionY, chunkZ);
+                if (section == null) {
+                    hash = mix(hash, MISSING_SECTION);
+                    continue;
+                }
+                // Network serialization: block count, state palette + packed data, biome palette + data
+                buf.clear();
+                section.write(buf);
+                hash = mixBytes(hash, buf);
+            }
+
+            for (BlockEntity be : snapshot.getBlockEntitiesIn(chunkX, chunkZ)) {
+                ResourceLocation type = BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(be.getType());
+                long entry = mix(be.getBlockPos().asLong(), type != null ? type.hashCode() : 0);
+                entry = mix(entry, blockEntityDataHash(be, buf));
+                // Order-independent: the snapshot map has no stable iteration order
+                hash += finish(entry);
+            }
+        } finally {
+            raw.release();
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Hash of the block entity's saved data. Block entities are live references read off the client
+     * thread; if saving fails mid-update the chunk gets a hash that never matches, so it is resampled.
+     */
+    private long blockEntityDataHash(BlockEntity be, FriendlyByteBuf buf) {
+        try {
+            CompoundTag tag = be.saveWithoutMetadata(registries);
+            buf.clear();
+            NbtIo.write(tag, new ByteBufOutputStream(buf));
+            return mixBytes(0, buf);
+        } catch (Exception e) {
+            return ThreadLocalRandom.current().nextLong();
+        }
+    }
+
+    private static long mixBytes(long hash, ByteBuf buf) {
+        int index = buf.readerIndex();
+        int end = buf.writerIndex();
+        while (index + 8 <= end) {
+            hash = mix(hash, buf.getLongLE(index));
+            index += 8;
+        }
+        long tail = 0;
+        int shift = 0;
+        while (index < end) {
+            tail |= (buf.getByte(index++) & 0xFFL) << shift;
+            shift += 8;
+        }
+        return mix(hash, tail ^ ((long) (end - buf.readerIndex()) << 56));
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value * 0x9E37_79B9_7F4A_7C15L;
+        return Long.rotateLeft(hash, 31) * 0xBF58_476D_1CE4_E5B9L;
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51_AFD7_ED55_8CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CE_B9FE_1A85_EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,571 @@
+package com.voxelbridge.export.incremental;
+
+import com.voxelbridge.config.ExportRuntimeConfig;
+import com.voxelbridge.export.ChunkNeighborhoodSnapshot;
+import com.voxelbridge.export.ExportContext;
+import com.voxelbridge.export.scene.SceneSink;
+import com.voxelbridge.export.scene.SceneWriteRequest;
+import com.voxelbridge.export.scene.gltf.GltfSceneBuilder;
+import com.voxelbridge.export.texture.ColorMapManager;
+import com.voxelbridge.export.texture.PbrTextureHelper;
+import com.voxelbridge.export.texture.SpriteRegistry;
+import com.voxelbridge.export.texture.TextureAtlasManager;
+import com.voxelbridge.export.texture.TextureLoader;
+import com.voxelbridge.util.client.ResourceFingerprint;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.MissingTextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-chunk geometry cache that lets a re-export of the same region skip unchanged chunks.
+ * <p>
+ * Every sampled chunk's deduplicated block and fluid quads are appended to a chunk data file
+ * under {@code export/incremental/<fingerprint>/}, keyed by the content hash of the chunk's
+ * 3x3 neighbourhood ({@link ChunkContentHasher}). The manifest maps chunk to hash and byte
+ * range. On the next export with the same world, region and geometry-affecting settings, a
+ * chunk whose hash still matches is replayed into the scene sink instead of being sampled;
+ * assembly then runs over replayed and freshly sampled chunks alike.
+ * <p>
+ * Quads are stored with sprite and material names rather than export-local ids, so the
+ * texture atlas is rebuilt normally. Block entities and entities are not cached: they are
+ * rendered every run. In colormap mode the previous run's colormap slot order is re-seeded
+ * before sampling so stored TEXCOORD_1 values stay valid.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class IncrementalExportCache implements AutoCloseable {
+
+    private static final int MAGIC = 0x56424943; // "VBIC"
+    private static final int VERSION = 2;
+    private static final String MANIFEST = "manifest.bin";
+    private static final String TRANSPARENT = "voxelbridge:transparent";
+
+    private static final int FLAG_DOUBLE_SIDED = 1;
+    private static final int FLAG_UV1 = 2;
+    private static final int FLAG_NORMAL = 4;
+
+    private record Entry(long hash, String dataFile, long offset, int length) {}
+
+    private record StoredQuad(String materialGroupKey, String spriteKey, String overlaySpriteKey,
+                              float[] positions, float[] uv0, float[] uv1, float[] normal,
+                              float[] colors, boolean doubleSided) {}
+
+    private final ExportContext ctx;
+    private final Path dir;
+    private final String fingerprint;
+    private final ChunkContentHasher hasher;
+
+    private final Map<Long, Entry> previous;
+    private final Map<String, FileChannel> previousData = new HashMap<>();
+    private final Map<Long, Entry> current = new ConcurrentHashMap<>();
+    private final String currentDataName;
+    private final FileChannel currentData;
+    private final Set<String> registeredSprites = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private boolean committed = false;
+
+    private IncrementalExportCache(ExportContext ctx, Level level, Path dir, String fingerprint,
+                                   Map<Long, Entry> previous) throws IOException {
+        this.ctx = ctx;
+        this.hasher = new ChunkContentHasher(level.registryAccess());
+        this.dir = dir;
+        this.fingerprint = fingerprint;
+        this.previous = previous;
+        for (Entry entry : previous.values()) {
+            if (!previousData.containsKey(entry.dataFile())) {
+                Path file = dir.resolve(entry.dataFile());
+                previousData.put(entry.dataFile(), Files.exists(file) ? FileChannel.open(file, StandardOpenOption.READ) : null);
+            }
+        }
+        this.currentDataName = "chunks-" + System.currentTimeMillis() + ".bin";
+        this.currentData = FileChannel.open(dir.resolve(currentDataName),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Opens the cache for an export of the given region, or returns null if incremental export
+     * is disabled or the cache directory is unusable. Must be called after the colormap's
+     * reserved slots are initialized and before sampling registers any colors.
+     */
+    public static IncrementalExportCache open(ExportContext ctx, Level level, BlockPos regionMin, BlockPos regionMax) {
+        if (!ExportRuntimeConfig.isIncrementalExportEnabled()) {
+            return null;
+        }
+        String fingerprint = fingerprint(ctx.getMc(), level, regionMin, regionMax);
+        Path dir = Path.of("export", "incremental", Long.toHexString(hashString(fingerprint)));
+        try {
+            Files.createDirectories(dir);
+            Map<Long, Entry> previous = loadManifest(ctx, dir, fingerprint);
+            IncrementalExportCache cache = new IncrementalExportCache(ctx, level, dir, fingerprint, previous);
+            VoxelBridgeLogger.info(LogModule.EXPORT, String.format(
+                "[Incremental] Cache %s: %d chunks from previous export", dir, previous.size()));
+            return cache;
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Cache unavailable, sampling all chunks: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Content hash of the snapshot's chunk neighbourhood.
+     */
+    public long hash(ChunkNeighborhoodSnapshot snapshot) {
+        return hasher.neighborhoodHash(snapshot);
+    }
+
+    /**
+     * Replays the chunk's stored geometry into the sink if its hash is unchanged.
+     * Returns false (nothing emitted) if the chunk must be sampled.
+     */
+    public boolean replay(ChunkPos chunkPos, long hash, SceneSink sink) {
+        Entry entry = previous.get(chunkPos.toLong());
+        if (entry == null || entry.hash() != hash) {
+            return false;
+        }
+        FileChannel channel = previousData.get(entry.dataFile());
+        if (channel == null) {
+            return false;
+        }
+        try {
+            byte[] data = new byte[entry.length()];
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long position = entry.offset();
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) throw new IOException("Unexpected end of chunk data");
+                position += read;
+            }
+            List<StoredQuad> quads = decode(data);
+            if (!registerSprites(quads)) {
+                rejected.increment();
+                return false;
+            }
+            emit(quads, sink);
+            append(chunkPos, hash, data);
+            reused.increment();
+            return true;
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Cannot reuse chunk " + chunkPos + ": " + e.getMessage());
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Returns a sink that collects one chunk's quads for {@link #store}.
+     */
+    public Recorder recorder() {
+        return new Recorder();
+    }
+
+    /**
+     * Sends the recorded quads to the scene and stores them for the chunk.
+     */
+    public void store(ChunkPos chunkPos, long hash, Recorder recorder, SceneSink sink) {
+        emit(recorder.quads, sink);
+        try {
+            append(chunkPos, hash, encode(recorder.quads));
+            stored.increment();
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Cannot store chunk " + chunkPos + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the manifest for this export and drops chunk data files it no longer references.
+     */
+    public void commit() {
+        try {
+            currentData.force(false);
+            Path tmp = dir.resolve(MANIFEST + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                writeManifest(out);
+            }
+            try {
+                Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Cannot write manifest: " + e.getMessage());
+        }
+
+        VoxelBridgeLogger.info(LogModule.EXPORT, String.format(
+            "[Incremental] reused=%d sampled=%d rejected=%d previous=%d",
+            reused.sum(), stored.sum(), rejected.sum(), previous.size()));
+        VoxelBridgeLogger.stat("incremental_reused_chunks", reused.sum());
+        VoxelBridgeLogger.stat("incremental_sampled_chunks", stored.sum());
+    }
+
+    @Override
+    public void close() {
+        hasher.clear();
+        for (FileChannel channel : previousData.values()) {
+            closeQuietly(channel);
+        }
+        closeQuietly(currentData);
+        try {
+            if (committed) {
+                for (String name : previousData.keySet()) {
+                    if (!name.equals(currentDataName)) {
+                        Files.deleteIfExists(dir.resolve(name));
+                    }
+                }
+            } else {
+                Files.deleteIfExists(dir.resolve(currentDataName));
+            }
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Cannot clean up chunk data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends quads to the sink, one batch per material when the sink is the glTF builder.
+     */
+    private static void emit(List<StoredQuad> quads, SceneSink sink) {
+        if (!(sink instanceof GltfSceneBuilder gltfSink)) {
+            for (StoredQuad q : quads) {
+                sink.addQuad(q.materialGroupKey(), q.spriteKey(), q.overlaySpriteKey(),
+                    q.positions(), q.uv0(), q.uv1(), q.normal(), q.colors(), q.doubleSided());
+            }
+            return;
+        }
+        Map<String, List<StoredQuad>> byMaterial = new LinkedHashMap<>();
+        for (StoredQuad q : quads) {
+            byMaterial.computeIfAbsent(q.materialGroupKey(), k -> new ArrayList<>()).add(q);
+        }
+        for (Map.Entry<String, List<StoredQuad>> group : byMaterial.entrySet()) {
+            List<StoredQuad> batch = group.getValue();
+            int count = batch.size();
+            String[] spriteKeys = new String[count];
+            String[] overlaySpriteKeys = new String[count];
+            boolean[] doubleSided = new boolean[count];
+            float[] positions = new float[count * 12];
+            float[] uv0 = new float[count * 8];
+            float[] uv1 = new float[count * 8];
+            float[] normals = new float[count * 3];
+            float[] colors = new float[count * 16];
+            for (int i = 0; i < count; i++) {
+                StoredQuad q = batch.get(i);
+                System.arraycopy(q.positions(), 0, positions, i * 12, 12);
+                System.arraycopy(q.uv0(), 0, uv0, i * 8, 8);
+                if (q.uv1() != null) System.arraycopy(q.uv1(), 0, uv1, i * 8, 8);
+                if (q.normal() != null) {
+                    System.arraycopy(q.normal(), 0, normals, i * 3, 3);
+                } else {
+                    normals[i * 3 + 1] = 1f;
+                }
+                System.arraycopy(q.colors(), 0, colors, i * 16, 16);
+                spriteKeys[i] = q.spriteKey();
+                overlaySpriteKeys[i] = q.overlaySpriteKey();
+                doubleSided[i] = q.doubleSided();
+            }
+            gltfSink.addBatch(group.getKey(), spriteKeys, overlaySpriteKeys,
+                positions, uv0, uv1, normals, colors, doubleSided);
+        }
+    }
+
+    private synchronized void append(ChunkPos chunkPos, long hash, byte[] data) throws IOException {
+        long offset = currentData.size();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            currentData.write(buffer, offset + buffer.position());
+        }
+        current.put(chunkPos.toLong(), new Entry(hash, currentDataName, offset, data.length));
+    }
+
+    /**
+     * Mirrors the texture bookkeeping the block sampler does for each sprite it emits.
+     * Returns false if a sprite no longer exists in the block atlas.
+     */
+    private boolean registerSprites(List<StoredQuad> quads) {
+        TextureAtlas atlas = ctx.getMc().getModelManager().getAtlas(TextureAtlas.LOCATION_BLOCKS);
+        SpriteRegistry sprites = ctx.getSpriteRegistry();
+        for (StoredQuad q : quads) {
+            for (String key : new String[]{q.spriteKey(), q.overlaySpriteKey()}) {
+                if (key == null || TRANSPARENT.equals(key) || registeredSprites.contains(key)) continue;
+                ResourceLocation location = ResourceLocation.tryParse(key);
+                if (location == null) return false;
+                TextureAtlasSprite sprite = atlas.getSprite(location);
+                if (sprite == null || (!location.equals(MissingTextureAtlasSprite.getLocation())
+                    && MissingTextureAtlasSprite.getLocation().equals(sprite.contents().name()))) {
+                    return false;
+                }
+
+                PbrTextureHelper.ensurePbrCached(ctx, key, sprite);
+                int flags = sprites.flags(sprites.idOf(sprite));
+                boolean dynamic = SpriteRegistry.has(flags, SpriteRegistry.FLAG_NUMBERED | SpriteRegistry.FLAG_VANILLA_OVERLAY)
+                    || !ctx.getMaterialPaths().containsKey(key);
+                if (dynamic) {
+                    TextureAtlasManager.registerTint(ctx, key, 0xFFFFFF);
+                    if (ctx.getCachedSpriteImage(key) == null) {
+                        try {
+                            BufferedImage img = TextureLoader.fromSprite(sprite);
+                            if (img != null) ctx.cacheSpriteImage(key, img);
+                        } catch (Exception ignore) {}
+                    }
+                }
+                registeredSprites.add(key);
+            }
+        }
+        return true;
+    }
+
+    // ---- Manifest ----
+
+    private void writeManifest(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(fingerprint);
+
+        // Colormap slots in allocation order, white (slot 0) excluded
+        List<Map.Entry<Integer, ExportContext.TexturePlacement>> colors;
+        synchronized (ctx.getColorMap()) {
+            colors = new ArrayList<>(ctx.getColorMap().int2ObjectEntrySet());
+        }
+        colors.sort(Comparator
+            .comparingInt((Map.Entry<Integer, ExportContext.TexturePlacement> e) -> e.getValue().page())
+            .thenComparingInt(e -> e.getValue().y())
+            .thenComparingInt(e -> e.getValue().x()));
+        List<Integer> seeded = new ArrayList<>(colors.size());
+        for (Map.Entry<Integer, ExportContext.TexturePlacement> e : colors) {
+            if (e.getKey() != 0xFFFFFFFF) seeded.add(e.getKey());
+        }
+        out.writeInt(seeded.size());
+        for (int argb : seeded) out.writeInt(argb);
+
+        out.writeInt(current.size());
+        for (Map.Entry<Long, Entry> e : current.entrySet()) {
+            Entry entry = e.getValue();
+            out.writeLong(e.getKey());
+            out.writeLong(entry.hash());
+            out.writeUTF(entry.dataFile());
+            out.writeLong(entry.offset());
+            out.writeInt(entry.length());
+        }
+    }
+
+    /**
+     * Reads the previous manifest. Returns an empty map if there is none, it belongs to other
+     * settings, or its colormap order cannot be reproduced in this export.
+     */
+    private static Map<Long, Entry> loadManifest(ExportContext ctx, Path dir, String fingerprint) {
+        Path file = dir.resolve(MANIFEST);
+        if (!Files.exists(file)) {
+            return new HashMap<>();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !fingerprint.equals(in.readUTF())) {
+                VoxelBridgeLogger.info(LogModule.EXPORT, "[Incremental] Previous manifest is from another version or settings, ignoring it");
+                return new HashMap<>();
+            }
+            int colorCount = in.readInt();
+            int[] colors = new int[colorCount];
+            for (int i = 0; i < colorCount; i++) colors[i] = in.readInt();
+
+            int count = in.readInt();
+            Map<Long, Entry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                entries.put(key, new Entry(in.readLong(), in.readUTF(), in.readLong(), in.readInt()));
+            }
+
+            if (ExportRuntimeConfig.getColorMode() == ExportRuntimeConfig.ColorMode.COLORMAP && !seedColorMap(ctx, colors)) {
+                VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Colormap already in use, cannot reuse stored color UVs");
+                return new HashMap<>();
+            }
+            return entries;
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.EXPORT, "[Incremental] Cannot read previous manifest: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Re-registers the previous export's colors so each lands in the slot it had before.
+     */
+    private static boolean seedColorMap(ExportContext ctx, int[] colors) {
+        if (ctx.getNextColorSlot().get() != 1) {
+            return false; // Colors other than the reserved white were registered already
+        }
+        for (int argb : colors) {
+            ColorMapManager.registerColor(ctx, argb);
+        }
+        return ctx.getNextColorSlot().get() == colors.length + 1;
+    }
+
+    /**
+     * Everything besides chunk content that changes the stored quads.
+     */
+    private static String fingerprint(Minecraft mc, Level level, BlockPos regionMin, BlockPos regionMax) {
+        String world;
+        if (mc.getSingleplayerServer() != null) {
+            world = mc.getSingleplayerServer().getWorldPath(LevelResource.ROOT).toAbsolutePath().normalize().toString();
+        } else if (mc.getCurrentServer() != null) {
+            world = mc.getCurrentServer().ip;
+        } else {
+            world = "unknown";
+        }
+        return String.join("|",
+            "v" + VERSION,
+            world,
+            level.dimension().location().toString(),
+            regionMin.toShortString(),
+            regionMax.toShortString(),
+            String.valueOf(ExportRuntimeConfig.getCoordinateMode()),
+            String.valueOf(ExportRuntimeConfig.getAtlasMode()),
+            String.valueOf(ExportRuntimeConfig.getAtlasSize()),
+            String.valueOf(ExportRuntimeConfig.getColorMode()),
+            String.valueOf(ExportRuntimeConfig.isFillCaveEnabled()),
+            String.valueOf(ExportRuntimeConfig.isVanillaRandomTransformEnabled()),
+            String.valueOf(mc.options.biomeBlendRadius().get()),
+            // Pack contents and mod versions decide the baked models; a state count alone misses edits
+            ResourceFingerprint.describe(mc));
+    }
+
+    private static long hashString(String value) {
+        long hash = 0xCBF2_9CE4_8422_2325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x0000_0100_0000_01B3L;
+        }
+        return hash;
+    }
+
+    // ---- Chunk record encoding ----
+
+    private static byte[] encode(List<StoredQuad> quads) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (StoredQuad q : quads) {
+            strings.putIfAbsent(q.materialGroupKey(), strings.size());
+            strings.putIfAbsent(q.spriteKey(), strings.size());
+            if (q.overlaySpriteKey() != null) strings.putIfAbsent(q.overlaySpriteKey(), strings.size());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + quads.size() * 220);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) out.writeUTF(s);
+            out.writeInt(quads.size());
+            for (StoredQuad q : quads) {
+                out.writeInt(strings.get(q.materialGroupKey()));
+                out.writeInt(strings.get(q.spriteKey()));
+                out.writeInt(q.overlaySpriteKey() != null ? strings.get(q.overlaySpriteKey()) : -1);
+                int flags = (q.doubleSided() ? FLAG_DOUBLE_SIDED : 0)
+                    | (q.uv1() != null ? FLAG_UV1 : 0)
+                    | (q.normal() != null ? FLAG_NORMAL : 0);
+                out.writeByte(flags);
+                writeFloats(out, q.positions(), 12);
+                writeFloats(out, q.uv0(), 8);
+                if (q.uv1() != null) writeFloats(out, q.uv1(), 8);
+                if (q.normal() != null) writeFloats(out, q.normal(), 3);
+                writeFloats(out, q.colors(), 16);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<StoredQuad> decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) strings[i] = in.readUTF();
+            int count = in.readInt();
+            List<StoredQuad> quads = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String material = strings[in.readInt()];
+                String sprite = strings[in.readInt()];
+                int overlay = in.readInt();
+                int flags = in.readByte();
+                float[] positions = readFloats(in, 12);
+                float[] uv0 = readFloats(in, 8);
+                float[] uv1 = (flags & FLAG_UV1) != 0 ? readFloats(in, 8) : null;
+                float[] normal = (flags & FLAG_NORMAL) != 0 ? readFloats(in, 3) : null;
+                float[] colors = readFloats(in, 16);
+                quads.add(new StoredQuad(material, sprite, overlay >= 0 ? strings[overlay] : null,
+                    positions, uv0, uv1, normal, colors, (flags & FLAG_DOUBLE_SIDED) != 0));
+            }
+            return quads;
+        }
+    }
+
+    private static void writeFloats(DataOutputStream out, float[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.writeFloat(values != null && i < values.length ? values[i] : 0f);
+        }
+    }
+
+    private static float[] readFloats(DataInputStream in, int count) throws IOException {
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) values[i] = in.readFloat();
+        return values;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Sink that collects one chunk's deduplicated quads until the chunk completes.
+     * Used by one chunk task at a time.
+     */
+    public static final class Recorder implements SceneSink {
+        private final List<StoredQuad> quads = new ArrayList<>();
+
+        private Recorder() {}
+
+        @Override
+        public void addQuad(String materialGroupKey, String spriteKey, String overlaySpriteKey,
+                            float[] positions, float[] uv0, float[] uv1, float[] normal,
+                            float[] colors, boolean doubleSided) {
+            quads.add(new StoredQuad(materialGroupKey, spriteKey, overlaySpriteKey,
+                positions, uv0, uv1, normal, colors, doubleSided));
+        }
+
+        @Override
+        public Path write(SceneWriteRequest request) {
+            throw new UnsupportedOperationException("Recorder cannot write to file directly. Use store().");
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.voxelbridge.export.scene;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
 import java.nio.file.Path;
 import java.util.*;
 
 /**
- * Chunk-level buffered sink: buffers all quads for a chunk and deduplicates on flush.
+ * Chunk-level buffered sink: buffers all quads for a chunk and deduplicates them per material.
  * Dedup is per-chunk and per-material; duplicate vertices on chunk borders are allowed.
+ * Quads are copied into primitive per-material buffers as they arrive, so callers may reuse
+ * their arrays and no per-quad objects are retained. The per-material deduplicators come from a
+ * {@link ChunkDeduplicatorPool} and go back to it on flush, so sections sampled later reuse them.
  */
 public final class BufferedSceneSink implements SceneSink {
 
-    private static final int ESTIMATED_QUADS_PER_CHUNK = 8000;
-    private final List<QuadRecord> buffer = new ArrayList<>(ESTIMATED_QUADS_PER_CHUNK);
+    private final ChunkDeduplicatorPool dedupers;
+    private final Map<String, ChunkDeduplicator> byMaterial = new LinkedHashMap<>();
+    // Sprite keys interned to ids shared by all materials of this chunk.
+    private final Object2IntOpenHashMap<String> spriteIds = new Object2IntOpenHashMap<>();
+    private final List<String> spriteKeys = new ArrayList<>();
+    private int quadCount = 0;
+
+    public BufferedSceneSink() {
+        this(new ChunkDeduplicatorPool());
+    }
+
+    public BufferedSceneSink(ChunkDeduplicatorPool dedupers) {
+        this.dedupers = dedupers;
+        spriteIds.defaultReturnValue(-1);
+    }
 
     @Override
     public void addQuad(String materialGroupKey,
@@ -22,17 +40,22 @@ public final class BufferedSceneSink implements SceneSink {
                         float[] normal,
                         float[] colors,
                         boolean doubleSided) {
-        buffer.add(new QuadRecord(
-            materialGroupKey,
-            spriteKey,
-            overlaySpriteKey,
+        ChunkDeduplicator deduper = byMaterial.get(materialGroupKey);
+        if (deduper == null) {
+            deduper = dedupers.acquire(materialGroupKey);
+            byMaterial.put(materialGroupKey, deduper);
+        }
+        deduper.addQuad(
+            spriteId(spriteKey),
+            overlaySpriteKey != null ? spriteId(overlaySpriteKey) : -1,
             positions,
             uv0,
             uv1,
             normal,
             colors,
             doubleSided
-        ));
+        );
+        quadCount++;
     }
 
     @Override
@@ -41,58 +64,41 @@ public final class BufferedSceneSink implements SceneSink {
     }
 
     /**
-     * Flush buffered quads to the target sink after per-material dedup.
+     * Flush deduplicated quads to the target sink, one bulk transfer per material.
      * Dedup is per-chunk (allows duplicates across chunk borders).
      */
     public void flushTo(SceneSink target) {
-        if (buffer.isEmpty()) {
+        if (quadCount == 0) {
             return;
         }
 
-        // Group by material.
-        Map<String, List<QuadRecord>> byMaterial = new HashMap<>();
-        for (QuadRecord quad : buffer) {
-            byMaterial.computeIfAbsent(quad.materialGroupKey, k -> new ArrayList<>()).add(quad);
+        String[] spriteTable = spriteKeys.toArray(new String[0]);
+        for (ChunkDeduplicator deduper : byMaterial.values()) {
+            deduper.flushTo(target, spriteTable);
+            dedupers.release(deduper);
         }
 
-        // Deduplicate each material group.
-        for (Map.Entry<String, List<QuadRecord>> entry : byMaterial.entrySet()) {
-            String materialKey = entry.getKey();
-            List<QuadRecord> quads = entry.getValue();
-
-            // Create per-chunk deduplicator.
-            ChunkDeduplicator deduper = new ChunkDeduplicator(materialKey);
-
-            // Process all quads.
-            for (QuadRecord quad : quads) {
-                deduper.processQuad(quad);
-            }
-
-            // Flush deduplicated data.
-            deduper.flushTo(target);
-        }
-
-        buffer.clear();
+        byMaterial.clear();
+        spriteIds.clear();
+        spriteKeys.clear();
+        quadCount = 0;
     }
 
     public boolean isEmpty() {
-        return buffer.isEmpty();
+        return quadCount == 0;
     }
 
     public int getQuadCount() {
-        return buffer.size();
+        return quadCount;
     }
 
-    // Internal data structure (package-visible for ChunkDeduplicator).
-    record QuadRecord(
-        String materialGroupKey,
-        String spriteKey,
-        String overlaySpriteKey,
-        float[] positions,
-        float[] uv0,
-        float[] uv1,
-        float[] normal,
-        float[] colors,
-        boolean doubleSided
-    ) {}
+    private int spriteId(String spriteKey) {
+        int id = spriteIds.getInt(spriteKey);
+        if (id < 0) {
+            id = spriteKeys.size();
+            spriteKeys.add(spriteKey);
+            spriteIds.put(spriteKey, id);
+        }
+        return id;
+    }
 }
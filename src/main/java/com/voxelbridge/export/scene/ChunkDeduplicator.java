@@ -1,255 +1,219 @@
 package com.voxelbridge.export.scene;
 
-import gnu.trove.map.hash.TObjectIntHashMap;
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * Chunk-level deduplicator: per-material vertex dedup within a chunk.
- * Allows duplicates across chunk borders and frees memory after flush.
+ * Allows duplicates across chunk borders. After a flush it is {@link #reset} and reused for
+ * the next section through {@link ChunkDeduplicatorPool}.
+ *
+ * Geometry is kept as primitive struct-of-arrays (vertex attributes, quad indices) and
+ * vertices are welded through an open-addressing table keyed by a 64-bit hash of the
+ * quantized attributes, so adding a quad allocates nothing once the arrays have grown.
  */
 final class ChunkDeduplicator {
 
-    private final String materialKey;
-    private final List<Float> positions;
-    private final List<Float> uv0;
-    private final List<Float> uv1;
-    private final List<Float> colors;
+    private static final int INITIAL_VERTICES = 1024;
+    private static final int INITIAL_QUADS = 512;
 
-    // Vertex dedup lookup table.
-    private final TObjectIntHashMap<VertexKey> vertexLookup;
+    private static final byte FLAG_DOUBLE_SIDED = 1;
+    private static final byte FLAG_NORMAL = 2;
 
-    // Quad-level dedup (transparent materials only).
-    private final Set<QuadKey> quadKeys;
-    private final boolean needsQuadDedup;
+    private final String materialKey;
 
-    // Deduplicated quads.
-    private final List<DeduplicatedQuad> quads;
+    // Vertex attributes, indexed by vertex id.
+    private float[] positions = new float[INITIAL_VERTICES * 3];
+    private float[] uv0 = new float[INITIAL_VERTICES * 2];
+    private float[] uv1 = new float[INITIAL_VERTICES * 2];
+    private float[] colors = new float[INITIAL_VERTICES * 4];
+    private int[] vertexSprites = new int[INITIAL_VERTICES];
+    private int[] vertexOverlays = new int[INITIAL_VERTICES];
     private int vertexCount = 0;
 
-    // Reusable buffer for processing a single quad (4 vertices).
-    private final TempVertex[] quadBuffer;
-
-    // Deduplicated quad data.
-    record DeduplicatedQuad(
-        String spriteKey,
-        String overlaySpriteKey,
-        int[] vertexIndices,  // Indices of the 4 vertices in the deduped arrays.
-        float[] normal,
-        boolean doubleSided
-    ) {}
+    // Vertex dedup table: open addressing with linear probing, slot holds vertex id + 1 (0 = empty).
+    private long[] slotHashes = new long[INITIAL_VERTICES * 2];
+    private int[] slotVertices = new int[INITIAL_VERTICES * 2];
+
+    // Deduplicated quads, indexed by quad id.
+    private int[] quadVertices = new int[INITIAL_QUADS * 4];
+    private int[] quadSprites = new int[INITIAL_QUADS];
+    private int[] quadOverlays = new int[INITIAL_QUADS];
+    private float[] quadNormals = new float[INITIAL_QUADS * 3];
+    private byte[] quadFlags = new byte[INITIAL_QUADS];
+    private int quadCount = 0;
+
+    // Quad-level dedup (transparent materials only): open addressing like the vertex table,
+    // slot holds quad id + 1, hits confirmed against the stored vertex ids.
+    private long[] quadSlotHashes;
+    private int[] quadSlots;
+
+    // Per-quad scratch.
+    private final int[] order = new int[4];
+    private final int[] verts = new int[4];
+    private final int[] sortedVerts = new int[4];
+    private final int[] probeVerts = new int[4];
+    private final long[] vertexHashes = new long[4];
+    private final double[] angles = new double[4];
 
     ChunkDeduplicator(String materialKey) {
         this.materialKey = materialKey;
-        this.positions = new ArrayList<>(1000 * 3);
-        this.uv0 = new ArrayList<>(1000 * 2);
-        this.uv1 = new ArrayList<>(1000 * 2);
-        this.colors = new ArrayList<>(1000 * 4);
-        this.vertexLookup = new TObjectIntHashMap<>(1000, 0.5f, -1);
-        this.quads = new ArrayList<>(500);
-
         // Quad dedup only for transparent materials (avoid Z-fighting).
-        this.needsQuadDedup = isTransparentMaterial(materialKey);
-        this.quadKeys = needsQuadDedup ? new HashSet<>() : null;
-        
-        // Initialize reusable buffer
-        this.quadBuffer = new TempVertex[4];
-        for (int i = 0; i < 4; i++) this.quadBuffer[i] = new TempVertex();
+        if (isTransparentMaterial(materialKey)) {
+            quadSlotHashes = new long[INITIAL_QUADS * 2];
+            quadSlots = new int[INITIAL_QUADS * 2];
+        }
+    }
+
+    String getMaterialKey() {
+        return materialKey;
+    }
+
+    /**
+     * Drops all vertices and quads but keeps the grown arrays and tables for the next section.
+     */
+    void reset() {
+        vertexCount = 0;
+        quadCount = 0;
+        Arrays.fill(slotVertices, 0);
+        if (quadSlots != null) {
+            Arrays.fill(quadSlots, 0);
+        }
     }
 
-    // Process one quad and deduplicate vertices.
-    void processQuad(BufferedSceneSink.QuadRecord quad) {
-        int[] order = sortQuadCCW(quad.positions());
-        int spriteHash = Objects.hash(quad.spriteKey(), quad.overlaySpriteKey());
+    /**
+     * Adds one quad, welding vertices that match an earlier vertex of the same sprite pair.
+     * Sprite ids index the owning sink's sprite table; -1 means no overlay sprite.
+     * The arrays are copied and may be reused by the caller.
+     */
+    void addQuad(int spriteId, int overlayId, float[] pos, float[] uv, float[] quadUv1,
+                 float[] normal, float[] col, boolean doubleSided) {
+        sortQuadCCW(pos);
 
-        int[] verts = new int[4];
-        
-        // Pass 1: Quantize and Lookup (Zero Allocation)
+        // Pass 1: Quantize and lookup
         for (int i = 0; i < 4; i++) {
             int oi = order[i];
-            float[] pos = quad.positions();
-            float[] uv = quad.uv0();
-            float[] uv1Array = quad.uv1();
-            float[] col = quad.colors();
-
-            // Populate reusable probe
-            TempVertex probe = quadBuffer[i];
-            probe.set(
-                spriteHash,
+            float u1 = quadUv1 != null ? quadUv1[oi * 2] : 0f;
+            float v1 = quadUv1 != null ? quadUv1[oi * 2 + 1] : 0f;
+            long hash = vertexHash(spriteId, overlayId,
                 pos[oi * 3], pos[oi * 3 + 1], pos[oi * 3 + 2],
-                uv[oi * 2], uv[oi * 2 + 1],
-                uv1Array != null ? uv1Array[oi * 2] : 0f,
-                uv1Array != null ? uv1Array[oi * 2 + 1] : 0f,
-                col[oi * 4], col[oi * 4 + 1], col[oi * 4 + 2], col[oi * 4 + 3]
-            );
-
-            int existing = vertexLookup.get(probe);
-            verts[i] = existing;
+                uv[oi * 2], uv[oi * 2 + 1], u1, v1,
+                col[oi * 4], col[oi * 4 + 1], col[oi * 4 + 2], col[oi * 4 + 3]);
+            vertexHashes[i] = hash;
+            verts[i] = findVertex(hash, spriteId, overlayId,
+                pos[oi * 3], pos[oi * 3 + 1], pos[oi * 3 + 2],
+                uv[oi * 2], uv[oi * 2 + 1], u1, v1,
+                col[oi * 4], col[oi * 4 + 1], col[oi * 4 + 2], col[oi * 4 + 3]);
         }
 
         // Degenerate check
-        if ((verts[0] != -1 && (verts[0] == verts[1] || verts[0] == verts[3])) ||
-            (verts[1] != -1 && (verts[1] == verts[2])) ||
-            (verts[2] != -1 && (verts[2] == verts[3]))) {
-             if (verts[0] != -1 && verts[0] == verts[1]) return;
+        if (verts[0] != -1 && verts[0] == verts[1]) {
+            return;
         }
-        
+
         // Pass 2: Register new vertices
         for (int i = 0; i < 4; i++) {
             if (verts[i] == -1) {
-                TempVertex temp = quadBuffer[i];
-                
-                // Create immutable key for map storage (Allocation only on miss)
-                VertexKey key = new VertexKey(temp);
-                int idx = vertexCount++;
-                vertexLookup.put(key, idx);
-                verts[i] = idx;
-
-                // Store vertex data
-                positions.add(temp.px); positions.add(temp.py); positions.add(temp.pz);
-                uv0.add(temp.u); uv0.add(temp.v);
-                uv1.add(temp.u1); uv1.add(temp.v1);
-                colors.add(temp.r); colors.add(temp.g); colors.add(temp.b); colors.add(temp.a);
+                int oi = order[i];
+                verts[i] = appendVertex(vertexHashes[i], spriteId, overlayId,
+                    pos[oi * 3], pos[oi * 3 + 1], pos[oi * 3 + 2],
+                    uv[oi * 2], uv[oi * 2 + 1],
+                    quadUv1 != null ? quadUv1[oi * 2] : 0f,
+                    quadUv1 != null ? quadUv1[oi * 2 + 1] : 0f,
+                    col[oi * 4], col[oi * 4 + 1], col[oi * 4 + 2], col[oi * 4 + 3]);
             }
         }
 
         // Quad-level dedup check (Post-resolution)
-        if (needsQuadDedup) {
-            QuadKey qk = QuadKey.from(verts[0], verts[1], verts[2], verts[3]);
-            if (!quadKeys.add(qk)) {
+        long quadHash = 0;
+        if (quadSlots != null) {
+            sortIds(verts[0], verts[1], verts[2], verts[3], sortedVerts);
+            quadHash = quadHash(sortedVerts);
+            if (findQuad(quadHash)) {
                 return; // Duplicate quad, skip.
             }
         }
 
-        quads.add(new DeduplicatedQuad(
-            quad.spriteKey(),
-            quad.overlaySpriteKey(),
-            verts,
-            quad.normal(),
-            quad.doubleSided()
-        ));
+        appendQuad(spriteId, overlayId, normal, doubleSided);
+        if (quadSlots != null) {
+            // Keep the table at most half full
+            if (quadCount * 2 > quadSlots.length) {
+                rehashQuads(quadSlots.length * 2);
+            } else {
+                insertQuadSlot(quadHash, quadCount - 1);
+            }
+        }
     }
 
-    // Flush deduplicated data to the target sink.
-    void flushTo(SceneSink target) {
-        if (quads.isEmpty()) {
-            releaseMemory();
+    /**
+     * Flushes deduplicated data to the target sink.
+     *
+     * @param spriteTable sprite keys by the ids passed to {@link #addQuad}
+     */
+    void flushTo(SceneSink target, String[] spriteTable) {
+        if (quadCount == 0) {
             return;
         }
-
-        try {
-            // OPTIMIZATION: Batch transfer for GltfSceneBuilder to reduce lock contention
-            if (target instanceof com.voxelbridge.export.scene.gltf.GltfSceneBuilder gltfSink) {
-                int count = quads.size();
-                List<String> spriteKeys = new ArrayList<>(count);
-                List<String> overlaySpriteKeys = new ArrayList<>(count);
-                
-                // Allocate flat arrays (Single allocation per batch instead of N per quad)
-                float[] flatPositions = new float[count * 12];
-                float[] flatUv0s = new float[count * 8];
-                float[] flatUv1s = new float[count * 8];
-                float[] flatNormals = new float[count * 3];
-                float[] flatColors = new float[count * 16];
-                List<Boolean> allDoubleSided = new ArrayList<>(count);
-
-                for (int i = 0; i < count; i++) {
-                    DeduplicatedQuad quad = quads.get(i);
-                    int posBase = i * 12;
-                    int uvBase = i * 8;
-                    int normBase = i * 3;
-                    int colBase = i * 16;
-
-                    for (int v = 0; v < 4; v++) {
-                        int vertIdx = quad.vertexIndices()[v];
-
-                        // positions
-                        flatPositions[posBase + v * 3]     = positions.get(vertIdx * 3);
-                        flatPositions[posBase + v * 3 + 1] = positions.get(vertIdx * 3 + 1);
-                        flatPositions[posBase + v * 3 + 2] = positions.get(vertIdx * 3 + 2);
-
-                        // uv0
-                        flatUv0s[uvBase + v * 2]     = uv0.get(vertIdx * 2);
-                        flatUv0s[uvBase + v * 2 + 1] = uv0.get(vertIdx * 2 + 1);
-
-                        // uv1
-                        flatUv1s[uvBase + v * 2]     = uv1.get(vertIdx * 2);
-                        flatUv1s[uvBase + v * 2 + 1] = uv1.get(vertIdx * 2 + 1);
-
-                        // colors
-                        flatColors[colBase + v * 4]     = colors.get(vertIdx * 4);
-                        flatColors[colBase + v * 4 + 1] = colors.get(vertIdx * 4 + 1);
-                        flatColors[colBase + v * 4 + 2] = colors.get(vertIdx * 4 + 2);
-                        flatColors[colBase + v * 4 + 3] = colors.get(vertIdx * 4 + 3);
-                    }
-
-                    float[] norm = quad.normal();
-                    if (norm != null && norm.length >= 3) {
-                        flatNormals[normBase]     = norm[0];
-                        flatNormals[normBase + 1] = norm[1];
-                        flatNormals[normBase + 2] = norm[2];
-                    } else {
-                        flatNormals[normBase]     = 0f;
-                        flatNormals[normBase + 1] = 1f;
-                        flatNormals[normBase + 2] = 0f;
-                    }
-
-                    spriteKeys.add(quad.spriteKey());
-                    overlaySpriteKeys.add(quad.overlaySpriteKey());
-                    allDoubleSided.add(quad.doubleSided());
+        int count = quadCount;
+
+        // Batch transfer for GltfSceneBuilder to reduce lock contention
+        if (target instanceof com.voxelbridge.export.scene.gltf.GltfSceneBuilder gltfSink) {
+            String[] spriteKeys = new String[count];
+            String[] overlaySpriteKeys = new String[count];
+            boolean[] doubleSided = new boolean[count];
+            float[] flatPositions = new float[count * 12];
+            float[] flatUv0s = new float[count * 8];
+            float[] flatUv1s = new float[count * 8];
+            float[] flatColors = new float[count * 16];
+            float[] flatNormals = new float[count * 3];
+
+            for (int q = 0; q < count; q++) {
+                for (int v = 0; v < 4; v++) {
+                    int vertex = quadVertices[q * 4 + v];
+                    System.arraycopy(positions, vertex * 3, flatPositions, q * 12 + v * 3, 3);
+                    System.arraycopy(uv0, vertex * 2, flatUv0s, q * 8 + v * 2, 2);
+                    System.arraycopy(uv1, vertex * 2, flatUv1s, q * 8 + v * 2, 2);
+                    System.arraycopy(colors, vertex * 4, flatColors, q * 16 + v * 4, 4);
                 }
-
-                gltfSink.addBatch(
-                    materialKey,
-                    spriteKeys,
-                    overlaySpriteKeys,
-                    flatPositions,
-                    flatUv0s,
-                    flatUv1s,
-                    flatNormals,
-                    flatColors,
-                    allDoubleSided
-                );
-                return;
+                spriteKeys[q] = spriteTable[quadSprites[q]];
+                overlaySpriteKeys[q] = quadOverlays[q] >= 0 ? spriteTable[quadOverlays[q]] : null;
+                doubleSided[q] = (quadFlags[q] & FLAG_DOUBLE_SIDED) != 0;
             }
+            // Quads without a normal were stored as +Y
+            System.arraycopy(quadNormals, 0, flatNormals, 0, count * 3);
 
-            for (DeduplicatedQuad quad : quads) {
-                float[] quadPositions = new float[12];
-                float[] quadUv0 = new float[8];
-                float[] quadUv1 = new float[8];
-                float[] quadColors = new float[16];
-
-                for (int i = 0; i < 4; i++) {
-                    int vertIdx = quad.vertexIndices()[i];
-
-                    quadPositions[i * 3] = positions.get(vertIdx * 3);
-                    quadPositions[i * 3 + 1] = positions.get(vertIdx * 3 + 1);
-                    quadPositions[i * 3 + 2] = positions.get(vertIdx * 3 + 2);
-
-                    quadUv0[i * 2] = uv0.get(vertIdx * 2);
-                    quadUv0[i * 2 + 1] = uv0.get(vertIdx * 2 + 1);
-
-                    quadUv1[i * 2] = uv1.get(vertIdx * 2);
-                    quadUv1[i * 2 + 1] = uv1.get(vertIdx * 2 + 1);
-
-                    quadColors[i * 4] = colors.get(vertIdx * 4);
-                    quadColors[i * 4 + 1] = colors.get(vertIdx * 4 + 1);
-                    quadColors[i * 4 + 2] = colors.get(vertIdx * 4 + 2);
-                    quadColors[i * 4 + 3] = colors.get(vertIdx * 4 + 3);
-                }
+            gltfSink.addBatch(materialKey, spriteKeys, overlaySpriteKeys,
+                flatPositions, flatUv0s, flatUv1s, flatNormals, flatColors, doubleSided);
+            return;
+        }
 
-                target.addQuad(
-                    materialKey,
-                    quad.spriteKey(),
-                    quad.overlaySpriteKey(),
-                    quadPositions,
-                    quadUv0,
-                    quadUv1,
-                    quad.normal(),
-                    quadColors,
-                    quad.doubleSided()
-                );
+        // Other sinks may keep the arrays, so each quad gets its own
+        for (int q = 0; q < count; q++) {
+            float[] quadPositions = new float[12];
+            float[] quadUv0 = new float[8];
+            float[] quadUv1 = new float[8];
+            float[] quadColors = new float[16];
+            for (int v = 0; v < 4; v++) {
+                int vertex = quadVertices[q * 4 + v];
+                System.arraycopy(positions, vertex * 3, quadPositions, v * 3, 3);
+                System.arraycopy(uv0, vertex * 2, quadUv0, v * 2, 2);
+                System.arraycopy(uv1, vertex * 2, quadUv1, v * 2, 2);
+                System.arraycopy(colors, vertex * 4, quadColors, v * 4, 4);
             }
-        } finally {
-            releaseMemory();
+            float[] normal = (quadFlags[q] & FLAG_NORMAL) != 0
+                ? Arrays.copyOfRange(quadNormals, q * 3, q * 3 + 3)
+                : null;
+
+            target.addQuad(
+                materialKey,
+                spriteTable[quadSprites[q]],
+                quadOverlays[q] >= 0 ? spriteTable[quadOverlays[q]] : null,
+                quadPositions,
+                quadUv0,
+                quadUv1,
+                normal,
+                quadColors,
+                (quadFlags[q] & FLAG_DOUBLE_SIDED) != 0
+            );
         }
     }
 
@@ -258,111 +222,247 @@ final class ChunkDeduplicator {
     }
 
     int getQuadCount() {
-        return quads.size();
+        return quadCount;
     }
 
-    // ==================== Helper methods ====================
+    // ==================== Vertex table ====================
+
+    private int findVertex(long hash, int spriteId, int overlayId,
+                           float px, float py, float pz, float u, float v, float u1, float v1,
+                           float r, float g, float b, float a) {
+        int mask = slotHashes.length - 1;
+        int slot = (int) hash & mask;
+        while (true) {
+            int stored = slotVertices[slot];
+            if (stored == 0) {
+                return -1;
+            }
+            if (slotHashes[slot] == hash
+                && sameVertex(stored - 1, spriteId, overlayId, px, py, pz, u, v, u1, v1, r, g, b, a)) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
 
-    private static boolean isTransparentMaterial(String materialKey) {
-        if (materialKey == null) return false;
-        String lower = materialKey.toLowerCase();
-        return lower.contains("glass") || lower.contains("leaves") ||
-               lower.contains("water") || lower.contains("ice") ||
-               lower.contains("slime") || lower.contains("honey") ||
-               lower.contains("portal") || lower.contains("stained_glass");
+    /**
+     * Full comparison on quantized attributes; equal 64-bit hashes alone are not trusted.
+     */
+    private boolean sameVertex(int vertex, int spriteId, int overlayId,
+                               float px, float py, float pz, float u, float v, float u1, float v1,
+                               float r, float g, float b, float a) {
+        int p = vertex * 3;
+        int t = vertex * 2;
+        int c = vertex * 4;
+        return vertexSprites[vertex] == spriteId && vertexOverlays[vertex] == overlayId
+            && quantize(positions[p]) == quantize(px)
+            && quantize(positions[p + 1]) == quantize(py)
+            && quantize(positions[p + 2]) == quantize(pz)
+            && quantizeUV(uv0[t]) == quantizeUV(u)
+            && quantizeUV(uv0[t + 1]) == quantizeUV(v)
+            && quantizeUV(uv1[t]) == quantizeUV(u1)
+            && quantizeUV(uv1[t + 1]) == quantizeUV(v1)
+            && quantizeColor(colors[c]) == quantizeColor(r)
+            && quantizeColor(colors[c + 1]) == quantizeColor(g)
+            && quantizeColor(colors[c + 2]) == quantizeColor(b)
+            && quantizeColor(colors[c + 3]) == quantizeColor(a);
     }
 
-    private int quantize(float v) { return Math.round(v * 10000f); }
-    private int quantizeUV(float v) { return Math.round(v * 100000f); }
-    private int quantizeColor(float v) { return Math.round(v * 100f); }
-
-    // Mutable holder for vertex data + key logic
-    // Extends VertexKey so it can be used as a query key for TObjectIntHashMap
-    private class TempVertex extends VertexKey {
-        float px, py, pz, u, v, u1, v1, r, g, b, a;
-
-        void set(int spriteHash,
-                 float px, float py, float pz,
-                 float u, float v,
-                 float u1, float v1,
-                 float r, float g, float b, float a) {
-            this.px = px; this.py = py; this.pz = pz;
-            this.u = u; this.v = v;
-            this.u1 = u1; this.v1 = v1;
-            this.r = r; this.g = g; this.b = b; this.a = a;
-            
-            // Update key fields
-            this.spriteHash = spriteHash;
-            this.k_px = quantize(px); this.k_py = quantize(py); this.k_pz = quantize(pz);
-            this.k_u = quantizeUV(u); this.k_v = quantizeUV(v);
-            this.k_u1 = quantizeUV(u1); this.k_v1 = quantizeUV(v1);
-            this.k_r = quantizeColor(r); this.k_g = quantizeColor(g);
-            this.k_b = quantizeColor(b); this.k_a = quantizeColor(a);
+    private int appendVertex(long hash, int spriteId, int overlayId,
+                             float px, float py, float pz, float u, float v, float u1, float v1,
+                             float r, float g, float b, float a) {
+        if (vertexCount == vertexSprites.length) {
+            int capacity = vertexCount * 2;
+            positions = Arrays.copyOf(positions, capacity * 3);
+            uv0 = Arrays.copyOf(uv0, capacity * 2);
+            uv1 = Arrays.copyOf(uv1, capacity * 2);
+            colors = Arrays.copyOf(colors, capacity * 4);
+            vertexSprites = Arrays.copyOf(vertexSprites, capacity);
+            vertexOverlays = Arrays.copyOf(vertexOverlays, capacity);
+        }
+        int vertex = vertexCount++;
+        int p = vertex * 3;
+        positions[p] = px;
+        positions[p + 1] = py;
+        positions[p + 2] = pz;
+        uv0[vertex * 2] = u;
+        uv0[vertex * 2 + 1] = v;
+        uv1[vertex * 2] = u1;
+        uv1[vertex * 2 + 1] = v1;
+        int c = vertex * 4;
+        colors[c] = r;
+        colors[c + 1] = g;
+        colors[c + 2] = b;
+        colors[c + 3] = a;
+        vertexSprites[vertex] = spriteId;
+        vertexOverlays[vertex] = overlayId;
+
+        // Keep the table at most half full
+        if (vertexCount * 2 > slotHashes.length) {
+            rehash(slotHashes.length * 2);
+        } else {
+            insertSlot(hash, vertex);
         }
+        return vertex;
     }
 
-    // Base class for hashing logic.
-    // Used as the immutable key in the map.
-    private static class VertexKey {
-        int spriteHash;
-        int k_px, k_py, k_pz;
-        int k_u, k_v, k_u1, k_v1;
-        int k_r, k_g, k_b, k_a;
-
-        VertexKey() {}
-
-        VertexKey(TempVertex other) {
-            this.spriteHash = other.spriteHash;
-            this.k_px = other.k_px; this.k_py = other.k_py; this.k_pz = other.k_pz;
-            this.k_u = other.k_u; this.k_v = other.k_v;
-            this.k_u1 = other.k_u1; this.k_v1 = other.k_v1;
-            this.k_r = other.k_r; this.k_g = other.k_g;
-            this.k_b = other.k_b; this.k_a = other.k_a;
+    private void insertSlot(long hash, int vertex) {
+        int mask = slotHashes.length - 1;
+        int slot = (int) hash & mask;
+        while (slotVertices[slot] != 0) {
+            slot = (slot + 1) & mask;
         }
+        slotHashes[slot] = hash;
+        slotVertices[slot] = vertex + 1;
+    }
 
-        @Override
-        public int hashCode() {
-            int result = spriteHash;
-            result = 31 * result + k_px;
-            result = 31 * result + k_py;
-            result = 31 * result + k_pz;
-            result = 31 * result + k_u;
-            result = 31 * result + k_v;
-            result = 31 * result + k_u1;
-            result = 31 * result + k_v1;
-            result = 31 * result + k_r;
-            result = 31 * result + k_g;
-            result = 31 * result + k_b;
-            result = 31 * result + k_a;
-            return result;
+    private void rehash(int capacity) {
+        slotHashes = new long[capacity];
+        slotVertices = new int[capacity];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int p = vertex * 3;
+            int t = vertex * 2;
+            int c = vertex * 4;
+            insertSlot(vertexHash(vertexSprites[vertex], vertexOverlays[vertex],
+                positions[p], positions[p + 1], positions[p + 2],
+                uv0[t], uv0[t + 1], uv1[t], uv1[t + 1],
+                colors[c], colors[c + 1], colors[c + 2], colors[c + 3]), vertex);
         }
+    }
+
+    private static long vertexHash(int spriteId, int overlayId,
+                                   float px, float py, float pz, float u, float v, float u1, float v1,
+                                   float r, float g, float b, float a) {
+        long hash = mix(0x9E37_79B9_7F4A_7C15L, ((long) spriteId << 32) | (overlayId & 0xFFFF_FFFFL));
+        hash = mix(hash, ((long) quantize(px) << 32) | (quantize(py) & 0xFFFF_FFFFL));
+        hash = mix(hash, ((long) quantize(pz) << 32) | (quantizeUV(u) & 0xFFFF_FFFFL));
+        hash = mix(hash, ((long) quantizeUV(v) << 32) | (quantizeUV(u1) & 0xFFFF_FFFFL));
+        hash = mix(hash, ((long) quantizeUV(v1) << 32) | (quantizeColor(r) & 0xFFFF_FFFFL));
+        hash = mix(hash, ((long) quantizeColor(g) << 42) ^ ((long) quantizeColor(b) << 21) ^ quantizeColor(a));
+        // Finalizer spreads high bits into the low bits used as the slot index
+        hash ^= hash >>> 33;
+        hash *= 0xFF51_AFD7_ED55_8CCDL;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value * 0x9E37_79B9_7F4A_7C15L;
+        return Long.rotateLeft(hash, 31) * 0xBF58_476D_1CE4_E5B9L;
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof VertexKey other)) return false;
-            return spriteHash == other.spriteHash &&
-                k_px == other.k_px && k_py == other.k_py && k_pz == other.k_pz &&
-                k_u == other.k_u && k_v == other.k_v &&
-                k_u1 == other.k_u1 && k_v1 == other.k_v1 &&
-                k_r == other.k_r && k_g == other.k_g &&
-                k_b == other.k_b && k_a == other.k_a;
+    // ==================== Quads ====================
+
+    private void appendQuad(int spriteId, int overlayId, float[] normal, boolean doubleSided) {
+        if (quadCount == quadSprites.length) {
+            int capacity = quadCount * 2;
+            quadVertices = Arrays.copyOf(quadVertices, capacity * 4);
+            quadSprites = Arrays.copyOf(quadSprites, capacity);
+            quadOverlays = Arrays.copyOf(quadOverlays, capacity);
+            quadNormals = Arrays.copyOf(quadNormals, capacity * 3);
+            quadFlags = Arrays.copyOf(quadFlags, capacity);
+        }
+        int q = quadCount++;
+        System.arraycopy(verts, 0, quadVertices, q * 4, 4);
+        quadSprites[q] = spriteId;
+        quadOverlays[q] = overlayId;
+        byte flags = doubleSided ? FLAG_DOUBLE_SIDED : 0;
+        if (normal != null && normal.length >= 3) {
+            quadNormals[q * 3] = normal[0];
+            quadNormals[q * 3 + 1] = normal[1];
+            quadNormals[q * 3 + 2] = normal[2];
+            flags |= FLAG_NORMAL;
+        } else {
+            quadNormals[q * 3] = 0f;
+            quadNormals[q * 3 + 1] = 1f;
+            quadNormals[q * 3 + 2] = 0f;
         }
+        quadFlags[q] = flags;
     }
 
-    // Quad key for quad-level dedup.
-    private record QuadKey(int a, int b, int c, int d) {
-        static QuadKey from(int v0, int v1, int v2, int v3) {
-            int[] arr = new int[]{v0, v1, v2, v3};
-            Arrays.sort(arr);
-            return new QuadKey(arr[0], arr[1], arr[2], arr[3]);
+    /**
+     * True if a stored quad has the same vertex ids as {@link #sortedVerts}, in any order.
+     * Equal hashes alone are not trusted.
+     */
+    private boolean findQuad(long hash) {
+        int mask = quadSlots.length - 1;
+        int slot = (int) hash & mask;
+        while (true) {
+            int stored = quadSlots[slot];
+            if (stored == 0) {
+                return false;
+            }
+            if (quadSlotHashes[slot] == hash) {
+                int q = (stored - 1) * 4;
+                sortIds(quadVertices[q], quadVertices[q + 1], quadVertices[q + 2], quadVertices[q + 3], probeVerts);
+                if (Arrays.equals(probeVerts, sortedVerts)) {
+                    return true;
+                }
+            }
+            slot = (slot + 1) & mask;
         }
     }
 
-    // Sort quad vertices in CCW order.
-    private int[] sortQuadCCW(float[] pos) {
-        Integer[] idx = {0, 1, 2, 3};
+    private void insertQuadSlot(long hash, int quad) {
+        int mask = quadSlots.length - 1;
+        int slot = (int) hash & mask;
+        while (quadSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        quadSlotHashes[slot] = hash;
+        quadSlots[slot] = quad + 1;
+    }
+
+    private void rehashQuads(int capacity) {
+        quadSlotHashes = new long[capacity];
+        quadSlots = new int[capacity];
+        for (int quad = 0; quad < quadCount; quad++) {
+            int q = quad * 4;
+            sortIds(quadVertices[q], quadVertices[q + 1], quadVertices[q + 2], quadVertices[q + 3], probeVerts);
+            insertQuadSlot(quadHash(probeVerts), quad);
+        }
+    }
 
+    /**
+     * Hash of sorted vertex ids, so it does not depend on the quad's winding start.
+     */
+    private static long quadHash(int[] sorted) {
+        long hash = mix(0x2545_F491_4F6C_DD1DL, ((long) sorted[0] << 32) | (sorted[1] & 0xFFFF_FFFFL));
+        hash = mix(hash, ((long) sorted[2] << 32) | (sorted[3] & 0xFFFF_FFFFL));
+        hash ^= hash >>> 33;
+        hash *= 0xFF51_AFD7_ED55_8CCDL;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static void sortIds(int v0, int v1, int v2, int v3, int[] out) {
+        int t;
+        if (v0 > v1) { t = v0; v0 = v1; v1 = t; }
+        if (v2 > v3) { t = v2; v2 = v3; v3 = t; }
+        if (v0 > v2) { t = v0; v0 = v2; v2 = t; }
+        if (v1 > v3) { t = v1; v1 = v3; v3 = t; }
+        if (v1 > v2) { t = v1; v1 = v2; v2 = t; }
+        out[0] = v0;
+        out[1] = v1;
+        out[2] = v2;
+        out[3] = v3;
+    }
+
+    // ==================== Helper methods ====================
+
+    private static boolean isTransparentMaterial(String materialKey) {
+        if (materialKey == null) return false;
+        String lower = materialKey.toLowerCase();
+        return lower.contains("glass") || lower.contains("leaves") ||
+               lower.contains("water") || lower.contains("ice") ||
+               lower.contains("slime") || lower.contains("honey") ||
+               lower.contains("portal") || lower.contains("stained_glass");
+    }
+
+    private static int quantize(float v) { return Math.round(v * 10000f); }
+    private static int quantizeUV(float v) { return Math.round(v * 100000f); }
+    private static int quantizeColor(float v) { return Math.round(v * 100f); }
+
+    // Sort quad vertices in CCW order into {@link #order}.
+    private void sortQuadCCW(float[] pos) {
         float ax = pos[3] - pos[0], ay = pos[4] - pos[1], az = pos[5] - pos[2];
         float bx = pos[6] - pos[0], by = pos[7] - pos[1], bz = pos[8] - pos[2];
         float nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
@@ -376,56 +476,47 @@ final class ChunkDeduplicator {
             cy += pos[i * 3 + 1];
             cz += pos[i * 3 + 2];
         }
-        final float fcx = cx * 0.25f, fcy = cy * 0.25f, fcz = cz * 0.25f;
-        final int fdrop = drop;
-
-        Arrays.sort(idx, (i1, i2) -> {
-            float x1 = pos[i1 * 3] - fcx, y1 = pos[i1 * 3 + 1] - fcy, z1 = pos[i1 * 3 + 2] - fcz;
-            float x2 = pos[i2 * 3] - fcx, y2 = pos[i2 * 3 + 1] - fcy, z2 = pos[i2 * 3 + 2] - fcz;
-            double a1 = (fdrop == 0) ? Math.atan2(z1, y1) : (fdrop == 1) ? Math.atan2(z1, x1) : Math.atan2(y1, x1);
-            double a2 = (fdrop == 0) ? Math.atan2(z2, y2) : (fdrop == 1) ? Math.atan2(z2, x2) : Math.atan2(y2, x2);
-            return Double.compare(a1, a2);
-        });
-
-        float ovx1 = pos[3] - pos[0], ovy1 = pos[4] - pos[1], ovz1 = pos[5] - pos[2];
-        float ovx2 = pos[6] - pos[0], ovy2 = pos[7] - pos[1], ovz2 = pos[8] - pos[2];
-        float onx = ovy1 * ovz2 - ovz1 * ovy2, ony = ovz1 * ovx2 - ovx1 * ovz2, onz = ovx1 * ovy2 - ovy1 * ovx2;
-
-        float svx1 = pos[idx[1] * 3] - pos[idx[0] * 3];
-        float svy1 = pos[idx[1] * 3 + 1] - pos[idx[0] * 3 + 1];
-        float svz1 = pos[idx[1] * 3 + 2] - pos[idx[0] * 3 + 2];
-        float svx2 = pos[idx[2] * 3] - pos[idx[0] * 3];
-        float svy2 = pos[idx[2] * 3 + 1] - pos[idx[0] * 3 + 1];
-        float svz2 = pos[idx[2] * 3 + 2] - pos[idx[0] * 3 + 2];
-        float snx = svy1 * svz2 - svz1 * svy2, sny = svz1 * svx2 - svx1 * svz2, snz = svx1 * svy2 - svy1 * svx2;
+        cx *= 0.25f;
+        cy *= 0.25f;
+        cz *= 0.25f;
 
-        if (onx * snx + ony * sny + onz * snz < 0) {
-            int tmp = idx[1];
-            idx[1] = idx[3];
-            idx[3] = tmp;
+        for (int i = 0; i < 4; i++) {
+            float x = pos[i * 3] - cx, y = pos[i * 3 + 1] - cy, z = pos[i * 3 + 2] - cz;
+            angles[i] = (drop == 0) ? Math.atan2(z, y) : (drop == 1) ? Math.atan2(z, x) : Math.atan2(y, x);
         }
 
-        return new int[]{idx[0], idx[1], idx[2], idx[3]};
-    }
+        // Sorting network by angle; ties keep index order like the stable sort it replaces
+        int i0 = 0, i1 = 1, i2 = 2, i3 = 3, t;
+        if (angleAfter(i0, i1)) { t = i0; i0 = i1; i1 = t; }
+        if (angleAfter(i2, i3)) { t = i2; i2 = i3; i3 = t; }
+        if (angleAfter(i0, i2)) { t = i0; i0 = i2; i2 = t; }
+        if (angleAfter(i1, i3)) { t = i1; i1 = i3; i3 = t; }
+        if (angleAfter(i1, i2)) { t = i1; i1 = i2; i2 = t; }
+
+        float onx = nx, ony = ny, onz = nz;
+
+        float svx1 = pos[i1 * 3] - pos[i0 * 3];
+        float svy1 = pos[i1 * 3 + 1] - pos[i0 * 3 + 1];
+        float svz1 = pos[i1 * 3 + 2] - pos[i0 * 3 + 2];
+        float svx2 = pos[i2 * 3] - pos[i0 * 3];
+        float svy2 = pos[i2 * 3 + 1] - pos[i0 * 3 + 1];
+        float svz2 = pos[i2 * 3 + 2] - pos[i0 * 3 + 2];
+        float snx = svy1 * svz2 - svz1 * svy2, sny = svz1 * svx2 - svx1 * svz2, snz = svx1 * svy2 - svy1 * svx2;
 
-    // Release internal buffers to avoid retaining transparent culling data across LOD batches.
-    private void releaseMemory() {
-        clearAndTrim(positions);
-        clearAndTrim(uv0);
-        clearAndTrim(uv1);
-        clearAndTrim(colors);
-        quads.clear();
-        if (needsQuadDedup && quadKeys != null) {
-            quadKeys.clear();
+        if (onx * snx + ony * sny + onz * snz < 0) {
+            t = i1;
+            i1 = i3;
+            i3 = t;
         }
-        vertexLookup.clear();
-        vertexCount = 0;
+
+        order[0] = i0;
+        order[1] = i1;
+        order[2] = i2;
+        order[3] = i3;
     }
 
-    private static <T> void clearAndTrim(List<T> list) {
-        list.clear();
-        if (list instanceof ArrayList<?> arrayList) {
-            arrayList.trimToSize();
-        }
+    private boolean angleAfter(int a, int b) {
+        int cmp = Double.compare(angles[a], angles[b]);
+        return cmp > 0 || (cmp == 0 && a > b);
     }
 }
@@ -0,0 +1,31 @@
+package com.voxelbridge.export.scene;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Idle {@link ChunkDeduplicator}s of one export, by material. Sections are sampled on workers and
+ * flushed on their chunk's thread, so a deduplicator is taken by whichever thread fills the next
+ * section of its material and handed back after its flush, keeping its grown arrays. The pool
+ * belongs to the export that created it and holds at most as many deduplicators per material as
+ * were ever in use at once.
+ */
+public final class ChunkDeduplicatorPool {
+
+    private final Map<String, ConcurrentLinkedQueue<ChunkDeduplicator>> idle = new ConcurrentHashMap<>();
+
+    ChunkDeduplicator acquire(String materialKey) {
+        ConcurrentLinkedQueue<ChunkDeduplicator> queue = idle.get(materialKey);
+        ChunkDeduplicator deduper = queue != null ? queue.poll() : null;
+        return deduper != null ? deduper : new ChunkDeduplicator(materialKey);
+    }
+
+    /**
+     * Resets the deduplicator and makes it available for the next section of its material.
+     */
+    void release(ChunkDeduplicator deduper) {
+        deduper.reset();
+        idle.computeIfAbsent(deduper.getMaterialKey(), k -> new ConcurrentLinkedQueue<>()).add(deduper);
+    }
+}
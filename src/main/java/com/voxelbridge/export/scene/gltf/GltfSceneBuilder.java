@@ -80,14 +80,14 @@ public final class GltfSceneBuilder implements SceneSink {
         String bucketKey,
         String materialGroupKey,
         // Arrays of arrays/data
-        List<String> spriteKeys,
-        List<String> overlaySpriteKeys,
+        String[] spriteKeys,
+        String[] overlaySpriteKeys,
         float[] flatPositions,
         float[] flatUv0s,
         float[] flatUv1s,
         float[] flatNormals,
         float[] flatColors,
-        List<Boolean> doubleSideds
+        boolean[] doubleSideds
     ) {}
 
     public GltfSceneBuilder(ExportContext ctx, Path outDir) throws IOException {
@@ -112,16 +112,16 @@ public final class GltfSceneBuilder implements SceneSink {
      * Called by ChunkDeduplicator to reduce queue lock contention.
      */
     public void addBatch(String materialGroupKey,
-                         List<String> spriteKeys,
-                         List<String> overlaySpriteKeys,
+                         String[] spriteKeys,
+                         String[] overlaySpriteKeys,
                          float[] flatPositions,
                          float[] flatUv0s,
                          float[] flatUv1s,
                          float[] flatNormals,
                          float[] flatColors,
-                         List<Boolean> doubleSideds) {
+                         boolean[] doubleSideds) {
         
-        if (materialGroupKey == null || spriteKeys.isEmpty()) return;
+        if (materialGroupKey == null || spriteKeys.length == 0) return;
         
         startWriterThread();
 
@@ -285,7 +285,7 @@ public final class GltfSceneBuilder implements SceneSink {
                         );
                     } else if (item instanceof BulkQuadBatch bulk) {
                         // Iterate and write bulk items
-                        int count = bulk.spriteKeys().size();
+                        int count = bulk.spriteKeys().length;
                         
                         // Pre-calculate default UV1 for ColorMap mode if needed
                         float[] defaultUv1 = null;
@@ -303,7 +303,7 @@ public final class GltfSceneBuilder implements SceneSink {
                         }
 
                         for (int i = 0; i < count; i++) {
-                            String spriteKey = bulk.spriteKeys().get(i);
+                            String spriteKey = bulk.spriteKeys()[i];
                             String animName = resolveAnimationName(spriteKey);
                             String bucketKey = animName != null ? animName : bulk.materialGroupKey();
                             
@@ -322,13 +322,13 @@ public final class GltfSceneBuilder implements SceneSink {
                             streamingWriter.writeQuadFlat(
                                 bucketKey,
                                 spriteKey,
-                                bulk.overlaySpriteKeys().get(i),
+                                bulk.overlaySpriteKeys()[i],
                                 bulk.flatPositions(), i * 12,
                                 bulk.flatUv0s(), i * 8,
                                 currentUv1, currentUv1Offset,
                                 bulk.flatNormals(), i * 3,
                                 bulk.flatColors(), i * 16,
-                                bulk.doubleSideds().get(i)
+                                bulk.doubleSideds()[i]
                             );
                         }
                     }
@@ -0,0 +1,135 @@
+package com.voxelbridge.export.texture;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reduces an expanded animation (one image per timeline step, repeats included) to its unique frames
+ * and an index timeline. Water, lava, sculk and prismarine reuse frames through mcmeta frame lists
+ * or hold identical consecutive frames, so most of their steps collapse.
+ * <p>
+ * A step only matches an earlier one when albedo and, if present, normal and specular frames are all
+ * pixel-identical; hashes pick candidates, exact comparison confirms them.
+ */
+final class AnimationFrameCompactor {
+
+    /**
+     * Unique frames as indices into the source frame list, and the timeline over them
+     * ({@code FrameTiming.index} is a unique frame index, {@code time} in ticks).
+     */
+    record Compact(int[] uniqueSteps, List<AnimationMetadata.FrameTiming> timeline) {
+        int uniqueCount() {
+            return uniqueSteps.length;
+        }
+    }
+
+    private AnimationFrameCompactor() {}
+
+    /**
+     * @param decimation keep every n-th step; dropped steps add their time to the kept one (1 = all)
+     */
+    static Compact compact(AnimatedFrameSet frames, AnimatedFrameSet normals, AnimatedFrameSet speculars, int decimation) {
+        List<BufferedImage> albedo = frames.frames();
+        AnimationMetadata metadata = frames.metadata();
+        int steps = albedo.size();
+        int stride = Math.max(1, decimation);
+
+        List<Integer> uniqueSteps = new ArrayList<>();
+        Map<Long, List<Integer>> byHash = new HashMap<>();
+        List<AnimationMetadata.FrameTiming> timeline = new ArrayList<>();
+
+        for (int step = 0; step < steps; step += stride) {
+            int time = 0;
+            for (int i = step; i < Math.min(steps, step + stride); i++) {
+                time += metadata.hasCustomFrameOrder() ? metadata.getFrameTime(i) : metadata.defaultFrameTime();
+            }
+
+            long hash = TextureTileCache.pixelHash(albedo.get(step));
+            hash = hash * 31 + channelHash(normals, step);
+            hash = hash * 31 + channelHash(speculars, step);
+
+            int unique = -1;
+            List<Integer> candidates = byHash.computeIfAbsent(hash, k -> new ArrayList<>(1));
+            for (int candidate : candidates) {
+                if (sameStep(frames, normals, speculars, uniqueSteps.get(candidate), step)) {
+                    unique = candidate;
+                    break;
+                }
+            }
+            if (unique < 0) {
+                unique = uniqueSteps.size();
+                uniqueSteps.add(step);
+                candidates.add(unique);
+            }
+
+            // Identical consecutive steps become one longer step
+            int last = timeline.size() - 1;
+            if (last >= 0 && timeline.get(last).index() == unique) {
+                timeline.set(last, new AnimationMetadata.FrameTiming(unique, timeline.get(last).time() + time));
+            } else {
+                timeline.add(new AnimationMetadata.FrameTiming(unique, time));
+            }
+        }
+
+        int[] unique = new int[uniqueSteps.size()];
+        for (int i = 0; i < unique.length; i++) {
+            unique[i] = uniqueSteps.get(i);
+        }
+        return new Compact(unique, timeline);
+    }
+
+    /**
+     * Frame of a companion channel for a timeline step; companions may have fewer frames and wrap.
+     */
+    static BufferedImage channelFrame(AnimatedFrameSet channel, int step) {
+        if (channel == null || channel.isEmpty()) {
+            return null;
+        }
+        List<BufferedImage> frames = channel.frames();
+        return frames.get(step % frames.size());
+    }
+
+    /**
+     * Lays frames out row-major in a near-square grid, the layout vanilla reads when an
+     * mcmeta declares the frame width and height.
+     */
+    static BufferedImage flipbook(List<BufferedImage> frames, int frameW, int frameH) {
+        int count = frames.size();
+        int cols = (int) Math.ceil(Math.sqrt(count));
+        int rows = (count + cols - 1) / cols;
+        BufferedImage sheet = new BufferedImage(cols * frameW, rows * frameH, BufferedImage.TYPE_INT_ARGB);
+        int[] row = new int[frameW];
+        for (int i = 0; i < count; i++) {
+            BufferedImage frame = frames.get(i);
+            int x0 = (i % cols) * frameW;
+            int y0 = (i / cols) * frameH;
+            int w = Math.min(frameW, frame.getWidth());
+            int h = Math.min(frameH, frame.getHeight());
+            for (int y = 0; y < h; y++) {
+                frame.getRGB(0, y, w, 1, row, 0, w);
+                sheet.setRGB(x0, y0 + y, w, 1, row, 0, w);
+            }
+        }
+        return sheet;
+    }
+
+    private static long channelHash(AnimatedFrameSet channel, int step) {
+        BufferedImage frame = channelFrame(channel, step);
+        return frame != null ? TextureTileCache.pixelHash(frame) : 0L;
+    }
+
+    private static boolean sameStep(AnimatedFrameSet frames, AnimatedFrameSet normals, AnimatedFrameSet speculars, int a, int b) {
+        return TextureTileCache.samePixels(frames.frames().get(a), frames.frames().get(b))
+            && sameChannel(normals, a, b)
+            && sameChannel(speculars, a, b);
+    }
+
+    private static boolean sameChannel(AnimatedFrameSet channel, int a, int b) {
+        BufferedImage fa = channelFrame(channel, a);
+        BufferedImage fb = channelFrame(channel, b);
+        return fa == fb || (fa != null && fb != null && TextureTileCache.samePixels(fa, fb));
+    }
+}
@@ -25,13 +25,30 @@ public final class AnimationMetadataExporter {
      * @param frameCount Total number of frames (for validation)
      */
     public static void exportMetadata(Path outputDir, AnimationMetadata metadata, int frameCount) {
+        exportMetadata(outputDir, "animation.mcmeta", metadata, frameCount);
+    }
+
+    /**
+     * Exports animation metadata under the given file name. For deduplicated animations the
+     * {@code frames} list is the index timeline over the unique frames actually written, so
+     * repeated frames are stored once and referenced by index.
+     *
+     * @param outputDir Directory where the file should be written
+     * @param fileName Name of the .mcmeta file
+     * @param metadata Animation metadata to export
+     * @param frameCount Number of frames written (for validation)
+     */
+    public static void exportMetadata(Path outputDir, String fileName, AnimationMetadata metadata, int frameCount) {
         if (metadata == null || outputDir == null) {
             VoxelBridgeLogger.warn(LogModule.ANIMATION, "[AnimationExport][WARN] Cannot export metadata: null input");
             return;
         }
+        if (!validateMetadata(metadata, frameCount)) {
+            VoxelBridgeLogger.warn(LogModule.ANIMATION, "[AnimationExport][WARN] Metadata does not match " + frameCount + " frames: " + fileName);
+        }
 
         try {
-            Path metaFile = outputDir.resolve("animation.mcmeta");
+            Path metaFile = outputDir.resolve(fileName);
             String json = generateMcmetaJson(metadata, frameCount);
 
             Files.writeString(metaFile, json, StandardCharsets.UTF_8);
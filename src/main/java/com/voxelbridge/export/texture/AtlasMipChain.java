@@ -0,0 +1,261 @@
+package com.voxelbridge.export.texture;
+
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Tile-aware mip levels for atlas pages, written as sidecar PNGs next to each page
+ * ({@code atlas_1001_mip1.png}, ...).
+ * <p>
+ * Every tile is downsampled on its own, from the previous level of the same tile, into the footprint
+ * its level 0 rectangle maps to at that level. Texels never average across tile borders, so the mips
+ * do not bleed the way a box filter over the whole page does. Colour is averaged alpha-weighted; for
+ * cutout tiles (alpha only 0 or 255) the alpha is rescaled so the share of texels above the cutoff
+ * stays what it was at level 0, which keeps foliage from thinning out at distance.
+ * Normal and specular pages use {@link Filter#DATA} instead: every channel is averaged on its own
+ * and texels outside tiles keep the page's default colour.
+ * Pages run in parallel, each writing its levels one after another.
+ */
+final class AtlasMipChain {
+
+    private static final int ALPHA_CUTOFF = 128;
+
+    /**
+     * How a tile's texels are combined into the next level.
+     */
+    enum Filter {
+        /** Albedo: colour weighted by alpha, cutout coverage kept. */
+        COLOR,
+        /** Normal/specular data: each channel averaged on its own; alpha is data, not coverage. */
+        DATA
+    }
+
+    /**
+     * One tile at the current level. Geometry is derived from the level 0 rectangle, so neighbouring
+     * footprints stay disjoint however the borders round.
+     */
+    private static final class MipTile {
+        final int x0, y0, w0, h0;
+        final boolean cutout;
+        final double coverage;
+        BufferedImage image;
+
+        MipTile(int x0, int y0, int w0, int h0, BufferedImage image, boolean cutout, double coverage) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.w0 = w0;
+            this.h0 = h0;
+            this.image = image;
+            this.cutout = cutout;
+            this.coverage = coverage;
+        }
+    }
+
+    private AtlasMipChain() {}
+
+    /**
+     * Levels that can be written for {@code requested}: at most down to a 1x1 page. The gutter does
+     * not limit them; tiles are downsampled inside their own footprints, so once it has shrunk away
+     * neighbouring tiles touch but never mix.
+     */
+    static int effectiveLevels(int requested, int atlasSize) {
+        return Math.max(0, Math.min(requested, 31 - Integer.numberOfLeadingZeros(Math.max(1, atlasSize))));
+    }
+
+    /**
+     * Writes levels 1..{@code levels} of each page; {@code pages.get(i)} holds the tiles of the page
+     * written as {@code prefix + udim + ".png"}. Each page builds and drops its own chain, so only the
+     * tiles of the pages currently being worked on are held.
+     */
+    static void write(Path outputDir, String prefix, int atlasSize, List<List<AtlasPageRasterizer.Tile>> pages, int levels) {
+        if (levels <= 0 || pages.isEmpty()) {
+            return;
+        }
+        long start = VoxelBridgeLogger.now();
+
+        IntStream.range(0, pages.size()).parallel().forEach(i -> {
+            int udim = 1001 + (i % 10) + (i / 10) * 10;
+            writePage(outputDir, prefix + udim, atlasSize, pages.get(i), levels, Filter.COLOR, 0);
+        });
+
+        VoxelBridgeLogger.duration("atlas_mips", VoxelBridgeLogger.elapsedSince(start));
+        VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+            "[AtlasMips] Wrote %d mip levels for %d pages (%s*_mipN.png)", levels, pages.size(), prefix));
+    }
+
+    /**
+     * Writes the mip levels of one page ({@code pageName + "_mipN.png"}), each level downsampled from
+     * the previous one. Texels no tile covers are {@code background}.
+     */
+    static void writePage(Path outputDir, String pageName, int atlasSize, List<AtlasPageRasterizer.Tile> page,
+                          int levels, Filter filter, int background) {
+        List<MipTile> chain = new ArrayList<>(page.size());
+        for (AtlasPageRasterizer.Tile tile : page) {
+            BufferedImage image = tile.image().get();
+            if (image == null) {
+                continue;
+            }
+            int w = Math.min(tile.width(), image.getWidth());
+            int h = Math.min(tile.height(), image.getHeight());
+            int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+            boolean cutout = filter == Filter.COLOR && isCutout(argb);
+            chain.add(new MipTile(tile.x(), tile.y(), w, h, wrap(argb, w, h), cutout,
+                cutout ? coverage(argb, ALPHA_CUTOFF) : 0));
+        }
+
+        for (int level = 1; level <= levels; level++) {
+            int shift = level;
+            int size = Math.max(1, atlasSize >> level);
+            List<AtlasPageRasterizer.Tile> tiles = new ArrayList<>(chain.size());
+            for (MipTile tile : chain) {
+                if (tile.image == null) {
+                    continue;
+                }
+                int x = tile.x0 >> shift;
+                int y = tile.y0 >> shift;
+                int w = ((tile.x0 + tile.w0) >> shift) - x;
+                int h = ((tile.y0 + tile.h0) >> shift) - y;
+                if (w <= 0 || h <= 0) {
+                    // Smaller than a texel at this level; it stays empty from here on
+                    tile.image = null;
+                    continue;
+                }
+                BufferedImage next = downsample(tile.image, w, h, filter == Filter.COLOR);
+                if (tile.cutout && tile.coverage > 0) {
+                    preserveCoverage(next, tile.coverage);
+                }
+                tile.image = next;
+                tiles.add(new AtlasPageRasterizer.Tile(x, y, w, h, () -> next));
+            }
+
+            String filename = pageName + "_mip" + shift + ".png";
+            try {
+                AtlasPageRasterizer.write(outputDir.resolve(filename), size, background, tiles);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write atlas mip " + filename, e);
+            }
+        }
+    }
+
+    /**
+     * Box filter from {@code src} to {@code w} x {@code h}: each target texel averages the source
+     * texels its footprint covers, clamped to the tile. With {@code alphaWeighted} colour is weighted
+     * by alpha.
+     */
+    private static BufferedImage downsample(BufferedImage src, int w, int h, boolean alphaWeighted) {
+        int sw = src.getWidth();
+        int sh = src.getHeight();
+        int[] in = ((DataBufferInt) src.getRaster().getDataBuffer()).getData();
+        int[] out = new int[w * h];
+        for (int y = 0; y < h; y++) {
+            int sy0 = (int) ((long) y * sh / h);
+            int sy1 = Math.max(sy0 + 1, (int) ((long) (y + 1) * sh / h));
+            for (int x = 0; x < w; x++) {
+                int sx0 = (int) ((long) x * sw / w);
+                int sx1 = Math.max(sx0 + 1, (int) ((long) (x + 1) * sw / w));
+                long a = 0, r = 0, g = 0, b = 0, pr = 0, pg = 0, pb = 0;
+                int n = 0;
+                for (int sy = sy0; sy < sy1; sy++) {
+                    int row = sy * sw;
+                    for (int sx = sx0; sx < sx1; sx++) {
+                        int c = in[row + sx];
+                        int ca = c >>> 24;
+                        int cr = (c >> 16) & 0xFF;
+                        int cg = (c >> 8) & 0xFF;
+                        int cb = c & 0xFF;
+                        a += ca;
+                        r += cr;
+                        g += cg;
+                        b += cb;
+                        pr += (long) cr * ca;
+                        pg += (long) cg * ca;
+                        pb += (long) cb * ca;
+                        n++;
+                    }
+                }
+                int outA = (int) ((a + n / 2) / n);
+                int outR, outG, outB;
+                if (alphaWeighted && a > 0) {
+                    outR = (int) ((pr + a / 2) / a);
+                    outG = (int) ((pg + a / 2) / a);
+                    outB = (int) ((pb + a / 2) / a);
+                } else {
+                    outR = (int) ((r + n / 2) / n);
+                    outG = (int) ((g + n / 2) / n);
+                    outB = (int) ((b + n / 2) / n);
+                }
+                out[y * w + x] = (outA << 24) | (outR << 16) | (outG << 8) | outB;
+            }
+        }
+        return wrap(out, w, h);
+    }
+
+    /**
+     * Scales alpha so that the fraction of texels at or above the cutoff matches {@code target}.
+     */
+    private static void preserveCoverage(BufferedImage image, double target) {
+        int[] argb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int[] histogram = new int[256];
+        for (int c : argb) {
+            histogram[c >>> 24]++;
+        }
+        // Highest alpha t with at least target * n texels >= t
+        long wanted = Math.max(1, Math.round(target * argb.length));
+        long count = 0;
+        int threshold = 0;
+        for (int t = 255; t > 0; t--) {
+            count += histogram[t];
+            if (count >= wanted) {
+                threshold = t;
+                break;
+            }
+        }
+        if (threshold == 0 || threshold == ALPHA_CUTOFF) {
+            return;
+        }
+        double scale = (double) ALPHA_CUTOFF / threshold;
+        for (int i = 0; i < argb.length; i++) {
+            int c = argb[i];
+            int a = (int) Math.min(255, Math.round((c >>> 24) * scale));
+            argb[i] = (a << 24) | (c & 0xFFFFFF);
+        }
+    }
+
+    private static boolean isCutout(int[] argb) {
+        boolean transparent = false;
+        for (int c : argb) {
+            int a = c >>> 24;
+            if (a == 0) {
+                transparent = true;
+            } else if (a != 255) {
+                return false;
+            }
+        }
+        return transparent;
+    }
+
+    private static double coverage(int[] argb, int cutoff) {
+        int covered = 0;
+        for (int c : argb) {
+            if ((c >>> 24) >= cutoff) {
+                covered++;
+            }
+        }
+        return (double) covered / argb.length;
+    }
+
+    private static BufferedImage wrap(int[] argb, int w, int h) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        System.arraycopy(argb, 0, ((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0, argb.length);
+        return image;
+    }
+}
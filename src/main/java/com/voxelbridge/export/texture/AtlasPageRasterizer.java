@@ -0,0 +1,116 @@
+package com.voxelbridge.export.texture;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Composes an atlas page in horizontal strips and streams each strip into {@link ParallelPngWriter},
+ * so a page never exists as a full image. Tiles are sorted by y; a tile's image is requested when the
+ * first strip reaches it and dropped after the last one, so peak memory per page is one strip
+ * plus the tiles crossing it.
+ */
+final class AtlasPageRasterizer {
+
+    private static final int STRIP_ROWS = 256;
+
+    /**
+     * A tile at (x, y) on the page. {@code image} is called once and may return null to leave the area
+     * at the page background; images are copied as-is (tiles never overlap), clipped to width x height.
+     */
+    record Tile(int x, int y, int width, int height, Supplier<BufferedImage> image) {}
+
+    private static final class ActiveTile {
+        final Tile tile;
+        final int[] pixels;
+        final int stride;
+
+        ActiveTile(Tile tile, int[] pixels, int stride) {
+            this.tile = tile;
+            this.pixels = pixels;
+            this.stride = stride;
+        }
+    }
+
+    private AtlasPageRasterizer() {}
+
+    /**
+     * Writes a {@code size} x {@code size} page filled with {@code background} and the given tiles.
+     */
+    static void write(Path target, int size, int background, List<Tile> tiles) throws IOException {
+        List<Tile> sorted = new ArrayList<>(tiles);
+        sorted.sort(Comparator.comparingInt(Tile::y).thenComparingInt(Tile::x));
+
+        int stripRows = Math.min(STRIP_ROWS, size);
+        int[] strip = new int[stripRows * size];
+        List<ActiveTile> active = new ArrayList<>();
+        int next = 0;
+
+        try (ParallelPngWriter writer = ParallelPngWriter.open(target, size, size)) {
+            for (int y0 = 0; y0 < size; y0 += stripRows) {
+                int rows = Math.min(stripRows, size - y0);
+                int y1 = y0 + rows;
+                Arrays.fill(strip, 0, rows * size, background);
+
+                while (next < sorted.size() && sorted.get(next).y() < y1) {
+                    ActiveTile tile = activate(sorted.get(next++));
+                    if (tile != null) {
+                        active.add(tile);
+                    }
+                }
+
+                for (int i = active.size() - 1; i >= 0; i--) {
+                    ActiveTile a = active.get(i);
+                    Tile t = a.tile;
+                    int x0 = Math.max(0, t.x());
+                    int copyWidth = Math.min(t.x() + t.width(), size) - x0;
+                    int from = Math.max(y0, t.y());
+                    int to = Math.min(y1, t.y() + t.height());
+                    if (copyWidth > 0) {
+                        for (int y = from; y < to; y++) {
+                            System.arraycopy(a.pixels, (y - t.y()) * a.stride + (x0 - t.x()),
+                                strip, (y - y0) * size + x0, copyWidth);
+                        }
+                    }
+                    if (t.y() + t.height() <= y1) {
+                        active.remove(i);
+                    }
+                }
+
+                writer.writeRows(strip, 0, rows);
+            }
+            writer.finish();
+        }
+    }
+
+    private static ActiveTile activate(Tile tile) {
+        BufferedImage image = tile.image().get();
+        if (image == null) {
+            return null;
+        }
+        int w = Math.min(tile.width(), image.getWidth());
+        int h = Math.min(tile.height(), image.getHeight());
+        if (w <= 0 || h <= 0) {
+            return null;
+        }
+        Tile clipped = w == tile.width() && h == tile.height()
+            ? tile
+            : new Tile(tile.x(), tile.y(), w, h, tile.image());
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB
+            && image.getRaster().getDataBuffer() instanceof DataBufferInt buffer
+            && buffer.getOffset() == 0
+            && image.getRaster().getSampleModelTranslateX() == 0
+            && image.getRaster().getSampleModelTranslateY() == 0
+            && image.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel model) {
+            return new ActiveTile(clipped, buffer.getData(), model.getScanlineStride());
+        }
+        return new ActiveTile(clipped, image.getRGB(0, 0, w, h, null, 0, w), w);
+    }
+}
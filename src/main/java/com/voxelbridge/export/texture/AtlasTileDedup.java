@@ -0,0 +1,88 @@
+package com.voxelbridge.export.texture;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Groups atlas tiles whose final pixels are identical (copied textures, recolours that match
+ * after tinting, blank overlays) so they share one atlas placement. Tiles only match when
+ * their PBR companions ({@code spriteKey + "_n"}, {@code spriteKey + "_s"}) match too, since
+ * those are drawn at the same spot in the PBR atlases. Candidates with equal hashes are
+ * confirmed pixel by pixel.
+ */
+final class AtlasTileDedup {
+
+    /**
+     * A tile to be packed: the padded image of one sprite at one tint.
+     */
+    interface Tile {
+        String spriteKey();
+
+        BufferedImage image();
+
+        int pad();
+    }
+
+    private AtlasTileDedup() {}
+
+    /**
+     * @param companions companion image by key ({@code spriteKey + "_n"} / {@code "_s"}), null when absent
+     * @return packed tile -> every tile using its placement (itself first), in tile order
+     */
+    static <T extends Tile> Map<T, List<T>> group(List<T> tiles, Function<String, BufferedImage> companions) {
+        Map<String, Long> companionHashes = tiles.parallelStream()
+            .map(Tile::spriteKey)
+            .distinct()
+            .collect(Collectors.toConcurrentMap(k -> k, k -> companionHash(companions, k)));
+        long[] hashes = tiles.parallelStream()
+            .mapToLong(t -> TextureTileCache.pixelHash(t.image()) * 31 + companionHashes.get(t.spriteKey()))
+            .toArray();
+
+        Map<T, List<T>> groups = new LinkedHashMap<>();
+        Map<Long, List<T>> byHash = new HashMap<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            T tile = tiles.get(i);
+            List<T> candidates = byHash.computeIfAbsent(hashes[i], k -> new ArrayList<>(1));
+            T match = null;
+            for (T candidate : candidates) {
+                if (sameTile(companions, candidate, tile)) {
+                    match = candidate;
+                    break;
+                }
+            }
+            if (match != null) {
+                groups.get(match).add(tile);
+            } else {
+                candidates.add(tile);
+                List<T> group = new ArrayList<>(1);
+                group.add(tile);
+                groups.put(tile, group);
+            }
+        }
+        return groups;
+    }
+
+    private static long companionHash(Function<String, BufferedImage> companions, String spriteKey) {
+        BufferedImage normal = companions.apply(spriteKey + "_n");
+        BufferedImage spec = companions.apply(spriteKey + "_s");
+        return (normal != null ? TextureTileCache.pixelHash(normal) : 0) * 31
+            + (spec != null ? TextureTileCache.pixelHash(spec) : 0);
+    }
+
+    private static boolean sameTile(Function<String, BufferedImage> companions, Tile a, Tile b) {
+        if (a.pad() != b.pad() || !TextureTileCache.samePixels(a.image(), b.image())) {
+            return false;
+        }
+        if (a.spriteKey().equals(b.spriteKey())) {
+            return true;
+        }
+        return TextureTileCache.samePixels(companions.apply(a.spriteKey() + "_n"), companions.apply(b.spriteKey() + "_n"))
+            && TextureTileCache.samePixels(companions.apply(a.spriteKey() + "_s"), companions.apply(b.spriteKey() + "_s"));
+    }
+}
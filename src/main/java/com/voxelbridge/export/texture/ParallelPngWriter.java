@@ -0,0 +1,420 @@
+package com.voxelbridge.export.texture;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * RGBA 8-bit PNG writer for atlas pages that deflates IDAT in parallel, pigz style.
+ * Rows are cut into blocks of about {@link #BLOCK_BYTES}; each block is filtered and deflated on the
+ * fork/join pool with the previous 32 KB of filtered data as its preset dictionary, so the ratio stays
+ * close to a single-stream encode. Blocks end on a sync flush and are concatenated into one zlib
+ * stream whose Adler-32 is combined from the per-block checksums.
+ * Each row picks the filter with the smallest sum of absolute differences (libpng heuristic).
+ * <p>
+ * Rows can be fed incrementally with {@link #writeRows}, so callers never need the whole image in memory.
+ */
+public final class ParallelPngWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IHDR = 0x49484452;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+    private static final int WINDOW = 32 * 1024;
+    private static final int BLOCK_BYTES = 1 << 20;
+    private static final int COMPRESSION_LEVEL = 1;
+    private static final int BPP = 4;
+    private static final int ADLER_BASE = 65521;
+
+    private final DataOutputStream out;
+    private final int width;
+    private final int height;
+    private final int rowBytes;
+    private final int blockRows;
+    // Rows before a block whose filtered bytes cover the 32 KB dictionary window
+    private final int dictRows;
+    private final int maxInFlight;
+    private final ArrayDeque<ForkJoinTask<Block>> pending = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+
+    private long adler = 1L;
+    private boolean firstBlockWritten;
+    private int rowsSubmitted;
+
+    // Streaming input: context rows kept from the previous block followed by rows of the next one
+    private int[] buffer;
+    private int bufferFirstRow;
+    private int bufferRows;
+
+    private record Block(byte[] data, int length, long adler, long rawLength) {}
+
+    private ParallelPngWriter(Path target, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid PNG size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.rowBytes = width * BPP;
+        this.blockRows = Math.max(1, BLOCK_BYTES / (rowBytes + 1));
+        this.dictRows = (WINDOW + rowBytes) / (rowBytes + 1);
+        this.maxInFlight = ForkJoinPool.getCommonPoolParallelism() * 2 + 1;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 1 << 16));
+
+        out.write(SIGNATURE);
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 8;  // bit depth
+        ihdr[9] = 6;  // RGBA
+        writeChunk(IHDR, ihdr, 0, 13);
+    }
+
+    /**
+     * Opens a streaming writer; rows must then be supplied top to bottom through {@link #writeRows}.
+     */
+    public static ParallelPngWriter open(Path target, int width, int height) throws IOException {
+        return new ParallelPngWriter(target, width, height);
+    }
+
+    /**
+     * Writes a whole image. TYPE_INT_ARGB rasters that start at the beginning of their data array
+     * with a stride of one row are compressed in place without copying; anything else (subimages,
+     * premultiplied or non-int rasters) goes through {@link BufferedImage#getRGB} a strip at a time.
+     */
+    public static void write(BufferedImage src, Path target) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        try (ParallelPngWriter writer = open(target, w, h)) {
+            int[] argb = packedArgb(src);
+            if (argb != null) {
+                for (int first = 0; first < h; first += writer.blockRows) {
+                    int rows = Math.min(writer.blockRows, h - first);
+                    writer.submit(argb, 0, first, rows);
+                }
+            } else {
+                int[] strip = new int[writer.blockRows * w];
+                for (int first = 0; first < h; first += writer.blockRows) {
+                    int rows = Math.min(writer.blockRows, h - first);
+                    src.getRGB(0, first, w, rows, strip, 0, w);
+                    writer.writeRows(strip, 0, rows);
+                }
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write PNG " + target, e);
+        }
+    }
+
+    /**
+     * The backing array of an unpremultiplied int ARGB image whose pixel (x, y) is at
+     * {@code y * width + x}, or null when the raster is laid out any other way.
+     */
+    private static int[] packedArgb(BufferedImage src) {
+        WritableRaster raster = src.getRaster();
+        if (src.getType() == BufferedImage.TYPE_INT_ARGB
+            && raster.getDataBuffer() instanceof DataBufferInt buffer
+            && buffer.getOffset() == 0
+            && raster.getSampleModelTranslateX() == 0
+            && raster.getSampleModelTranslateY() == 0
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel model
+            && model.getScanlineStride() == src.getWidth()) {
+            return buffer.getData();
+        }
+        return null;
+    }
+
+    /**
+     * Appends {@code rows} ARGB rows of this image's width starting at {@code argb[offset]}.
+     * The array may be reused by the caller as soon as this returns.
+     */
+    public void writeRows(int[] argb, int offset, int rows) throws IOException {
+        if (rows <= 0) {
+            return;
+        }
+        if (buffer == null) {
+            buffer = new int[(dictRows + 1 + blockRows) * width];
+            bufferFirstRow = 0;
+            bufferRows = 0;
+        }
+        while (rows > 0) {
+            int blockFilled = bufferRows - (rowsSubmitted - bufferFirstRow);
+            int take = Math.min(rows, blockRows - blockFilled);
+            System.arraycopy(argb, offset, buffer, bufferRows * width, take * width);
+            bufferRows += take;
+            offset += take * width;
+            rows -= take;
+            int blockLength = bufferRows - (rowsSubmitted - bufferFirstRow);
+            boolean complete = blockLength == blockRows || rowsSubmitted + blockLength == height;
+            if (complete) {
+                int[] full = buffer;
+                int fullFirstRow = bufferFirstRow;
+                submit(full, fullFirstRow, rowsSubmitted, blockLength);
+
+                // The next block needs the raw rows behind its dictionary window
+                int keep = Math.min(dictRows + 1, bufferRows);
+                buffer = new int[(dictRows + 1 + blockRows) * width];
+                System.arraycopy(full, (bufferRows - keep) * width, buffer, 0, keep * width);
+                bufferFirstRow = fullFirstRow + bufferRows - keep;
+                bufferRows = keep;
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining blocks and the PNG trailer. Every row must have been supplied.
+     */
+    public void finish() throws IOException {
+        if (rowsSubmitted != height) {
+            throw new IllegalStateException("PNG incomplete: " + rowsSubmitted + " of " + height + " rows written");
+        }
+        while (!pending.isEmpty()) {
+            drainOne();
+        }
+        writeChunk(IEND, new byte[0], 0, 0);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ForkJoinTask<Block> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+        out.close();
+    }
+
+    /**
+     * Queues rows {@code [first, first + rows)}, where {@code pixels} starts at row {@code pixelFirstRow}
+     * and also holds the context rows needed for filtering and the dictionary.
+     */
+    private void submit(int[] pixels, int pixelFirstRow, int first, int rows) throws IOException {
+        int from = Math.max(pixelFirstRow == 0 ? 0 : pixelFirstRow + 1, first - dictRows);
+        boolean last = first + rows == height;
+        rowsSubmitted = first + rows;
+        if (last && pending.isEmpty()) {
+            // Single-block images (the common case for individual textures) skip the pool
+            writeBlock(compressBlock(pixels, pixelFirstRow, width, from, first, first + rows, true), true);
+            return;
+        }
+        ForkJoinTask<Block> task = ForkJoinTask.adapt(
+            () -> compressBlock(pixels, pixelFirstRow, width, from, first, first + rows, last));
+        task.fork();
+        pending.addLast(task);
+        while (pending.size() > maxInFlight) {
+            drainOne();
+        }
+    }
+
+    private void drainOne() throws IOException {
+        ForkJoinTask<Block> task = pending.removeFirst();
+        writeBlock(task.join(), pending.isEmpty() && rowsSubmitted == height);
+    }
+
+    private void writeBlock(Block block, boolean last) throws IOException {
+        adler = combineAdler(adler, block.adler, block.rawLength);
+        int prefix = firstBlockWritten ? 0 : 2;
+        int suffix = last ? 4 : 0;
+        byte[] data = block.data;
+        int length = block.length;
+        if (prefix + suffix > 0) {
+            byte[] framed = new byte[prefix + length + suffix];
+            if (prefix > 0) {
+                framed[0] = 0x78; // deflate, 32 KB window
+                framed[1] = 0x01; // fastest, no preset dictionary
+            }
+            System.arraycopy(data, 0, framed, prefix, length);
+            if (last) {
+                putInt(framed, prefix + length, (int) adler);
+            }
+            data = framed;
+            length = framed.length;
+        }
+        firstBlockWritten = true;
+        writeChunk(IDAT, data, 0, length);
+    }
+
+    private void writeChunk(int type, byte[] data, int offset, int length) throws IOException {
+        out.writeInt(length);
+        out.writeInt(type);
+        out.write(data, offset, length);
+        crc.reset();
+        crc.update((type >>> 24) & 0xFF);
+        crc.update((type >>> 16) & 0xFF);
+        crc.update((type >>> 8) & 0xFF);
+        crc.update(type & 0xFF);
+        crc.update(data, offset, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Filters rows {@code [from, to)} and deflates {@code [first, to)}, priming the deflater with the
+     * filtered tail of {@code [from, first)}. Non-final blocks end with a sync flush so they concatenate.
+     */
+    private static Block compressBlock(int[] pixels, int pixelFirstRow, int width, int from, int first, int to, boolean last) {
+        int rowBytes = width * BPP;
+        int stride = rowBytes + 1;
+        byte[] filtered = new byte[(to - from) * stride];
+        byte[] prev = new byte[rowBytes];
+        byte[] cur = new byte[rowBytes];
+        if (from > 0) {
+            toRgba(pixels, (from - 1 - pixelFirstRow) * width, width, prev);
+        }
+        for (int row = from; row < to; row++) {
+            toRgba(pixels, (row - pixelFirstRow) * width, width, cur);
+            filterRow(cur, prev, filtered, (row - from) * stride);
+            byte[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+
+        int inputOffset = (first - from) * stride;
+        int inputLength = filtered.length - inputOffset;
+        Adler32 checksum = new Adler32();
+        checksum.update(filtered, inputOffset, inputLength);
+
+        Deflater deflater = new Deflater(COMPRESSION_LEVEL, true);
+        try {
+            int dictLength = Math.min(WINDOW, inputOffset);
+            if (dictLength > 0) {
+                deflater.setDictionary(filtered, inputOffset - dictLength, dictLength);
+            }
+            deflater.setInput(filtered, inputOffset, inputLength);
+            if (last) {
+                deflater.finish();
+            }
+            byte[] compressed = new byte[Math.max(1024, inputLength / 2)];
+            int length = 0;
+            while (true) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                int space = compressed.length - length;
+                int n = deflater.deflate(compressed, length, space, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                length += n;
+                if (last ? deflater.finished() : n < space) {
+                    break;
+                }
+            }
+            return new Block(compressed, length, checksum.getValue(), inputLength);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void toRgba(int[] argb, int offset, int width, byte[] dst) {
+        int idx = 0;
+        for (int x = 0; x < width; x++) {
+            int c = argb[offset + x];
+            dst[idx++] = (byte) (c >> 16); // R
+            dst[idx++] = (byte) (c >> 8);  // G
+            dst[idx++] = (byte) c;         // B
+            dst[idx++] = (byte) (c >>> 24); // A
+        }
+    }
+
+    /**
+     * Writes the filter byte and filtered row at {@code out[offset]}, using the filter with the
+     * smallest sum of absolute signed residuals.
+     */
+    private static void filterRow(byte[] cur, byte[] prev, byte[] out, int offset) {
+        int n = cur.length;
+        long sumNone = 0, sumSub = 0, sumUp = 0, sumAvg = 0, sumPaeth = 0;
+        for (int i = 0; i < n; i++) {
+            int x = cur[i] & 0xFF;
+            int a = i >= BPP ? cur[i - BPP] & 0xFF : 0;
+            int b = prev[i] & 0xFF;
+            int c = i >= BPP ? prev[i - BPP] & 0xFF : 0;
+            sumNone += Math.abs((byte) x);
+            sumSub += Math.abs((byte) (x - a));
+            sumUp += Math.abs((byte) (x - b));
+            sumAvg += Math.abs((byte) (x - ((a + b) >> 1)));
+            sumPaeth += Math.abs((byte) (x - paeth(a, b, c)));
+        }
+
+        int filter = 0;
+        long best = sumNone;
+        if (sumSub < best) { best = sumSub; filter = 1; }
+        if (sumUp < best) { best = sumUp; filter = 2; }
+        if (sumAvg < best) { best = sumAvg; filter = 3; }
+        if (sumPaeth < best) { filter = 4; }
+
+        out[offset] = (byte) filter;
+        int o = offset + 1;
+        switch (filter) {
+            case 0 -> System.arraycopy(cur, 0, out, o, n);
+            case 1 -> {
+                for (int i = 0; i < n; i++) {
+                    int a = i >= BPP ? cur[i - BPP] & 0xFF : 0;
+                    out[o + i] = (byte) (cur[i] - a);
+                }
+            }
+            case 2 -> {
+                for (int i = 0; i < n; i++) {
+                    out[o + i] = (byte) (cur[i] - prev[i]);
+                }
+            }
+            case 3 -> {
+                for (int i = 0; i < n; i++) {
+                    int a = i >= BPP ? cur[i - BPP] & 0xFF : 0;
+                    out[o + i] = (byte) ((cur[i] & 0xFF) - ((a + (prev[i] & 0xFF)) >> 1));
+                }
+            }
+            default -> {
+                for (int i = 0; i < n; i++) {
+                    int a = i >= BPP ? cur[i - BPP] & 0xFF : 0;
+                    int c = i >= BPP ? prev[i - BPP] & 0xFF : 0;
+                    out[o + i] = (byte) ((cur[i] & 0xFF) - paeth(a, prev[i] & 0xFF, c));
+                }
+            }
+        }
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * Adler-32 of the concatenation of two inputs, given both checksums and the second length (zlib's adler32_combine).
+     */
+    private static long combineAdler(long adler1, long adler2, long length2) {
+        long rem = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + ADLER_BASE - rem;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum2 >= ((long) ADLER_BASE << 1)) sum2 -= ((long) ADLER_BASE << 1);
+        if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+        return sum1 | (sum2 << 16);
+    }
+
+    private static void putInt(byte[] dst, int offset, int value) {
+        dst[offset] = (byte) (value >>> 24);
+        dst[offset + 1] = (byte) (value >>> 16);
+        dst[offset + 2] = (byte) (value >>> 8);
+        dst[offset + 3] = (byte) value;
+    }
+}
@@ -1,5 +1,6 @@
 package com.voxelbridge.export.texture;
 
+import com.voxelbridge.config.ExportRuntimeConfig;
 import com.voxelbridge.util.debug.LogModule;
 import com.voxelbridge.util.debug.VoxelBridgeLogger;
 
@@ -8,6 +9,7 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,10 +22,11 @@ import java.util.function.Function;
  * <p>This class provides shared logic for creating aligned PBR atlases (normal and specular maps)
  * that match the layout of a base albedo atlas. It handles:
  * <ul>
- *   <li>Creating atlas pages filled with default PBR colors</li>
+ *   <li>Composing atlas pages over default PBR colors, one strip at a time</li>
  *   <li>Placing PBR textures at positions matching the base atlas layout</li>
  *   <li>Filling missing PBR textures with appropriate default values</li>
  *   <li>Writing atlas pages as UDIM-tiled PNG files</li>
+ *   <li>Writing the same {@code _mipN} sidecars as the albedo pages when atlas mips are on</li>
  * </ul>
  *
  * <p>This utility is used by both {@link TextureAtlasManager} (for regular block textures)
@@ -83,15 +86,15 @@ public final class PbrAtlasWriter {
      *
      * <p><b>Algorithm:</b>
      * <ol>
-     *   <li>Create empty atlas pages filled with default color</li>
-     *   <li>For each placement in the base atlas:
+     *   <li>Group the base atlas placements by page</li>
+     *   <li>Write each page as a UDIM-tiled PNG, composed in horizontal strips filled with the default color</li>
+     *   <li>When a strip first reaches a placement:
      *     <ol>
      *       <li>Load corresponding PBR texture using the provided loader function</li>
-     *       <li>If texture exists: scale and draw to atlas page at placement coordinates</li>
-     *       <li>If texture missing: leave default color (already filled)</li>
+     *       <li>If texture exists: scale it and copy it into the strips it covers</li>
+     *       <li>If texture missing: leave default color</li>
      *     </ol>
      *   </li>
-     *   <li>Write all atlas pages as UDIM-tiled PNG files</li>
      * </ol>
      *
      * @param <P> The type of placement (must implement {@link Placement})
@@ -113,53 +116,20 @@ public final class PbrAtlasWriter {
         VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[PbrAtlasWriter] Generating PBR atlas: %s (%d pages)",
                 config.filePrefix(), config.usedPages().size()));
 
-        // Create atlas pages filled with default color
-        Map<Integer, BufferedImage> pages = new java.util.concurrent.ConcurrentHashMap<>();
-        config.usedPages().parallelStream().forEach(pageIndex -> {
-            pages.put(pageIndex, createFilledPage(config.atlasSize(), config.defaultColor()));
-        });
-
-        // Group placements by page for efficient batch processing
-        Map<Integer, java.util.List<Map.Entry<String, P>>> placementsByPage = placements.entrySet().stream()
-                .collect(java.util.stream.Collectors.groupingBy(e -> e.getValue().page()));
-
-        // Process pages in parallel
-        placementsByPage.entrySet().parallelStream().forEach(pageEntry -> {
-            int pageIndex = pageEntry.getKey();
-            BufferedImage page = pages.get(pageIndex);
-            if (page == null) {
-                 // Should not happen if config.usedPages() is consistent with placements
-                 return;
+        // Group placements by page; each page is composed strip by strip while it is written
+        Map<Integer, java.util.List<PageTile>> tilesByPage = new HashMap<>();
+        for (Map.Entry<String, P> entry : placements.entrySet()) {
+            P placement = entry.getValue();
+            if (!config.usedPages().contains(placement.page())) {
+                // Should not happen if config.usedPages() is consistent with placements
+                continue;
             }
+            tilesByPage.computeIfAbsent(placement.page(), k -> new java.util.ArrayList<>())
+                    .add(new PageTile(entry.getKey(), placement));
+        }
 
-            Graphics2D g = page.createGraphics();
-            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-            g.setComposite(AlphaComposite.Src);
-
-            try {
-                for (Map.Entry<String, P> entry : pageEntry.getValue()) {
-                    String spriteKey = entry.getKey();
-                    P placement = entry.getValue();
-
-                    // Load PBR texture for this sprite
-                    BufferedImage pbrTexture = textureLoader.apply(spriteKey);
-
-                    if (pbrTexture != null) {
-                        // Draw directly to atlas page with scaling
-                        // Check if scaling is needed
-                        if (pbrTexture.getWidth() == placement.width() && pbrTexture.getHeight() == placement.height()) {
-                             g.drawImage(pbrTexture, placement.x(), placement.y(), null);
-                        } else {
-                             g.drawImage(pbrTexture, placement.x(), placement.y(), placement.width(), placement.height(), null);
-                        }
-                    }
-                }
-            } finally {
-                g.dispose();
-            }
-        });
-
-        VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, "[PbrAtlasWriter] Texture placement complete.");
+        // Same levels as the albedo pages these align to
+        int mipLevels = AtlasMipChain.effectiveLevels(ExportRuntimeConfig.getAtlasMipLevels(), config.atlasSize());
 
         // Write atlas pages to disk (Parallel I/O)
         java.nio.file.Files.createDirectories(config.outputDir());
@@ -168,33 +138,32 @@ public final class PbrAtlasWriter {
             String filename = config.filePrefix() + udim + ".png";
             Path outputPath = config.outputDir().resolve(filename);
 
-            BufferedImage page = pages.get(pageIndex);
-            if (page != null) {
-                PngjWriter.write(page, outputPath);
-                if (VoxelBridgeLogger.isDebugEnabled(LogModule.TEXTURE_ATLAS)) {
-                    VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[PbrAtlasWriter] Wrote %s", filename));
-                }
+            java.util.List<AtlasPageRasterizer.Tile> tiles = new java.util.ArrayList<>();
+            for (PageTile pageTile : tilesByPage.getOrDefault(pageIndex, java.util.List.of())) {
+                Placement placement = pageTile.placement();
+                tiles.add(new AtlasPageRasterizer.Tile(placement.x(), placement.y(), placement.width(), placement.height(), () -> {
+                    // Load PBR texture for this sprite; missing textures keep the default color
+                    BufferedImage pbrTexture = textureLoader.apply(pageTile.spriteKey());
+                    return pbrTexture != null ? scaleTexture(pbrTexture, placement.width(), placement.height()) : null;
+                }));
+            }
+
+            try {
+                AtlasPageRasterizer.write(outputPath, config.atlasSize(), config.defaultColor(), tiles);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write PBR atlas page " + filename, e);
+            }
+            if (mipLevels > 0) {
+                AtlasMipChain.writePage(config.outputDir(), config.filePrefix() + udim, config.atlasSize(), tiles,
+                        mipLevels, AtlasMipChain.Filter.DATA, config.defaultColor());
+            }
+            if (VoxelBridgeLogger.isDebugEnabled(LogModule.TEXTURE_ATLAS)) {
+                VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[PbrAtlasWriter] Wrote %s", filename));
             }
         });
     }
 
-    /**
-     * Creates a BufferedImage filled with a solid color.
-     * Used to create blank atlas pages with default PBR colors.
-     *
-     * @param size Width and height of the image (square)
-     * @param argb ARGB color value to fill
-     * @return A new BufferedImage filled with the specified color
-     */
-    private static BufferedImage createFilledPage(int size, int argb) {
-        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
-        int[] row = new int[size];
-        java.util.Arrays.fill(row, argb);
-        for (int y = 0; y < size; y++) {
-            image.setRGB(0, y, size, 1, row, 0, size);
-        }
-        return image;
-    }
+    private record PageTile(String spriteKey, Placement placement) {}
 
     /**
      * Scales a texture to the specified dimensions using nearest-neighbor interpolation.
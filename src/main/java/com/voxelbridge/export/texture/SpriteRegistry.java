@@ -0,0 +1,176 @@
+package com.voxelbridge.export.texture;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.metadata.animation.AnimationMetadataSection;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Session-scoped sprite identity table (thread-safe).
+ * Assigns every {@link TextureAtlasSprite} a dense int id on first sight and precomputes
+ * the classification flags the quad hot path needs, so per-quad checks become bit tests
+ * instead of string building and regex matching. Sprite keys are resolved from the id
+ * only where a name is required (atlas, material and sink boundaries).
+ */
+@OnlyIn(Dist.CLIENT)
+public final class SpriteRegistry {
+
+    /** CTM / connected-texture overlay candidate (numbered "_N" tile, ctm/ or continuity path). */
+    public static final int FLAG_CTM_OVERLAY = 1;
+    /** Sprite has animation metadata. */
+    public static final int FLAG_ANIMATED = 1 << 1;
+    /** Key ends with a digit (numbered CTM variant); registered as a dynamic texture. */
+    public static final int FLAG_NUMBERED = 1 << 2;
+    /** Emissive companion texture ("_e" suffix or "emissive" in path). */
+    public static final int FLAG_EMISSIVE = 1 << 3;
+    /** First frame contains fully transparent pixels. */
+    public static final int FLAG_CUTOUT = 1 << 4;
+    /** First frame contains partially transparent pixels. */
+    public static final int FLAG_TRANSLUCENT = 1 << 5;
+    /** Vanilla overlay sprite ("_overlay" in key). */
+    public static final int FLAG_VANILLA_OVERLAY = 1 << 6;
+    /** Hilight overlay sprite ("_hilight" in key). */
+    public static final int FLAG_HILIGHT = 1 << 7;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UnaryOperator<String> interner;
+    private final Map<TextureAtlasSprite, Integer> ids = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    // Written under lock; the volatile write publishes new entries to readers that obtained an id.
+    private volatile String[] keys = new String[INITIAL_CAPACITY];
+    private volatile int[] flags = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public SpriteRegistry(UnaryOperator<String> interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Returns the dense id of a sprite, registering it on first sight.
+     */
+    public int idOf(TextureAtlasSprite sprite) {
+        Integer id = ids.get(sprite);
+        if (id != null) return id;
+        return ids.computeIfAbsent(sprite, this::register);
+    }
+
+    /**
+     * Resolves the sprite key (e.g. minecraft:block/stone) for an id.
+     */
+    public String key(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Returns the precomputed FLAG_* bits for an id.
+     */
+    public int flags(int id) {
+        return flags[id];
+    }
+
+    public static boolean has(int flags, int flag) {
+        return (flags & flag) != 0;
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            ids.clear();
+            keys = new String[INITIAL_CAPACITY];
+            flags = new int[INITIAL_CAPACITY];
+            size = 0;
+        }
+    }
+
+    private Integer register(TextureAtlasSprite sprite) {
+        String key = interner.apply(SpriteKeyResolver.resolve(sprite));
+        int spriteFlags = computeFlags(sprite, key);
+        synchronized (lock) {
+            int id = size++;
+            String[] k = keys;
+            int[] f = flags;
+            if (id >= k.length) {
+                k = java.util.Arrays.copyOf(k, k.length * 2);
+                f = java.util.Arrays.copyOf(f, f.length * 2);
+            }
+            k[id] = key;
+            f[id] = spriteFlags;
+            flags = f;
+            keys = k;
+            return id;
+        }
+    }
+
+    private static int computeFlags(TextureAtlasSprite sprite, String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        int result = 0;
+
+        boolean endsWithDigit = !key.isEmpty() && Character.isDigit(key.charAt(key.length() - 1));
+        if (endsWithDigit) {
+            result |= FLAG_NUMBERED;
+        }
+        if ((endsWithDigit && isUnderscoreNumbered(lower))
+            || lower.contains("ctm/")
+            || lower.contains("continuity")) {
+            result |= FLAG_CTM_OVERLAY;
+        }
+        if (key.contains("_overlay")) {
+            result |= FLAG_VANILLA_OVERLAY;
+        }
+        if (lower.contains("_hilight")) {
+            result |= FLAG_HILIGHT;
+        }
+        if (lower.endsWith("_e") || lower.contains("emissive")) {
+            result |= FLAG_EMISSIVE;
+        }
+
+        try {
+            var contents = sprite.contents();
+            if (contents.metadata().getSection(AnimationMetadataSection.SERIALIZER).isPresent()) {
+                result |= FLAG_ANIMATED;
+            }
+            result |= scanAlpha(contents.getOriginalImage(), contents.width(), contents.height());
+        } catch (Throwable ignored) {
+            // Missing metadata or image: leave alpha/animation flags unset
+        }
+        return result;
+    }
+
+    // Matches ".*_\d+$" without a regex.
+    private static boolean isUnderscoreNumbered(String lower) {
+        int i = lower.length() - 1;
+        while (i >= 0 && Character.isDigit(lower.charAt(i))) i--;
+        return i >= 0 && i < lower.length() - 1 && lower.charAt(i) == '_';
+    }
+
+    private static int scanAlpha(NativeImage image, int frameWidth, int frameHeight) {
+        if (image == null) return 0;
+        int w = Math.min(frameWidth, image.getWidth());
+        int h = Math.min(frameHeight, image.getHeight());
+        int result = 0;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int a = (image.getPixelRGBA(x, y) >>> 24) & 0xFF;
+                if (a == 0) {
+                    result |= FLAG_CUTOUT;
+                } else if (a < 255) {
+                    result |= FLAG_TRANSLUCENT;
+                }
+                if (result == (FLAG_CUTOUT | FLAG_TRANSLUCENT)) return result;
+            }
+        }
+        return result;
+    }
+}
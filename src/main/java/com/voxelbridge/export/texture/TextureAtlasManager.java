@@ -198,18 +198,181 @@ public final class TextureAtlasManager {
 
         VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[AtlasGen] Block sprites to process: %d", blockEntries.size()));
 
-        if (atlasMode == AtlasMode.INDIVIDUAL) {
-            generateIndividualTextures(ctx, outDir, blockEntries, "textures/");
-            return;
+        clusterTints(blockEntries);
+
+        TextureTileCache tileCache = TextureTileCache.open(ctx);
+        try {
+            if (atlasMode == AtlasMode.INDIVIDUAL) {
+                generateIndividualTextures(ctx, outDir, blockEntries, "textures/", tileCache);
+                return;
+            }
+
+            generatePackedAtlas(ctx, outDir, blockEntries, "textures/atlas", "atlas_", tileCache);
+        } finally {
+            if (tileCache != null) {
+                tileCache.close();
+            }
+        }
+    }
+
+    /**
+     * Maps perceptually close tints of each sprite to a shared slot before any tile is tinted.
+     * The mapping lives in the sprite's TintAtlas, so {@link #getTintIndex} and UV remapping
+     * resolve every original tint to the slot whose tile was generated for it.
+     */
+    private static void clusterTints(Map<String, ExportContext.TintAtlas> entries) {
+        double threshold = ExportRuntimeConfig.getTintClusterDeltaE();
+        long start = VoxelBridgeLogger.now();
+        int spritesMerged = 0;
+        int tintsBefore = 0;
+        int slotsAfter = 0;
+        double maxError = 0;
+        for (Map.Entry<String, ExportContext.TintAtlas> entry : entries.entrySet()) {
+            TintClusterer.Result result = TintClusterer.cluster(entry.getValue(), threshold, MAX_TINT_SLOTS);
+            if (result == null) {
+                continue;
+            }
+            spritesMerged++;
+            tintsBefore += result.tints();
+            slotsAfter += result.slots();
+            maxError = Math.max(maxError, result.maxError());
+            if (VoxelBridgeLogger.isDebugEnabled(LogModule.TEXTURE_ATLAS)) {
+                VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[TintCluster] sprite=%s tints=%d slots=%d maxDeltaE=%.2f",
+                    entry.getKey(), result.tints(), result.slots(), result.maxError()));
+            }
+        }
+        if (spritesMerged > 0) {
+            VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+                "[TintCluster] %d sprites: %d tints -> %d slots (threshold %.2f, max deltaE_OK %.2f)",
+                spritesMerged, tintsBefore, slotsAfter, threshold, maxError));
+            VoxelBridgeLogger.stat("tint_slots_merged", tintsBefore - slotsAfter);
+        }
+        VoxelBridgeLogger.duration("tint_clustering", VoxelBridgeLogger.elapsedSince(start));
+    }
+
+    /**
+     * A sprite's base image, decoded on first use. With the tile cache, a sprite that is not in
+     * memory yet may start out with only the source hash recorded by an earlier build; its PNG
+     * is then decoded only if one of its tiles turns out to be missing.
+     */
+    private static final class SourceImage {
+        private final ExportContext ctx;
+        private final TextureTileCache tileCache;
+        private final String spriteKey;
+        private BufferedImage image;
+        private long hash;
+
+        private SourceImage(ExportContext ctx, TextureTileCache tileCache, String spriteKey) {
+            this.ctx = ctx;
+            this.tileCache = tileCache;
+            this.spriteKey = spriteKey;
+        }
+
+        synchronized BufferedImage image() {
+            if (image == null) {
+                image = loadOrPlaceholder(ctx, spriteKey);
+                if (tileCache != null) {
+                    // Re-keys tiles if the sprite changed behind an unchanged fingerprint
+                    hash = TextureTileCache.pixelHash(image);
+                    tileCache.recordSource(spriteKey, hash);
+                }
+            }
+            return image;
+        }
+
+        synchronized long hash() {
+            return hash;
+        }
+    }
+
+    private static SourceImage resolveSource(ExportContext ctx, TextureTileCache tileCache, String spriteKey,
+                                             int[] tints, int padding) {
+        SourceImage source = new SourceImage(ctx, tileCache, spriteKey);
+        if (tileCache != null && peekLoadedTexture(ctx, spriteKey) == null) {
+            Long indexed = tileCache.indexedSource(spriteKey);
+            if (indexed != null && allTilesCached(tileCache, indexed, tints, padding)) {
+                synchronized (source) {
+                    source.hash = indexed;
+                }
+                tileCache.recordSource(spriteKey, indexed);
+                tileCache.noteSkippedDecode();
+                return source;
+            }
+        }
+        source.image();
+        return source;
+    }
+
+    private static boolean allTilesCached(TextureTileCache tileCache, long sourceHash, int[] tints, int padding) {
+        for (int tint : tints) {
+            if (!tileCache.contains(TextureTileCache.tileKey(sourceHash, 0, tint, padding, TextureTileCache.Channel.ALBEDO))) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        generatePackedAtlas(ctx, outDir, blockEntries, "textures/atlas", "atlas_");
+    /**
+     * Tints and pads one tile, or reads it from the tile cache.
+     */
+    private static BufferedImage processTile(SourceImage source, int tint, int padding, Map<String, boolean[]> baseMasks) {
+        TextureTileCache tileCache = source.tileCache;
+        if (tileCache != null) {
+            BufferedImage cached = tileCache.get(
+                TextureTileCache.tileKey(source.hash(), 0, tint, padding, TextureTileCache.Channel.ALBEDO));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        BufferedImage base = source.image();
+        BufferedImage tinted = tintTile(base, tint);
+        BufferedImage output = padding > 0
+            ? applyPadding(tinted, padding, baseMasks.computeIfAbsent(source.spriteKey, k -> buildAlphaMask(base)))
+            : tinted;
+        if (tileCache != null) {
+            tileCache.put(TextureTileCache.tileKey(source.hash(), 0, tint, padding, TextureTileCache.Channel.ALBEDO), output);
+        }
+        return output;
+    }
+
+    /**
+     * Pads a PBR companion with its albedo's alpha mask, or reads it from the tile cache.
+     */
+    private static BufferedImage paddedCompanion(ExportContext ctx,
+                                                 TextureTileCache tileCache,
+                                                 Map<String, SourceImage> sources,
+                                                 Map<String, boolean[]> baseMasks,
+                                                 String spriteKey,
+                                                 String suffix,
+                                                 TextureTileCache.Channel channel,
+                                                 int padding) {
+        BufferedImage img = ctx.getCachedSpriteImage(spriteKey + suffix);
+        if (img == null || padding <= 0) {
+            return img;
+        }
+        SourceImage source = sources.get(spriteKey);
+        long companionHash = 0;
+        if (tileCache != null && source != null) {
+            companionHash = TextureTileCache.pixelHash(img);
+            BufferedImage cached = tileCache.get(TextureTileCache.tileKey(companionHash, source.hash(), 0, padding, channel));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        boolean[] mask = baseMasks.computeIfAbsent(spriteKey,
+            k -> buildAlphaMask(source != null ? source.image() : loadTextureForAtlas(ctx, k)));
+        BufferedImage padded = applyPadding(img, padding, mask);
+        if (tileCache != null && source != null) {
+            tileCache.put(TextureTileCache.tileKey(companionHash, source.hash(), 0, padding, channel), padded);
+        }
+        return padded;
     }
 
     private static void generateIndividualTextures(ExportContext ctx,
                                                    Path outDir,
                                                    Map<String, ExportContext.TintAtlas> entries,
-                                                   String subDir) throws IOException {
+                                                   String subDir,
+                                                   TextureTileCache tileCache) throws IOException {
         if (entries.isEmpty()) {
             return;
         }
@@ -227,23 +390,21 @@ public final class TextureAtlasManager {
             int tintSlots = Math.max(1, Math.min(MAX_TINT_SLOTS, atlas.nextIndex.get()));
             int[] tintBySlot = resolveTintSlots(atlas, tintSlots);
 
-            // [FIX] Use updated loadTextureForAtlas that checks cache
-            BufferedImage base = loadTextureForAtlas(ctx, spriteKey);
-
-            if (base == null) {
-                VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, String.format("[AtlasGen][WARN] sprite=%s missing texture, using placeholder", spriteKey));
-                base = createMissingTexture();
+            SourceImage source = resolveSource(ctx, tileCache, spriteKey, tintBySlot, 0);
+            BufferedImage[] outputs = new BufferedImage[tintSlots];
+            for (int slot = 0; slot < tintSlots; slot++) {
+                outputs[slot] = processTile(source, tintBySlot[slot], 0, null);
             }
 
             atlas.atlasFile = null;
-            atlas.texW = base.getWidth();
-            atlas.texH = base.getHeight();
+            atlas.texW = outputs[0].getWidth();
+            atlas.texH = outputs[0].getHeight();
             atlas.usesAtlas = false;
             atlas.cols = 1;
 
             for (int slot = 0; slot < tintSlots; slot++) {
                 int tint = tintBySlot[slot];
-                BufferedImage outputImage = tintTile(base, tint);
+                BufferedImage outputImage = outputs[slot];
                 String suffix = slot == 0 ? "" : "_t" + slot;
                 String relativePath = subDir + safe(spriteKey) + suffix + ".png";
                 Path target = outDir.resolve(relativePath);
@@ -293,14 +454,49 @@ public final class TextureAtlasManager {
         VoxelBridgeLogger.duration("individual_texture_write", VoxelBridgeLogger.elapsedSince(tIndividual));
     }
 
-    private record AtlasRequest(String spriteKey, int tintIndex, BufferedImage image, int innerWidth, int innerHeight, int pad) {}
+    private record AtlasRequest(String spriteKey, int tintIndex, BufferedImage image, int innerWidth, int innerHeight, int pad)
+        implements AtlasTileDedup.Tile {}
     private record TintTask(String spriteKey, int tintIndex, int tint) {}
 
+    /**
+     * Groups requests whose final tiles are identical, PBR companions included, so they share one
+     * atlas placement ({@link AtlasTileDedup}).
+     *
+     * @return packed request -> every request using its placement (itself first), in request order
+     */
+    private static Map<AtlasRequest, List<AtlasRequest>> dedupTiles(ExportContext ctx, List<AtlasRequest> requests,
+                                                                     int atlasSize) {
+        long tDedup = VoxelBridgeLogger.now();
+        Map<AtlasRequest, List<AtlasRequest>> aliases = AtlasTileDedup.group(requests, ctx::getCachedSpriteImage);
+
+        int duplicates = 0;
+        long savedPixels = 0;
+        for (List<AtlasRequest> group : aliases.values()) {
+            for (int i = 1; i < group.size(); i++) {
+                BufferedImage image = group.get(i).image();
+                duplicates++;
+                savedPixels += (long) image.getWidth() * image.getHeight();
+            }
+        }
+
+        VoxelBridgeLogger.duration("atlas_tile_dedup", VoxelBridgeLogger.elapsedSince(tDedup));
+        if (duplicates > 0) {
+            VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+                "[AtlasGen] %d of %d tiles are duplicates sharing a placement: %.1f MB of RGBA and ~%.2f atlas pages saved",
+                duplicates, requests.size(), savedPixels * 4 / (1024.0 * 1024.0),
+                savedPixels / ((double) atlasSize * atlasSize)));
+            VoxelBridgeLogger.stat("atlas_duplicate_tiles", duplicates);
+            VoxelBridgeLogger.stat("atlas_duplicate_bytes", savedPixels * 4);
+        }
+        return aliases;
+    }
+
     private static void generatePackedAtlas(ExportContext ctx,
                                             Path outDir,
                                             Map<String, ExportContext.TintAtlas> entries,
                                             String atlasDirName,
-                                            String atlasPrefix) throws IOException {
+                                            String atlasPrefix,
+                                            TextureTileCache tileCache) throws IOException {
         if (entries.isEmpty()) {
             return;
         }
@@ -308,6 +504,7 @@ public final class TextureAtlasManager {
         VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[AtlasGen] Generating packed atlas with %d sprites", entries.size()));
 
         List<TintTask> tintTasks = new ArrayList<>();
+        Map<String, int[]> tintsBySprite = new java.util.HashMap<>();
         Map<Integer, String> pagePathMap = new java.util.HashMap<>();
         Map<String, AtlasRequest> requestByKey = new LinkedHashMap<>();
         Map<Integer, Integer> pageToUdim = new java.util.HashMap<>();
@@ -332,50 +529,28 @@ public final class TextureAtlasManager {
             for (int i = 0; i < tintSlots; i++) {
                 tintTasks.add(new TintTask(spriteKey, i, tintBySlot[i]));
             }
+            tintsBySprite.put(spriteKey, tintBySlot);
         }
 
-        Set<String> uniqueSprites = tintTasks.stream()
-            .map(TintTask::spriteKey)
-            .collect(Collectors.toSet());
+        int padding = ExportRuntimeConfig.getAtlasPadding();
 
-        Map<String, BufferedImage> preloaded = uniqueSprites.parallelStream()
+        // Base images, or only their hashes when every tile of a sprite is in the tile cache
+        Map<String, SourceImage> sources = tintsBySprite.entrySet().parallelStream()
             .collect(Collectors.toConcurrentMap(
-                key -> key,
-                key -> {
-                    BufferedImage base = loadTextureForAtlas(ctx, key);
-                    if (base == null) {
-                        VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, String.format("[AtlasGen][WARN] sprite=%s missing texture, using placeholder", key));
-                        base = createMissingTexture();
-                    }
-                    return base;
-                },
+                Map.Entry::getKey,
+                e -> resolveSource(ctx, tileCache, e.getKey(), e.getValue(), padding),
                 (a, b) -> a
             ));
 
-        int padding = ExportRuntimeConfig.getAtlasPadding();
         Map<String, boolean[]> baseMasks = new java.util.concurrent.ConcurrentHashMap<>();
-        if (padding > 0) {
-            preloaded.forEach((key, img) -> {
-                boolean[] mask = buildAlphaMask(img);
-                if (mask != null) {
-                    baseMasks.put(key, mask);
-                }
-            });
-        }
 
         // Parallel tinting to utilize multiple cores
         long tTint = VoxelBridgeLogger.now();
         List<AtlasRequest> requests = tintTasks.parallelStream()
             .map(task -> {
-                BufferedImage base = preloaded.get(task.spriteKey());
-                if (base == null) {
-                    base = createMissingTexture();
-                }
-                BufferedImage tinted = tintTile(base, task.tint());
-                BufferedImage output = padding > 0
-                    ? applyPadding(tinted, padding, baseMasks.get(task.spriteKey()))
-                    : tinted;
-                return new AtlasRequest(task.spriteKey(), task.tintIndex(), output, tinted.getWidth(), tinted.getHeight(), padding);
+                BufferedImage output = processTile(sources.get(task.spriteKey()), task.tint(), padding, baseMasks);
+                return new AtlasRequest(task.spriteKey(), task.tintIndex(), output,
+                    output.getWidth() - 2 * padding, output.getHeight() - 2 * padding, padding);
             })
             .collect(Collectors.toList());
         // Ensure deterministic order before packing
@@ -384,12 +559,17 @@ public final class TextureAtlasManager {
             .thenComparingInt(r -> r.tintIndex));
         VoxelBridgeLogger.duration("atlas_tinting", VoxelBridgeLogger.elapsedSince(tTint));
 
-        // Pack using MaxRects (no rotation)
-        long tPack = VoxelBridgeLogger.now();
         int atlasSize = ExportRuntimeConfig.getAtlasSize().getSize();
+        Map<AtlasRequest, List<AtlasRequest>> aliases = dedupTiles(ctx, requests, atlasSize);
+
+        // Pack unique tiles (no rotation)
+        long tPack = VoxelBridgeLogger.now();
         TextureAtlasPacker packer = new TextureAtlasPacker(atlasSize, false);
         int counter = 0;
         for (AtlasRequest req : requests) {
+            if (!aliases.containsKey(req)) {
+                continue;
+            }
             String key = req.spriteKey + "#t" + req.tintIndex + "#" + counter++;
             requestByKey.put(key, req);
             packer.addTexture(key, req.image);
@@ -401,47 +581,50 @@ public final class TextureAtlasManager {
         Map<String, TextureAtlasPacker.Placement> packed = packer.pack(atlasDir, atlasPrefix);
         for (Map.Entry<String, TextureAtlasPacker.Placement> entry : packed.entrySet()) {
             String key = entry.getKey();
-            AtlasRequest req = requestByKey.get(key);
-            if (req == null) {
+            AtlasRequest packedReq = requestByKey.get(key);
+            if (packedReq == null) {
                 continue;
             }
             TextureAtlasPacker.Placement p = entry.getValue();
-
-            int tileU = p.page() % 10;
-            int tileV = p.page() / 10;
-            int innerX = p.x() + req.pad();
-            int innerY = p.y() + req.pad();
-            int innerW = req.innerWidth();
-            int innerH = req.innerHeight();
-            // Double precision here to maximize UV accuracy before storage
-            double u0d = tileU + (double) innerX / atlasSize;
-            double v0d = -tileV + (double) innerY / atlasSize; // Keep UDIM vertical flip consistent
-            double u1d = tileU + (double) (innerX + innerW) / atlasSize;
-            double v1d = -tileV + (double) (innerY + innerH) / atlasSize;
-            float u0 = (float) u0d;
-            float v0 = (float) v0d;
-            float u1 = (float) u1d;
-            float v1 = (float) v1d;
-
-            ExportContext.TintAtlas atlas = ctx.getAtlasBook().get(req.spriteKey);
-            TexturePlacement placement = new TexturePlacement(
-                    p.page(), tileU, tileV, p.x(), p.y(), p.width(), p.height(),
-                    u0, v0, u1, v1, atlasDirName + "/" + atlasPrefix + p.udim() + ".png");
-            atlas.placements.put(req.tintIndex, placement);
-            atlas.usesAtlas = true;
-            atlas.texW = atlasSize;
-            atlas.texH = atlasSize;
-            atlas.cols = 1;
             pagePathMap.putIfAbsent(p.page(), atlasDirName + "/" + atlasPrefix + p.udim() + ".png");
             pageToUdim.putIfAbsent(p.page(), p.udim());
 
-            // Mirror placement to block entity atlas map for unified atlas usage
-            if (isBlockEntitySprite(req.spriteKey)) {
-                int udim = p.udim();
-                BlockEntityAtlasPlacement bePlacement = new BlockEntityAtlasPlacement(
-                    p.page(), udim, innerX, innerY, innerW, innerH, atlasSize
-                );
-                ctx.getBlockEntityAtlasPlacements().put(req.spriteKey, bePlacement);
+            // The packed tile and every identical tile share this placement
+            for (AtlasRequest req : aliases.get(packedReq)) {
+                int tileU = p.page() % 10;
+                int tileV = p.page() / 10;
+                int innerX = p.x() + req.pad();
+                int innerY = p.y() + req.pad();
+                int innerW = req.innerWidth();
+                int innerH = req.innerHeight();
+                // Double precision here to maximize UV accuracy before storage
+                double u0d = tileU + (double) innerX / atlasSize;
+                double v0d = -tileV + (double) innerY / atlasSize; // Keep UDIM vertical flip consistent
+                double u1d = tileU + (double) (innerX + innerW) / atlasSize;
+                double v1d = -tileV + (double) (innerY + innerH) / atlasSize;
+                float u0 = (float) u0d;
+                float v0 = (float) v0d;
+                float u1 = (float) u1d;
+                float v1 = (float) v1d;
+
+                ExportContext.TintAtlas atlas = ctx.getAtlasBook().get(req.spriteKey);
+                TexturePlacement placement = new TexturePlacement(
+                        p.page(), tileU, tileV, p.x(), p.y(), p.width(), p.height(),
+                        u0, v0, u1, v1, atlasDirName + "/" + atlasPrefix + p.udim() + ".png");
+                atlas.placements.put(req.tintIndex, placement);
+                atlas.usesAtlas = true;
+                atlas.texW = atlasSize;
+                atlas.texH = atlasSize;
+                atlas.cols = 1;
+
+                // Mirror placement to block entity atlas map for unified atlas usage
+                if (isBlockEntitySprite(req.spriteKey)) {
+                    int udim = p.udim();
+                    BlockEntityAtlasPlacement bePlacement = new BlockEntityAtlasPlacement(
+                        p.page(), udim, innerX, innerY, innerW, innerH, atlasSize
+                    );
+                    ctx.getBlockEntityAtlasPlacements().put(req.spriteKey, bePlacement);
+                }
             }
         }
 
@@ -458,7 +641,8 @@ public final class TextureAtlasManager {
 
         // Generate PBR atlases aligned to the same layout
         long tPbr = VoxelBridgeLogger.now();
-        generatePbrAtlases(ctx, outDir, entries, new HashSet<>(pageToUdim.keySet()), atlasSize, atlasDirName, atlasPrefix, pageToUdim);
+        generatePbrAtlases(ctx, outDir, entries, new HashSet<>(pageToUdim.keySet()), atlasSize, atlasDirName, atlasPrefix, pageToUdim,
+            tileCache, sources, baseMasks);
         VoxelBridgeLogger.duration("pbr_atlas_generation", VoxelBridgeLogger.elapsedSince(tPbr));
     }
 
@@ -767,7 +951,10 @@ public final class TextureAtlasManager {
                                            int atlasSize,
                                            String atlasDirName,
                                            String basePrefix,
-                                           Map<Integer, Integer> pageToUdim) throws IOException {
+                                           Map<Integer, Integer> pageToUdim,
+                                           TextureTileCache tileCache,
+                                           Map<String, SourceImage> sources,
+                                           Map<String, boolean[]> baseMasks) throws IOException {
         if (entries.isEmpty() || usedPages.isEmpty()) {
             return;
         }
@@ -788,20 +975,8 @@ public final class TextureAtlasManager {
             }
         }
 
+        // Albedo alpha masks are shared with the albedo pass and only built for tiles that miss the cache
         int padding = ExportRuntimeConfig.getAtlasPadding();
-        Map<String, boolean[]> baseMasks = new java.util.concurrent.ConcurrentHashMap<>();
-        if (padding > 0) {
-            for (String spriteKey : entries.keySet()) {
-                BufferedImage base = ctx.getCachedSpriteImage(spriteKey);
-                if (base == null) {
-                    base = loadTextureForAtlas(ctx, spriteKey);
-                }
-                boolean[] mask = buildAlphaMask(base);
-                if (mask != null) {
-                    baseMasks.put(spriteKey, mask);
-                }
-            }
-        }
 
         // OPTIMIZATION: Use configured thread count instead of hardcoded 2
         // Respects user's ExportRuntimeConfig.exportThreadCount setting
@@ -818,16 +993,8 @@ public final class TextureAtlasManager {
                     );
                     PbrAtlasWriter.generatePbrAtlas(normalConfig, flatPlacements, key -> {
                         String spriteKey = key.contains("#") ? key.substring(0, key.indexOf("#")) : key;
-                        BufferedImage normalImage = paddedNormalCache.computeIfAbsent(spriteKey, k -> {
-                            BufferedImage img = ctx.getCachedSpriteImage(k + "_n");
-                            if (img == null) {
-                                return null;
-                            }
-                            if (padding > 0) {
-                                return applyPadding(img, padding, baseMasks.get(k));
-                            }
-                            return img;
-                        });
+                        BufferedImage normalImage = paddedNormalCache.computeIfAbsent(spriteKey, k ->
+                            paddedCompanion(ctx, tileCache, sources, baseMasks, k, "_n", TextureTileCache.Channel.NORMAL, padding));
                         if (normalImage != null && !key.contains("#")) {
                             PbrAtlasWriter.Placement p = flatPlacements.get(key);
                             int udim = pageToUdim.getOrDefault(p.page(), p.page() + 1001);
@@ -850,16 +1017,8 @@ public final class TextureAtlasManager {
                     );
                     PbrAtlasWriter.generatePbrAtlas(specConfig, flatPlacements, key -> {
                         String spriteKey = key.contains("#") ? key.substring(0, key.indexOf("#")) : key;
-                        BufferedImage specImage = paddedSpecCache.computeIfAbsent(spriteKey, k -> {
-                            BufferedImage img = ctx.getCachedSpriteImage(k + "_s");
-                            if (img == null) {
-                                return null;
-                            }
-                            if (padding > 0) {
-                                return applyPadding(img, padding, baseMasks.get(k));
-                            }
-                            return img;
-                        });
+                        BufferedImage specImage = paddedSpecCache.computeIfAbsent(spriteKey, k ->
+                            paddedCompanion(ctx, tileCache, sources, baseMasks, k, "_s", TextureTileCache.Channel.SPECULAR, padding));
                         if (specImage != null && !key.contains("#")) {
                             PbrAtlasWriter.Placement p = flatPlacements.get(key);
                             int udim = pageToUdim.getOrDefault(p.page(), p.page() + 1001);
@@ -935,7 +1094,11 @@ public final class TextureAtlasManager {
             VoxelBridgeLogger.info(LogModule.ANIMATION, "[Animation] Whitelisted animations: " + whitelistedCount);
         }
 
+        ExportRuntimeConfig.AnimationLayout layout = ExportRuntimeConfig.getAnimationLayout();
+        int decimation = ExportRuntimeConfig.getAnimationDecimation();
         int exportCount = 0;
+        long stepsTotal = 0;
+        long uniqueTotal = 0;
         for (String spriteKey : repo.getAnimatedCache().keySet()) {
             // Skip exporting standalone PBR variants; they will be embedded with the base sprite
             if (spriteKey.endsWith("_n") || spriteKey.endsWith("_s")) {
@@ -954,56 +1117,42 @@ public final class TextureAtlasManager {
             Path spriteDir = animDir.resolve(baseName);
             Files.createDirectories(spriteDir);
 
+            AnimatedFrameSet normalFrames = repo.getAnimation(spriteKey + "_n");
+            AnimatedFrameSet specFrames = repo.getAnimation(spriteKey + "_s");
             int frameCount = frames.frames().size();
-            for (int i = 0; i < frameCount; i++) {
-                String idx = String.format("%03d", i);
-                Path framePath = spriteDir.resolve(baseName + "_" + idx + ".png");
-                try {
-                    javax.imageio.ImageIO.write(frames.frames().get(i), "PNG", framePath.toFile());
-                } catch (IOException e) {
-                    VoxelBridgeLogger.error(LogModule.ANIMATION, "[Animation][ERROR] Failed to write frame " + framePath + ": " + e.getMessage());
-                }
-            }
+            AnimationFrameCompactor.Compact compact = AnimationFrameCompactor.compact(frames, normalFrames, specFrames, decimation);
+            int uniqueCount = compact.uniqueCount();
 
-            // Export PBR frames if available
-            AnimatedFrameSet normalFrames = repo.getAnimation(spriteKey + "_n");
+            // Unique frames only; the timeline in the .mcmeta references them by index
+            writeAnimationChannel(spriteDir, baseName, "", frames, compact, layout);
             if (normalFrames != null && !normalFrames.isEmpty()) {
-                for (int i = 0; i < frameCount; i++) {
-                    String idx = String.format("%03d", i);
-                    int normalIdx = i % normalFrames.frames().size();
-                    Path framePath = spriteDir.resolve(baseName + "_" + idx + "_n.png");
-                    try {
-                        javax.imageio.ImageIO.write(normalFrames.frames().get(normalIdx), "PNG", framePath.toFile());
-                    } catch (IOException e) {
-                        VoxelBridgeLogger.error(LogModule.ANIMATION, "[Animation][ERROR] Failed to write normal frame " + framePath);
-                    }
-                }
+                writeAnimationChannel(spriteDir, baseName, "_n", normalFrames, compact, layout);
             }
-
-            AnimatedFrameSet specFrames = repo.getAnimation(spriteKey + "_s");
             if (specFrames != null && !specFrames.isEmpty()) {
-                for (int i = 0; i < frameCount; i++) {
-                    String idx = String.format("%03d", i);
-                    int specIdx = i % specFrames.frames().size();
-                    Path framePath = spriteDir.resolve(baseName + "_" + idx + "_s.png");
-                    try {
-                        javax.imageio.ImageIO.write(specFrames.frames().get(specIdx), "PNG", framePath.toFile());
-                    } catch (IOException e) {
-                        VoxelBridgeLogger.error(LogModule.ANIMATION, "[Animation][ERROR] Failed to write spec frame " + framePath);
-                    }
-                }
+                writeAnimationChannel(spriteDir, baseName, "_s", specFrames, compact, layout);
             }
 
-            // Export original .mcmeta if available (expected for all animated textures)
-            copyOriginalMcmeta(ctx, spriteKey, spriteDir, baseName);
+            BufferedImage first = frames.frames().get(0);
+            AnimationMetadata source = frames.metadata();
+            AnimationMetadata timeline = new AnimationMetadata(source.defaultFrameTime(), compact.timeline(),
+                source.interpolate(), first.getWidth(), first.getHeight());
+            AnimationMetadataExporter.exportMetadata(spriteDir, baseName + ".mcmeta", timeline, uniqueCount);
 
+            stepsTotal += frameCount;
+            uniqueTotal += uniqueCount;
             exportCount++;
             com.voxelbridge.util.debug.VoxelBridgeLogger.info(LogModule.ANIMATION, String.format(
-                "[Animation] Exported %s: %d frames to %s",
-                spriteKey, frameCount, spriteDir.getFileName()
+                "[Animation] Exported %s: %d frames -> %d unique (%d timeline entries) to %s",
+                spriteKey, frameCount, uniqueCount, compact.timeline().size(), spriteDir.getFileName()
             ));
         }
 
+        if (stepsTotal > 0) {
+            VoxelBridgeLogger.info(LogModule.ANIMATION, String.format("[Animation] Frames written: %d of %d (%s, decimation 1/%d)",
+                uniqueTotal, stepsTotal, layout, decimation));
+            VoxelBridgeLogger.stat("animation_frames_deduplicated", stepsTotal - uniqueTotal);
+        }
+
         VoxelBridgeLogger.info(LogModule.ANIMATION, String.format("[Animation] Export completed: %d animations", exportCount));
 
         com.voxelbridge.util.debug.VoxelBridgeLogger.info(LogModule.ANIMATION, String.format(
@@ -1037,16 +1186,30 @@ public final class TextureAtlasManager {
         AnimatedTextureHelper.detectFromMetadata(spriteKey, textureLocation, ctx.getTextureRepository());
     }
 
+    /**
+     * The sprite's image if it is already in memory, without touching the disk.
+     */
+    private static BufferedImage peekLoadedTexture(ExportContext ctx, String spriteKey) {
+        BufferedImage cached = ctx.getTextureRepository().get(TextureLoader.spriteKeyToTexturePNG(spriteKey));
+        return cached != null ? cached : ctx.getCachedSpriteImage(spriteKey);
+    }
+
+    private static BufferedImage loadOrPlaceholder(ExportContext ctx, String spriteKey) {
+        BufferedImage base = loadTextureForAtlas(ctx, spriteKey);
+        if (base == null) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, String.format("[AtlasGen][WARN] sprite=%s missing texture, using placeholder", spriteKey));
+            base = createMissingTexture();
+        }
+        return base;
+    }
+
     /**
      * Loads a texture for atlas generation (block + block entity).
      */
     private static BufferedImage loadTextureForAtlas(ExportContext ctx, String spriteKey) {
         ResourceLocation textureLocation = TextureLoader.spriteKeyToTexturePNG(spriteKey);
 
-        BufferedImage cached = ctx.getTextureRepository().get(textureLocation);
-        if (cached == null) {
-            cached = ctx.getCachedSpriteImage(spriteKey);
-        }
+        BufferedImage cached = peekLoadedTexture(ctx, spriteKey);
         if (cached != null) {
             if (VoxelBridgeLogger.isDebugEnabled(LogModule.TEXTURE_ATLAS)) {
                 VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format("[AtlasGen][CACHE HIT] Loaded %s from cache (%dx%d)",
@@ -1091,28 +1254,37 @@ public final class TextureAtlasManager {
         return base;
     }
 
-    private static void copyOriginalMcmeta(ExportContext ctx, String spriteKey, Path spriteDir, String baseName) {
-        try {
-            ResourceLocation pngLoc = TextureLoader.spriteKeyToTexturePNG(spriteKey);
-            if (pngLoc == null) {
-                return;
-            }
-            ResourceLocation mcmetaLoc = ResourceLocation.fromNamespaceAndPath(
-                pngLoc.getNamespace(),
-                pngLoc.getPath() + ".mcmeta"
-            );
-            var resOpt = ctx.getMc().getResourceManager().getResource(mcmetaLoc);
-            if (resOpt.isEmpty()) {
-                return;
+    /**
+     * Writes the unique frames of one channel ("" albedo, "_n", "_s") as numbered PNGs or one flipbook sheet.
+     * Companion channels with fewer frames wrap, matching the timeline steps they were compared at.
+     */
+    private static void writeAnimationChannel(Path spriteDir, String baseName, String suffix, AnimatedFrameSet channel,
+                                              AnimationFrameCompactor.Compact compact,
+                                              ExportRuntimeConfig.AnimationLayout layout) {
+        List<BufferedImage> unique = new ArrayList<>(compact.uniqueCount());
+        for (int step : compact.uniqueSteps()) {
+            unique.add(AnimationFrameCompactor.channelFrame(channel, step));
+        }
+
+        if (layout == ExportRuntimeConfig.AnimationLayout.FLIPBOOK) {
+            BufferedImage first = unique.get(0);
+            Path sheetPath = spriteDir.resolve(baseName + "_flipbook" + suffix + ".png");
+            try {
+                PngjWriter.write(AnimationFrameCompactor.flipbook(unique, first.getWidth(), first.getHeight()), sheetPath);
+            } catch (RuntimeException e) {
+                VoxelBridgeLogger.error(LogModule.ANIMATION, "[Animation][ERROR] Failed to write flipbook " + sheetPath + ": " + e.getMessage());
             }
-            var res = resOpt.get();
-            Path target = spriteDir.resolve(baseName + ".mcmeta");
-            try (var in = res.open()) {
-                Files.copy(in, target, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+
+        for (int i = 0; i < unique.size(); i++) {
+            String idx = String.format("%03d", i);
+            Path framePath = spriteDir.resolve(baseName + "_" + idx + suffix + ".png");
+            try {
+                javax.imageio.ImageIO.write(unique.get(i), "PNG", framePath.toFile());
+            } catch (IOException e) {
+                VoxelBridgeLogger.error(LogModule.ANIMATION, "[Animation][ERROR] Failed to write frame " + framePath + ": " + e.getMessage());
             }
-            VoxelBridgeLogger.info(LogModule.ANIMATION, String.format("[Animation] Copied original mcmeta for %s -> %s", spriteKey, target.getFileName()));
-        } catch (Exception e) {
-            VoxelBridgeLogger.warn(LogModule.ANIMATION, String.format("[Animation][WARN] Failed to copy mcmeta for %s: %s", spriteKey, e.getMessage()));
         }
     }
 }
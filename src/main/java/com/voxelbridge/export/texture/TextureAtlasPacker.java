@@ -1,8 +1,8 @@
 package com.voxelbridge.export.texture;
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -11,20 +11,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
+import com.voxelbridge.config.ExportRuntimeConfig;
 import com.voxelbridge.util.debug.LogModule;
 import com.voxelbridge.util.debug.VoxelBridgeLogger;
 
 /**
- * Generic texture atlas packer using the MaxRects (Maximum Rectangles) algorithm.
- * This implementation is based on the algorithm by Jukka Jylanki.
+ * Generic texture atlas packer with two placement algorithms, selected by
+ * {@link ExportRuntimeConfig#getAtlasPacker()}:
+ * <ul>
+ *   <li>MaxRects (Maximum Rectangles), based on the algorithm by Jukka Jylanki: best short side fit
+ *       across all pages</li>
+ *   <li>Skyline bottom-left with a waste map: each page keeps a height profile and reuses gaps left
+ *       under placed tiles; first fit across pages. On modpack-shaped tile sets (see
+ *       {@code AtlasPackerBenchmarkTest}) it fills the same number of pages with a slightly tighter
+ *       last page, and packs about 1.2-1.4x slower than MaxRects</li>
+ * </ul>
  *
  * <p>This packer is used by both regular block textures and block entity textures
  * to combine multiple textures into fixed-size atlas pages with UDIM tiling.</p>
  *
  * <p>Features:
  * <ul>
- *   <li>Best-fit placement strategy to minimize wasted space</li>
  *   <li>Deterministic packing order (largest textures first, then alphabetically)</li>
+ *   <li>Per-page free-space bounds and rejected sizes, so full pages are skipped without a search</li>
  *   <li>Automatic page allocation when existing pages are full</li>
  *   <li>UDIM coordinate system for multi-page atlases</li>
  * </ul>
@@ -33,16 +42,29 @@ public final class TextureAtlasPacker {
     private final int atlasSize;
     private final List<TextureEntry> textures = new ArrayList<>();
     private final boolean powerOfTwo;
+    private final ExportRuntimeConfig.AtlasPacker algorithm;
 
     /**
-     * Creates a new texture atlas packer.
+     * Creates a new texture atlas packer using the configured algorithm.
      *
      * @param atlasSize The size of each atlas page (width and height in pixels)
      * @param powerOfTwo Whether to enforce power-of-two dimensions (currently unused)
      */
     public TextureAtlasPacker(int atlasSize, boolean powerOfTwo) {
+        this(atlasSize, powerOfTwo, ExportRuntimeConfig.getAtlasPacker());
+    }
+
+    /**
+     * Creates a new texture atlas packer.
+     *
+     * @param atlasSize The size of each atlas page (width and height in pixels)
+     * @param powerOfTwo Whether to enforce power-of-two dimensions (currently unused)
+     * @param algorithm Placement algorithm
+     */
+    public TextureAtlasPacker(int atlasSize, boolean powerOfTwo, ExportRuntimeConfig.AtlasPacker algorithm) {
         this.atlasSize = atlasSize;
         this.powerOfTwo = powerOfTwo;
+        this.algorithm = algorithm != null ? algorithm : ExportRuntimeConfig.AtlasPacker.MAXRECTS;
     }
 
     /**
@@ -62,9 +84,11 @@ public final class TextureAtlasPacker {
      * <p>Packing strategy:
      * <ol>
      *   <li>Sort textures by largest dimension (descending), then alphabetically</li>
-     *   <li>Try to place each texture in the best-fitting spot in existing pages</li>
+     *   <li>MaxRects: place each texture in the best-fitting spot over all pages;
+     *       Skyline: place it in the first page that fits, at its lowest position</li>
      *   <li>Allocate new pages as needed when textures don't fit</li>
      *   <li>Write all pages as PNG files with UDIM naming (e.g., prefix_1001.png)</li>
+     *   <li>Write tile-aware mip levels next to them when enabled (prefix_1001_mip1.png, ...)</li>
      * </ol>
      *
      * @param outputDir Directory where atlas pages will be written
@@ -73,8 +97,68 @@ public final class TextureAtlasPacker {
      * @throws IOException If texture is too large or file writing fails
      */
     public Map<String, Placement> pack(Path outputDir, String prefix) throws IOException {
-        Map<String, Placement> placements = new LinkedHashMap<>();
         List<AtlasPage> pages = new ArrayList<>();
+        Layout layout = place(pages);
+
+        VoxelBridgeLogger.duration("atlas_pack_" + algorithm.name().toLowerCase(), layout.packNanos());
+        if (!pages.isEmpty()) {
+            VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+                "[TextureAtlasPacker] %s packed %d textures into %d pages, occupancy %.1f%%, %.1f ms",
+                algorithm, textures.size(), layout.pages(), layout.occupancy(), layout.packNanos() / 1_000_000.0));
+        }
+
+        // Write atlas pages to disk, composed strip by strip
+        IntStream.range(0, pages.size()).parallel().forEach(i -> {
+            int udim = 1001 + (i % 10) + (i / 10) * 10;
+            String filename = prefix + udim + ".png";
+            Path outputPath = outputDir.resolve(filename);
+            try {
+                AtlasPageRasterizer.write(outputPath, atlasSize, 0, pages.get(i).tiles);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write atlas page " + filename, e);
+            }
+            if (VoxelBridgeLogger.isDebugEnabled(LogModule.TEXTURE_ATLAS)) {
+                VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, "[TextureAtlasPacker] Wrote atlas page: " + filename);
+            }
+        });
+
+        int requestedMips = ExportRuntimeConfig.getAtlasMipLevels();
+        int mipLevels = AtlasMipChain.effectiveLevels(requestedMips, atlasSize);
+        if (mipLevels < requestedMips) {
+            VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+                "[TextureAtlasPacker] Mip levels capped %d -> %d by atlas size %d",
+                requestedMips, mipLevels, atlasSize));
+        }
+        if (mipLevels > 0) {
+            List<List<AtlasPageRasterizer.Tile>> pageTiles = new ArrayList<>(pages.size());
+            for (AtlasPage page : pages) {
+                pageTiles.add(page.tiles);
+            }
+            AtlasMipChain.write(outputDir, prefix, atlasSize, pageTiles, mipLevels);
+        }
+
+        return layout.placements();
+    }
+
+    /**
+     * Result of placing all added textures. Occupancy is the share of page area covered by
+     * textures, in percent.
+     */
+    record Layout(Map<String, Placement> placements, int pages, double occupancy, long packNanos) {}
+
+    /**
+     * Places all added textures without composing or writing pages. Used to compare the
+     * packing algorithms on synthetic tile sets.
+     */
+    Layout layout() throws IOException {
+        return place(new ArrayList<>());
+    }
+
+    private Layout place(List<AtlasPage> pages) throws IOException {
+        Map<String, Placement> placements = new LinkedHashMap<>();
+        boolean firstFit = algorithm == ExportRuntimeConfig.AtlasPacker.SKYLINE;
+        long tPack = VoxelBridgeLogger.now();
+        long usedArea = 0;
 
         // Sort: largest dimension first (descending), then alphabetically for determinism
         textures.sort(
@@ -83,66 +167,50 @@ public final class TextureAtlasPacker {
         );
 
         for (TextureEntry entry : textures) {
-            boolean placed = false;
+            int w = entry.image.getWidth();
+            int h = entry.image.getHeight();
             Rect bestRect = null;
             int bestPageIndex = -1;
 
-            // Try to place in existing pages, find the best fit
+            // Try existing pages; full pages are rejected by their bounds without a search
             for (int i = 0; i < pages.size(); i++) {
-                Rect rect = pages.get(i).insert(entry.image.getWidth(), entry.image.getHeight());
-                if (rect != null) {
-                    if (bestRect == null || rect.score < bestRect.score) {
-                        bestRect = rect;
-                        bestPageIndex = i;
-                    }
+                Rect rect = pages.get(i).find(w, h);
+                if (rect != null && (bestRect == null || rect.score < bestRect.score)) {
+                    bestRect = rect;
+                    bestPageIndex = i;
+                    if (firstFit) break;
                 }
             }
 
-            // If placed in an existing page, finalize placement
-            if (bestRect != null) {
-                placed = true;
-                pages.get(bestPageIndex).placeRect(bestRect, entry.image);
-                int udim = 1001 + (bestPageIndex % 10) + (bestPageIndex / 10) * 10;
-                placements.put(entry.spriteKey, new Placement(
-                    bestPageIndex, udim, bestRect.x, bestRect.y,
-                    entry.image.getWidth(), entry.image.getHeight()
-                ));
-            }
-
             // Create new page if needed
-            if (!placed) {
-                AtlasPage newPage = new AtlasPage(atlasSize, powerOfTwo);
-                Rect rect = newPage.insert(entry.image.getWidth(), entry.image.getHeight());
+            if (bestRect == null) {
+                AtlasPage newPage = firstFit ? new SkylinePage(atlasSize) : new MaxRectsPage(atlasSize);
+                bestRect = newPage.find(w, h);
 
-                if (rect == null) {
+                if (bestRect == null) {
                     throw new IOException("Texture too large for atlas: " + entry.spriteKey +
-                        " (" + entry.image.getWidth() + "x" + entry.image.getHeight() + ")");
+                        " (" + w + "x" + h + ")");
                 }
 
                 pages.add(newPage);
-                int pageIdx = pages.size() - 1;
-                newPage.placeRect(rect, entry.image);
-
-                int udim = 1001 + (pageIdx % 10) + (pageIdx / 10) * 10;
-                placements.put(entry.spriteKey, new Placement(
-                    pageIdx, udim, rect.x, rect.y,
-                    entry.image.getWidth(), entry.image.getHeight()
-                ));
+                bestPageIndex = pages.size() - 1;
             }
-        }
 
-        // Write atlas pages to disk
-        IntStream.range(0, pages.size()).parallel().forEach(i -> {
-            int udim = 1001 + (i % 10) + (i / 10) * 10;
-            String filename = prefix + udim + ".png";
-            Path outputPath = outputDir.resolve(filename);
-            PngjWriter.write(pages.get(i).image, outputPath);
-            if (VoxelBridgeLogger.isDebugEnabled(LogModule.TEXTURE_ATLAS)) {
-                VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, "[TextureAtlasPacker] Wrote atlas page: " + filename);
-            }
-        });
+            AtlasPage page = pages.get(bestPageIndex);
+            page.commit(bestRect);
+            page.placeRect(bestRect, entry.image);
+            usedArea += (long) w * h;
+
+            int udim = 1001 + (bestPageIndex % 10) + (bestPageIndex / 10) * 10;
+            placements.put(entry.spriteKey, new Placement(
+                bestPageIndex, udim, bestRect.x, bestRect.y, w, h
+            ));
+        }
 
-        return placements;
+        long packNanos = VoxelBridgeLogger.elapsedSince(tPack);
+        double occupancy = pages.isEmpty() ? 0
+            : usedArea * 100.0 / ((long) pages.size() * atlasSize * atlasSize);
+        return new Layout(placements, pages.size(), occupancy, packNanos);
     }
 
     /**
@@ -188,6 +256,9 @@ public final class TextureAtlasPacker {
     private static class Rect {
         int x, y, width, height;
         int score;
+        // Candidate placements only: free rectangle or skyline segment it came from
+        int node = -1;
+        boolean fromWaste;
 
         Rect(int x, int y, int width, int height) {
             this.x = x;
@@ -198,19 +269,258 @@ public final class TextureAtlasPacker {
     }
 
     /**
-     * Represents a single atlas page with its image buffer and free space tracking.
-     * Uses the MaxRects algorithm to find optimal placement for incoming textures.
+     * Represents a single atlas page with its placed tiles and free space tracking.
+     * Pixels are only composed when the page is written.
+     * Placement is split into {@link #find} (no side effects) and {@link #commit}, so probing
+     * a page that is not chosen leaves it untouched.
      */
-    private static class AtlasPage {
-        final BufferedImage image;
+    private abstract static class AtlasPage {
+        final List<AtlasPageRasterizer.Tile> tiles = new ArrayList<>();
         final int width, height;
-        final List<Rect> freeRects = new ArrayList<>();
 
-        AtlasPage(int size, boolean powerOfTwo) {
+        // Smallest request this page rejected. Pages only lose space between resets of this
+        // field, so any request at least as large in both dimensions is rejected in O(1).
+        private int rejectedWidth = Integer.MAX_VALUE;
+        private int rejectedHeight = Integer.MAX_VALUE;
+
+        AtlasPage(int size) {
             this.width = size;
             this.height = size;
-            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-            freeRects.add(new Rect(0, 0, width, height));
+        }
+
+        /**
+         * Finds a placement for a texture of the given dimensions without occupying it.
+         *
+         * @return candidate rectangle with its score, or null if it doesn't fit
+         */
+        final Rect find(int w, int h) {
+            if (w >= rejectedWidth && h >= rejectedHeight) return null;
+            if (w > maxFreeWidth() || h > maxFreeHeight()) return null;
+            Rect rect = findPlacement(w, h);
+            if (rect == null && (long) w * h < (long) rejectedWidth * rejectedHeight) {
+                rejectedWidth = w;
+                rejectedHeight = h;
+            }
+            return rect;
+        }
+
+        /**
+         * Occupies a rectangle returned by {@link #find} on this page.
+         */
+        abstract void commit(Rect rect);
+
+        abstract Rect findPlacement(int w, int h);
+
+        /** Upper bound on the width of any placement this page can still offer. */
+        abstract int maxFreeWidth();
+
+        /** Upper bound on the height of any placement this page can still offer. */
+        abstract int maxFreeHeight();
+
+        /** Forgets rejected sizes; call when the page gains placeable space. */
+        final void clearRejections() {
+            rejectedWidth = Integer.MAX_VALUE;
+            rejectedHeight = Integer.MAX_VALUE;
+        }
+
+        /**
+         * Places a texture at the given rectangle coordinates.
+         *
+         * @param rect Rectangle defining where to place the texture
+         * @param texture The texture image to draw when the page is written
+         */
+        void placeRect(Rect rect, BufferedImage texture) {
+            tiles.add(new AtlasPageRasterizer.Tile(rect.x, rect.y, rect.width, rect.height, () -> texture));
+        }
+    }
+
+    /**
+     * Page packed with the MaxRects algorithm over its whole area.
+     */
+    private static final class MaxRectsPage extends AtlasPage {
+        final FreeRectList free = new FreeRectList();
+
+        MaxRectsPage(int size) {
+            super(size);
+            free.add(new Rect(0, 0, width, height));
+        }
+
+        @Override
+        Rect findPlacement(int w, int h) {
+            return free.find(w, h);
+        }
+
+        @Override
+        void commit(Rect rect) {
+            free.commit(rect);
+        }
+
+        @Override
+        int maxFreeWidth() {
+            return free.maxWidth;
+        }
+
+        @Override
+        int maxFreeHeight() {
+            return free.maxHeight;
+        }
+    }
+
+    /**
+     * Page packed bottom-left along a skyline (the top edge of used space, as segments from
+     * left to right). Gaps left below a placed texture go to a MaxRects waste map and are
+     * tried first.
+     */
+    private static final class SkylinePage extends AtlasPage {
+        private static final class Segment {
+            int x, y, width;
+
+            Segment(int x, int y, int width) {
+                this.x = x;
+                this.y = y;
+                this.width = width;
+            }
+        }
+
+        final List<Segment> skyline = new ArrayList<>();
+        final FreeRectList waste = new FreeRectList();
+        int lowestY = 0;
+
+        SkylinePage(int size) {
+            super(size);
+            skyline.add(new Segment(0, 0, width));
+        }
+
+        @Override
+        Rect findPlacement(int w, int h) {
+            Rect fromWaste = waste.find(w, h);
+            if (fromWaste != null) {
+                fromWaste.fromWaste = true;
+                fromWaste.score = fromWaste.y + h;
+                return fromWaste;
+            }
+
+            int bestTop = Integer.MAX_VALUE;
+            int bestSegmentWidth = Integer.MAX_VALUE;
+            int bestIndex = -1;
+            int bestY = 0;
+            for (int i = 0; i < skyline.size(); i++) {
+                int y = fitY(i, w, h);
+                if (y < 0) continue;
+                int top = y + h;
+                int segmentWidth = skyline.get(i).width;
+                if (top < bestTop || (top == bestTop && segmentWidth < bestSegmentWidth)) {
+                    bestTop = top;
+                    bestSegmentWidth = segmentWidth;
+                    bestIndex = i;
+                    bestY = y;
+                }
+            }
+            if (bestIndex < 0) return null;
+
+            Rect rect = new Rect(skyline.get(bestIndex).x, bestY, w, h);
+            rect.node = bestIndex;
+            rect.score = bestTop;
+            return rect;
+        }
+
+        /**
+         * Lowest y at which a w*h texture starting at segment i rests on the skyline, or -1.
+         */
+        private int fitY(int index, int w, int h) {
+            int x = skyline.get(index).x;
+            if (x + w > width) return -1;
+            int y = 0;
+            int remaining = w;
+            for (int i = index; remaining > 0; i++) {
+                Segment segment = skyline.get(i);
+                y = Math.max(y, segment.y);
+                if (y + h > height) return -1;
+                remaining -= segment.width;
+            }
+            return y;
+        }
+
+        @Override
+        void commit(Rect rect) {
+            if (rect.fromWaste) {
+                waste.commit(rect);
+                return;
+            }
+            int index = rect.node;
+            int right = rect.x + rect.width;
+
+            // Space between the skyline and the new texture becomes waste
+            boolean addedWaste = false;
+            for (int i = index; i < skyline.size() && skyline.get(i).x < right; i++) {
+                Segment segment = skyline.get(i);
+                if (segment.y < rect.y) {
+                    int segmentRight = Math.min(segment.x + segment.width, right);
+                    waste.add(new Rect(segment.x, segment.y, segmentRight - segment.x, rect.y - segment.y));
+                    addedWaste = true;
+                }
+            }
+
+            // Raise the skyline under the texture and trim the segments it covers
+            skyline.add(index, new Segment(rect.x, rect.y + rect.height, rect.width));
+            for (int i = index + 1; i < skyline.size(); i++) {
+                Segment previous = skyline.get(i - 1);
+                Segment segment = skyline.get(i);
+                int overlap = previous.x + previous.width - segment.x;
+                if (overlap <= 0) break;
+                segment.x += overlap;
+                segment.width -= overlap;
+                if (segment.width > 0) break;
+                skyline.remove(i--);
+            }
+
+            // Merge neighbours at the same height
+            for (int i = 0; i + 1 < skyline.size(); i++) {
+                Segment segment = skyline.get(i);
+                Segment next = skyline.get(i + 1);
+                if (segment.y == next.y) {
+                    segment.width += next.width;
+                    skyline.remove(i + 1);
+                    i--;
+                }
+            }
+
+            int lowest = Integer.MAX_VALUE;
+            for (Segment segment : skyline) {
+                lowest = Math.min(lowest, segment.y);
+            }
+            lowestY = lowest;
+
+            // Waste areas were not reachable from the skyline, so earlier rejections may now fit
+            if (addedWaste) {
+                clearRejections();
+            }
+        }
+
+        @Override
+        int maxFreeWidth() {
+            return lowestY < height ? width : waste.maxWidth;
+        }
+
+        @Override
+        int maxFreeHeight() {
+            return Math.max(height - lowestY, waste.maxHeight);
+        }
+    }
+
+    /**
+     * MaxRects free rectangle list: the free space of a MaxRects page, or the waste map of a
+     * skyline page. Splits keep the rectangles disjoint, so placing only splits its own node.
+     */
+    private static final class FreeRectList {
+        final List<Rect> freeRects = new ArrayList<>();
+        int maxWidth = 0;
+        int maxHeight = 0;
+
+        void add(Rect rect) {
+            freeRects.add(rect);
+            maxWidth = Math.max(maxWidth, rect.width);
+            maxHeight = Math.max(maxHeight, rect.height);
         }
 
         /**
@@ -221,10 +531,9 @@ public final class TextureAtlasPacker {
          * @param h Height of texture to place
          * @return Rect with placement coordinates and score, or null if doesn't fit
          */
-        Rect insert(int w, int h) {
-            Rect bestRect = new Rect(0, 0, 0, 0);
-            bestRect.score = Integer.MAX_VALUE;
-            int bestNodeIndex = -1;
+        Rect find(int w, int h) {
+            if (w > maxWidth || h > maxHeight) return null;
+            Rect bestRect = null;
 
             // Find the free rectangle that gives the best fit
             for (int i = 0; i < freeRects.size(); i++) {
@@ -232,38 +541,33 @@ public final class TextureAtlasPacker {
                 if (free.width >= w && free.height >= h) {
                     // Score = minimum of leftover space in each dimension
                     int score = Math.min(free.width - w, free.height - h);
-                    if (score < bestRect.score) {
-                        bestRect.x = free.x;
-                        bestRect.y = free.y;
-                        bestRect.width = w;
-                        bestRect.height = h;
+                    if (bestRect == null || score < bestRect.score) {
+                        bestRect = new Rect(free.x, free.y, w, h);
                         bestRect.score = score;
-                        bestNodeIndex = i;
+                        bestRect.node = i;
                     }
                 }
             }
-
-            if (bestNodeIndex == -1) {
-                return null; // Doesn't fit in any free rectangle
-            }
-
-            // Split the free rectangle and update free list
-            splitFreeNode(freeRects.get(bestNodeIndex), bestRect);
-            freeRects.remove(bestNodeIndex);
-            pruneFreeList();
             return bestRect;
         }
 
         /**
-         * Places a texture at the given rectangle coordinates.
-         *
-         * @param rect Rectangle defining where to place the texture
-         * @param texture The texture image to draw
+         * Occupies a rectangle returned by {@link #find} by splitting its free rectangle. The split
+         * pieces are disjoint from each other and from every other free rectangle, so no free
+         * rectangle can contain another and there is nothing to prune.
          */
-        void placeRect(Rect rect, BufferedImage texture) {
-            Graphics2D g = image.createGraphics();
-            g.drawImage(texture, rect.x, rect.y, null);
-            g.dispose();
+        void commit(Rect usedNode) {
+            splitFreeNode(freeRects.get(usedNode.node), usedNode);
+            freeRects.remove(usedNode.node);
+
+            int w = 0;
+            int h = 0;
+            for (Rect free : freeRects) {
+                w = Math.max(w, free.width);
+                h = Math.max(h, free.height);
+            }
+            maxWidth = w;
+            maxHeight = h;
         }
 
         /**
@@ -322,34 +626,5 @@ public final class TextureAtlasPacker {
                     usedNode.height));
             }
         }
-
-        /**
-         * Removes free rectangles that are completely contained within other free rectangles.
-         * This optimization reduces the number of rectangles to check during placement.
-         */
-        private void pruneFreeList() {
-            for (int i = 0; i < freeRects.size(); i++) {
-                for (int j = i + 1; j < freeRects.size(); j++) {
-                    Rect r1 = freeRects.get(i);
-                    Rect r2 = freeRects.get(j);
-                    if (isContainedIn(r1, r2)) {
-                        freeRects.remove(i--);
-                        break;
-                    }
-                    if (isContainedIn(r2, r1)) {
-                        freeRects.remove(j--);
-                    }
-                }
-            }
-        }
-
-        /**
-         * Checks if rectangle 'a' is completely contained within rectangle 'b'.
-         */
-        private boolean isContainedIn(Rect a, Rect b) {
-            return a.x >= b.x && a.y >= b.y &&
-                   a.x + a.width <= b.x + b.width &&
-                   a.y + a.height <= b.y + b.height;
-        }
     }
 }
@@ -9,8 +9,10 @@ import net.minecraft.resources.ResourceLocation;
 import com.voxelbridge.config.ExportRuntimeConfig;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
+import org.lwjgl.system.MemoryUtil;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.InputStream;
 
 /**
@@ -117,25 +119,45 @@ public final class TextureLoader {
         int w = nativeImg.getWidth();
         int h = nativeImg.getHeight();
         BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-        int[] allPixels = new int[w * h];
+        int[] raster = ((DataBufferInt) out.getRaster().getDataBuffer()).getData();
+
+        if (nativeImg.format() == NativeImage.Format.RGBA) {
+            // One bulk copy of the native pixels (made public by the access transformer) into the
+            // raster, then an in-place swizzle. getPixelsRGBA() would read and convert pixel by pixel.
+            if (nativeImg.pixels == 0L) {
+                throw new IllegalStateException("NativeImage is not allocated");
+            }
+            MemoryUtil.memIntBuffer(nativeImg.pixels, w * h).get(raster, 0, w * h);
+            swizzleAbgrToArgb(raster, raster, w * h);
+            return out;
+        }
 
         // Process sequentially to ensure thread safety with NativeImage
         for (int y = 0; y < h; y++) {
             int rowOffset = y * w;
             for (int x = 0; x < w; x++) {
-                int c = nativeImg.getPixelRGBA(x, y);
-                int a = (c >>> 24) & 0xFF;
-                int r = c & 0xFF;
-                int g = (c >>> 8) & 0xFF;
-                int b = (c >>> 16) & 0xFF;
-                allPixels[rowOffset + x] = (a << 24) | (r << 16) | (g << 8) | b;
+                raster[rowOffset + x] = abgrToArgb(nativeImg.getPixelRGBA(x, y));
             }
         }
-        
-        out.setRGB(0, 0, w, h, allPixels, 0, w);
         return out;
     }
 
+    /**
+     * Converts NativeImage pixels (RGBA bytes read as little-endian ints, i.e. ABGR) to ARGB.
+     * The loop body is plain masks and shifts so C2 compiles it to SIMD. {@code src} and
+     * {@code dst} may be the same array.
+     */
+    static void swizzleAbgrToArgb(int[] src, int[] dst, int count) {
+        for (int i = 0; i < count; i++) {
+            int c = src[i];
+            dst[i] = (c & 0xFF00FF00) | ((c & 0xFF) << 16) | ((c >>> 16) & 0xFF);
+        }
+    }
+
+    private static int abgrToArgb(int c) {
+        return (c & 0xFF00FF00) | ((c & 0xFF) << 16) | ((c >>> 16) & 0xFF);
+    }
+
     /**
      * Extracts the first animation frame by taking the top-most square slice.
      */
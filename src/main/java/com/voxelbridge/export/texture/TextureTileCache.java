@@ -0,0 +1,454 @@
+package com.voxelbridge.export.texture;
+
+import com.voxelbridge.config.ExportRuntimeConfig;
+import com.voxelbridge.export.ExportContext;
+import com.voxelbridge.util.client.ResourceFingerprint;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.Minecraft;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of tinted and padded texture tiles, shared by all exports.
+ * <p>
+ * Tiles are content-addressed: the key hashes the source pixels, tint, padding and channel, so a
+ * tile is reused whenever the same pixels are processed the same way, whatever the sprite name or
+ * world. Tiles are stored as raw ARGB under {@code voxelbridge/tile-cache/tiles/} in the game
+ * directory. The total size is bounded; least recently used tiles are evicted when an atlas
+ * build finishes.
+ * <p>
+ * Content hashes only save tinting and padding. To also skip decoding source PNGs, the cache
+ * keeps an index from sprite key to source hash that is valid for one combination of resource
+ * packs, mods and texture settings. A different combination starts a new index and deletes the
+ * old one.
+ */
+@OnlyIn(Dist.CLIENT)
+final class TextureTileCache implements AutoCloseable {
+
+    enum Channel { ALBEDO, NORMAL, SPECULAR }
+
+    private static final int MAGIC = 0x56425443; // "VBTC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final String INDEX_PREFIX = "sources-";
+    private static final String INDEX_SUFFIX = ".idx";
+    // Evict below the limit so the next build does not have to evict again straight away
+    private static final double EVICT_TARGET = 0.9;
+
+    private record TileFile(Path path, long size, long lastUsed) {}
+
+    private final Path tilesDir;
+    private final Path indexFile;
+    private final long maxBytes;
+    private final Map<String, Long> indexed;
+    private final Map<String, Long> sources = new ConcurrentHashMap<>();
+    private final Set<Path> touched = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder skippedDecodes = new LongAdder();
+
+    private TextureTileCache(Path tilesDir, Path indexFile, long maxBytes, Map<String, Long> indexed) {
+        this.tilesDir = tilesDir;
+        this.indexFile = indexFile;
+        this.maxBytes = maxBytes;
+        this.indexed = indexed;
+    }
+
+    /**
+     * Opens the cache for one atlas build, or returns null if it is disabled or unusable.
+     */
+    static TextureTileCache open(ExportContext ctx) {
+        if (!ExportRuntimeConfig.isTextureTileCacheEnabled()) {
+            return null;
+        }
+        Minecraft mc = ctx.getMc();
+        Path root = mc.gameDirectory.toPath().resolve("voxelbridge").resolve("tile-cache");
+        try {
+            return open(root, fingerprint(mc), ExportRuntimeConfig.getTextureTileCacheMaxMb() * 1024L * 1024L);
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, "[TileCache] Cache unavailable, processing all tiles: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opens the cache under {@code root} with the source index for {@code fingerprint}; indexes
+     * written for any other fingerprint are deleted.
+     */
+    static TextureTileCache open(Path root, long fingerprint, long maxBytes) throws IOException {
+        Path tilesDir = root.resolve("tiles");
+        Files.createDirectories(tilesDir);
+        Path indexFile = root.resolve(INDEX_PREFIX + Long.toHexString(fingerprint) + INDEX_SUFFIX);
+        dropStaleIndexes(root, indexFile);
+        Map<String, Long> indexed = loadIndex(indexFile);
+        VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+            "[TileCache] %s: %d indexed sources, limit %d MB", root, indexed.size(), maxBytes >> 20));
+        return new TextureTileCache(tilesDir, indexFile, maxBytes, indexed);
+    }
+
+    /**
+     * Source hash recorded for the sprite by an earlier build with the same packs and settings.
+     */
+    Long indexedSource(String spriteKey) {
+        return indexed.get(spriteKey);
+    }
+
+    void recordSource(String spriteKey, long sourceHash) {
+        sources.put(spriteKey, sourceHash);
+    }
+
+    void noteSkippedDecode() {
+        skippedDecodes.increment();
+    }
+
+    boolean contains(long tileKey) {
+        return Files.isRegularFile(tilePath(tileKey));
+    }
+
+    /**
+     * Key of a processed tile. {@code maskHash} identifies the image whose alpha drives padding
+     * when it is not the source itself (PBR companions are padded with the albedo mask).
+     */
+    static long tileKey(long sourceHash, long maskHash, int tint, int padding, Channel channel) {
+        long hash = mix(0x243F_6A88_85A3_08D3L, sourceHash);
+        hash = mix(hash, maskHash);
+        hash = mix(hash, ((long) tint << 32) | (padding & 0xFFFFL) << 8 | channel.ordinal());
+        return finish(hash);
+    }
+
+    /**
+     * Hash of the image's dimensions and ARGB pixels.
+     */
+    static long pixelHash(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] data = argb(img);
+        long hash = mix(0x1319_8A2E_0370_7344L, ((long) w << 32) | h);
+        int i = 0;
+        for (; i + 1 < data.length; i += 2) {
+            hash = mix(hash, ((long) data[i] << 32) | (data[i + 1] & 0xFFFF_FFFFL));
+        }
+        if (i < data.length) {
+            hash = mix(hash, data[i] & 0xFFFF_FFFFL);
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Exact pixel comparison, used to confirm equal {@link #pixelHash} values.
+     */
+    static boolean samePixels(BufferedImage a, BufferedImage b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+            return false;
+        }
+        return Arrays.equals(argb(a), argb(b));
+    }
+
+    /**
+     * Reads a tile, or returns null on a miss. Unreadable tiles are deleted and count as misses.
+     */
+    BufferedImage get(long tileKey) {
+        Path path = tilePath(tileKey);
+        if (!Files.isRegularFile(path)) {
+            misses.increment();
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("bad size " + size);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // fill
+            }
+            buf.flip();
+            if (buf.remaining() != size || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("bad header");
+            }
+            int w = buf.getInt();
+            int h = buf.getInt();
+            if (w <= 0 || h <= 0 || (long) w * h * 4 != size - HEADER_BYTES) {
+                throw new IOException("bad dimensions " + w + "x" + h);
+            }
+            BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            buf.asIntBuffer().get(((DataBufferInt) img.getRaster().getDataBuffer()).getData());
+            touched.add(path);
+            hits.increment();
+            return img;
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, "[TileCache] Dropping unreadable tile " + path.getFileName() + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignore) {
+            }
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Stores a processed tile. Failures are logged and otherwise ignored; the tile is simply
+     * processed again next time.
+     */
+    void put(long tileKey, BufferedImage img) {
+        Path path = tilePath(tileKey);
+        if (Files.exists(path)) {
+            return; // Same content produced by another sprite or thread
+        }
+        int w = img.getWidth();
+        int h = img.getHeight();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + w * h * 4);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(w).putInt(h);
+        buf.asIntBuffer().put(argb(img));
+        buf.rewind();
+
+        Path tmp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            tmp = Files.createTempFile(path.getParent(), null, ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+            moveIntoPlace(tmp, path);
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, "[TileCache] Cannot store tile " + path.getFileName() + ": " + e.getMessage());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the source index, marks tiles used by this build as recent and evicts old tiles
+     * beyond the size limit.
+     */
+    @Override
+    public void close() {
+        try {
+            Map<String, Long> merged = new HashMap<>(indexed);
+            merged.putAll(sources);
+            writeIndex(merged);
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, "[TileCache] Cannot write source index: " + e.getMessage());
+        }
+
+        FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        for (Path path : touched) {
+            try {
+                Files.setLastModifiedTime(path, now);
+            } catch (IOException ignore) {
+                // Evicted by another client in the meantime
+            }
+        }
+
+        long evicted = 0;
+        try {
+            evicted = evict();
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, "[TileCache] Eviction failed: " + e.getMessage());
+        }
+
+        VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, String.format(
+            "[TileCache] hits=%d misses=%d skipped decodes=%d evicted=%d",
+            hits.sum(), misses.sum(), skippedDecodes.sum(), evicted));
+        VoxelBridgeLogger.stat("tile_cache_hits", hits.sum());
+        VoxelBridgeLogger.stat("tile_cache_misses", misses.sum());
+    }
+
+    Path tilePath(long tileKey) {
+        String hex = String.format("%016x", tileKey);
+        return tilesDir.resolve(hex.substring(0, 2)).resolve(hex + ".tile");
+    }
+
+    /**
+     * Deletes least recently used tiles until the cache is below the size limit.
+     * Returns the number of deleted files.
+     */
+    private long evict() throws IOException {
+        List<TileFile> files = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> walk = Files.walk(tilesDir)) {
+            for (Path path : (Iterable<Path>) walk::iterator) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (attrs.isRegularFile()) {
+                    files.add(new TileFile(path, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    total += attrs.size();
+                }
+            }
+        }
+        if (total <= maxBytes) {
+            return 0;
+        }
+
+        files.sort(Comparator.comparingLong(TileFile::lastUsed));
+        long target = (long) (maxBytes * EVICT_TARGET);
+        long deleted = 0;
+        for (TileFile file : files) {
+            if (total <= target) {
+                break;
+            }
+            if (Files.deleteIfExists(file.path())) {
+                deleted++;
+            }
+            total -= file.size();
+        }
+        return deleted;
+    }
+
+    private void writeIndex(Map<String, Long> entries) throws IOException {
+        Path tmp = Files.createTempFile(indexFile.getParent(), null, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            moveIntoPlace(tmp, indexFile);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Map<String, Long> loadIndex(Path file) {
+        Map<String, Long> entries = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return entries;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                entries.put(in.readUTF(), in.readLong());
+            }
+        } catch (IOException e) {
+            VoxelBridgeLogger.warn(LogModule.TEXTURE_ATLAS, "[TileCache] Cannot read source index: " + e.getMessage());
+            entries.clear();
+        }
+        return entries;
+    }
+
+    private static void dropStaleIndexes(Path root, Path current) throws IOException {
+        try (Stream<Path> list = Files.list(root)) {
+            for (Path path : (Iterable<Path>) list::iterator) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(INDEX_PREFIX) && name.endsWith(INDEX_SUFFIX) && !path.equals(current)) {
+                    Files.deleteIfExists(path);
+                    VoxelBridgeLogger.info(LogModule.TEXTURE_ATLAS, "[TileCache] Resource packs or settings changed, dropped index " + name);
+                }
+            }
+        }
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Everything that changes which pixels a sprite key resolves to: game version, selected
+     * resource packs (with file timestamps for local packs), loaded mods and animation export,
+     * which decides whether animated sprites load as a single frame.
+     */
+    private static long fingerprint(Minecraft mc) {
+        StringBuilder sb = new StringBuilder("v").append(VERSION)
+            .append('|').append(SharedConstants.getCurrentVersion().getName())
+            .append('|').append(ExportRuntimeConfig.isAnimationEnabled());
+        sb.append(ResourceFingerprint.describe(mc));
+        return hashString(sb.toString());
+    }
+
+    /**
+     * Row-major ARGB pixels, without copying when the image is already packed that way.
+     */
+    private static int[] argb(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        var raster = img.getRaster();
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB
+            && raster.getDataBuffer() instanceof DataBufferInt db
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm
+            && sm.getScanlineStride() == w
+            && db.getOffset() == 0
+            && db.getData().length == w * h) {
+            return db.getData();
+        }
+        return img.getRGB(0, 0, w, h, null, 0, w);
+    }
+
+    private static long hashString(String value) {
+        long hash = 0xCBF2_9CE4_8422_2325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x0000_0100_0000_01B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value * 0x9E37_79B9_7F4A_7C15L;
+        return Long.rotateLeft(hash, 31) * 0xBF58_476D_1CE4_E5B9L;
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51_AFD7_ED55_8CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CE_B9FE_1A85_EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
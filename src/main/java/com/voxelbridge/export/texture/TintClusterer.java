@@ -0,0 +1,200 @@
+package com.voxelbridge.export.texture;
+
+import com.voxelbridge.export.ExportContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges perceptually close tints of one sprite into shared tint slots before tiles are generated.
+ * Biome blending produces many tints that differ by a unit or two per channel; each would otherwise
+ * get its own tinted tile, and past {@code maxSlots} the overflow was folded into the nearest RGB slot
+ * by overwriting that slot's tint. Distances are OKLab Euclidean scaled by 100, so 1.0 is roughly a
+ * just-noticeable difference.
+ */
+final class TintClusterer {
+
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            double c = i / 255.0;
+            SRGB_TO_LINEAR[i] = (float) (c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4));
+        }
+    }
+
+    /**
+     * Outcome for one sprite: distinct tints seen, slots kept, and the largest OKLab distance
+     * between a tint and the representative it was mapped to.
+     */
+    record Result(int tints, int slots, double maxError) {}
+
+    private TintClusterer() {}
+
+    /**
+     * Rewrites {@code atlas} so that every registered tint maps to the slot of a representative
+     * within {@code threshold} of it. Returns null when the sprite needs no change.
+     * Slot 0 keeps its tint (the material default); other slots take their cluster's minimax member.
+     * When the threshold leaves more than {@code maxSlots} clusters, it is doubled until they fit.
+     */
+    static Result cluster(ExportContext.TintAtlas atlas, double threshold, int maxSlots) {
+        int distinct = atlas.tintToIndex.size();
+        boolean overflowed = distinct > atlas.nextIndex.get();
+        if (distinct < 2 || (threshold <= 0 && !overflowed)) {
+            return null;
+        }
+
+        // Slot order keeps the slot 0 tint (material default) as the first leader. Overflowed tints
+        // can share slot 0, so the tint the slot actually holds sorts ahead of them.
+        Integer defaultTint = atlas.indexToTint.get(0);
+        List<Map.Entry<Integer, Integer>> ordered = new ArrayList<>(atlas.tintToIndex.entrySet());
+        ordered.sort(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue)
+            .thenComparing(e -> !e.getKey().equals(defaultTint))
+            .thenComparingInt(Map.Entry::getKey));
+        int[] tints = new int[distinct];
+        float[] lab = new float[distinct * 3];
+        for (int i = 0; i < distinct; i++) {
+            tints[i] = ordered.get(i).getKey();
+            toOkLab(tints[i], lab, i * 3);
+        }
+
+        double radius = threshold > 0 ? threshold : 0.5;
+        int[] clusterOf = new int[distinct];
+        int clusters = leaderCluster(lab, distinct, radius, clusterOf);
+        while (clusters > maxSlots) {
+            radius *= 2;
+            clusters = leaderCluster(lab, distinct, radius, clusterOf);
+        }
+        if (clusters == distinct && !overflowed) {
+            return null;
+        }
+
+        // Representative = member with the smallest worst-case distance to the rest of its cluster.
+        // The leader is a candidate, so the chosen error never exceeds the radius. Cluster 0 is
+        // pinned to its leader, the slot 0 default, so untinted and default-tinted quads keep it.
+        int[][] members = groupMembers(clusterOf, clusters);
+        int[] representative = new int[clusters];
+        double maxError = 0;
+        for (int c = 0; c < clusters; c++) {
+            int[] m = members[c];
+            if (c == 0) {
+                representative[0] = tints[0];
+                for (int other : m) {
+                    maxError = Math.max(maxError, distance(lab, 0, other));
+                }
+                continue;
+            }
+            int best = m[0];
+            double bestWorst = Double.MAX_VALUE;
+            for (int candidate : m) {
+                double worst = 0;
+                for (int other : m) {
+                    worst = Math.max(worst, distance(lab, candidate, other));
+                    if (worst >= bestWorst) {
+                        break;
+                    }
+                }
+                if (worst < bestWorst) {
+                    bestWorst = worst;
+                    best = candidate;
+                }
+            }
+            representative[c] = tints[best];
+            maxError = Math.max(maxError, bestWorst);
+        }
+
+        atlas.indexToTint.clear();
+        for (int c = 0; c < clusters; c++) {
+            atlas.indexToTint.put(c, representative[c]);
+        }
+        for (int i = 0; i < distinct; i++) {
+            atlas.tintToIndex.put(tints[i], clusterOf[i]);
+        }
+        atlas.nextIndex.set(clusters);
+        return new Result(distinct, clusters, maxError);
+    }
+
+    /**
+     * Assigns each tint to the nearest existing leader within {@code radius}, or makes it a new leader.
+     */
+    private static int leaderCluster(float[] lab, int count, double radius, int[] clusterOf) {
+        int[] leaders = new int[count];
+        int leaderCount = 0;
+        double radiusSq = radius * radius;
+        for (int i = 0; i < count; i++) {
+            int nearest = -1;
+            double nearestSq = radiusSq;
+            for (int c = 0; c < leaderCount; c++) {
+                double d = distanceSq(lab, i, leaders[c]);
+                if (d <= nearestSq) {
+                    nearestSq = d;
+                    nearest = c;
+                }
+            }
+            if (nearest < 0) {
+                nearest = leaderCount;
+                leaders[leaderCount++] = i;
+            }
+            clusterOf[i] = nearest;
+        }
+        return leaderCount;
+    }
+
+    private static int[][] groupMembers(int[] clusterOf, int clusters) {
+        int[] sizes = new int[clusters];
+        for (int c : clusterOf) {
+            sizes[c]++;
+        }
+        int[][] members = new int[clusters][];
+        for (int c = 0; c < clusters; c++) {
+            members[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int i = 0; i < clusterOf.length; i++) {
+            int c = clusterOf[i];
+            members[c][sizes[c]++] = i;
+        }
+        return members;
+    }
+
+    /**
+     * OKLab distance (x100) between two RGB tints, the measure {@code threshold} and
+     * {@link Result#maxError} use.
+     */
+    static double deltaE(int rgbA, int rgbB) {
+        float[] lab = new float[6];
+        toOkLab(rgbA, lab, 0);
+        toOkLab(rgbB, lab, 3);
+        return distance(lab, 0, 1);
+    }
+
+    private static double distance(float[] lab, int a, int b) {
+        return Math.sqrt(distanceSq(lab, a, b));
+    }
+
+    private static double distanceSq(float[] lab, int a, int b) {
+        float dl = lab[a * 3] - lab[b * 3];
+        float da = lab[a * 3 + 1] - lab[b * 3 + 1];
+        float db = lab[a * 3 + 2] - lab[b * 3 + 2];
+        return dl * dl + da * da + db * db;
+    }
+
+    /**
+     * sRGB to OKLab (Ottosson), scaled by 100.
+     */
+    private static void toOkLab(int rgb, float[] out, int offset) {
+        float r = SRGB_TO_LINEAR[(rgb >> 16) & 0xFF];
+        float g = SRGB_TO_LINEAR[(rgb >> 8) & 0xFF];
+        float b = SRGB_TO_LINEAR[rgb & 0xFF];
+
+        double l = Math.cbrt(0.4122214708 * r + 0.5363325363 * g + 0.0514459929 * b);
+        double m = Math.cbrt(0.2119034982 * r + 0.6806995451 * g + 0.1073969566 * b);
+        double s = Math.cbrt(0.0883024619 * r + 0.2817188376 * g + 0.6299787005 * b);
+
+        out[offset] = (float) (100 * (0.2104542553 * l + 0.7936177850 * m - 0.0040720468 * s));
+        out[offset + 1] = (float) (100 * (1.9779984951 * l - 2.4285922050 * m + 0.4505937099 * s));
+        out[offset + 2] = (float) (100 * (0.0259040371 * l + 0.7827717662 * m - 0.8086757660 * s));
+    }
+}
@@ -19,6 +19,13 @@ public final class GeometryUtil {
      * @return 3 floats representing the normalized normal vector (nx, ny, nz)
      */
     public static float[] computeFaceNormal(float[] positions) {
+        return computeFaceNormal(positions, new float[3]);
+    }
+
+    /**
+     * Computes the face normal into {@code out} (3 floats) and returns it.
+     */
+    public static float[] computeFaceNormal(float[] positions, float[] out) {
         // Vector from vertex 0 to vertex 1
         float ax = positions[3] - positions[0];
         float ay = positions[4] - positions[1];
@@ -37,10 +44,58 @@ public final class GeometryUtil {
         // Normalize
         float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
         if (len == 0f) {
-            return new float[]{0, 1, 0}; // Default to up vector
+            // Default to up vector
+            out[0] = 0f;
+            out[1] = 1f;
+            out[2] = 0f;
+            return out;
         }
 
-        return new float[]{nx / len, ny / len, nz / len};
+        out[0] = nx / len;
+        out[1] = ny / len;
+        out[2] = nz / len;
+        return out;
+    }
+
+    /**
+     * Order-independent hash of a quad's vertex positions (rounded to 0.01), used to group
+     * coplanar quads that cover the same face. Vertices are ordered with a fixed sorting
+     * network, so nothing is allocated.
+     *
+     * @param positions 12 floats representing 4 vertices (x,y,z each)
+     */
+    public static long computePositionHash(float[] positions) {
+        int i0 = 0, i1 = 1, i2 = 2, i3 = 3;
+        if (compareVertices(positions, i0, i1) > 0) { int t = i0; i0 = i1; i1 = t; }
+        if (compareVertices(positions, i2, i3) > 0) { int t = i2; i2 = i3; i3 = t; }
+        if (compareVertices(positions, i0, i2) > 0) { int t = i0; i0 = i2; i2 = t; }
+        if (compareVertices(positions, i1, i3) > 0) { int t = i1; i1 = i3; i3 = t; }
+        if (compareVertices(positions, i1, i2) > 0) { int t = i1; i1 = i2; i2 = t; }
+
+        long hash = 1125899906842597L;
+        hash = hashPosition(hash, positions, i0);
+        hash = hashPosition(hash, positions, i1);
+        hash = hashPosition(hash, positions, i2);
+        hash = hashPosition(hash, positions, i3);
+        return hash;
+    }
+
+    private static int compareVertices(float[] positions, int a, int b) {
+        int ia = a * 3;
+        int ib = b * 3;
+        int cmpX = Float.compare(positions[ia], positions[ib]);
+        if (cmpX != 0) return cmpX;
+        int cmpY = Float.compare(positions[ia + 1], positions[ib + 1]);
+        if (cmpY != 0) return cmpY;
+        return Float.compare(positions[ia + 2], positions[ib + 2]);
+    }
+
+    private static long hashPosition(long hash, float[] positions, int index) {
+        int pi = index * 3;
+        hash = 31 * hash + Math.round(positions[pi] * 100f);
+        hash = 31 * hash + Math.round(positions[pi + 1] * 100f);
+        hash = 31 * hash + Math.round(positions[pi + 2] * 100f);
+        return hash;
     }
 
     /**
@@ -16,17 +16,7 @@ public final class VertexExtractor {
     }
 
     /**
-     * Vertex data extracted from a quad.
-     */
-    public record VertexData(
-        float[] positions,  // 12 floats: 4 vertices * (x, y, z)
-        float[] uvs,        // 8 floats: 4 vertices * (u, v)
-        float[] normal,     // 3 floats: (nx, ny, nz)
-        int[] colors        // 4 ints: ABGR per vertex
-    ) {}
-
-    /**
-     * Extracts vertex data from a BakedQuad with world transformation.
+     * Extracts vertex data from a BakedQuad with world transformation into the caller's scratch.
      *
      * @param quad the baked quad
      * @param pos block position
@@ -35,20 +25,21 @@ public final class VertexExtractor {
      * @param offsetY world Y offset (for centering)
      * @param offsetZ world Z offset (for centering)
      * @param randomOffset vanilla random offset (grass, fern, etc.)
-     * @return extracted vertex data
+     * @param out receives positions, UVs, face normal and colors
      */
-    public static VertexData extractFromQuad(
+    public static void extractFromQuad(
         BakedQuad quad,
         BlockPos pos,
         TextureAtlasSprite sprite,
         double offsetX,
         double offsetY,
         double offsetZ,
-        Vec3 randomOffset
+        Vec3 randomOffset,
+        VertexScratch out
     ) {
-        float[] positions = new float[12];
-        float[] uv = new float[8];
-        int[] colors = new int[4];
+        float[] positions = out.positions;
+        float[] uv = out.uvs;
+        int[] colors = out.colors;
 
         int[] verts = quad.getVertices();
         float u0 = sprite.getU0(), u1 = sprite.getU1();
@@ -68,6 +59,10 @@ public final class VertexExtractor {
         float dv = v1 - v0;
         if (dv == 0) dv = 1f;
 
+        double rx = randomOffset != null ? randomOffset.x : 0;
+        double ry = randomOffset != null ? randomOffset.y : 0;
+        double rz = randomOffset != null ? randomOffset.z : 0;
+
         // Extract vertices (4 vertices per quad)
         for (int i = 0; i < 4; i++) {
             int base = i * 8;  // DefaultVertexFormat.BLOCK stride
@@ -79,13 +74,9 @@ public final class VertexExtractor {
             float vv = Float.intBitsToFloat(verts[base + 5]);
 
             // Transform to world coordinates with double precision
-            double worldX = pos.getX() + vx + offsetX + (randomOffset != null ? randomOffset.x : 0);
-            double worldY = pos.getY() + vy + offsetY + (randomOffset != null ? randomOffset.y : 0);
-            double worldZ = pos.getZ() + vz + offsetZ + (randomOffset != null ? randomOffset.z : 0);
-
-            positions[i * 3] = (float) worldX;
-            positions[i * 3 + 1] = (float) worldY;
-            positions[i * 3 + 2] = (float) worldZ;
+            positions[i * 3] = (float) (pos.getX() + vx + offsetX + rx);
+            positions[i * 3 + 1] = (float) (pos.getY() + vy + offsetY + ry);
+            positions[i * 3 + 2] = (float) (pos.getZ() + vz + offsetZ + rz);
 
             // Normalize UVs to [0, 1] range
             uv[i * 2] = (uu - u0) / du;
@@ -95,9 +86,7 @@ public final class VertexExtractor {
         }
 
         // Compute face normal
-        float[] normal = GeometryUtil.computeFaceNormal(positions);
-
-        return new VertexData(positions, uv, normal, colors);
+        GeometryUtil.computeFaceNormal(positions, out.normal);
     }
 
     /**
@@ -108,7 +97,13 @@ public final class VertexExtractor {
      * @return local positions (12 floats)
      */
     public static float[] extractLocalPositions(BakedQuad quad) {
-        float[] localPos = new float[12];
+        return extractLocalPositions(quad, new float[12]);
+    }
+
+    /**
+     * Extracts local vertex positions into {@code localPos} (12 floats) and returns it.
+     */
+    public static float[] extractLocalPositions(BakedQuad quad, float[] localPos) {
         int[] verts = quad.getVertices();
 
         for (int i = 0; i < 4; i++) {
@@ -225,7 +220,23 @@ public final class VertexExtractor {
         double offsetZ,
         Vec3 randomOffset
     ) {
-        float[] worldPos = new float[12];
+        return localToWorld(localPos, pos, offsetX, offsetY, offsetZ, randomOffset, new float[12]);
+    }
+
+    /**
+     * Converts local positions to world positions, writing into {@code worldPos} (12 floats).
+     *
+     * @return {@code worldPos}
+     */
+    public static float[] localToWorld(
+        float[] localPos,
+        BlockPos pos,
+        double offsetX,
+        double offsetY,
+        double offsetZ,
+        Vec3 randomOffset,
+        float[] worldPos
+    ) {
         for (int i = 0; i < 4; i++) {
             double worldX = pos.getX() + localPos[i * 3] + offsetX + (randomOffset != null ? randomOffset.x : 0);
             double worldY = pos.getY() + localPos[i * 3 + 1] + offsetY + (randomOffset != null ? randomOffset.y : 0);
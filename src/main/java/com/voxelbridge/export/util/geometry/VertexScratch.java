@@ -0,0 +1,18 @@
+package com.voxelbridge.export.util.geometry;
+
+/**
+ * Reusable per-worker buffers for {@link VertexExtractor}.
+ * Contents are only valid until the next extraction into the same scratch; callers that keep
+ * the data (templates, scene sinks) must copy it. Not thread-safe: each sampling worker owns one.
+ */
+public final class VertexScratch {
+
+    /** 12 floats: 4 vertices * (x, y, z) */
+    public final float[] positions = new float[12];
+    /** 8 floats: 4 vertices * (u, v), normalized to the sprite */
+    public final float[] uvs = new float[8];
+    /** 3 floats: (nx, ny, nz) */
+    public final float[] normal = new float[3];
+    /** 4 ints: ABGR per vertex */
+    public final int[] colors = new int[4];
+}
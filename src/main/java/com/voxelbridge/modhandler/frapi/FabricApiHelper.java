@@ -16,7 +16,7 @@ import net.minecraft.client.resources.model.BakedModel;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.util.RandomSource;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.ArrayList;
@@ -45,7 +45,7 @@ public final class FabricApiHelper {
      */
     public static List<BakedQuad> extractQuads(
         FabricBakedModel model,
-        Level level,
+        BlockAndTintGetter level,
         BlockState state,
         BlockPos pos,
         RandomSource rand,
@@ -0,0 +1,111 @@
+package com.voxelbridge.util.client;
+
+import com.voxelbridge.VoxelBridge;
+import com.voxelbridge.config.ExportRuntimeConfig;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time-sliced executor for export work that must run on the render thread.
+ * Worker threads submit jobs and receive a future; queued jobs are drained at the end
+ * of every frame until the per-frame budget ({@link ExportRuntimeConfig#getMainThreadFrameBudgetMs()})
+ * is spent, so large batches are spread over many frames instead of freezing the client.
+ */
+@EventBusSubscriber(modid = VoxelBridge.MODID, bus = EventBusSubscriber.Bus.GAME, value = Dist.CLIENT)
+public final class MainThreadWorkScheduler {
+
+    private record Job(Runnable work, CompletableFuture<Void> future) {}
+
+    private static final ConcurrentLinkedQueue<Job> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PENDING = new AtomicInteger();
+
+    private MainThreadWorkScheduler() {}
+
+    /**
+     * Queues work for the render thread. The returned future completes when the work has run,
+     * exceptionally if it threw; cancelling it before it runs drops the job.
+     */
+    public static CompletableFuture<Void> submit(Runnable work) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        QUEUE.add(new Job(work, future));
+        PENDING.incrementAndGet();
+        return future;
+    }
+
+    /**
+     * Number of jobs waiting to run.
+     */
+    public static int pending() {
+        return PENDING.get();
+    }
+
+    @SubscribeEvent
+    public static void onRenderFrame(RenderFrameEvent.Post event) {
+        if (PENDING.get() == 0) {
+            return;
+        }
+        drain(ExportRuntimeConfig.getMainThreadFrameBudgetMs() * 1_000_000L);
+    }
+
+    /**
+     * Runs queued jobs until the budget is spent. At least one job runs per call so progress
+     * is guaranteed even when a single job exceeds the budget. Must be called on the render thread.
+     *
+     * @return number of jobs executed
+     */
+    public static int drain(long budgetNanos) {
+        long start = System.nanoTime();
+        int executed = 0;
+        Job job;
+        while ((job = QUEUE.poll()) != null) {
+            PENDING.decrementAndGet();
+            if (runJob(job)) {
+                executed++;
+            }
+            // Elapsed-time comparison; start + budget can overflow for large nanoTime values
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * Runs every queued job regardless of budget. For callers already on the render thread
+     * that need the results immediately (waiting on a future there would deadlock).
+     */
+    public static int drainAll() {
+        int executed = 0;
+        Job job;
+        while ((job = QUEUE.poll()) != null) {
+            PENDING.decrementAndGet();
+            if (runJob(job)) {
+                executed++;
+            }
+        }
+        return executed;
+    }
+
+    private static boolean runJob(Job job) {
+        if (job.future().isDone()) {
+            // Cancelled before it got a slot
+            return false;
+        }
+        try {
+            job.work().run();
+            job.future().complete(null);
+        } catch (Throwable t) {
+            VoxelBridgeLogger.error(LogModule.EXPORT, "[MainThreadWorkScheduler][ERROR] " + t.getMessage());
+            job.future().completeExceptionally(t);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.voxelbridge.util.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.server.packs.repository.Pack;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.fml.ModList;
+import net.neoforged.neoforgespi.language.IModInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Describes the client resources that baked models and sprites are built from, for on-disk caches
+ * that must be invalidated when they change: selected resource packs (with file stamps for local
+ * packs, which can be edited in place under the same id) and loaded mods with their versions.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class ResourceFingerprint {
+
+    private ResourceFingerprint() {}
+
+    /**
+     * One {@code |}-separated entry per selected pack, then one per mod ({@code modid@version}).
+     */
+    public static String describe(Minecraft mc) {
+        StringBuilder sb = new StringBuilder();
+        for (Pack pack : mc.getResourcePackRepository().getSelectedPacks()) {
+            sb.append('|').append(pack.getId());
+            if (pack.getId().startsWith("file/")) {
+                sb.append('@').append(packStamp(mc.getResourcePackDirectory().resolve(pack.getId().substring(5))));
+            }
+        }
+        for (IModInfo mod : ModList.get().getMods()) {
+            sb.append('|').append(mod.getModId()).append('@').append(mod.getVersion());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Size and timestamp of a zip pack; latest timestamp and file count of a folder pack, whose
+     * own timestamp does not change when a texture inside it is edited.
+     */
+    private static String packStamp(Path path) {
+        try {
+            if (Files.isDirectory(path)) {
+                long latest = 0;
+                long count = 0;
+                try (Stream<Path> walk = Files.walk(path)) {
+                    for (Path file : (Iterable<Path>) walk::iterator) {
+                        latest = Math.max(latest, Files.getLastModifiedTime(file).toMillis());
+                        count++;
+                    }
+                }
+                return latest + ":" + count;
+            }
+            return Files.getLastModifiedTime(path).toMillis() + ":" + Files.size(path);
+        } catch (IOException e) {
+            return "?";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.voxelbridge.export.exporter.entity;
+
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snapshot construction and the chunk key the deferred entity pass groups by.
+ */
+class EntitySnapshotTest {
+
+    @Test
+    void keepsSampledTransform() {
+        EntitySnapshot snapshot = new EntitySnapshot(42, "minecraft:item_frame", 10.5, 64.0, -3.25, 90f, 0, -1);
+        assertEquals(42, snapshot.entityId());
+        assertEquals("minecraft:item_frame", snapshot.typeId());
+        assertEquals(10.5, snapshot.x());
+        assertEquals(64.0, snapshot.y());
+        assertEquals(-3.25, snapshot.z());
+        assertEquals(90f, snapshot.yaw());
+        assertEquals(0, snapshot.chunkX());
+        assertEquals(-1, snapshot.chunkZ());
+        assertEquals(snapshot, new EntitySnapshot(42, "minecraft:item_frame", 10.5, 64.0, -3.25, 90f, 0, -1));
+    }
+
+    @Test
+    void chunkKeyMatchesChunkPos() {
+        int[] coords = {0, 1, -1, 15, -16, 1875000, -1875000, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int x : coords) {
+            for (int z : coords) {
+                EntitySnapshot snapshot = new EntitySnapshot(1, "minecraft:painting", 0, 0, 0, 0f, x, z);
+                assertEquals(ChunkPos.asLong(x, z), snapshot.chunkKey(), "chunk " + x + ", " + z);
+            }
+        }
+    }
+
+    @Test
+    void attributionFollowsOwningChunkNotPosition() {
+        // An entity straddling a border is attributed to the chunk that sampled it
+        EntitySnapshot snapshot = new EntitySnapshot(7, "minecraft:armor_stand", 16.2, 70, 31.9, 0f, 0, 1);
+        assertEquals(ChunkPos.asLong(0, 1), snapshot.chunkKey());
+    }
+
+    @Test
+    void sortingByChunkKeyGroupsChunks() {
+        List<EntitySnapshot> snapshots = new ArrayList<>();
+        int id = 0;
+        for (int round = 0; round < 3; round++) {
+            for (int cx = -2; cx <= 2; cx++) {
+                for (int cz = -2; cz <= 2; cz++) {
+                    snapshots.add(new EntitySnapshot(id++, "minecraft:item_frame", cx * 16, 64, cz * 16, 0f, cx, cz));
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(EntitySnapshot::chunkKey));
+
+        Set<Long> finished = new HashSet<>();
+        long current = snapshots.get(0).chunkKey();
+        for (EntitySnapshot snapshot : snapshots) {
+            if (snapshot.chunkKey() != current) {
+                assertTrue(finished.add(current), "chunk visited twice");
+                current = snapshot.chunkKey();
+            }
+            assertFalse(finished.contains(snapshot.chunkKey()), "chunk split across groups");
+        }
+        assertEquals(24, finished.size());
+    }
+}
@@ -0,0 +1,364 @@
+package com.voxelbridge.export.scene;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The primitive deduplicator against a reference that follows the previous implementation
+ * (boxed CCW sort, {@code VertexKey} map over quantized attributes, sorted vertex-id set for
+ * transparent quads): same quads emitted, same attributes, same welded vertex count.
+ */
+class ChunkDeduplicatorTest {
+
+    private static final String OPAQUE = "minecraft:stone";
+    private static final String TRANSPARENT = "minecraft:glass";
+
+    @Test
+    void weldsAndDropsLikeVertexKeyPath() {
+        Random random = new Random(41);
+        List<Quad> quads = randomQuads(random, 4000);
+
+        BufferedSceneSink sink = new BufferedSceneSink();
+        for (Quad q : quads) {
+            q.addTo(sink);
+        }
+        Collector actual = new Collector();
+        sink.flushTo(actual);
+
+        Reference reference = new Reference();
+        for (Quad q : quads) {
+            reference.add(q);
+        }
+        assertSameQuads(reference.emitted(), actual.quads);
+        assertTrue(reference.dropped > 0, "test data has no duplicate transparent quads");
+    }
+
+    @Test
+    void vertexCountMatchesDistinctKeys() {
+        Random random = new Random(410);
+        ChunkDeduplicator deduper = new ChunkDeduplicator(TRANSPARENT);
+        Reference reference = new Reference();
+        for (Quad q : randomQuads(random, 2000)) {
+            Quad glass = q.withMaterial(TRANSPARENT);
+            deduper.addQuad(glass.sprite.hashCode() & 1, -1, glass.positions.clone(), glass.uv0.clone(),
+                glass.uv1.clone(), glass.normal, glass.colors.clone(), glass.doubleSided);
+            reference.add(glass.withSprite(glass.sprite.hashCode() & 1));
+        }
+        assertEquals(reference.vertexCount(TRANSPARENT), deduper.getVertexCount());
+        assertEquals(reference.quadCount(TRANSPARENT), deduper.getQuadCount());
+    }
+
+    @Test
+    void duplicateTransparentQuadsAreExactBeyondSixteenBitIds() {
+        // 20k distinct quads need 80k vertex ids, past where the old key fell back to a hash
+        int count = 20_000;
+        ChunkDeduplicator deduper = new ChunkDeduplicator(TRANSPARENT);
+        float[][] positions = new float[count][];
+        for (int i = 0; i < count; i++) {
+            float x = i % 200;
+            float z = i / 200;
+            positions[i] = new float[]{x, 0, z, x + 0.5f, 0, z, x + 0.5f, 0, z + 0.5f, x, 0, z + 0.5f};
+            add(deduper, positions[i]);
+        }
+        assertEquals(count, deduper.getQuadCount());
+        assertEquals(count * 4, deduper.getVertexCount());
+
+        // Same quads again with their corners rotated: all dropped
+        for (int i = 0; i < count; i++) {
+            add(deduper, rotate(positions[i], 3, 1 + i % 3));
+        }
+        assertEquals(count, deduper.getQuadCount());
+
+        // A quad sharing three corners with an existing one is distinct
+        float[] p = positions[count - 1];
+        add(deduper, new float[]{p[0], 0, p[2], p[3], 0, p[5], p[6], 0, p[8], p[9] - 0.25f, 0, p[11]});
+        assertEquals(count + 1, deduper.getQuadCount());
+    }
+
+    @Test
+    void resetDedupersGiveTheSameOutput() {
+        Random random = new Random(4100);
+        List<Quad> quads = randomQuads(random, 3000);
+        ChunkDeduplicatorPool pool = new ChunkDeduplicatorPool();
+
+        Collector first = new Collector();
+        BufferedSceneSink sink = new BufferedSceneSink(pool);
+        for (Quad q : quads) {
+            q.addTo(sink);
+        }
+        sink.flushTo(first);
+
+        // The next section gets the same deduplicators back, reset
+        Collector second = new Collector();
+        BufferedSceneSink next = new BufferedSceneSink(pool);
+        for (Quad q : quads) {
+            q.addTo(next);
+        }
+        next.flushTo(second);
+
+        assertSameQuads(first.quads, second.quads);
+        ChunkDeduplicator reused = pool.acquire(TRANSPARENT);
+        assertEquals(0, reused.getQuadCount());
+        assertEquals(0, reused.getVertexCount());
+    }
+
+    private static void add(ChunkDeduplicator deduper, float[] positions) {
+        deduper.addQuad(0, -1, positions, new float[8], null, null, new float[]{
+            1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, false);
+    }
+
+    private static float[] rotate(float[] values, int stride, int by) {
+        float[] out = new float[stride * 4];
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(values, ((i + by) % 4) * stride, out, i * stride, stride);
+        }
+        return out;
+    }
+
+    // ==================== Test data ====================
+
+    private record Quad(String material, String sprite, String overlay, float[] positions, float[] uv0,
+                        float[] uv1, float[] normal, float[] colors, boolean doubleSided) {
+
+        void addTo(SceneSink sink) {
+            // Copies, so the sink cannot depend on the caller keeping its arrays
+            sink.addQuad(material, sprite, overlay, positions.clone(), uv0.clone(), uv1.clone(),
+                normal != null ? normal.clone() : null, colors.clone(), doubleSided);
+        }
+
+        Quad withMaterial(String m) {
+            return new Quad(m, sprite, overlay, positions, uv0, uv1, normal, colors, doubleSided);
+        }
+
+        Quad withSprite(int id) {
+            return new Quad(material, "sprite" + id, null, positions, uv0, uv1, normal, colors, doubleSided);
+        }
+    }
+
+    /**
+     * Axis-aligned unit quads on a small lattice so corners are shared, with repeated, rotated,
+     * slightly perturbed (inside the quantization step) and degenerate quads mixed in.
+     */
+    private static List<Quad> randomQuads(Random random, int count) {
+        List<Quad> quads = new ArrayList<>(count);
+        String[] sprites = {"minecraft:block/glass", "minecraft:block/stone", "minecraft:block/oak_leaves"};
+        float[][] tints = {{1, 1, 1, 1}, {0.5f, 0.8f, 0.3f, 1}};
+        for (int n = 0; n < count; n++) {
+            int roll = random.nextInt(100);
+            if (roll < 15 && !quads.isEmpty()) {
+                Quad old = quads.get(random.nextInt(quads.size()));
+                int by = random.nextInt(4);
+                quads.add(new Quad(old.material, old.sprite, old.overlay, rotate(old.positions, 3, by),
+                    rotate(old.uv0, 2, by), rotate(old.uv1, 2, by), old.normal, rotate(old.colors, 4, by),
+                    old.doubleSided));
+                continue;
+            }
+            if (roll < 25 && !quads.isEmpty()) {
+                quads.add(quads.get(random.nextInt(quads.size())));
+                continue;
+            }
+            int axis = random.nextInt(3);
+            int a = random.nextInt(6);
+            int b = random.nextInt(6);
+            int c = random.nextInt(3);
+            float[] positions = new float[12];
+            int[][] corners = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+            for (int i = 0; i < 4; i++) {
+                float u = a + corners[i][0];
+                float v = b + corners[i][1];
+                float[] p = axis == 0 ? new float[]{c, u, v} : axis == 1 ? new float[]{u, c, v} : new float[]{u, v, c};
+                if (roll < 30) {
+                    p[0] += 0.00001f; // within the 1e-4 position step
+                }
+                System.arraycopy(p, 0, positions, i * 3, 3);
+            }
+            if (roll < 32) {
+                System.arraycopy(positions, 0, positions, 3, 3); // degenerate edge
+            }
+            float[] uv0 = {0, 0, 1, 0, 1, 1, 0, 1};
+            float[] uv1 = roll < 50 ? new float[8] : new float[]{0.25f, 0, 0.5f, 0, 0.5f, 0.25f, 0.25f, 0.25f};
+            float[] tint = tints[random.nextInt(tints.length)];
+            float[] colors = new float[16];
+            for (int i = 0; i < 4; i++) {
+                System.arraycopy(tint, 0, colors, i * 4, 4);
+            }
+            float[] normal = random.nextBoolean() ? new float[]{axis == 0 ? 1 : 0, axis == 1 ? 1 : 0, axis == 2 ? 1 : 0} : null;
+            quads.add(new Quad(random.nextBoolean() ? OPAQUE : TRANSPARENT, sprites[random.nextInt(sprites.length)],
+                random.nextInt(4) == 0 ? "minecraft:block/overlay" : null,
+                positions, uv0, uv1, normal, colors, random.nextBoolean()));
+        }
+        return quads;
+    }
+
+    // ==================== Reference (previous implementation) ====================
+
+    private record VertexKey(String sprite, String overlay, int px, int py, int pz, int u, int v, int u1, int v1,
+                             int r, int g, int b, int a) {}
+
+    private static final class Reference {
+        private final Map<String, Material> materials = new LinkedHashMap<>();
+        int dropped;
+
+        private static final class Material {
+            final Map<VertexKey, Integer> lookup = new HashMap<>();
+            final List<float[]> vertices = new ArrayList<>();
+            final Set<List<Integer>> quadKeys = new HashSet<>();
+            final List<Emitted> quads = new ArrayList<>();
+        }
+
+        void add(Quad q) {
+            Material m = materials.computeIfAbsent(q.material, k -> new Material());
+            int[] order = legacySortQuadCCW(q.positions);
+            int[] verts = new int[4];
+            VertexKey[] keys = new VertexKey[4];
+            float[][] data = new float[4][];
+            for (int i = 0; i < 4; i++) {
+                int oi = order[i];
+                float[] p = q.positions, uv = q.uv0, uv1 = q.uv1, col = q.colors;
+                data[i] = new float[]{p[oi * 3], p[oi * 3 + 1], p[oi * 3 + 2], uv[oi * 2], uv[oi * 2 + 1],
+                    uv1[oi * 2], uv1[oi * 2 + 1], col[oi * 4], col[oi * 4 + 1], col[oi * 4 + 2], col[oi * 4 + 3]};
+                float[] d = data[i];
+                keys[i] = new VertexKey(q.sprite, q.overlay, qp(d[0]), qp(d[1]), qp(d[2]), quv(d[3]), quv(d[4]),
+                    quv(d[5]), quv(d[6]), qc(d[7]), qc(d[8]), qc(d[9]), qc(d[10]));
+                verts[i] = m.lookup.getOrDefault(keys[i], -1);
+            }
+            if (verts[0] != -1 && verts[0] == verts[1]) {
+                return;
+            }
+            for (int i = 0; i < 4; i++) {
+                if (verts[i] == -1) {
+                    verts[i] = m.vertices.size();
+                    m.lookup.put(keys[i], verts[i]);
+                    m.vertices.add(data[i]);
+                }
+            }
+            if (q.material.contains("glass")) {
+                int[] sorted = verts.clone();
+                Arrays.sort(sorted);
+                if (!m.quadKeys.add(List.of(sorted[0], sorted[1], sorted[2], sorted[3]))) {
+                    dropped++;
+                    return;
+                }
+            }
+            float[] positions = new float[12], uv0 = new float[8], uv1 = new float[8], colors = new float[16];
+            for (int i = 0; i < 4; i++) {
+                float[] d = m.vertices.get(verts[i]);
+                System.arraycopy(d, 0, positions, i * 3, 3);
+                System.arraycopy(d, 3, uv0, i * 2, 2);
+                System.arraycopy(d, 5, uv1, i * 2, 2);
+                System.arraycopy(d, 7, colors, i * 4, 4);
+            }
+            m.quads.add(new Emitted(q.material, q.sprite, q.overlay, positions, uv0, uv1, q.normal, colors, q.doubleSided));
+        }
+
+        List<Emitted> emitted() {
+            List<Emitted> all = new ArrayList<>();
+            for (Material m : materials.values()) {
+                all.addAll(m.quads);
+            }
+            return all;
+        }
+
+        int vertexCount(String material) {
+            return materials.get(material).vertices.size();
+        }
+
+        int quadCount(String material) {
+            return materials.get(material).quads.size();
+        }
+
+        private static int qp(float v) { return Math.round(v * 10000f); }
+        private static int quv(float v) { return Math.round(v * 100000f); }
+        private static int qc(float v) { return Math.round(v * 100f); }
+
+        private static int[] legacySortQuadCCW(float[] pos) {
+            Integer[] idx = {0, 1, 2, 3};
+            float ax = pos[3] - pos[0], ay = pos[4] - pos[1], az = pos[5] - pos[2];
+            float bx = pos[6] - pos[0], by = pos[7] - pos[1], bz = pos[8] - pos[2];
+            float nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
+            float anx = Math.abs(nx), any = Math.abs(ny), anz = Math.abs(nz);
+            int drop = (anx >= any && anx >= anz) ? 0 : (any >= anz ? 1 : 2);
+            float cx = 0, cy = 0, cz = 0;
+            for (int i = 0; i < 4; i++) {
+                cx += pos[i * 3];
+                cy += pos[i * 3 + 1];
+                cz += pos[i * 3 + 2];
+            }
+            final float fcx = cx * 0.25f, fcy = cy * 0.25f, fcz = cz * 0.25f;
+            Arrays.sort(idx, (i1, i2) -> {
+                float x1 = pos[i1 * 3] - fcx, y1 = pos[i1 * 3 + 1] - fcy, z1 = pos[i1 * 3 + 2] - fcz;
+                float x2 = pos[i2 * 3] - fcx, y2 = pos[i2 * 3 + 1] - fcy, z2 = pos[i2 * 3 + 2] - fcz;
+                double a1 = drop == 0 ? Math.atan2(z1, y1) : drop == 1 ? Math.atan2(z1, x1) : Math.atan2(y1, x1);
+                double a2 = drop == 0 ? Math.atan2(z2, y2) : drop == 1 ? Math.atan2(z2, x2) : Math.atan2(y2, x2);
+                return Double.compare(a1, a2);
+            });
+            float svx1 = pos[idx[1] * 3] - pos[idx[0] * 3];
+            float svy1 = pos[idx[1] * 3 + 1] - pos[idx[0] * 3 + 1];
+            float svz1 = pos[idx[1] * 3 + 2] - pos[idx[0] * 3 + 2];
+            float svx2 = pos[idx[2] * 3] - pos[idx[0] * 3];
+            float svy2 = pos[idx[2] * 3 + 1] - pos[idx[0] * 3 + 1];
+            float svz2 = pos[idx[2] * 3 + 2] - pos[idx[0] * 3 + 2];
+            float snx = svy1 * svz2 - svz1 * svy2, sny = svz1 * svx2 - svx1 * svz2, snz = svx1 * svy2 - svy1 * svx2;
+            if (nx * snx + ny * sny + nz * snz < 0) {
+                int tmp = idx[1];
+                idx[1] = idx[3];
+                idx[3] = tmp;
+            }
+            return new int[]{idx[0], idx[1], idx[2], idx[3]};
+        }
+    }
+
+    // ==================== Output capture ====================
+
+    private record Emitted(String material, String sprite, String overlay, float[] positions, float[] uv0,
+                           float[] uv1, float[] normal, float[] colors, boolean doubleSided) {}
+
+    private static final class Collector implements SceneSink {
+        final List<Emitted> quads = new ArrayList<>();
+
+        @Override
+        public void addQuad(String materialGroupKey, String spriteKey, String overlaySpriteKey, float[] positions,
+                            float[] uv0, float[] uv1, float[] normal, float[] colors, boolean doubleSided) {
+            quads.add(new Emitted(materialGroupKey, spriteKey, overlaySpriteKey, positions, uv0, uv1, normal, colors, doubleSided));
+        }
+
+        @Override
+        public Path write(SceneWriteRequest request) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static void assertSameQuads(List<Emitted> expected, List<Emitted> actual) {
+        assertEquals(expected.size(), actual.size(), "quad count");
+        for (int i = 0; i < expected.size(); i++) {
+            Emitted e = expected.get(i);
+            Emitted a = actual.get(i);
+            String at = "quad " + i;
+            assertEquals(e.material, a.material, at);
+            assertEquals(e.sprite, a.sprite, at);
+            assertEquals(e.overlay, a.overlay, at);
+            assertTrue(Arrays.equals(e.positions, a.positions), at + " positions");
+            assertTrue(Arrays.equals(e.uv0, a.uv0), at + " uv0");
+            assertTrue(Arrays.equals(e.uv1, a.uv1), at + " uv1");
+            assertTrue(Arrays.equals(e.colors, a.colors), at + " colors");
+            assertTrue(Objects.equals(e.normal == null ? null : List.of(e.normal[0], e.normal[1], e.normal[2]),
+                a.normal == null ? null : List.of(a.normal[0], a.normal[1], a.normal[2])), at + " normal");
+            assertEquals(e.doubleSided, a.doubleSided, at);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.voxelbridge.export.texture;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link AnimationFrameCompactor} on expanded timelines with repeated frames. Repeats are separate
+ * images with equal pixels, as the frame splitter produces them.
+ */
+class AnimationFrameCompactorTest {
+
+    private static final int A = 0xFF2040C0;
+    private static final int B = 0xFF40C020;
+    private static final int C = 0xFFC02040;
+
+    @Test
+    void repeatedFramesCollapseAndConsecutiveStepsMerge() {
+        // A A B A C C B with per-step times 2 3 1 4 5 1 2
+        int[] pixels = {A, A, B, A, C, C, B};
+        int[] times = {2, 3, 1, 4, 5, 1, 2};
+        List<AnimationMetadata.FrameTiming> timings = new ArrayList<>();
+        for (int i = 0; i < times.length; i++) {
+            timings.add(new AnimationMetadata.FrameTiming(i, times[i]));
+        }
+        AnimatedFrameSet frames = new AnimatedFrameSet(frames(16, 16, pixels),
+            new AnimationMetadata(1, timings, false, 16, 16));
+
+        AnimationFrameCompactor.Compact compact = AnimationFrameCompactor.compact(frames, null, null, 1);
+
+        assertEquals(3, compact.uniqueCount());
+        assertArrayEquals(new int[]{0, 2, 4}, compact.uniqueSteps());
+        assertEquals(List.of(timing(0, 5), timing(1, 1), timing(0, 4), timing(2, 6), timing(1, 2)), compact.timeline());
+        assertEquals(18, totalTime(compact));
+    }
+
+    @Test
+    void companionChannelsKeepEqualAlbedoStepsApart() {
+        // Same albedo every step; the normal map alternates and, having fewer frames, wraps
+        AnimatedFrameSet frames = new AnimatedFrameSet(frames(16, 16, A, A, A, A, A), 2);
+        AnimatedFrameSet normals = new AnimatedFrameSet(frames(16, 16, 0xFF8080FF, 0xFF80FF80), 2);
+
+        AnimationFrameCompactor.Compact compact = AnimationFrameCompactor.compact(frames, normals, null, 1);
+
+        assertArrayEquals(new int[]{0, 1}, compact.uniqueSteps());
+        assertEquals(List.of(timing(0, 2), timing(1, 2), timing(0, 2), timing(1, 2), timing(0, 2)), compact.timeline());
+
+        // Without the companion every step is the same frame
+        AnimationFrameCompactor.Compact albedoOnly = AnimationFrameCompactor.compact(frames, null, null, 1);
+        assertArrayEquals(new int[]{0}, albedoOnly.uniqueSteps());
+        assertEquals(List.of(timing(0, 10)), albedoOnly.timeline());
+    }
+
+    @Test
+    void decimationFoldsDroppedStepTimesIntoKeptSteps() {
+        AnimatedFrameSet frames = new AnimatedFrameSet(frames(8, 8, A, B, A, B, C, C, B), 3);
+
+        AnimationFrameCompactor.Compact compact = AnimationFrameCompactor.compact(frames, null, null, 2);
+
+        // Kept steps 0, 2, 4, 6 are A, A, C, B; the last one has no partner to absorb
+        assertArrayEquals(new int[]{0, 4, 6}, compact.uniqueSteps());
+        assertEquals(List.of(timing(0, 12), timing(1, 6), timing(2, 3)), compact.timeline());
+        assertEquals(21, totalTime(compact));
+    }
+
+    @Test
+    void flipbookIsANearSquareRowMajorGrid() {
+        int[] colors = {A, B, C, 0xFF101010, 0xFFF0F0F0};
+        List<BufferedImage> frames = frames(16, 8, colors);
+
+        BufferedImage sheet = AnimationFrameCompactor.flipbook(frames, 16, 8);
+
+        // 5 frames: 3 columns, 2 rows
+        assertEquals(48, sheet.getWidth());
+        assertEquals(16, sheet.getHeight());
+        for (int i = 0; i < colors.length; i++) {
+            int x0 = (i % 3) * 16;
+            int y0 = (i / 3) * 8;
+            assertEquals(colors[i], sheet.getRGB(x0, y0), "frame " + i + " origin");
+            assertEquals(colors[i], sheet.getRGB(x0 + 15, y0 + 7), "frame " + i + " corner");
+        }
+        assertEquals(0, sheet.getRGB(47, 15), "unused cell");
+
+        assertEquals(16, AnimationFrameCompactor.flipbook(frames(16, 8, A), 16, 8).getWidth());
+        BufferedImage four = AnimationFrameCompactor.flipbook(frames(16, 8, A, B, C, A), 16, 8);
+        assertEquals(32, four.getWidth());
+        assertEquals(16, four.getHeight());
+    }
+
+    private static AnimationMetadata.FrameTiming timing(int index, int time) {
+        return new AnimationMetadata.FrameTiming(index, time);
+    }
+
+    private static int totalTime(AnimationFrameCompactor.Compact compact) {
+        int total = 0;
+        for (AnimationMetadata.FrameTiming t : compact.timeline()) {
+            total += t.time();
+        }
+        return total;
+    }
+
+    /**
+     * One new solid image per entry, so equal entries are equal pixels but never the same object.
+     */
+    private static List<BufferedImage> frames(int w, int h, int... argb) {
+        List<BufferedImage> frames = new ArrayList<>(argb.length);
+        for (int color : argb) {
+            BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    image.setRGB(x, y, color);
+                }
+            }
+            frames.add(image);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,174 @@
+package com.voxelbridge.export.texture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mip sidecars written by {@link AtlasMipChain#writePage}, read back from disk: tile footprints
+ * never mix, cutout tiles keep their coverage, and data pages average channels on their own.
+ */
+class AtlasMipChainTest {
+
+    private static Path dir;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        dir = Files.createTempDirectory("voxelbridge-mips");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void footprintsStayDisjoint() throws IOException {
+        // Odd sizes packed edge to edge with no gutter, so borders round differently per level
+        int atlasSize = 64;
+        int[][] rects = {
+            {0, 0, 7, 9}, {7, 0, 9, 9}, {16, 0, 5, 13}, {21, 0, 11, 3}, {32, 0, 32, 32},
+            {0, 9, 16, 16}, {21, 3, 3, 29}, {24, 3, 8, 29}, {0, 25, 21, 7}, {0, 32, 64, 31}
+        };
+        List<AtlasPageRasterizer.Tile> tiles = new ArrayList<>();
+        int[] colors = new int[rects.length];
+        for (int i = 0; i < rects.length; i++) {
+            int[] r = rects[i];
+            colors[i] = 0xFF000000 | (i * 0x251F) << 4 | i * 17;
+            tiles.add(tile(r[0], r[1], solid(r[2], r[3], colors[i])));
+        }
+        int levels = AtlasMipChain.effectiveLevels(6, atlasSize);
+        AtlasMipChain.writePage(dir, "disjoint", atlasSize, tiles, levels, AtlasMipChain.Filter.COLOR, 0);
+
+        for (int level = 1; level <= levels; level++) {
+            BufferedImage mip = read("disjoint", level);
+            int size = atlasSize >> level;
+            assertEquals(size, mip.getWidth());
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int owner = -1;
+                    for (int i = 0; i < rects.length; i++) {
+                        if (inFootprint(rects[i], level, x, y)) {
+                            assertEquals(-1, owner, "texel " + x + "," + y + " in two footprints at level " + level);
+                            owner = i;
+                        }
+                    }
+                    int expected = owner >= 0 ? colors[owner] : 0;
+                    assertEquals(expected, mip.getRGB(x, y),
+                        "texel " + x + "," + y + " at level " + level + " mixes tiles");
+                }
+            }
+        }
+    }
+
+    @Test
+    void cutoutTilesKeepCoverage() throws IOException {
+        // Same sparse pattern twice: a true cutout, and a copy with alpha 254 that is not a cutout
+        int n = 64;
+        Random random = new Random(48);
+        BufferedImage cutout = new BufferedImage(n, n, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage translucent = new BufferedImage(n, n, BufferedImage.TYPE_INT_ARGB);
+        int covered = 0;
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                if (random.nextInt(100) < 30) {
+                    cutout.setRGB(x, y, 0xFF3A7D22);
+                    translucent.setRGB(x, y, 0xFE3A7D22);
+                    covered++;
+                }
+            }
+        }
+        double target = covered / (double) (n * n);
+        AtlasMipChain.writePage(dir, "cutout", 2 * n, List.of(tile(0, 0, cutout), tile(n, 0, translucent)),
+            5, AtlasMipChain.Filter.COLOR, 0);
+
+        for (int level = 1; level <= 5; level++) {
+            BufferedImage mip = read("cutout", level);
+            int size = n >> level;
+            double kept = coverage(mip, 0, size);
+            double plain = coverage(mip, size, size);
+            // Nearest share a level this small can hold; ties at the threshold may add a little
+            double nearest = Math.round(target * size * size) / (double) (size * size);
+            assertTrue(kept >= nearest && kept <= nearest + 0.1,
+                String.format("level %d: cutout coverage %.3f, level 0 %.3f", level, kept, target));
+            if (level >= 3) {
+                // Without the rescale the box filter thins the pattern out
+                assertTrue(plain < target / 2,
+                    String.format("level %d: plain coverage %.3f, level 0 %.3f", level, plain, target));
+            }
+        }
+    }
+
+    @Test
+    void dataPagesAverageChannelsAndKeepDefaultColor() throws IOException {
+        // Checkerboard of transparent red and opaque blue; alpha weighting would give pure blue
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                image.setRGB(x, y, ((x + y) & 1) == 0 ? 0x00FF0000 : 0xFF0000FF);
+            }
+        }
+        int background = 0xFF8080FF;
+        AtlasMipChain.writePage(dir, "data", 16, List.of(tile(0, 0, image)), 2, AtlasMipChain.Filter.DATA, background);
+
+        BufferedImage mip = read("data", 1);
+        assertEquals(0x80800080, mip.getRGB(0, 0));
+        assertEquals(0x80800080, mip.getRGB(3, 3));
+        assertEquals(background, mip.getRGB(4, 0));
+        assertEquals(background, mip.getRGB(7, 7));
+        assertEquals(background, read("data", 2).getRGB(3, 3));
+    }
+
+    private static boolean inFootprint(int[] rect, int level, int x, int y) {
+        return x >= rect[0] >> level && x < (rect[0] + rect[2]) >> level
+            && y >= rect[1] >> level && y < (rect[1] + rect[3]) >> level;
+    }
+
+    private static double coverage(BufferedImage image, int x0, int size) {
+        int covered = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = x0; x < x0 + size; x++) {
+                if ((image.getRGB(x, y) >>> 24) >= 128) {
+                    covered++;
+                }
+            }
+        }
+        return covered / (double) (size * size);
+    }
+
+    private static BufferedImage read(String page, int level) throws IOException {
+        return ImageIO.read(dir.resolve(page + "_mip" + level + ".png").toFile());
+    }
+
+    private static AtlasPageRasterizer.Tile tile(int x, int y, BufferedImage image) {
+        return new AtlasPageRasterizer.Tile(x, y, image.getWidth(), image.getHeight(), () -> image);
+    }
+
+    private static BufferedImage solid(int w, int h, int argb) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,157 @@
+package com.voxelbridge.export.texture;
+
+import com.voxelbridge.config.ExportRuntimeConfig.AtlasPacker;
+import com.voxelbridge.util.debug.LogModule;
+import com.voxelbridge.util.debug.VoxelBridgeLogger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Skyline vs MaxRects on synthetic tile sets shaped like a large modpack: mostly 16px tiles
+ * (tinted variants), fewer 32-128px tiles and some tall animation strips. Logs page count,
+ * occupancy and packing time per algorithm to {@code build/benchmark/performance.log}, and checks
+ * that every layout is complete and free of overlaps. Tagged {@code benchmark}: skipped by
+ * {@code gradle test}, run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class AtlasPackerBenchmarkTest {
+
+    private record TileSet(String name, int tiles, int atlasSize, long seed) {}
+
+    private static final List<TileSet> SETS = List.of(
+        new TileSet("5k tiles / 2048", 5_000, 2048, 1),
+        new TileSet("20k tiles / 4096", 20_000, 4096, 2),
+        new TileSet("40k tiles / 8192", 40_000, 8192, 3),
+        new TileSet("100k tiles / 2048", 100_000, 2048, 4)
+    );
+
+    // Only dimensions are read while packing, so tiles of one size share an image
+    private final Map<Long, BufferedImage> images = new HashMap<>();
+
+    @BeforeAll
+    static void openLog() throws IOException {
+        VoxelBridgeLogger.initialize(Path.of("build", "benchmark"));
+    }
+
+    @AfterAll
+    static void closeLog() {
+        VoxelBridgeLogger.close();
+    }
+
+    @Test
+    void compareSkylineAndMaxRects() throws IOException {
+        for (TileSet set : SETS) {
+            List<int[]> sizes = tileSizes(set);
+            // Warm up both packers once so the timed runs are compiled
+            layout(AtlasPacker.MAXRECTS, set, sizes);
+            layout(AtlasPacker.SKYLINE, set, sizes);
+
+            TextureAtlasPacker.Layout maxRects = layout(AtlasPacker.MAXRECTS, set, sizes);
+            TextureAtlasPacker.Layout skyline = layout(AtlasPacker.SKYLINE, set, sizes);
+            report(set, "maxrects", maxRects);
+            report(set, "skyline", skyline);
+
+            for (TextureAtlasPacker.Layout layout : List.of(maxRects, skyline)) {
+                assertEquals(sizes.size(), layout.placements().size(), set.name() + ": placed tiles");
+                assertNoOverlaps(layout, set.atlasSize());
+            }
+        }
+    }
+
+    private TextureAtlasPacker.Layout layout(AtlasPacker algorithm, TileSet set, List<int[]> sizes) throws IOException {
+        TextureAtlasPacker packer = new TextureAtlasPacker(set.atlasSize(), false, algorithm);
+        for (int i = 0; i < sizes.size(); i++) {
+            int[] size = sizes.get(i);
+            packer.addTexture("tile_" + i, image(size[0], size[1]));
+        }
+        return packer.layout();
+    }
+
+    private static void report(TileSet set, String algorithm, TextureAtlasPacker.Layout layout) {
+        VoxelBridgeLogger.info(LogModule.PERFORMANCE, String.format(
+            "[AtlasPackerBenchmark] %-18s %-8s pages=%d occupancy=%.2f%% used-extent occupancy=%.2f%% time=%.1fms",
+            set.name(), algorithm, layout.pages(), layout.occupancy(), extentOccupancy(layout, set.atlasSize()),
+            layout.packNanos() / 1_000_000.0));
+    }
+
+    /**
+     * Occupancy counting the last page only up to its lowest used row, so two layouts with the
+     * same page count still differ by how much space they leave.
+     */
+    private static double extentOccupancy(TextureAtlasPacker.Layout layout, int atlasSize) {
+        int lastPage = layout.pages() - 1;
+        long used = 0;
+        int lastBottom = 0;
+        for (TextureAtlasPacker.Placement p : layout.placements().values()) {
+            used += (long) p.width() * p.height();
+            if (p.page() == lastPage) {
+                lastBottom = Math.max(lastBottom, p.y() + p.height());
+            }
+        }
+        long area = (long) lastPage * atlasSize * atlasSize + (long) atlasSize * lastBottom;
+        return area == 0 ? 0 : used * 100.0 / area;
+    }
+
+    private static List<int[]> tileSizes(TileSet set) {
+        Random random = new Random(set.seed());
+        List<int[]> sizes = new ArrayList<>(set.tiles());
+        for (int i = 0; i < set.tiles(); i++) {
+            int roll = random.nextInt(100);
+            int side;
+            if (roll < 70) side = 16;
+            else if (roll < 85) side = 32;
+            else if (roll < 95) side = 64;
+            else side = 128;
+            // Padded tiles are a few texels larger than the sprite
+            int padding = 2 * random.nextInt(3);
+            int w = side + padding;
+            int h = side + padding;
+            if (random.nextInt(100) < 3) {
+                h = side * (2 + random.nextInt(7)) + padding; // animation strip
+            }
+            sizes.add(new int[]{w, h});
+        }
+        return sizes;
+    }
+
+    private BufferedImage image(int w, int h) {
+        return images.computeIfAbsent(((long) w << 32) | h, k -> new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY));
+    }
+
+    private static void assertNoOverlaps(TextureAtlasPacker.Layout layout, int atlasSize) {
+        Map<Integer, List<TextureAtlasPacker.Placement>> byPage = new HashMap<>();
+        for (TextureAtlasPacker.Placement p : layout.placements().values()) {
+            assertTrue(p.x() >= 0 && p.y() >= 0 && p.x() + p.width() <= atlasSize && p.y() + p.height() <= atlasSize,
+                "placement outside page");
+            byPage.computeIfAbsent(p.page(), k -> new ArrayList<>()).add(p);
+        }
+        for (List<TextureAtlasPacker.Placement> page : byPage.values()) {
+            // Sweep along x: only placements whose x ranges intersect need a y check
+            page.sort((a, b) -> Integer.compare(a.x(), b.x()));
+            for (int i = 0; i < page.size(); i++) {
+                TextureAtlasPacker.Placement a = page.get(i);
+                for (int j = i + 1; j < page.size() && page.get(j).x() < a.x() + a.width(); j++) {
+                    TextureAtlasPacker.Placement b = page.get(j);
+                    if (b.y() < a.y() + a.height() && a.y() < b.y() + b.height()) {
+                        fail("overlapping placements on page " + a.page());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.voxelbridge.export.texture;
+
+import com.voxelbridge.config.ExportRuntimeConfig.AtlasPacker;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link AtlasTileDedup} with companions served from a map in place of the export context's sprite
+ * cache, then packed the way {@code TextureAtlasManager} packs: one placement per group, shared by
+ * every tile in it.
+ */
+class AtlasTileDedupTest {
+
+    private record Tile(String spriteKey, int tintIndex, BufferedImage image, int pad) implements AtlasTileDedup.Tile {}
+
+    private final Map<String, BufferedImage> companions = new HashMap<>();
+
+    @Test
+    void aliasedSpritesShareOnePlacement() throws IOException {
+        Tile stone = new Tile("stone", 0, solid(16, 16, 0xFF7F7F7F, 1), 0);
+        Tile stoneCopy = new Tile("stone_copy", 0, solid(16, 16, 0xFF7F7F7F, 1), 0);
+        Tile overlay = new Tile("grass_overlay", 0, solid(16, 16, 0x00000000, 0), 0);
+        Tile overlayTinted = new Tile("grass_overlay", 1, solid(16, 16, 0x00000000, 0), 0);
+        Tile dirt = new Tile("dirt", 0, solid(16, 16, 0xFF866043, 1), 0);
+        List<Tile> tiles = List.of(dirt, overlay, overlayTinted, stone, stoneCopy);
+
+        Map<Tile, List<Tile>> groups = AtlasTileDedup.group(tiles, companions::get);
+
+        assertEquals(3, groups.size());
+        assertEquals(List.of(stone, stoneCopy), groups.get(stone));
+        assertEquals(List.of(overlay, overlayTinted), groups.get(overlay));
+        assertEquals(List.of(dirt), groups.get(dirt));
+
+        Map<Tile, TextureAtlasPacker.Placement> placed = place(groups);
+        assertSame(placed.get(stone), placed.get(stoneCopy));
+        assertSame(placed.get(overlay), placed.get(overlayTinted));
+        assertNotEquals(rect(placed.get(stone)), rect(placed.get(dirt)));
+        assertNotEquals(rect(placed.get(stone)), rect(placed.get(overlay)));
+    }
+
+    @Test
+    void differentCompanionsKeepEqualTilesApart() throws IOException {
+        BufferedImage pixels = solid(16, 16, 0xFF5A5A5A, 3);
+        Tile ore = new Tile("ore", 0, pixels, 0);
+        Tile oreRecolour = new Tile("ore_recolour", 0, copy(pixels), 0);
+        Tile oreFlat = new Tile("ore_flat", 0, copy(pixels), 0);
+        Tile oreShiny = new Tile("ore_shiny", 0, copy(pixels), 0);
+        Tile oreTwin = new Tile("ore_twin", 0, copy(pixels), 0);
+        // Same normal map, different specular; a twin with both companions equal to ore's
+        companions.put("ore_n", solid(16, 16, 0xFF8080FF, 2));
+        companions.put("ore_s", solid(16, 16, 0x00200000, 0));
+        companions.put("ore_recolour_n", solid(16, 16, 0xFF8080FF, 2));
+        companions.put("ore_recolour_s", solid(16, 16, 0x00FF0000, 0));
+        companions.put("ore_shiny_n", solid(16, 16, 0xFF8080FF, 2));
+        companions.put("ore_twin_n", solid(16, 16, 0xFF8080FF, 2));
+        companions.put("ore_twin_s", solid(16, 16, 0x00200000, 0));
+        List<Tile> tiles = List.of(ore, oreFlat, oreRecolour, oreShiny, oreTwin);
+
+        Map<Tile, List<Tile>> groups = AtlasTileDedup.group(tiles, companions::get);
+
+        // ore_flat has no companions, ore_shiny only a normal map
+        assertEquals(4, groups.size());
+        assertEquals(List.of(ore, oreTwin), groups.get(ore));
+        assertEquals(List.of(oreFlat), groups.get(oreFlat));
+        assertEquals(List.of(oreRecolour), groups.get(oreRecolour));
+        assertEquals(List.of(oreShiny), groups.get(oreShiny));
+
+        Map<Tile, TextureAtlasPacker.Placement> placed = place(groups);
+        assertSame(placed.get(ore), placed.get(oreTwin));
+        assertNotEquals(rect(placed.get(ore)), rect(placed.get(oreRecolour)));
+        assertNotEquals(rect(placed.get(ore)), rect(placed.get(oreFlat)));
+    }
+
+    @Test
+    void paddingAndPixelsMustMatch() {
+        BufferedImage pixels = solid(18, 18, 0xFFC8B478, 5);
+        Tile sand = new Tile("sand", 0, pixels, 1);
+        Tile sandUnpadded = new Tile("sand_alt", 0, copy(pixels), 0);
+        BufferedImage changed = copy(pixels);
+        changed.setRGB(17, 17, 0xFFC8B479);
+        Tile sandOffByOne = new Tile("sand_dark", 0, changed, 1);
+
+        Map<Tile, List<Tile>> groups = AtlasTileDedup.group(List.of(sand, sandUnpadded, sandOffByOne), companions::get);
+
+        assertEquals(3, groups.size());
+    }
+
+    /**
+     * Packs one tile per group and hands its placement to the whole group.
+     */
+    private static Map<Tile, TextureAtlasPacker.Placement> place(Map<Tile, List<Tile>> groups) throws IOException {
+        TextureAtlasPacker packer = new TextureAtlasPacker(64, false, AtlasPacker.MAXRECTS);
+        Map<String, Tile> byKey = new HashMap<>();
+        int counter = 0;
+        for (Tile head : groups.keySet()) {
+            String key = head.spriteKey() + "#t" + head.tintIndex() + "#" + counter++;
+            byKey.put(key, head);
+            packer.addTexture(key, head.image());
+        }
+        Map<Tile, TextureAtlasPacker.Placement> placed = new HashMap<>();
+        for (Map.Entry<String, TextureAtlasPacker.Placement> e : packer.layout().placements().entrySet()) {
+            for (Tile tile : groups.get(byKey.get(e.getKey()))) {
+                placed.put(tile, e.getValue());
+            }
+        }
+        assertEquals(groups.values().stream().mapToInt(List::size).sum(), placed.size());
+        return placed;
+    }
+
+    private static List<Integer> rect(TextureAtlasPacker.Placement p) {
+        return List.of(p.page(), p.x(), p.y(), p.width(), p.height());
+    }
+
+    /**
+     * Solid colour with a diagonal of {@code mark} so images of equal size and colour can differ.
+     */
+    private static BufferedImage solid(int w, int h, int argb, int mark) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                image.setRGB(x, y, x == y ? argb ^ mark : argb);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage out = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        out.setRGB(0, 0, image.getWidth(), image.getHeight(),
+            image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()), 0, image.getWidth());
+        return out;
+    }
+}
@@ -0,0 +1,123 @@
+package com.voxelbridge.export.texture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Round trips through {@link ParallelPngWriter} and {@link ImageIO#read}, compared pixel for pixel.
+ * Sizes include odd widths and heights that are not a multiple of the writer's block height, so the
+ * last block is partial and the dictionary window straddles block boundaries.
+ */
+class ParallelPngWriterTest {
+
+    // {width, height}: single block, several blocks with a partial last one, one-pixel-wide strips
+    private static final int[][] SIZES = {
+        {1, 1}, {3, 7}, {17, 33}, {333, 2000}, {1001, 700}, {1, 5000}, {4097, 130}
+    };
+
+    private static Path dir;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        dir = Files.createTempDirectory("voxelbridge-png");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void randomImagesRoundTrip() throws IOException {
+        Random random = new Random(46);
+        for (int[] size : SIZES) {
+            BufferedImage image = randomImage(random, size[0], size[1], BufferedImage.TYPE_INT_ARGB);
+            assertRoundTrip(image, image, "random " + size[0] + "x" + size[1]);
+        }
+    }
+
+    @Test
+    void smoothImageRoundTrips() throws IOException {
+        // Gradients make every filter type win on some rows
+        BufferedImage image = new BufferedImage(515, 1500, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, ((x * 3 + y) & 0xFF) << 24 | (x & 0xFF) << 16 | (y & 0xFF) << 8 | ((x ^ y) & 0xFF));
+            }
+        }
+        assertRoundTrip(image, image, "gradient");
+    }
+
+    @Test
+    void subimagesAndOtherLayoutsUseTheirOwnPixels() throws IOException {
+        Random random = new Random(4646);
+        BufferedImage parent = randomImage(random, 301, 257, BufferedImage.TYPE_INT_ARGB);
+        // Offset into the parent's array
+        assertRoundTrip(parent.getSubimage(13, 29, 177, 101), null, "offset subimage");
+        // Starts at the array origin but rows are the parent's width apart
+        assertRoundTrip(parent.getSubimage(0, 0, 150, 257), null, "narrow subimage");
+
+        assertRoundTrip(randomImage(random, 129, 65, BufferedImage.TYPE_INT_ARGB_PRE), null, "premultiplied");
+        assertRoundTrip(randomImage(random, 99, 45, BufferedImage.TYPE_4BYTE_ABGR), null, "4-byte ABGR");
+    }
+
+    @Test
+    void streamedRowsRoundTrip() throws IOException {
+        Random random = new Random(460);
+        int w = 777;
+        int h = 1999;
+        BufferedImage image = randomImage(random, w, h, BufferedImage.TYPE_INT_ARGB);
+        Path file = dir.resolve("streamed.png");
+        try (ParallelPngWriter writer = ParallelPngWriter.open(file, w, h)) {
+            int row = 0;
+            while (row < h) {
+                int rows = Math.min(h - row, 1 + random.nextInt(400));
+                writer.writeRows(image.getRGB(0, row, w, rows, null, 0, w), 0, rows);
+                row += rows;
+            }
+            writer.finish();
+        }
+        assertPixels(image, ImageIO.read(file.toFile()), "streamed");
+    }
+
+    private static void assertRoundTrip(BufferedImage image, BufferedImage expected, String name) throws IOException {
+        Path file = dir.resolve(name.replace(' ', '_') + ".png");
+        ParallelPngWriter.write(image, file);
+        assertPixels(expected != null ? expected : image, ImageIO.read(file.toFile()), name);
+    }
+
+    private static void assertPixels(BufferedImage expected, BufferedImage actual, String name) {
+        int w = expected.getWidth();
+        int h = expected.getHeight();
+        assertEquals(w, actual.getWidth(), name + " width");
+        assertEquals(h, actual.getHeight(), name + " height");
+        assertArrayEquals(expected.getRGB(0, 0, w, h, null, 0, w), actual.getRGB(0, 0, w, h, null, 0, w), name);
+    }
+
+    private static BufferedImage randomImage(Random random, int w, int h, int type) {
+        BufferedImage image = new BufferedImage(w, h, type);
+        int[] argb = new int[w * h];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = random.nextInt();
+        }
+        image.setRGB(0, 0, w, h, argb, 0, w);
+        return image;
+    }
+}
@@ -0,0 +1,70 @@
+package com.voxelbridge.export.texture;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * NativeImage pixel conversion: the ABGR to ARGB swizzle on synthetic pixels, and the bulk
+ * native read against pixels set one by one.
+ */
+class TextureLoaderTest {
+
+    @Test
+    void swizzleSwapsRedAndBlue() {
+        int[] abgr = {0x00000000, 0xFFFFFFFF, 0xFF0000FF, 0xFFFF0000, 0x8000FF00, 0x80112233, 0x01020304};
+        int[] argb = {0x00000000, 0xFFFFFFFF, 0xFFFF0000, 0xFF0000FF, 0x8000FF00, 0x80332211, 0x01040302};
+        int[] out = new int[abgr.length];
+        TextureLoader.swizzleAbgrToArgb(abgr, out, abgr.length);
+        assertArrayEquals(argb, out);
+    }
+
+    @Test
+    void swizzleMatchesPerChannelConversion() {
+        Random random = new Random(49);
+        // Odd length so a vectorised loop also runs its scalar tail
+        int[] abgr = new int[1027];
+        for (int i = 0; i < abgr.length; i++) {
+            abgr[i] = random.nextInt();
+        }
+        int[] out = new int[abgr.length];
+        TextureLoader.swizzleAbgrToArgb(abgr, out, abgr.length);
+        for (int i = 0; i < abgr.length; i++) {
+            int c = abgr[i];
+            int a = c >>> 24, b = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, r = c & 0xFF;
+            assertEquals((a << 24) | (r << 16) | (g << 8) | b, out[i], "pixel " + i);
+        }
+
+        // In place, and only the first count pixels
+        int[] inPlace = abgr.clone();
+        TextureLoader.swizzleAbgrToArgb(inPlace, inPlace, 1000);
+        for (int i = 0; i < abgr.length; i++) {
+            assertEquals(i < 1000 ? out[i] : abgr[i], inPlace[i], "pixel " + i);
+        }
+    }
+
+    @Test
+    void nativeImageConvertsToArgb() {
+        Random random = new Random(490);
+        int w = 37;
+        int h = 19;
+        int[] expected = new int[w * h];
+        try (NativeImage image = new NativeImage(NativeImage.Format.RGBA, w, h, false)) {
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    int abgr = random.nextInt();
+                    image.setPixelRGBA(x, y, abgr);
+                    expected[y * w + x] = (abgr & 0xFF00FF00) | ((abgr & 0xFF) << 16) | ((abgr >>> 16) & 0xFF);
+                }
+            }
+            BufferedImage converted = TextureLoader.fromNativeImage(image);
+            assertEquals(BufferedImage.TYPE_INT_ARGB, converted.getType());
+            assertArrayEquals(expected, converted.getRGB(0, 0, w, h, null, 0, w));
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.voxelbridge.export.texture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The persistent tile cache against on-disk state left by earlier runs: key stability, damaged
+ * tile files, source indexes for other fingerprints and LRU eviction on close.
+ */
+class TextureTileCacheTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    private static Path root;
+    private static int dirs;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        root = Files.createTempDirectory("voxelbridge-tile-cache");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Test
+    void tileKeysAreStableAcrossRuns() {
+        // Tiles written by earlier builds are only found again if these never change
+        assertEquals(0xFFE1_4FF0_E443_C193L, TextureTileCache.tileKey(0L, 0L, 0, 0, TextureTileCache.Channel.ALBEDO));
+        assertEquals(0x9381_19FD_80B6_731AL, TextureTileCache.tileKey(0x1234_5678_9ABC_DEF0L, 0L, 0xFF7FB238, 4, TextureTileCache.Channel.ALBEDO));
+        assertEquals(0x72BC_EB9F_B08D_80D5L, TextureTileCache.tileKey(0x1234_5678_9ABC_DEF0L, 0x0FED_CBA9_8765_4321L, -1, 16, TextureTileCache.Channel.NORMAL));
+    }
+
+    @Test
+    void tileKeysSeparateEveryInput() {
+        Set<Long> keys = new HashSet<>();
+        int count = 0;
+        for (long source : new long[]{1, 2}) {
+            for (long mask : new long[]{0, 1}) {
+                for (int tint : new int[]{-1, 0xFF7FB238, 0}) {
+                    for (int padding : new int[]{0, 4, 16}) {
+                        for (TextureTileCache.Channel channel : TextureTileCache.Channel.values()) {
+                            keys.add(TextureTileCache.tileKey(source, mask, tint, padding, channel));
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(count, keys.size());
+    }
+
+    @Test
+    void pixelHashDependsOnPixelsAndShapeOnly() {
+        BufferedImage argb = randomImage(new Random(39), 8, 4);
+        BufferedImage copy = new BufferedImage(8, 4, BufferedImage.TYPE_4BYTE_ABGR);
+        copy.setRGB(0, 0, 8, 4, argb.getRGB(0, 0, 8, 4, null, 0, 8), 0, 8);
+        assertEquals(TextureTileCache.pixelHash(argb), TextureTileCache.pixelHash(copy));
+        assertTrue(TextureTileCache.samePixels(argb, copy));
+
+        BufferedImage transposed = new BufferedImage(4, 8, BufferedImage.TYPE_INT_ARGB);
+        transposed.setRGB(0, 0, 4, 8, argb.getRGB(0, 0, 8, 4, null, 0, 8), 0, 4);
+        assertNotEquals(TextureTileCache.pixelHash(argb), TextureTileCache.pixelHash(transposed));
+        assertFalse(TextureTileCache.samePixels(argb, transposed));
+
+        copy.setRGB(7, 3, copy.getRGB(7, 3) ^ 1);
+        assertNotEquals(TextureTileCache.pixelHash(argb), TextureTileCache.pixelHash(copy));
+        assertFalse(TextureTileCache.samePixels(argb, copy));
+    }
+
+    @Test
+    void tilesRoundTrip() throws IOException {
+        TextureTileCache cache = TextureTileCache.open(newRoot(), 1L, 64 * MB);
+        BufferedImage tile = randomImage(new Random(390), 20, 12);
+        long key = TextureTileCache.tileKey(TextureTileCache.pixelHash(tile), 0, -1, 4, TextureTileCache.Channel.ALBEDO);
+        assertFalse(cache.contains(key));
+        assertNull(cache.get(key));
+
+        cache.put(key, tile);
+        assertTrue(cache.contains(key));
+        BufferedImage read = cache.get(key);
+        assertNotNull(read);
+        assertTrue(TextureTileCache.samePixels(tile, read));
+        cache.close();
+    }
+
+    @Test
+    void damagedTilesAreDroppedAsMisses() throws IOException {
+        TextureTileCache cache = TextureTileCache.open(newRoot(), 1L, 64 * MB);
+        Random random = new Random(3900);
+
+        // Truncated mid-pixel data, as after a crash during an unsynced write
+        long truncated = storeTile(cache, randomImage(random, 16, 16), 1);
+        try (FileChannel channel = FileChannel.open(cache.tilePath(truncated), StandardOpenOption.WRITE)) {
+            channel.truncate(16 + 100);
+        }
+        assertMissAndDeleted(cache, truncated);
+
+        // Shorter than the header
+        long empty = storeTile(cache, randomImage(random, 4, 4), 2);
+        Files.write(cache.tilePath(empty), new byte[5]);
+        assertMissAndDeleted(cache, empty);
+
+        // Wrong magic
+        long foreign = storeTile(cache, randomImage(random, 4, 4), 3);
+        overwriteInt(cache.tilePath(foreign), 0, 0x504E4700);
+        assertMissAndDeleted(cache, foreign);
+
+        // Header dimensions that do not match the payload
+        long resized = storeTile(cache, randomImage(random, 4, 4), 4);
+        overwriteInt(cache.tilePath(resized), 8, 5);
+        assertMissAndDeleted(cache, resized);
+
+        // A good tile next to them is unaffected, and a damaged one can be stored again
+        BufferedImage good = randomImage(random, 6, 6);
+        long goodKey = storeTile(cache, good, 5);
+        assertTrue(TextureTileCache.samePixels(good, cache.get(goodKey)));
+        BufferedImage again = randomImage(random, 16, 16);
+        cache.put(truncated, again);
+        assertTrue(TextureTileCache.samePixels(again, cache.get(truncated)));
+        cache.close();
+    }
+
+    @Test
+    void sourceIndexSurvivesOnlyForItsFingerprint() throws IOException {
+        Path dir = newRoot();
+        TextureTileCache first = TextureTileCache.open(dir, 0xAAL, 64 * MB);
+        assertNull(first.indexedSource("minecraft:block/stone"));
+        first.recordSource("minecraft:block/stone", 0x1111L);
+        first.recordSource("minecraft:block/dirt", 0x2222L);
+        first.close();
+        assertTrue(Files.exists(dir.resolve("sources-aa.idx")));
+
+        TextureTileCache same = TextureTileCache.open(dir, 0xAAL, 64 * MB);
+        assertEquals(Long.valueOf(0x1111L), same.indexedSource("minecraft:block/stone"));
+        assertEquals(Long.valueOf(0x2222L), same.indexedSource("minecraft:block/dirt"));
+        same.recordSource("minecraft:block/sand", 0x3333L);
+        same.close();
+
+        // Different packs or settings: the old index is deleted, not reused
+        TextureTileCache other = TextureTileCache.open(dir, 0xBBL, 64 * MB);
+        assertFalse(Files.exists(dir.resolve("sources-aa.idx")));
+        assertNull(other.indexedSource("minecraft:block/stone"));
+        other.close();
+        assertTrue(Files.exists(dir.resolve("sources-bb.idx")));
+
+        // Back to the first fingerprint starts from an empty index
+        TextureTileCache back = TextureTileCache.open(dir, 0xAAL, 64 * MB);
+        assertNull(back.indexedSource("minecraft:block/sand"));
+        back.close();
+    }
+
+    @Test
+    void corruptSourceIndexStartsEmpty() throws IOException {
+        Path dir = newRoot();
+        TextureTileCache cache = TextureTileCache.open(dir, 0xCCL, 64 * MB);
+        cache.recordSource("minecraft:block/stone", 0x1111L);
+        cache.close();
+
+        Path index = dir.resolve("sources-cc.idx");
+        byte[] bytes = Files.readAllBytes(index);
+        Files.write(index, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+        TextureTileCache truncated = TextureTileCache.open(dir, 0xCCL, 64 * MB);
+        assertNull(truncated.indexedSource("minecraft:block/stone"));
+        truncated.close();
+
+        Files.write(index, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        TextureTileCache foreign = TextureTileCache.open(dir, 0xCCL, 64 * MB);
+        assertNull(foreign.indexedSource("minecraft:block/stone"));
+        foreign.close();
+    }
+
+    @Test
+    void closeEvictsLeastRecentlyUsedTiles() throws IOException {
+        Path dir = newRoot();
+        // 64x64 tiles are 16 KB + header; ten of them exceed a 128 KB limit
+        long limit = 128 * 1024;
+        TextureTileCache writer = TextureTileCache.open(dir, 1L, limit);
+        Random random = new Random(39000);
+        long[] keys = new long[10];
+        long base = System.currentTimeMillis() - 3_600_000L;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = storeTile(writer, randomImage(random, 64, 64), i);
+            // Tile i was last used i minutes after base
+            Files.setLastModifiedTime(writer.tilePath(keys[i]), FileTime.fromMillis(base + i * 60_000L));
+        }
+
+        // A later build reads the two oldest tiles, which makes them the most recent
+        TextureTileCache reader = TextureTileCache.open(dir, 1L, limit);
+        assertNotNull(reader.get(keys[0]));
+        assertNotNull(reader.get(keys[1]));
+        reader.close();
+
+        long total = 0;
+        int kept = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (reader.contains(keys[i])) {
+                total += Files.size(reader.tilePath(keys[i]));
+                kept++;
+            }
+        }
+        assertTrue(total <= limit * 0.9, "cache still holds " + total + " bytes");
+        assertTrue(reader.contains(keys[0]), "recently read tile evicted");
+        assertTrue(reader.contains(keys[1]), "recently read tile evicted");
+        assertFalse(reader.contains(keys[2]), "oldest unused tile kept");
+        // Eviction goes strictly by age: the survivors besides 0 and 1 are the newest ones
+        for (int i = 2; i < keys.length; i++) {
+            assertEquals(i >= keys.length - (kept - 2), reader.contains(keys[i]), "tile " + i);
+        }
+    }
+
+    @Test
+    void closeKeepsCacheUnderLimitIntact() throws IOException {
+        Path dir = newRoot();
+        TextureTileCache cache = TextureTileCache.open(dir, 1L, 64 * MB);
+        Random random = new Random(390000);
+        long[] keys = new long[5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = storeTile(cache, randomImage(random, 32, 32), i);
+        }
+        cache.close();
+        for (long key : keys) {
+            assertTrue(cache.contains(key));
+        }
+    }
+
+    private static long storeTile(TextureTileCache cache, BufferedImage image, int tint) {
+        long key = TextureTileCache.tileKey(TextureTileCache.pixelHash(image), 0, tint, 0, TextureTileCache.Channel.ALBEDO);
+        cache.put(key, image);
+        assertTrue(cache.contains(key));
+        return key;
+    }
+
+    private static void assertMissAndDeleted(TextureTileCache cache, long key) {
+        assertNull(cache.get(key));
+        assertFalse(cache.contains(key), "damaged tile left on disk");
+    }
+
+    private static void overwriteInt(Path file, int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), offset);
+        }
+    }
+
+    private static Path newRoot() throws IOException {
+        return Files.createDirectories(root.resolve("cache" + dirs++));
+    }
+
+    private static BufferedImage randomImage(Random random, int w, int h) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        int[] argb = new int[w * h];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = random.nextInt();
+        }
+        image.setRGB(0, 0, w, h, argb, 0, w);
+        return image;
+    }
+}
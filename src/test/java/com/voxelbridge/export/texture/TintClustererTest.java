@@ -0,0 +1,147 @@
+package com.voxelbridge.export.texture;
+
+import com.voxelbridge.export.ExportContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TintClusterer} on tint atlases filled the way {@code TextureAtlasManager.registerTint}
+ * fills them: the default tint in slot 0, one slot per new tint, and tints past the slot limit
+ * sharing slot 0.
+ */
+class TintClustererTest {
+
+    private static final int DEFAULT = 0xFFFFFF;
+
+    @Test
+    void slotZeroKeepsDefaultTint() {
+        // Near-white tints cluster with the default; a lower RGB value must not take over slot 0
+        ExportContext.TintAtlas atlas = atlas(64, DEFAULT, 0xFEFEFE, 0xFDFFFE, 0x79C05A, 0x7AC05B);
+        TintClusterer.Result result = TintClusterer.cluster(atlas, 2.0, 64);
+
+        assertNotNull(result);
+        assertEquals(Integer.valueOf(DEFAULT), atlas.indexToTint.get(0));
+        assertEquals(Integer.valueOf(0), atlas.tintToIndex.get(DEFAULT));
+        assertEquals(Integer.valueOf(0), atlas.tintToIndex.get(0xFEFEFE));
+        assertEquals(Integer.valueOf(0), atlas.tintToIndex.get(0xFDFFFE));
+        assertEquals(2, result.slots());
+    }
+
+    @Test
+    void slotZeroKeepsDefaultTintWhenOverflowedTintsShareIt() {
+        // Only two slots were handed out; the rest were folded into slot 0 by registerTint
+        ExportContext.TintAtlas atlas = atlas(2, DEFAULT, 0x48B518, 0x102030, 0x000000, 0x203040);
+        TintClusterer.Result result = TintClusterer.cluster(atlas, 0.0, 64);
+
+        assertNotNull(result);
+        assertEquals(5, result.tints());
+        assertEquals(Integer.valueOf(DEFAULT), atlas.indexToTint.get(0));
+        assertEquals(Integer.valueOf(0), atlas.tintToIndex.get(DEFAULT));
+    }
+
+    @Test
+    void everyTintMapsWithinMaxError() {
+        Random random = new Random(45);
+        int[] tints = new int[400];
+        tints[0] = DEFAULT;
+        // Biome blend steps: a few base colours with small per-channel offsets
+        int[] bases = {0x79C05A, 0x91BD59, 0x59C93C, 0x6A7039, 0x3F76E4};
+        for (int i = 1; i < tints.length; i++) {
+            tints[i] = jitter(bases[random.nextInt(bases.length)], random, 4);
+        }
+        ExportContext.TintAtlas atlas = atlas(4096, tints);
+        int distinct = atlas.tintToIndex.size();
+        TintClusterer.Result result = TintClusterer.cluster(atlas, 2.0, 4096);
+
+        assertNotNull(result);
+        assertEquals(distinct, result.tints());
+        assertTrue(result.slots() < distinct, "nothing merged");
+        assertTrue(result.maxError() <= 2.0 + 1e-6, "maxError " + result.maxError() + " above threshold");
+        assertMapping(atlas, result);
+    }
+
+    @Test
+    void radiusDoublesUntilClustersFitMaxSlots() {
+        Random random = new Random(450);
+        int[] tints = new int[300];
+        tints[0] = DEFAULT;
+        for (int i = 1; i < tints.length; i++) {
+            tints[i] = random.nextInt(0x1000000);
+        }
+        ExportContext.TintAtlas atlas = atlas(4096, tints);
+        TintClusterer.Result result = TintClusterer.cluster(atlas, 1.0, 8);
+
+        assertNotNull(result);
+        assertTrue(result.slots() <= 8, "slots " + result.slots());
+        assertTrue(result.maxError() > 1.0, "radius never grew");
+        assertMapping(atlas, result);
+        assertEquals(Integer.valueOf(DEFAULT), atlas.indexToTint.get(0));
+    }
+
+    @Test
+    void nullWhenNothingNeedsMerging() {
+        // Tints far apart, no overflow
+        ExportContext.TintAtlas spread = atlas(64, DEFAULT, 0xFF0000, 0x00FF00, 0x0000FF);
+        Map<Integer, Integer> before = new HashMap<>(spread.tintToIndex);
+        assertNull(TintClusterer.cluster(spread, 2.0, 64));
+        assertEquals(before, spread.tintToIndex);
+        assertEquals(4, spread.nextIndex.get());
+
+        // Merging off and every tint has its own slot
+        assertNull(TintClusterer.cluster(atlas(64, DEFAULT, 0xFEFEFE), 0.0, 64));
+        // A single tint
+        assertNull(TintClusterer.cluster(atlas(64, DEFAULT), 2.0, 64));
+    }
+
+    /**
+     * Every tint resolves to a slot below the reported count, and that slot's tint is no
+     * further from it than the reported error.
+     */
+    private static void assertMapping(ExportContext.TintAtlas atlas, TintClusterer.Result result) {
+        assertEquals(result.slots(), atlas.nextIndex.get());
+        assertEquals(result.slots(), atlas.indexToTint.size());
+        for (Map.Entry<Integer, Integer> e : atlas.tintToIndex.entrySet()) {
+            int slot = e.getValue();
+            assertTrue(slot >= 0 && slot < result.slots(), "slot " + slot + " out of range");
+            double d = TintClusterer.deltaE(e.getKey(), atlas.indexToTint.get(slot));
+            assertTrue(d <= result.maxError() + 1e-6,
+                String.format("tint %06X is %.3f from its slot tint, maxError %.3f", e.getKey(), d, result.maxError()));
+        }
+    }
+
+    private static ExportContext.TintAtlas atlas(int slotLimit, int... tints) {
+        ExportContext.TintAtlas atlas = new ExportContext.TintAtlas();
+        for (int tint : tints) {
+            if (atlas.tintToIndex.containsKey(tint)) {
+                continue;
+            }
+            int slot = atlas.nextIndex.get();
+            if (slot < slotLimit) {
+                atlas.indexToTint.put(slot, tint);
+                atlas.nextIndex.incrementAndGet();
+                atlas.tintToIndex.put(tint, slot);
+            } else {
+                atlas.tintToIndex.put(tint, 0);
+            }
+        }
+        return atlas;
+    }
+
+    private static int jitter(int rgb, Random random, int range) {
+        int out = 0;
+        for (int shift = 16; shift >= 0; shift -= 8) {
+            int c = (rgb >> shift) & 0xFF;
+            c = Math.max(0, Math.min(255, c + random.nextInt(2 * range + 1) - range));
+            out |= c << shift;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,151 @@
+package com.voxelbridge.export.util.geometry;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.SpriteContents;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.metadata.animation.FrameSize;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceMetadata;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation-rate benchmark for the per-quad extraction path: bytes allocated per quad by
+ * {@link VertexExtractor#extractFromQuad} into a {@link VertexScratch} plus
+ * {@link GeometryUtil#computePositionHash}, next to the previous path (fresh arrays per quad and a
+ * boxed {@code Integer[]} sort), measured with the thread allocation counter.
+ */
+class VertexExtractorAllocationTest {
+
+    private static final int QUADS = 64;
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 20_000;
+
+    private static NativeImage image;
+    private static TextureAtlasSprite sprite;
+    private static BakedQuad[] quads;
+
+    // Keeps results reachable so the JIT cannot drop the measured work
+    private static long sink;
+    private static final Object[] retained = new Object[QUADS];
+
+    @BeforeAll
+    static void setUp() {
+        image = new NativeImage(16, 16, false);
+        SpriteContents contents = new SpriteContents(ResourceLocation.withDefaultNamespace("test"),
+            new FrameSize(16, 16), image, ResourceMetadata.EMPTY);
+        sprite = new TextureAtlasSprite(ResourceLocation.withDefaultNamespace("textures/atlas/blocks.png"),
+            contents, 256, 256, 16, 32) {};
+
+        Random random = new Random(40);
+        quads = new BakedQuad[QUADS];
+        for (int q = 0; q < QUADS; q++) {
+            int[] vertices = new int[32];
+            for (int i = 0; i < 4; i++) {
+                int base = i * 8;
+                vertices[base] = Float.floatToRawIntBits(random.nextFloat());
+                vertices[base + 1] = Float.floatToRawIntBits(random.nextFloat());
+                vertices[base + 2] = Float.floatToRawIntBits(random.nextFloat());
+                vertices[base + 3] = 0xFFFFFFFF;
+                vertices[base + 4] = Float.floatToRawIntBits(sprite.getU0() + random.nextFloat() * (sprite.getU1() - sprite.getU0()));
+                vertices[base + 5] = Float.floatToRawIntBits(sprite.getV0() + random.nextFloat() * (sprite.getV1() - sprite.getV0()));
+            }
+            quads[q] = new BakedQuad(vertices, -1, Direction.UP, sprite, true);
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        image.close();
+    }
+
+    @Test
+    void scratchPathDoesNotAllocatePerQuad() {
+        VertexScratch scratch = new VertexScratch();
+        BlockPos pos = new BlockPos(100, 64, -200);
+        runScratch(scratch, pos, WARMUP_ROUNDS);
+        runLegacy(pos, WARMUP_ROUNDS);
+
+        long before = allocatedBytes();
+        runScratch(scratch, pos, MEASURED_ROUNDS);
+        double scratchBytes = (double) (allocatedBytes() - before) / ((long) MEASURED_ROUNDS * QUADS);
+
+        before = allocatedBytes();
+        runLegacy(pos, MEASURED_ROUNDS);
+        double legacyBytes = (double) (allocatedBytes() - before) / ((long) MEASURED_ROUNDS * QUADS);
+
+        assertTrue(scratchBytes < 1.0, String.format(
+            "allocated bytes/quad: scratch=%.2f legacy=%.2f", scratchBytes, legacyBytes));
+    }
+
+    @Test
+    void positionHashMatchesBoxedSort() {
+        VertexScratch scratch = new VertexScratch();
+        BlockPos pos = new BlockPos(-7, 12, 33);
+        for (BakedQuad quad : quads) {
+            VertexExtractor.extractFromQuad(quad, pos, sprite, 0.5, 0, -0.5, null, scratch);
+            assertEquals(legacyPositionHash(scratch.positions), GeometryUtil.computePositionHash(scratch.positions));
+        }
+    }
+
+    private static void runScratch(VertexScratch scratch, BlockPos pos, int rounds) {
+        long acc = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (BakedQuad quad : quads) {
+                VertexExtractor.extractFromQuad(quad, pos, sprite, 0.5, 0, -0.5, null, scratch);
+                acc += GeometryUtil.computePositionHash(scratch.positions);
+            }
+        }
+        sink += acc;
+    }
+
+    private static void runLegacy(BlockPos pos, int rounds) {
+        long acc = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (int q = 0; q < QUADS; q++) {
+                VertexScratch fresh = new VertexScratch();
+                VertexExtractor.extractFromQuad(quads[q], pos, sprite, 0.5, 0, -0.5, null, fresh);
+                acc += legacyPositionHash(fresh.positions);
+                retained[q] = fresh;
+            }
+        }
+        sink += acc;
+    }
+
+    /** The hash as computed before the sorting network: boxed indices sorted with a comparator. */
+    private static long legacyPositionHash(float[] positions) {
+        Integer[] order = {0, 1, 2, 3};
+        Arrays.sort(order, (a, b) -> {
+            int ia = a * 3;
+            int ib = b * 3;
+            int cmpX = Float.compare(positions[ia], positions[ib]);
+            if (cmpX != 0) return cmpX;
+            int cmpY = Float.compare(positions[ia + 1], positions[ib + 1]);
+            if (cmpY != 0) return cmpY;
+            return Float.compare(positions[ia + 2], positions[ib + 2]);
+        });
+        long hash = 1125899906842597L;
+        for (int idx : order) {
+            int pi = idx * 3;
+            hash = 31 * hash + Math.round(positions[pi] * 100f);
+            hash = 31 * hash + Math.round(positions[pi + 1] * 100f);
+            hash = 31 * hash + Math.round(positions[pi + 2] * 100f);
+        }
+        return hash;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}